@@ -26,7 +26,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * We simulate a global frame rate timer similar to FXTimer to avoid creation of threads for each timer call.
- * Used only in headless apps like the seed node.
+ * Every timer gets polled at each frame. Can be selected with UserThread.setTimerClass, by default the
+ * HashedWheelTimer is used in headless apps.
  */
 public class FrameRateTimer implements Timer, Runnable {
     private final Logger log = LoggerFactory.getLogger(FrameRateTimer.class);
@@ -0,0 +1,88 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer based on a global hashed timing wheel. In contrast to the FrameRateTimer it is not polled at each frame, so
+ * scheduling and stopping costs O(1) and the number of active timers does not add CPU load.
+ * Used as default timer in headless apps like the seed node.
+ */
+public class HashedWheelTimer implements Timer {
+    private final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private long interval;
+    private Runnable runnable;
+    private boolean isPeriodically;
+    private volatile boolean stopped;
+
+    // Managed by TimingWheel while holding its lock
+    HashedWheelTimer previous;
+    HashedWheelTimer next;
+    int bucket = -1;
+    long rounds;
+
+    public HashedWheelTimer() {
+    }
+
+    @Override
+    public Timer runLater(Duration delay, Runnable runnable) {
+        this.interval = delay.toMillis();
+        this.runnable = runnable;
+        TimingWheel.add(this, interval);
+        return this;
+    }
+
+    @Override
+    public Timer runPeriodically(Duration interval, Runnable runnable) {
+        this.interval = interval.toMillis();
+        isPeriodically = true;
+        this.runnable = runnable;
+        TimingWheel.add(this, this.interval);
+        return this;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        TimingWheel.remove(this);
+    }
+
+    // Called on the UserThread
+    void onExpired() {
+        if (stopped)
+            return;
+
+        try {
+            if (isPeriodically)
+                TimingWheel.add(this, interval);
+            else
+                stopped = true;
+
+            runnable.run();
+        } catch (Throwable t) {
+            // We do not rethrow as that would skip the other timers expired at the same tick
+            log.error("Error at executing timer", t);
+            stop();
+        }
+    }
+}
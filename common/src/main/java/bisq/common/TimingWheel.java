@@ -0,0 +1,163 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel used by HashedWheelTimer (see Varghese and Lauck, Hashed and Hierarchical Timing Wheels).
+ * <p>
+ * Timers are kept in doubly linked lists in WHEEL_SIZE buckets, each covering TICK_MS. Adding and removing a timer is
+ * O(1). A single daemon thread advances the wheel once per tick and only visits the timers of the current bucket.
+ * Timers which are due are executed in one batch on the UserThread. If there is no timer the thread waits until one
+ * gets added, so an idle wheel does not poll at all.
+ */
+class TimingWheel {
+    private final static Logger log = LoggerFactory.getLogger(TimingWheel.class);
+
+    // Same resolution as the MasterTimer frame interval
+    static final long TICK_MS = 100;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MS);
+    // Must be a power of 2. One round covers 51.2 sec, longer delays get the number of remaining rounds assigned.
+    private static final int WHEEL_SIZE = 512;
+
+    private static final Object lock = new Object();
+    // Each bucket is the head of a doubly linked list of timers
+    private static final HashedWheelTimer[] buckets = new HashedWheelTimer[WHEEL_SIZE];
+    private static long currentTick;
+    private static long nextTickNanos;
+    private static int numTimers;
+    private static Thread thread;
+
+    static void add(HashedWheelTimer timer, long delayMs) {
+        synchronized (lock) {
+            long now = System.nanoTime();
+            if (numTimers == 0) {
+                // We have been idle, so the wheel starts ticking again from now on
+                nextTickNanos = now + TICK_NANOS;
+            }
+
+            // Ticks are counted from the last processed tick, so we add the time which has passed since then to
+            // never execute a timer earlier than requested.
+            long sinceLastTickNanos = Math.max(0, now - (nextTickNanos - TICK_NANOS));
+            long delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs)) + sinceLastTickNanos;
+            long ticks = Math.max(1, (delayNanos + TICK_NANOS - 1) / TICK_NANOS);
+            timer.rounds = (ticks - 1) / WHEEL_SIZE;
+            timer.bucket = (int) ((currentTick + ticks) & (WHEEL_SIZE - 1));
+
+            HashedWheelTimer head = buckets[timer.bucket];
+            timer.previous = null;
+            timer.next = head;
+            if (head != null)
+                head.previous = timer;
+            buckets[timer.bucket] = timer;
+            numTimers++;
+
+            if (thread == null) {
+                thread = new Thread(TimingWheel::run, "TimingWheel");
+                thread.setDaemon(true);
+                thread.start();
+            } else if (numTimers == 1) {
+                lock.notify();
+            }
+        }
+    }
+
+    static void remove(HashedWheelTimer timer) {
+        synchronized (lock) {
+            if (timer.bucket >= 0)
+                unlink(timer);
+        }
+    }
+
+    static int getNumTimers() {
+        synchronized (lock) {
+            return numTimers;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static void run() {
+        while (true) {
+            try {
+                List<HashedWheelTimer> expiredTimers = new ArrayList<>();
+                synchronized (lock) {
+                    while (numTimers == 0)
+                        lock.wait();
+
+                    long sleepNanos = nextTickNanos - System.nanoTime();
+                    if (sleepNanos > 0) {
+                        // Timers added during the wait might have been cancelled or re-anchored the next tick
+                        TimeUnit.NANOSECONDS.timedWait(lock, sleepNanos);
+                        continue;
+                    }
+
+                    currentTick++;
+                    nextTickNanos += TICK_NANOS;
+                    collectExpiredTimers(expiredTimers);
+                }
+
+                if (!expiredTimers.isEmpty())
+                    UserThread.execute(() -> expiredTimers.forEach(HashedWheelTimer::onExpired));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                log.error("Error at TimingWheel tick", t);
+            }
+        }
+    }
+
+    private static void collectExpiredTimers(List<HashedWheelTimer> expiredTimers) {
+        HashedWheelTimer timer = buckets[(int) (currentTick & (WHEEL_SIZE - 1))];
+        while (timer != null) {
+            HashedWheelTimer next = timer.next;
+            if (timer.rounds > 0) {
+                timer.rounds--;
+            } else {
+                unlink(timer);
+                expiredTimers.add(timer);
+            }
+            timer = next;
+        }
+    }
+
+    private static void unlink(HashedWheelTimer timer) {
+        if (timer.previous != null)
+            timer.previous.next = timer.next;
+        else
+            buckets[timer.bucket] = timer.next;
+
+        if (timer.next != null)
+            timer.next.previous = timer.previous;
+
+        timer.previous = null;
+        timer.next = null;
+        timer.bucket = -1;
+        numTimers--;
+    }
+}
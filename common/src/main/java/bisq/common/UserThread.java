@@ -23,6 +23,7 @@ import java.time.Duration;
 
 import java.util.Random;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import java.lang.reflect.InvocationTargetException;
@@ -37,7 +38,7 @@ import lombok.extern.slf4j.Slf4j;
  * For JavaFX it is usually the Platform::RunLater executor, for a headless application it is any single threaded
  * executor.
  * Additionally sets a timer class so JavaFX and headless applications can set different timers (UITimer for JavaFX
- * otherwise we use teh default FrameRateTimer).
+ * otherwise we use the default HashedWheelTimer).
  * <p>
  * Provides also methods for delayed and periodic executions.
  */
@@ -55,13 +56,21 @@ public class UserThread {
     static {
         // If not defined we use same thread as caller thread
         executor = MoreExecutors.directExecutor();
-        timerClass = FrameRateTimer.class;
+        timerClass = HashedWheelTimer.class;
     }
 
     public static void execute(Runnable command) {
         UserThread.executor.execute(command);
     }
 
+    /**
+     * @return The number of tasks waiting for execution or -1 if the executor does not expose its queue.
+     */
+    public static int getQueueSize() {
+        Executor executor = UserThread.executor;
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : -1;
+    }
+
     // Prefer FxTimer if a delay is needed in a JavaFx class (gui module)
     public static Timer runAfterRandomDelay(Runnable runnable, long minDelayInSec, long maxDelayInSec) {
         return UserThread.runAfterRandomDelay(runnable, minDelayInSec, maxDelayInSec, TimeUnit.SECONDS);
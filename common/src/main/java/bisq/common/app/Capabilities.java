@@ -39,7 +39,8 @@ public class Capabilities {
         PROPOSAL,
         BLIND_VOTE,
         ACK_MSG,
-        BSQ_BLOCK
+        BSQ_BLOCK,
+        KEY_SET_SKETCH
     }
 
     // Application need to set supported capabilities at startup
@@ -17,6 +17,7 @@
 
 package bisq.common.crypto;
 
+import org.bitcoinj.core.Sha256Hash;
 import org.bitcoinj.core.Utils;
 
 import com.google.common.base.Charsets;
@@ -72,6 +73,13 @@ public class Hash {
         return Utils.sha256hash160(data);
     }
 
+    /**
+     * Calculates RIPEMD160(SHA256(data)) of a range of the array.
+     */
+    public static byte[] getSha256Ripemd160hash(byte[] data, int offset, int length) {
+        return getRipemd160hash(Sha256Hash.hash(data, offset, length));
+    }
+
     /**
      * Calculates RIPEMD160(data).
      */
@@ -17,10 +17,8 @@
 
 package bisq.common.storage;
 
-import bisq.common.UserThread;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
-import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -34,11 +32,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 
-import java.util.Random;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 import lombok.extern.slf4j.Slf4j;
@@ -47,10 +40,8 @@ import lombok.extern.slf4j.Slf4j;
 public class FileManager<T extends PersistableEnvelope> {
     private final File dir;
     private final File storageFile;
-    private final ScheduledThreadPoolExecutor executor;
-    private final AtomicBoolean savePending;
+    private final PersistenceScheduler persistenceScheduler;
     private final long delay;
-    private final Callable<Void> saveFileTask;
     private T persistable;
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final ReentrantLock writeLock = CycleDetectingLockFactory.newInstance(CycleDetectingLockFactory.Policies.THROW).newReentrantLock("writeLock");
@@ -63,30 +54,9 @@ public class FileManager<T extends PersistableEnvelope> {
         this.dir = dir;
         this.storageFile = storageFile;
         this.persistenceProtoResolver = persistenceProtoResolver;
-
-        executor = Utilities.getScheduledThreadPoolExecutor("FileManager", 1, 10, 5);
-
-        // File must only be accessed from the auto-save executor from now on, to avoid simultaneous access.
-        savePending = new AtomicBoolean();
         this.delay = delay;
 
-        saveFileTask = () -> {
-            try {
-                Thread.currentThread().setName("Save-file-task-" + new Random().nextInt(10000));
-                // Runs in an auto save thread.
-                if (!savePending.getAndSet(false)) {
-                    // Some other scheduled request already beat us to it.
-                    return null;
-                }
-                saveNowInternal(persistable);
-            } catch (Throwable e) {
-                log.error("Error during saveFileTask", e);
-            }
-            return null;
-        };
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            UserThread.execute(FileManager.this::shutDown);
-        }, "FileManager.ShutDownHook"));
+        persistenceScheduler = PersistenceScheduler.getInstance();
     }
 
 
@@ -111,10 +81,8 @@ public class FileManager<T extends PersistableEnvelope> {
     public void saveLater(T persistable, long delayInMilli) {
         this.persistable = persistable;
 
-        if (savePending.getAndSet(true))
-            return;   // Already pending.
-
-        executor.schedule(saveFileTask, delayInMilli, TimeUnit.MILLISECONDS);
+        // If a write is pending already it will write the latest persistable
+        persistenceScheduler.scheduleWrite(storageFile, () -> saveNowInternal(this.persistable), delayInMilli);
     }
 
     @SuppressWarnings("unchecked")
@@ -151,18 +119,6 @@ public class FileManager<T extends PersistableEnvelope> {
     }
 
 
-    /**
-     * Shut down auto-saving.
-     */
-    void shutDown() {
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
     public synchronized void removeAndBackupFile(String fileName) throws IOException {
         File corruptedBackupDir = new File(Paths.get(dir.getAbsolutePath(), "backup_of_corrupted_data").toString());
         if (!corruptedBackupDir.exists())
@@ -183,11 +139,15 @@ public class FileManager<T extends PersistableEnvelope> {
 
     private void saveNowInternal(T persistable) {
         long now = System.currentTimeMillis();
-        saveToFile(persistable, dir, storageFile);
-        log.trace("Save {} completed in {} msec", storageFile, System.currentTimeMillis() - now);
+        long numBytes = saveToFile(persistable, dir, storageFile);
+        long duration = System.currentTimeMillis() - now;
+        if (numBytes > 0)
+            persistenceScheduler.onWriteCompleted(storageFile, numBytes, duration);
+        log.trace("Save {} completed in {} msec", storageFile, duration);
     }
 
-    private synchronized void saveToFile(T persistable, File dir, File storageFile) {
+    // Returns the number of bytes written or 0 if it failed
+    private synchronized long saveToFile(T persistable, File dir, File storageFile) {
         File tempFile = null;
         FileOutputStream fileOutputStream = null;
         PrintWriter printWriter = null;
@@ -225,7 +185,9 @@ public class FileManager<T extends PersistableEnvelope> {
             // Close resources before replacing file with temp file because otherwise it causes problems on windows
             // when rename temp file
             fileOutputStream.close();
+            long numBytes = tempFile.length();
             FileUtil.renameFile(tempFile, storageFile);
+            return numBytes;
         } catch (Throwable t) {
             log.error("Error at saveToFile, storageFile=" + storageFile.toString(), t);
         } finally {
@@ -249,5 +211,6 @@ public class FileManager<T extends PersistableEnvelope> {
                 log.error("Cannot close resources." + e.getMessage());
             }
         }
+        return 0;
     }
 }
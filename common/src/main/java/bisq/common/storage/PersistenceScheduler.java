@@ -0,0 +1,230 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import bisq.common.util.Utilities;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Schedules the writes of all FileManager instances on one small thread pool.
+ * <p>
+ * Writes are coalesced per file: As long as a write of a file is pending, further requests for that file do not
+ * schedule another write as the pending write will persist the latest state. The number of fsyncs per second is
+ * limited to avoid that many stores hit the disk at the same moment.
+ * <p>
+ * At shutdown all pending writes are executed once in the order they have been requested. After that the shut down
+ * handlers of stores which don't write through a FileManager are called in the order they have been added.
+ */
+@Slf4j
+public class PersistenceScheduler {
+    private static final int NUM_THREADS = 2;
+    private static final double MAX_FSYNCS_PER_SEC = 20;
+
+    private static PersistenceScheduler instance;
+
+    public static synchronized PersistenceScheduler getInstance() {
+        if (instance == null) {
+            instance = new PersistenceScheduler(NUM_THREADS, MAX_FSYNCS_PER_SEC);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::shutDown, "PersistenceScheduler.ShutDownHook"));
+        }
+        return instance;
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final RateLimiter fsyncRateLimiter;
+    // Pending writes in the order they have been requested. Key is the path of the file.
+    private final Map<String, Runnable> pendingWrites = new LinkedHashMap<>();
+    private final Map<String, StoreMetrics> metricsByFileName = new ConcurrentHashMap<>();
+    private final List<Runnable> shutDownHandlers = new CopyOnWriteArrayList<>();
+    private volatile boolean shutDownStarted;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    PersistenceScheduler(int numThreads, double maxFsyncsPerSec) {
+        executor = Utilities.getScheduledThreadPoolExecutor("PersistenceScheduler", numThreads, numThreads, 60);
+        // Delayed writes get executed by flushAll at shut down
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        fsyncRateLimiter = RateLimiter.create(maxFsyncsPerSec);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Schedules a write of the file. If a write of the file is pending already the request is merged into it, so the
+     * write task must persist the latest state at the time it runs.
+     */
+    public void scheduleWrite(File file, Runnable writeTask, long delayInMilli) {
+        String key = file.getAbsolutePath();
+        synchronized (pendingWrites) {
+            if (pendingWrites.containsKey(key)) {
+                getMetrics(file).numCoalescedWrites.incrementAndGet();
+                return;
+            }
+
+            if (!shutDownStarted)
+                pendingWrites.put(key, writeTask);
+        }
+
+        if (shutDownStarted) {
+            // We do not accept new tasks at the executor anymore, so we write at the caller thread
+            runWriteTask(writeTask);
+        } else {
+            executor.schedule(() -> runPendingWrite(key, true), delayInMilli, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Executes all pending writes at the caller thread in the order they have been requested.
+     */
+    public void flushAll() {
+        List<String> keys;
+        synchronized (pendingWrites) {
+            keys = new ArrayList<>(pendingWrites.keySet());
+        }
+        keys.forEach(key -> runPendingWrite(key, false));
+    }
+
+    /**
+     * Adds a handler which gets called at shutdown after all pending writes have been executed.
+     */
+    public void addShutDownHandler(Runnable shutDownHandler) {
+        shutDownHandlers.add(shutDownHandler);
+    }
+
+    public void shutDown() {
+        shutDownStarted = true;
+        executor.shutdown();
+        flushAll();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        shutDownHandlers.forEach(this::runWriteTask);
+        metricsByFileName.values().forEach(metrics -> log.info(metrics.toString()));
+    }
+
+    public void onWriteCompleted(File file, long numBytes, long durationInMilli) {
+        StoreMetrics metrics = getMetrics(file);
+        metrics.numWrites.incrementAndGet();
+        metrics.bytesWritten.addAndGet(numBytes);
+        metrics.totalWriteTimeInMilli.addAndGet(durationInMilli);
+        metrics.lastWriteTimeInMilli.set(durationInMilli);
+        metrics.maxWriteTimeInMilli.accumulateAndGet(durationInMilli, Math::max);
+    }
+
+    /**
+     * @return The metrics of all stores with the file name as key
+     */
+    public Map<String, StoreMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metricsByFileName);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void runPendingWrite(String key, boolean rateLimited) {
+        Runnable writeTask;
+        synchronized (pendingWrites) {
+            writeTask = pendingWrites.remove(key);
+        }
+        // Null if it has been flushed already
+        if (writeTask == null)
+            return;
+
+        if (rateLimited)
+            fsyncRateLimiter.acquire();
+
+        runWriteTask(writeTask);
+    }
+
+    private void runWriteTask(Runnable writeTask) {
+        try {
+            writeTask.run();
+        } catch (Throwable t) {
+            log.error("Error at write task", t);
+        }
+    }
+
+    private StoreMetrics getMetrics(File file) {
+        return metricsByFileName.computeIfAbsent(file.getName(), StoreMetrics::new);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // StoreMetrics
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    public static class StoreMetrics {
+        private final String fileName;
+        private final AtomicLong numWrites = new AtomicLong();
+        private final AtomicLong numCoalescedWrites = new AtomicLong();
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private final AtomicLong totalWriteTimeInMilli = new AtomicLong();
+        private final AtomicLong lastWriteTimeInMilli = new AtomicLong();
+        private final AtomicLong maxWriteTimeInMilli = new AtomicLong();
+
+        StoreMetrics(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public long getAverageWriteTimeInMilli() {
+            long numWrites = this.numWrites.get();
+            return numWrites > 0 ? totalWriteTimeInMilli.get() / numWrites : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "StoreMetrics{" +
+                    "\n     fileName='" + fileName + '\'' +
+                    ",\n     numWrites=" + numWrites +
+                    ",\n     numCoalescedWrites=" + numCoalescedWrites +
+                    ",\n     bytesWritten=" + bytesWritten +
+                    ",\n     averageWriteTimeInMilli=" + getAverageWriteTimeInMilli() +
+                    ",\n     lastWriteTimeInMilli=" + lastWriteTimeInMilli +
+                    ",\n     maxWriteTimeInMilli=" + maxWriteTimeInMilli +
+                    "\n}";
+        }
+    }
+}
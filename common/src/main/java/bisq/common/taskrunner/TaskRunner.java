@@ -20,14 +20,37 @@ package bisq.common.taskrunner;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import java.lang.reflect.Constructor;
+
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiFunction;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Runs the tasks of a protocol step one after another.
+ * <p>
+ * The tasks are created by factories which get resolved once per task class, so we do not look up the constructor
+ * by reflection for each task. The shared model gets persisted if the runner has to wait for an asynchronous task,
+ * when it has completed and when it has failed, not after each task. Synchronous tasks between those checkpoints
+ * only lead to one write.
+ */
 @Slf4j
 public class TaskRunner<T extends Model> {
+    // Task classes have a constructor with the TaskRunner and the model class of each protocol they are used in.
+    // Key is the model class, then the task class.
+    private static final Map<Class<?>, Map<Class<? extends Task>, BiFunction<TaskRunner, Model, Task>>> TASK_FACTORIES = new ConcurrentHashMap<>();
+
     private final Queue<Class<? extends Task>> tasks = new LinkedBlockingQueue<>();
     private final T sharedModel;
     private final Class<T> sharedModelClass;
@@ -35,6 +58,8 @@ public class TaskRunner<T extends Model> {
     private final ErrorMessageHandler errorMessageHandler;
     private boolean failed = false;
     private boolean isCanceled;
+    // Model has changed since the last persist call
+    private boolean isDirty;
 
     private Class<? extends Task> currentTask;
 
@@ -66,12 +91,17 @@ public class TaskRunner<T extends Model> {
                 try {
                     currentTask = tasks.poll();
                     log.info("Run task: " + currentTask.getSimpleName());
-                    currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
+                    Task task = getTaskFactory(currentTask, sharedModelClass).apply(this, sharedModel);
+                    task.run();
+                    // The task continues asynchronously, so we persist the changes done so far while we wait
+                    if (!task.completed && !failed)
+                        persistIfDirty();
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
                 }
             } else {
+                persistIfDirty();
                 resultHandler.handleResult();
             }
         }
@@ -79,17 +109,75 @@ public class TaskRunner<T extends Model> {
 
     public void cancel() {
         isCanceled = true;
+        persistIfDirty();
     }
 
     void handleComplete() {
         log.trace("Task completed: " + currentTask.getSimpleName());
-        sharedModel.persist();
+        isDirty = true;
         next();
     }
 
     void handleErrorMessage(String errorMessage) {
         log.error("Task failed: " + currentTask.getSimpleName() + " / errorMessage: " + errorMessage);
         failed = true;
+        // The failed task might have changed the model as well
+        isDirty = true;
+        persistIfDirty();
         errorMessageHandler.handleErrorMessage(errorMessage);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void persistIfDirty() {
+        if (isDirty) {
+            isDirty = false;
+            sharedModel.persist();
+        }
+    }
+
+    static BiFunction<TaskRunner, Model, Task> getTaskFactory(Class<? extends Task> taskClass, Class<?> modelClass) {
+        return TASK_FACTORIES.computeIfAbsent(modelClass, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(taskClass, c -> createTaskFactory(c, modelClass));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiFunction<TaskRunner, Model, Task> createTaskFactory(Class<? extends Task> taskClass, Class<?> modelClass) {
+        try {
+            // We generate a lambda calling the constructor, which is as fast as a direct constructor call
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(taskClass, MethodHandles.lookup());
+            MethodHandle constructor = lookup.findConstructor(taskClass,
+                    MethodType.methodType(void.class, TaskRunner.class, modelClass));
+            CallSite callSite = LambdaMetafactory.metafactory(lookup,
+                    "apply",
+                    MethodType.methodType(BiFunction.class),
+                    MethodType.methodType(Object.class, Object.class, Object.class),
+                    constructor,
+                    MethodType.methodType(taskClass, TaskRunner.class, modelClass));
+            return (BiFunction<TaskRunner, Model, Task>) callSite.getTarget().invoke();
+        } catch (Throwable t) {
+            log.warn("Could not create task factory for {}, we use the constructor by reflection. {}",
+                    taskClass.getSimpleName(), t.toString());
+            Constructor<? extends Task> constructor = getConstructor(taskClass, modelClass);
+            return (taskRunner, model) -> {
+                try {
+                    return constructor.newInstance(taskRunner, model);
+                } catch (ReflectiveOperationException e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        }
+    }
+
+    private static Constructor<? extends Task> getConstructor(Class<? extends Task> taskClass, Class<?> modelClass) {
+        try {
+            return taskClass.getDeclaredConstructor(TaskRunner.class, modelClass);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Task " + taskClass.getSimpleName() +
+                    " has no constructor with TaskRunner and " + modelClass.getSimpleName(), e);
+        }
+    }
 }
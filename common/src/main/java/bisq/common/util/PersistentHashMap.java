@@ -0,0 +1,484 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Map backed by a hash array mapped trie (see Bagwell, Ideal Hash Trees) which supports copies in O(1).
+ * <p>
+ * A copy shares all nodes with the original map. Nodes are only changed in place by the map which has created them
+ * after the last copy, all other changes copy the path from the root to the changed entry. So after a copy the costs
+ * of a change are O(log32 n) until the touched nodes are owned again.
+ * <p>
+ * Iterators work on the state at the time they got created, changes of the map do not affect them. Null keys and
+ * null values are not supported. Not thread safe, but a copy can be read from another thread if it is not changed
+ * anymore.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object NOT_FOUND = new Object();
+
+    private Node root;
+    private int size;
+    // Nodes with that owner can be changed in place
+    private Object owner = new Object();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public PersistentHashMap() {
+    }
+
+    public PersistentHashMap(Map<? extends K, ? extends V> map) {
+        putAll(map);
+    }
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return Independent map with the same entries. Runs in O(1).
+     */
+    public PersistentHashMap<K, V> copy() {
+        // The nodes are shared from now on, so this map must not change them in place anymore
+        owner = new Object();
+        return new PersistentHashMap<>(root, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && root != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        if (key == null || root == null)
+            return null;
+
+        Object value = root.find(0, hash(key), key);
+        return value != NOT_FOUND ? (V) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(K key, V value) {
+        checkNotNull(key, "Null keys are not supported");
+        checkNotNull(value, "Null values are not supported");
+        Box box = new Box();
+        Node node = root != null ? root : new BitmapNode(owner, 0, new Object[0]);
+        root = node.put(owner, 0, hash(key), key, value, box);
+        if (box.value == NOT_FOUND)
+            size++;
+        return box.value != NOT_FOUND ? (V) box.value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(Object key) {
+        if (key == null || root == null)
+            return null;
+
+        Box box = new Box();
+        root = root.remove(owner, 0, hash(key), key, box);
+        if (box.value == NOT_FOUND)
+            return null;
+
+        size--;
+        return (V) box.value;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry))
+                    return false;
+
+                Entry<?, ?> entry = (Entry<?, ?>) o;
+                Object value = get(entry.getKey());
+                return value != null && value.equals(entry.getValue());
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                if (!contains(o))
+                    return false;
+
+                PersistentHashMap.this.remove(((Entry<?, ?>) o).getKey());
+                return true;
+            }
+
+            @Override
+            public void clear() {
+                PersistentHashMap.this.clear();
+            }
+        };
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitPos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Node createNode(Object owner, int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = hash(key1);
+        if (hash1 == hash2)
+            return new CollisionNode(owner, hash1, new Object[]{key1, value1, key2, value2});
+
+        Box box = new Box();
+        return new BitmapNode(owner, 0, new Object[0])
+                .put(owner, shift, hash1, key1, value1, box)
+                .put(owner, shift, hash2, key2, value2, box);
+    }
+
+    private static Object[] removePair(Object[] array, int index) {
+        Object[] newArray = new Object[array.length - 2];
+        System.arraycopy(array, 0, newArray, 0, 2 * index);
+        System.arraycopy(array, 2 * (index + 1), newArray, 2 * index, newArray.length - 2 * index);
+        return newArray;
+    }
+
+    // Holds the previous value at put and remove
+    private static class Box {
+        Object value = NOT_FOUND;
+    }
+
+    // The arrays of the nodes hold key/value pairs. If the key is null the value is a child node.
+    private interface Node {
+        Object find(int shift, int hash, Object key);
+
+        Node put(Object owner, int shift, int hash, Object key, Object value, Box previous);
+
+        // Returns null if the node is empty after the removal
+        Node remove(Object owner, int shift, int hash, Object key, Box previous);
+
+        Object[] getArray();
+    }
+
+    private static final class BitmapNode implements Node {
+        private final Object owner;
+        private int bitmap;
+        private Object[] array;
+
+        BitmapNode(Object owner, int bitmap, Object[] array) {
+            this.owner = owner;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = bitPos(hash, shift);
+            if ((bitmap & bit) == 0)
+                return NOT_FOUND;
+
+            int index = index(bit);
+            Object keyOrNull = array[2 * index];
+            Object valueOrNode = array[2 * index + 1];
+            if (keyOrNull == null)
+                return ((Node) valueOrNode).find(shift + BITS, hash, key);
+
+            return key.equals(keyOrNull) ? valueOrNode : NOT_FOUND;
+        }
+
+        @Override
+        public Node put(Object owner, int shift, int hash, Object key, Object value, Box previous) {
+            int bit = bitPos(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) != 0) {
+                Object keyOrNull = array[2 * index];
+                Object valueOrNode = array[2 * index + 1];
+                if (keyOrNull == null) {
+                    Node node = ((Node) valueOrNode).put(owner, shift + BITS, hash, key, value, previous);
+                    return node == valueOrNode ? this : editAndSet(owner, 2 * index + 1, node);
+                }
+
+                if (key.equals(keyOrNull)) {
+                    previous.value = valueOrNode;
+                    return valueOrNode == value ? this : editAndSet(owner, 2 * index + 1, value);
+                }
+
+                Node node = createNode(owner, shift + BITS, keyOrNull, valueOrNode, hash, key, value);
+                BitmapNode editable = editable(owner);
+                editable.array[2 * index] = null;
+                editable.array[2 * index + 1] = node;
+                return editable;
+            }
+
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, 2 * index);
+            newArray[2 * index] = key;
+            newArray[2 * index + 1] = value;
+            System.arraycopy(array, 2 * index, newArray, 2 * (index + 1), array.length - 2 * index);
+            if (this.owner == owner) {
+                bitmap |= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(owner, bitmap | bit, newArray);
+        }
+
+        @Override
+        public Node remove(Object owner, int shift, int hash, Object key, Box previous) {
+            int bit = bitPos(hash, shift);
+            if ((bitmap & bit) == 0)
+                return this;
+
+            int index = index(bit);
+            Object keyOrNull = array[2 * index];
+            Object valueOrNode = array[2 * index + 1];
+            if (keyOrNull == null) {
+                Node node = ((Node) valueOrNode).remove(owner, shift + BITS, hash, key, previous);
+                if (node == valueOrNode)
+                    return this;
+                if (node != null)
+                    return editAndSet(owner, 2 * index + 1, node);
+            } else if (key.equals(keyOrNull)) {
+                previous.value = valueOrNode;
+            } else {
+                return this;
+            }
+
+            if (bitmap == bit)
+                return null;
+
+            if (this.owner == owner) {
+                bitmap ^= bit;
+                array = removePair(array, index);
+                return this;
+            }
+            return new BitmapNode(owner, bitmap ^ bit, removePair(array, index));
+        }
+
+        @Override
+        public Object[] getArray() {
+            return array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private BitmapNode editable(Object owner) {
+            return this.owner == owner ? this : new BitmapNode(owner, bitmap, array.clone());
+        }
+
+        private BitmapNode editAndSet(Object owner, int i, Object value) {
+            BitmapNode editable = editable(owner);
+            editable.array[i] = value;
+            return editable;
+        }
+    }
+
+    // Used for keys with the same hash
+    private static final class CollisionNode implements Node {
+        private final Object owner;
+        private final int hash;
+        private Object[] array;
+
+        CollisionNode(Object owner, int hash, Object[] array) {
+            this.owner = owner;
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int index = indexOf(key);
+            return hash == this.hash && index >= 0 ? array[2 * index + 1] : NOT_FOUND;
+        }
+
+        @Override
+        public Node put(Object owner, int shift, int hash, Object key, Object value, Box previous) {
+            if (hash != this.hash) {
+                // We nest this node in a bitmap node so the new key can be added besides it
+                return new BitmapNode(owner, bitPos(this.hash, shift), new Object[]{null, this})
+                        .put(owner, shift, hash, key, value, previous);
+            }
+
+            int index = indexOf(key);
+            if (index >= 0) {
+                previous.value = array[2 * index + 1];
+                if (previous.value == value)
+                    return this;
+
+                CollisionNode editable = this.owner == owner ? this : new CollisionNode(owner, hash, array.clone());
+                editable.array[2 * index + 1] = value;
+                return editable;
+            }
+
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            if (this.owner == owner) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(owner, hash, newArray);
+        }
+
+        @Override
+        public Node remove(Object owner, int shift, int hash, Object key, Box previous) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0)
+                return this;
+
+            previous.value = array[2 * index + 1];
+            if (array.length == 2)
+                return null;
+
+            if (this.owner == owner) {
+                array = removePair(array, index);
+                return this;
+            }
+            return new CollisionNode(owner, hash, removePair(array, index));
+        }
+
+        @Override
+        public Object[] getArray() {
+            return array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i]))
+                    return i / 2;
+            }
+            return -1;
+        }
+    }
+
+    // Iterates over the nodes at the time of creation
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> indices = new ArrayDeque<>();
+        private Entry<K, V> next;
+        private Entry<K, V> last;
+
+        EntryIterator() {
+            if (root != null) {
+                // The nodes must not get changed while we iterate
+                owner = new Object();
+                arrays.push(root.getArray());
+                indices.push(0);
+                advance();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+
+            last = next;
+            advance();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null)
+                throw new IllegalStateException();
+
+            PersistentHashMap.this.remove(last.getKey());
+            last = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (!arrays.isEmpty()) {
+                Object[] array = arrays.peek();
+                int index = indices.pop();
+                if (index >= array.length) {
+                    arrays.pop();
+                    continue;
+                }
+
+                indices.push(index + 2);
+                Object keyOrNull = array[index];
+                Object valueOrNode = array[index + 1];
+                if (keyOrNull == null) {
+                    arrays.push(((Node) valueOrNode).getArray());
+                    indices.push(0);
+                } else {
+                    next = new SimpleImmutableEntry<>((K) keyOrNull, (V) valueOrNode);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * List backed by a bit-partitioned vector trie with a tail (as the persistent vector of Clojure) which supports
+ * copies in O(1). Elements can only be appended or replaced, not inserted or removed.
+ * <p>
+ * A copy shares all nodes with the original list. Nodes are only changed in place by the list which has created them
+ * after the last copy, otherwise the path to the changed element gets copied.
+ * <p>
+ * Iterators work on the state at the time they got created, changes of the list do not affect them. Not thread safe,
+ * but a copy can be read from another thread if it is not changed anymore.
+ */
+public final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private Node root;
+    private Object[] tail;
+    private Object tailOwner;
+    private int shift;
+    private int size;
+    // Nodes with that owner can be changed in place
+    private Object owner = new Object();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public PersistentList() {
+        clear();
+    }
+
+    public PersistentList(Collection<? extends E> collection) {
+        this();
+        addAll(collection);
+    }
+
+    private PersistentList(Node root, Object[] tail, int shift, int size) {
+        this.root = root;
+        this.tail = tail;
+        this.shift = shift;
+        this.size = size;
+        tailOwner = null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return Independent list with the same elements. Runs in O(1).
+     */
+    public PersistentList<E> copy() {
+        // The nodes are shared from now on, so this list must not change them in place anymore
+        owner = new Object();
+        return new PersistentList<>(root, tail, shift, size);
+    }
+
+    public E getLast() {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        return get(size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        checkIndex(index);
+        return (E) arrayFor(root, tail, shift, size, index)[index & MASK];
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (size - tailOffset(size) < WIDTH) {
+            editableTail()[size & MASK] = element;
+        } else {
+            // Tail is full, we move it into the trie
+            Node tailNode = new Node(tailOwner, tail);
+            if ((size >>> BITS) > (1 << shift)) {
+                Node newRoot = new Node(owner, new Object[WIDTH]);
+                newRoot.array[0] = root;
+                newRoot.array[1] = newPath(shift, tailNode);
+                root = newRoot;
+                shift += BITS;
+            } else {
+                root = pushTail(shift, root, tailNode);
+            }
+            tail = new Object[WIDTH];
+            tailOwner = owner;
+            tail[0] = element;
+        }
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E set(int index, E element) {
+        checkIndex(index);
+        E previous = get(index);
+        if (index >= tailOffset(size))
+            editableTail()[index & MASK] = element;
+        else
+            root = doSet(shift, root, index, element);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        root = new Node(owner, new Object[WIDTH]);
+        tail = new Object[WIDTH];
+        tailOwner = owner;
+        shift = BITS;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        // The nodes must not get changed while we iterate
+        owner = new Object();
+        Node root = this.root;
+        Object[] tail = this.tail;
+        int shift = this.shift;
+        int size = this.size;
+        return new Iterator<>() {
+            private int index;
+            private Object[] array;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public E next() {
+                if (index >= size)
+                    throw new NoSuchElementException();
+
+                if ((index & MASK) == 0 || array == null)
+                    array = arrayFor(root, tail, shift, size, index);
+                return (E) array[index++ & MASK];
+            }
+        };
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private static Object[] arrayFor(Node root, Object[] tail, int shift, int size, int index) {
+        if (index >= tailOffset(size))
+            return tail;
+
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.array[(index >>> level) & MASK];
+        }
+        return node.array;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private Object[] editableTail() {
+        if (tailOwner != owner) {
+            tail = tail.clone();
+            tailOwner = owner;
+        }
+        return tail;
+    }
+
+    private Node editable(Node node) {
+        return node.owner == owner ? node : new Node(owner, node.array.clone());
+    }
+
+    private Node pushTail(int level, Node parent, Node tailNode) {
+        Node result = editable(parent);
+        int subIndex = ((size - 1) >>> level) & MASK;
+        Node nodeToInsert;
+        if (level == BITS) {
+            nodeToInsert = tailNode;
+        } else {
+            Node child = (Node) parent.array[subIndex];
+            nodeToInsert = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        result.array[subIndex] = nodeToInsert;
+        return result;
+    }
+
+    private Node newPath(int level, Node node) {
+        if (level == 0)
+            return node;
+
+        Node result = new Node(owner, new Object[WIDTH]);
+        result.array[0] = newPath(level - BITS, node);
+        return result;
+    }
+
+    private Node doSet(int level, Node node, int index, Object element) {
+        Node result = editable(node);
+        if (level == 0) {
+            result.array[index & MASK] = element;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            result.array[subIndex] = doSet(level - BITS, (Node) node.array[subIndex], index, element);
+        }
+        return result;
+    }
+
+    private static final class Node {
+        private final Object owner;
+        private final Object[] array;
+
+        Node(Object owner, Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+    }
+}
@@ -70,6 +70,7 @@ import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -136,6 +137,20 @@ public class Utilities {
     }
 
 
+    // Unbounded queue, so tasks do not get rejected. Idle threads terminate after keepAliveTimeInSec.
+    public static ThreadPoolExecutor getFixedThreadPoolExecutor(String name,
+                                                                int numThreads,
+                                                                long keepAliveTimeInSec) {
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat(name)
+                .setDaemon(true)
+                .build();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, keepAliveTimeInSec,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @SuppressWarnings("SameParameterValue")
     public static ScheduledThreadPoolExecutor getScheduledThreadPoolExecutor(String name,
                                                                              int corePoolSize,
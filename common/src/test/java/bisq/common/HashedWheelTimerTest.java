@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HashedWheelTimerTest {
+
+    @Test
+    public void testRunLater() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long ts = System.currentTimeMillis();
+        new HashedWheelTimer().runLater(Duration.ofMillis(300), latch::countDown);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - ts >= 300);
+    }
+
+    @Test
+    public void testRunPeriodically() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        Timer timer = new HashedWheelTimer().runPeriodically(Duration.ofMillis(100), latch::countDown);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        timer.stop();
+    }
+
+    @Test
+    public void testStop() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        List<Timer> timers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            timers.add(new HashedWheelTimer().runLater(Duration.ofMillis(200), counter::incrementAndGet));
+        }
+        timers.forEach(Timer::stop);
+        Thread.sleep(500);
+
+        assertEquals(0, counter.get());
+        assertEquals(0, TimingWheel.getNumTimers());
+    }
+
+    @Test
+    public void testDelayLongerThanOneRound() {
+        CountDownLatch latch = new CountDownLatch(1);
+        // One round of the wheel covers 51.2 sec
+        Timer timer = new HashedWheelTimer().runLater(Duration.ofSeconds(60), latch::countDown);
+
+        assertEquals(1, TimingWheel.getNumTimers());
+        timer.stop();
+        assertEquals(0, TimingWheel.getNumTimers());
+    }
+}
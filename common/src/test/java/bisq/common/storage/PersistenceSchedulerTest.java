@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistenceSchedulerTest {
+
+    @Test
+    public void testWritesOfSameFileAreCoalesced() throws InterruptedException {
+        PersistenceScheduler scheduler = new PersistenceScheduler(2, 1000);
+        File file = new File("Store");
+        AtomicInteger numRuns = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        for (int i = 0; i < 100; i++) {
+            scheduler.scheduleWrite(file, () -> {
+                numRuns.incrementAndGet();
+                scheduler.onWriteCompleted(file, 10, 1);
+                latch.countDown();
+            }, 50);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        scheduler.shutDown();
+
+        assertEquals(1, numRuns.get());
+        PersistenceScheduler.StoreMetrics metrics = scheduler.getMetrics().get("Store");
+        assertEquals(1, metrics.getNumWrites().get());
+        assertEquals(99, metrics.getNumCoalescedWrites().get());
+        assertEquals(10, metrics.getBytesWritten().get());
+    }
+
+    @Test
+    public void testShutDownFlushesPendingWritesInOrder() {
+        PersistenceScheduler scheduler = new PersistenceScheduler(2, 1000);
+        List<String> writtenFiles = new ArrayList<>();
+        scheduler.addShutDownHandler(() -> writtenFiles.add("Log"));
+        Arrays.asList("A", "B", "C").forEach(fileName ->
+                scheduler.scheduleWrite(new File(fileName), () -> writtenFiles.add(fileName), 60_000));
+        scheduler.scheduleWrite(new File("A"), () -> writtenFiles.add("A2"), 60_000);
+
+        scheduler.shutDown();
+        assertEquals(Arrays.asList("A", "B", "C", "Log"), writtenFiles);
+
+        // After shut down we write at the caller thread
+        scheduler.scheduleWrite(new File("D"), () -> writtenFiles.add("D"), 60_000);
+        assertEquals(Arrays.asList("A", "B", "C", "Log", "D"), writtenFiles);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TaskRunnerTest {
+
+    public static class TestModel implements Model {
+        final List<String> executedTasks = new ArrayList<>();
+        int numPersisted;
+        // Callback of a task waiting for a message of the peer
+        Runnable pendingCallback;
+
+        @Override
+        public void persist() {
+            numPersisted++;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    public static class SyncTask extends Task<TestModel> {
+        public SyncTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.executedTasks.add(getClass().getSimpleName());
+            complete();
+        }
+    }
+
+    public static class OtherSyncTask extends SyncTask {
+        public OtherSyncTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+    }
+
+    public static class AsyncTask extends Task<TestModel> {
+        public AsyncTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.executedTasks.add(getClass().getSimpleName());
+            model.pendingCallback = this::complete;
+        }
+    }
+
+    public static class FailingTask extends Task<TestModel> {
+        public FailingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            failed("failed for testing purpose");
+        }
+    }
+
+    public static class OtherModel implements Model {
+        @Override
+        public void persist() {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    // Used in the protocols of both models
+    public static class SharedTask extends Task<Model> {
+        public SharedTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        public SharedTask(TaskRunner taskHandler, OtherModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            complete();
+        }
+    }
+
+    @Test
+    public void testSynchronousTasksArePersistedOnce() {
+        TestModel model = new TestModel();
+        AtomicBoolean completed = new AtomicBoolean();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> completed.set(true), errorMessage -> {
+        });
+        taskRunner.addTasks(SyncTask.class, OtherSyncTask.class, SyncTask.class);
+        taskRunner.run();
+
+        assertTrue(completed.get());
+        assertEquals(3, model.executedTasks.size());
+        assertEquals("OtherSyncTask", model.executedTasks.get(1));
+        assertEquals(1, model.numPersisted);
+    }
+
+    @Test
+    public void testPersistedWhileWaitingForAsyncTask() {
+        TestModel model = new TestModel();
+        AtomicBoolean completed = new AtomicBoolean();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> completed.set(true), errorMessage -> {
+        });
+        taskRunner.addTasks(SyncTask.class, AsyncTask.class, SyncTask.class);
+        taskRunner.run();
+
+        // Changes of the first task got persisted before we wait
+        assertEquals(1, model.numPersisted);
+        assertEquals(2, model.executedTasks.size());
+
+        model.pendingCallback.run();
+        assertTrue(completed.get());
+        assertEquals(2, model.numPersisted);
+    }
+
+    @Test
+    public void testPersistedAtFailure() {
+        TestModel model = new TestModel();
+        AtomicReference<String> error = new AtomicReference<>();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> {
+        }, error::set);
+        taskRunner.addTasks(SyncTask.class, FailingTask.class, SyncTask.class);
+        taskRunner.run();
+
+        assertTrue(error.get().contains("failed for testing purpose"));
+        assertEquals(1, model.executedTasks.size());
+        assertEquals(1, model.numPersisted);
+    }
+
+    @Test
+    public void testTaskFactoryIsResolvedOnce() {
+        assertSame(TaskRunner.getTaskFactory(SyncTask.class, TestModel.class),
+                TaskRunner.getTaskFactory(SyncTask.class, TestModel.class));
+    }
+
+    @Test
+    public void testTaskFactoryPerModelClass() {
+        TestModel model = new TestModel();
+        OtherModel otherModel = new OtherModel();
+        Task task = TaskRunner.getTaskFactory(SharedTask.class, TestModel.class).apply(null, model);
+        Task otherTask = TaskRunner.getTaskFactory(SharedTask.class, OtherModel.class).apply(null, otherModel);
+
+        assertSame(model, task.model);
+        assertSame(otherModel, otherTask.model);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentCollectionsTest {
+
+    // Key with few distinct hash codes to get collisions
+    private static class CollidingKey {
+        private final int value;
+
+        CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value % 7;
+        }
+    }
+
+    @Test
+    public void testMapBehavesLikeHashMap() {
+        Random random = new Random(1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    @Test
+    public void testMapWithCollisions() {
+        PersistentHashMap<CollidingKey, Integer> map = new PersistentHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(new CollidingKey(i), i);
+        }
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), map.get(new CollidingKey(i)));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(Integer.valueOf(i), map.remove(new CollidingKey(i)));
+        }
+        assertEquals(50, map.size());
+        assertNull(map.get(new CollidingKey(0)));
+        assertEquals(Integer.valueOf(1), map.get(new CollidingKey(1)));
+    }
+
+    @Test
+    public void testMapCopiesAreIndependent() {
+        PersistentHashMap<Integer, String> map = new PersistentHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "a" + i);
+        }
+        PersistentHashMap<Integer, String> copy = map.copy();
+        for (int i = 0; i < 1000; i += 2) {
+            map.remove(i);
+            map.put(i + 1, "b" + i);
+        }
+        map.put(5000, "c");
+        copy.put(6000, "d");
+
+        assertEquals(1001, copy.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("a" + i, copy.get(i));
+        }
+        assertFalse(copy.containsKey(5000));
+        assertEquals(501, map.size());
+        assertFalse(map.containsKey(0));
+        assertEquals("b0", map.get(1));
+        assertFalse(map.containsKey(6000));
+    }
+
+    @Test
+    public void testMapIteratorIsNotAffectedByChanges() {
+        PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        int count = 0;
+        Iterator<Map.Entry<Integer, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            if (entry.getKey() % 2 == 0)
+                iterator.remove();
+            map.put(entry.getKey() + 1000, 0);
+            count++;
+        }
+        assertEquals(1000, count);
+        assertEquals(1500, map.size());
+    }
+
+    @Test
+    public void testList() {
+        List<Integer> expected = new ArrayList<>();
+        PersistentList<Integer> list = new PersistentList<>();
+        List<PersistentList<Integer>> copies = new ArrayList<>();
+        List<List<Integer>> expectedCopies = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            expected.add(i);
+            list.add(i);
+            if (i % 7 == 0) {
+                expected.set(i / 2, -i);
+                list.set(i / 2, -i);
+            }
+            if (i % 1000 == 0) {
+                copies.add(list.copy());
+                expectedCopies.add(new ArrayList<>(expected));
+            }
+        }
+        assertEquals(expected, list);
+        assertEquals(Integer.valueOf(49_999), list.getLast());
+        for (int i = 0; i < copies.size(); i++) {
+            assertEquals(expectedCopies.get(i), copies.get(i));
+        }
+
+        int sum = 0;
+        for (Integer value : list) {
+            list.add(value);
+            sum++;
+        }
+        assertEquals(50_000, sum);
+        assertEquals(100_000, list.size());
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(expectedCopies.get(3), copies.get(3));
+    }
+}
@@ -415,6 +415,11 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
         parser.accepts(NetworkOptionKeys.TOR_STREAM_ISOLATION,
                 "Use stream isolation for Tor [experimental!].");
 
+        parser.accepts(NetworkOptionKeys.METRICS_PORT,
+                "Port of the local endpoint serving the network metrics (default: disabled)")
+                .withRequiredArg()
+                .ofType(int.class);
+
         //AppOptionKeys
         parser.accepts(AppOptionKeys.USER_DATA_DIR_KEY,
                 format("User data directory (default: %s)", BisqEnvironment.DEFAULT_USER_DATA_DIR))
@@ -39,8 +39,10 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.io.IOException;
 
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -61,7 +63,9 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable implements
                 .setNameFormat(this.getClass().getSimpleName())
                 .setDaemon(true)
                 .build();
-        UserThread.setExecutor(Executors.newSingleThreadExecutor(threadFactory));
+        // Same as Executors.newSingleThreadExecutor but exposes the queue so UserThread can report its size
+        UserThread.setExecutor(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                threadFactory));
     }
 
     @Override
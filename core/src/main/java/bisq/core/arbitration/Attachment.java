@@ -18,32 +18,163 @@
 package bisq.core.arbitration;
 
 import bisq.common.proto.network.NetworkPayload;
+import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.ByteString;
 
-import lombok.Value;
+import java.io.IOException;
 
-@Value
+import java.lang.ref.SoftReference;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Attachments are sent with their content over the network. For persistence the content is written to the
+ * AttachmentStore and only the hash of the content is part of the DisputeList. The content of persisted attachments
+ * is loaded when it is requested.
+ */
+@Slf4j
 public final class Attachment implements NetworkPayload {
+    @Getter
     private final String fileName;
-    private final byte[] bytes;
+    // Hash of the content, null until it is needed
+    @Nullable
+    private volatile byte[] hash;
+    // Content which is not stored yet
+    @Nullable
+    private volatile byte[] bytes;
+    // Content loaded from the store, can be loaded again if it got collected
+    private volatile SoftReference<byte[]> loadedBytes = new SoftReference<>(null);
+    @Nullable
+    private volatile AttachmentStore attachmentStore;
 
     public Attachment(String fileName, byte[] bytes) {
         this.fileName = fileName;
         this.bytes = bytes;
     }
 
+    private Attachment(String fileName, byte[] hash, @Nullable AttachmentStore attachmentStore) {
+        this.fileName = fileName;
+        this.hash = hash;
+        this.attachmentStore = attachmentStore;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
     @Override
     public PB.Attachment toProtoMessage() {
         return PB.Attachment.newBuilder()
                 .setFileName(fileName)
-                .setBytes(ByteString.copyFrom(bytes))
+                .setBytes(ByteString.copyFrom(getBytes()))
                 .build();
     }
 
+    // We write the content to the store and persist only the hash
+    public PB.Attachment toPersistableProtoMessage(AttachmentStore attachmentStore) {
+        byte[] bytes = this.bytes;
+        if (bytes != null) {
+            try {
+                attachmentStore.put(getHash(), bytes);
+            } catch (IOException e) {
+                log.error("Could not store attachment {}. We persist it with the DisputeList.", fileName, e);
+                return toProtoMessage();
+            }
+            this.attachmentStore = attachmentStore;
+            loadedBytes = new SoftReference<>(bytes);
+            this.bytes = null;
+        }
+        return PB.Attachment.newBuilder()
+                .setFileName(fileName)
+                .setHash(ByteString.copyFrom(getHash()))
+                .build();
+    }
+
+    // Attachments received from the network have to carry their content. The hash only refers to the AttachmentStore
+    // in the persisted form, so we ignore it here as a peer could point it to an attachment of another dispute.
     public static Attachment fromProto(PB.Attachment proto) {
         return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
     }
+
+    // Persisted attachments of older versions carry the content as well, those get migrated to the store at the next
+    // write of the DisputeList.
+    public static Attachment fromPersistableProto(PB.Attachment proto) {
+        if (proto.getBytes().isEmpty() && !proto.getHash().isEmpty())
+            return new Attachment(proto.getFileName(), proto.getHash().toByteArray(), null);
+        else
+            return fromProto(proto);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public byte[] getBytes() {
+        byte[] bytes = this.bytes;
+        if (bytes != null)
+            return bytes;
+
+        bytes = loadedBytes.get();
+        if (bytes == null) {
+            AttachmentStore attachmentStore = this.attachmentStore;
+            if (attachmentStore != null)
+                bytes = attachmentStore.get(getHash());
+
+            if (bytes == null) {
+                log.error("Content of attachment {} is not available", fileName);
+                return new byte[0];
+            }
+            loadedBytes = new SoftReference<>(bytes);
+        }
+        return bytes;
+    }
+
+    public byte[] getHash() {
+        byte[] hash = this.hash;
+        if (hash == null) {
+            hash = AttachmentStore.getHash(Objects.requireNonNull(bytes));
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    void setAttachmentStore(AttachmentStore attachmentStore) {
+        this.attachmentStore = attachmentStore;
+    }
+
+    boolean isStored() {
+        return bytes == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Attachment that = (Attachment) o;
+        return fileName.equals(that.fileName) && Arrays.equals(getHash(), that.getHash());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * fileName.hashCode() + Arrays.hashCode(getHash());
+    }
+
+    @Override
+    public String toString() {
+        return "Attachment{" +
+                "\n     fileName='" + fileName + '\'' +
+                ",\n     hash=" + Utilities.bytesAsHexString(getHash()) +
+                "\n}";
+    }
 }
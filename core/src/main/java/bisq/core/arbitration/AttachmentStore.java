@@ -0,0 +1,122 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.arbitration;
+
+import bisq.common.crypto.Hash;
+import bisq.common.storage.FileUtil;
+import bisq.common.util.Utilities;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Content addressed store for the attachments of the dispute chats. Each attachment is written once to a file named
+ * by the hex encoded hash of its content, the DisputeList only holds the hash. That way a new chat message does not
+ * lead to a rewrite of all attachments.
+ */
+@Slf4j
+public class AttachmentStore {
+    private static final String DIR_NAME = "attachments";
+
+    private final File dir;
+
+    public AttachmentStore(File storageDir) {
+        dir = new File(storageDir, DIR_NAME);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static byte[] getHash(byte[] bytes) {
+        return Hash.getSha256Hash(bytes);
+    }
+
+    /**
+     * Writes the attachment if it is not stored already.
+     */
+    public synchronized void put(byte[] hash, byte[] bytes) throws IOException {
+        File file = getFile(hash);
+        if (file.exists())
+            return;
+
+        if (!dir.exists() && !dir.mkdirs())
+            throw new IOException("Could not create directory " + dir.getAbsolutePath());
+
+        File tempFile = new File(dir, file.getName() + ".tmp");
+        try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+            fileOutputStream.write(bytes);
+            // The DisputeList refers to the attachment, so it must be on disk before the DisputeList gets written
+            fileOutputStream.getFD().sync();
+        }
+        FileUtil.renameFile(tempFile, file);
+    }
+
+    /**
+     * @return The stored attachment or null if we do not have it
+     */
+    @Nullable
+    public byte[] get(byte[] hash) {
+        File file = getFile(hash);
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            log.error("Could not read attachment {}", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the attachments which are not referenced anymore (e.g. if the DisputeList has not been written after
+     * an attachment got stored).
+     */
+    public synchronized void removeAllExcept(Set<String> referencedHashesAsHex) {
+        File[] files = dir.listFiles();
+        if (files == null)
+            return;
+
+        for (File file : files) {
+            if (!referencedHashesAsHex.contains(file.getName())) {
+                try {
+                    FileUtil.deleteFileIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete attachment {}", file.getAbsolutePath(), e);
+                }
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private File getFile(byte[] hash) {
+        return new File(dir, Utilities.encodeToHex(hash));
+    }
+}
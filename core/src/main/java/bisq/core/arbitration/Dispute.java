@@ -43,6 +43,7 @@ import javafx.collections.ObservableList;
 
 import java.util.Date;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -181,6 +182,15 @@ public final class Dispute implements NetworkPayload {
 
     @Override
     public PB.Dispute toProtoMessage() {
+        return toProtoMessage(msg -> msg.toProtoNetworkEnvelope().getDisputeCommunicationMessage());
+    }
+
+    // The content of the attachments is written to the attachmentStore and not part of the proto
+    PB.Dispute toPersistableProtoMessage(AttachmentStore attachmentStore) {
+        return toProtoMessage(msg -> msg.toPersistableProtoMessage(attachmentStore));
+    }
+
+    private PB.Dispute toProtoMessage(Function<DisputeCommunicationMessage, PB.DisputeCommunicationMessage> messageToProto) {
         PB.Dispute.Builder builder = PB.Dispute.newBuilder()
                 .setTradeId(tradeId)
                 .setTraderId(traderId)
@@ -193,7 +203,7 @@ public final class Dispute implements NetworkPayload {
                 .setArbitratorPubKeyRing(arbitratorPubKeyRing.toProtoMessage())
                 .setIsSupportTicket(isSupportTicket)
                 .addAllDisputeCommunicationMessages(disputeCommunicationMessages.stream()
-                        .map(msg -> msg.toProtoNetworkEnvelope().getDisputeCommunicationMessage())
+                        .map(messageToProto)
                         .collect(Collectors.toList()))
                 .setIsClosed(isClosedProperty.get())
                 .setOpeningDate(openingDate)
@@ -212,6 +222,17 @@ public final class Dispute implements NetworkPayload {
     }
 
     public static Dispute fromProto(PB.Dispute proto, CoreProtoResolver coreProtoResolver) {
+        return fromProto(proto, coreProtoResolver, DisputeCommunicationMessage::fromPayloadProto);
+    }
+
+    // The attachments of the persisted form refer to the content in the attachmentStore
+    static Dispute fromPersistableProto(PB.Dispute proto, CoreProtoResolver coreProtoResolver) {
+        return fromProto(proto, coreProtoResolver, DisputeCommunicationMessage::fromPersistableProto);
+    }
+
+    private static Dispute fromProto(PB.Dispute proto,
+                                     CoreProtoResolver coreProtoResolver,
+                                     Function<PB.DisputeCommunicationMessage, DisputeCommunicationMessage> messageFromProto) {
         final Dispute dispute = new Dispute(proto.getTradeId(),
                 proto.getTraderId(),
                 proto.getDisputeOpenerIsBuyer(),
@@ -231,7 +252,7 @@ public final class Dispute implements NetworkPayload {
                 proto.getIsSupportTicket());
 
         dispute.disputeCommunicationMessages.addAll(proto.getDisputeCommunicationMessagesList().stream()
-                .map(DisputeCommunicationMessage::fromPayloadProto)
+                .map(messageFromProto)
                 .collect(Collectors.toList()));
 
         dispute.openingDate = proto.getOpeningDate();
@@ -19,10 +19,10 @@ package bisq.core.arbitration;
 
 import bisq.core.proto.CoreProtoResolver;
 
-import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.storage.Storage;
+import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -39,6 +39,10 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 @Slf4j
 @ToString
 /**
@@ -49,18 +53,37 @@ import lombok.extern.slf4j.Slf4j;
  */
 public final class DisputeList implements PersistableEnvelope, PersistedDataHost {
     transient private final Storage<DisputeList> storage;
+    // Only set at the instance we persist
+    @Nullable
+    transient private final AttachmentStore attachmentStore;
     @Getter
     private final ObservableList<Dispute> list = FXCollections.observableArrayList();
 
-    public DisputeList(Storage<DisputeList> storage) {
+    public DisputeList(Storage<DisputeList> storage, AttachmentStore attachmentStore) {
         this.storage = storage;
+        this.attachmentStore = attachmentStore;
     }
 
     @Override
     public void readPersisted() {
         DisputeList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
+        if (persisted != null) {
             list.addAll(persisted.getList());
+
+            checkNotNull(attachmentStore, "attachmentStore must not be null");
+            List<Attachment> attachments = getAttachments();
+            attachments.forEach(attachment -> attachment.setAttachmentStore(attachmentStore));
+            attachmentStore.removeAllExcept(attachments.stream()
+                    .filter(Attachment::isStored)
+                    .map(attachment -> Utilities.encodeToHex(attachment.getHash()))
+                    .collect(Collectors.toSet()));
+
+            // Attachments persisted by older versions get moved to the attachmentStore
+            if (attachments.stream().anyMatch(attachment -> !attachment.isStored())) {
+                log.info("We move the attachments of the disputes to the attachment store.");
+                persist();
+            }
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -69,13 +92,17 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
 
     private DisputeList(Storage<DisputeList> storage, List<Dispute> list) {
         this.storage = storage;
+        this.attachmentStore = null;
         this.list.addAll(list);
     }
 
     @Override
     public Message toProtoMessage() {
+        checkNotNull(attachmentStore, "attachmentStore must not be null");
         return PB.PersistableEnvelope.newBuilder().setDisputeList(PB.DisputeList.newBuilder()
-                .addAllDispute(ProtoUtil.collectionToProto(list))).build();
+                .addAllDispute(list.stream()
+                        .map(dispute -> dispute.toPersistableProtoMessage(attachmentStore))
+                        .collect(Collectors.toList()))).build();
     }
 
     public static DisputeList fromProto(PB.DisputeList proto,
@@ -84,7 +111,7 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
         log.debug("DisputeList fromProto of {} ", proto);
 
         List<Dispute> list = proto.getDisputeList().stream()
-                .map(disputeProto -> Dispute.fromProto(disputeProto, coreProtoResolver))
+                .map(disputeProto -> Dispute.fromPersistableProto(disputeProto, coreProtoResolver))
                 .collect(Collectors.toList());
         list.forEach(e -> e.setStorage(storage));
         return new DisputeList(storage, list);
@@ -134,4 +161,16 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
     public Stream<Dispute> stream() {
         return list.stream();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<Attachment> getAttachments() {
+        return list.stream()
+                .flatMap(dispute -> dispute.getDisputeCommunicationMessages().stream())
+                .flatMap(message -> message.getAttachments().stream())
+                .collect(Collectors.toList());
+    }
 }
@@ -108,6 +108,7 @@ public class DisputeManager implements PersistedDataHost {
     private final P2PService p2PService;
     private final KeyRing keyRing;
     private final Storage<DisputeList> disputeStorage;
+    private final AttachmentStore attachmentStore;
     private DisputeList disputes;
     private final String disputeInfo;
     private final CopyOnWriteArraySet<DecryptedMessageWithPubKey> decryptedMailboxMessageWithPubKeys = new CopyOnWriteArraySet<>();
@@ -146,6 +147,7 @@ public class DisputeManager implements PersistedDataHost {
         this.keyRing = keyRing;
 
         disputeStorage = new Storage<>(storageDir, persistenceProtoResolver);
+        attachmentStore = new AttachmentStore(storageDir);
 
         openDisputes = new HashMap<>();
         closedDisputes = new HashMap<>();
@@ -170,7 +172,7 @@ public class DisputeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        disputes = new DisputeList(disputeStorage);
+        disputes = new DisputeList(disputeStorage, attachmentStore);
         disputes.readPersisted();
         disputes.stream().forEach(dispute -> dispute.setStorage(disputeStorage));
     }
@@ -18,6 +18,7 @@
 package bisq.core.arbitration.messages;
 
 import bisq.core.arbitration.Attachment;
+import bisq.core.arbitration.AttachmentStore;
 
 import bisq.network.p2p.NodeAddress;
 
@@ -38,6 +39,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import java.lang.ref.WeakReference;
@@ -134,12 +136,28 @@ public final class DisputeCommunicationMessage extends DisputeMessage {
 
     @Override
     public PB.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setDisputeCommunicationMessage(getBuilder(attachments.stream()
+                        .map(Attachment::toProtoMessage)
+                        .collect(Collectors.toList())))
+                .build();
+    }
+
+    // The content of the attachments is written to the attachmentStore and not part of the proto
+    public PB.DisputeCommunicationMessage toPersistableProtoMessage(AttachmentStore attachmentStore) {
+        return getBuilder(attachments.stream()
+                .map(attachment -> attachment.toPersistableProtoMessage(attachmentStore))
+                .collect(Collectors.toList()))
+                .build();
+    }
+
+    private PB.DisputeCommunicationMessage.Builder getBuilder(List<PB.Attachment> attachmentProtos) {
         PB.DisputeCommunicationMessage.Builder builder = PB.DisputeCommunicationMessage.newBuilder()
                 .setTradeId(tradeId)
                 .setTraderId(traderId)
                 .setSenderIsTrader(senderIsTrader)
                 .setMessage(message)
-                .addAllAttachments(attachments.stream().map(Attachment::toProtoMessage).collect(Collectors.toList()))
+                .addAllAttachments(attachmentProtos)
                 .setSenderNodeAddress(senderNodeAddress.toProtoMessage())
                 .setDate(date)
                 .setArrived(arrivedProperty.get())
@@ -149,18 +167,22 @@ public final class DisputeCommunicationMessage extends DisputeMessage {
                 .setAcknowledged(acknowledgedProperty.get());
         Optional.ofNullable(sendMessageErrorProperty.get()).ifPresent(builder::setSendMessageError);
         Optional.ofNullable(ackErrorProperty.get()).ifPresent(builder::setAckError);
-        return getNetworkEnvelopeBuilder()
-                .setDisputeCommunicationMessage(builder)
-                .build();
+        return builder;
     }
 
     public static DisputeCommunicationMessage fromProto(PB.DisputeCommunicationMessage proto, int messageVersion) {
+        return fromProto(proto, messageVersion, Attachment::fromProto);
+    }
+
+    private static DisputeCommunicationMessage fromProto(PB.DisputeCommunicationMessage proto,
+                                                         int messageVersion,
+                                                         Function<PB.Attachment, Attachment> attachmentFromProto) {
         final DisputeCommunicationMessage disputeCommunicationMessage = new DisputeCommunicationMessage(
                 proto.getTradeId(),
                 proto.getTraderId(),
                 proto.getSenderIsTrader(),
                 proto.getMessage(),
-                new ArrayList<>(proto.getAttachmentsList().stream().map(Attachment::fromProto).collect(Collectors.toList())),
+                new ArrayList<>(proto.getAttachmentsList().stream().map(attachmentFromProto).collect(Collectors.toList())),
                 NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getDate(),
                 proto.getArrived(),
@@ -182,6 +204,11 @@ public final class DisputeCommunicationMessage extends DisputeMessage {
         return fromProto(proto, -1);
     }
 
+    // The attachments of the persisted form refer to the content in the attachmentStore
+    public static DisputeCommunicationMessage fromPersistableProto(PB.DisputeCommunicationMessage proto) {
+        return fromProto(proto, -1, Attachment::fromPersistableProto);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
@@ -29,9 +29,13 @@ import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.user.Preferences;
 
+import bisq.common.UserThread;
+import bisq.common.app.DevEnv;
+
 import org.bitcoinj.core.Address;
 import org.bitcoinj.core.AddressFormatException;
 import org.bitcoinj.core.BlockChain;
@@ -56,22 +60,25 @@ import javax.inject.Inject;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import lombok.Getter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.BUILDING;
+import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.DEAD;
 import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.PENDING;
 
 @Slf4j
@@ -82,6 +89,15 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     private final ObservableList<Transaction> walletTransactions = FXCollections.observableArrayList();
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
 
+    // State of the incremental balance updates, only accessed at the UserThread
+    private final Map<String, Transaction> walletTxById = new LinkedHashMap<>();
+    private final Map<String, TransactionConfidence.ConfidenceType> confidenceTypeByTxId = new HashMap<>();
+    private final Map<String, LockedBalances> lockedBalancesByTxId = new HashMap<>();
+    private final Map<String, Transaction> changedTxById = new HashMap<>();
+    private final Set<String> txIdsOfParsedBlocks = new HashSet<>();
+    private boolean fullUpdateRequested = true;
+    private boolean updateScheduled;
+
     // balance of non BSQ satoshis
     @Getter
     private Coin availableNonBsqBalance = Coin.ZERO;
@@ -127,38 +143,38 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                     wallet.addEventListener(new AbstractWalletEventListener() {
                         @Override
                         public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
-                            updateBsqWalletTransactions();
+                            onTxChanged(tx);
                         }
 
                         @Override
                         public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
-                            updateBsqWalletTransactions();
+                            onTxChanged(tx);
                         }
 
                         @Override
                         public void onReorganize(Wallet wallet) {
                             log.warn("onReorganize ");
-                            updateBsqWalletTransactions();
+                            requestFullUpdate();
                         }
 
                         @Override
                         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
-                            updateBsqWalletTransactions();
+                            onTxChanged(tx);
                         }
 
                         @Override
                         public void onKeysAdded(List<ECKey> keys) {
-                            updateBsqWalletTransactions();
+                            requestFullUpdate();
                         }
 
                         @Override
                         public void onScriptsChanged(Wallet wallet, List<Script> scripts, boolean isAddingScripts) {
-                            updateBsqWalletTransactions();
+                            requestFullUpdate();
                         }
 
                         @Override
                         public void onWalletChanged(Wallet wallet) {
-                            updateBsqWalletTransactions();
+                            scheduleUpdate();
                         }
 
                     });
@@ -168,7 +184,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 if (chain != null) {
                     chain.addNewBestBlockListener(block -> chainHeightProperty.set(block.getHeight()));
                     chainHeightProperty.set(chain.getBestChainHeight());
-                    updateBsqWalletTransactions();
+                    requestFullUpdate();
                 }
             });
         }
@@ -187,12 +203,16 @@ public class BsqWalletService extends WalletService implements DaoStateListener
 
     @Override
     public void onParseTxsComplete(Block block) {
+        block.getTxs().forEach(tx -> txIdsOfParsedBlocks.add(tx.getId()));
         if (isWalletReady())
-            updateBsqWalletTransactions();
+            scheduleUpdate();
     }
 
     @Override
     public void onParseBlockChainComplete() {
+        // The DAO state might have changed in ways we do not track (e.g. snapshot applied after a reorg)
+        if (isWalletReady())
+            requestFullUpdate();
     }
 
 
@@ -212,63 +232,94 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     // Balance
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void updateBsqBalance() {
-        unverifiedBalance = Coin.valueOf(
-                getTransactions(false).stream()
-                        .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
-                        .mapToLong(tx -> {
-                            // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
-                            // outputs since those inputs will be accounted for in lockupBondsBalance and
-                            // unlockingBondsBalance
-                            long outputs = tx.getOutputs().stream()
-                                    .filter(out -> out.isMine(wallet))
-                                    .mapToLong(out -> out.getValue().value)
-                                    .sum();
-                            // Account for spending of locked connectedOutputs
-                            long lockedInputs = tx.getInputs().stream()
-                                    .filter(in -> {
-                                        TransactionOutput connectedOutput = in.getConnectedOutput();
-                                        if (connectedOutput != null) {
-                                            Transaction parentTransaction = connectedOutput.getParentTransaction();
-                                            // TODO SQ
-                                            if (parentTransaction != null/* &&
-                                                    parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
-                                                TxOutputKey key = new TxOutputKey(parentTransaction.getHashAsString(),
-                                                        connectedOutput.getIndex());
-
-                                                return (connectedOutput.isMine(wallet)
-                                                        && (daoStateService.isLockupOutput(key)
-                                                        || daoStateService.isUnlockingAndUnspent(key)));
-                                            }
-                                        }
-                                        return false;
-                                    })
-                                    .mapToLong(in -> in != null ? in.getValue().value : 0)
-                                    .sum();
-                            return outputs - lockedInputs;
-                        })
-                        .sum()
-        );
-        Set<String> confirmedTxIdSet = getTransactions(false).stream()
-                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
-                .map(Transaction::getHashAsString)
-                .collect(Collectors.toSet());
+    // The balances are updated incrementally. Wallet events and parsed DAO blocks only mark what has changed and we
+    // apply the changes once per UserThread cycle:
+    // - The unverified balance is the sum of the contributions of the pending txs (few), which we recalculate.
+    // - The balances of locked BSQ are the sum of the contributions of the confirmed txs. We only recalculate the
+    //   txs which changed their confidence type, the txs of new DAO blocks and the txs which contribute already (the
+    //   lock state of those can change with each block).
+    // A full recalculation is done at startup, at a reorg and if keys or scripts have been added.
+    // In dev mode we verify the result against the full recalculation after each update.
+
+    private void onTxChanged(Transaction tx) {
+        String txId = tx.getHashAsString();
+        TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+        // Depth changes at each block are not relevant for the balances
+        if (confidenceType != confidenceTypeByTxId.get(txId)) {
+            changedTxById.put(txId, tx);
+            scheduleUpdate();
+        }
+    }
 
-        lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-        lockupBondsBalance = Coin.valueOf(daoStateService.getLockupTxOutputs().stream()
-                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
-                /*.filter(txOutput -> !daoStateService.isSpentByUnlockTx(txOutput))*/ // TODO SQ
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
+    private void requestFullUpdate() {
+        fullUpdateRequested = true;
+        scheduleUpdate();
+    }
 
-        unlockingBondsBalance = Coin.valueOf(daoStateService.getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
+    private void scheduleUpdate() {
+        if (!updateScheduled) {
+            updateScheduled = true;
+            UserThread.execute(this::updateBsqWalletTransactions);
+        }
+    }
+
+    private void updateBsqWalletTransactions() {
+        updateScheduled = false;
+        if (wallet == null)
+            return;
+
+        boolean walletTxsChanged;
+        Set<String> txIdsToUpdate = new HashSet<>(lockedBalancesByTxId.keySet());
+        if (fullUpdateRequested) {
+            fullUpdateRequested = false;
+            walletTxById.clear();
+            confidenceTypeByTxId.clear();
+            lockedBalancesByTxId.clear();
+            getTransactions(false).forEach(tx -> walletTxById.put(tx.getHashAsString(), tx));
+            txIdsToUpdate.addAll(walletTxById.keySet());
+            walletTxsChanged = true;
+        } else {
+            walletTxsChanged = !changedTxById.isEmpty();
+            changedTxById.forEach((txId, tx) -> {
+                if (tx.getConfidence().getConfidenceType() == DEAD)
+                    walletTxById.remove(txId);
+                else
+                    walletTxById.put(txId, tx);
+                txIdsToUpdate.add(txId);
+            });
+            txIdsOfParsedBlocks.stream()
+                    .filter(walletTxById::containsKey)
+                    .forEach(txIdsToUpdate::add);
+        }
+        changedTxById.clear();
+        txIdsOfParsedBlocks.clear();
+
+        txIdsToUpdate.forEach(txId -> {
+            Transaction tx = walletTxById.get(txId);
+            confidenceTypeByTxId.remove(txId);
+            lockedBalancesByTxId.remove(txId);
+            if (tx != null) {
+                TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+                confidenceTypeByTxId.put(txId, confidenceType);
+                if (confidenceType == BUILDING)
+                    getLockedBalances(txId).ifPresent(lockedBalances -> lockedBalancesByTxId.put(txId, lockedBalances));
+            }
+        });
+
+        if (walletTxsChanged)
+            walletTransactions.setAll(walletTxById.values());
+
+        updateBsqBalance();
+    }
+
+    private void updateBsqBalance() {
+        unverifiedBalance = Coin.valueOf(walletTxById.values().stream()
+                .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
+                .mapToLong(this::getUnverifiedBalance)
                 .sum());
+        lockedForVotingBalance = Coin.valueOf(lockedBalancesByTxId.values().stream().mapToLong(LockedBalances::getLockedForVoting).sum());
+        lockupBondsBalance = Coin.valueOf(lockedBalancesByTxId.values().stream().mapToLong(LockedBalances::getLockupBonds).sum());
+        unlockingBondsBalance = Coin.valueOf(lockedBalancesByTxId.values().stream().mapToLong(LockedBalances::getUnlockingBonds).sum());
 
         availableBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
                 wallet.calculateAllSpendCandidates()).valueGathered;
@@ -279,10 +330,109 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
                 wallet.calculateAllSpendCandidates()).valueGathered;
 
+        if (DevEnv.isDevMode())
+            verifyBalances();
+
         bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableBalance, availableNonBsqBalance, unverifiedBalance,
                 lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
     }
 
+    // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking outputs since those inputs
+    // will be accounted for in lockupBondsBalance and unlockingBondsBalance
+    private long getUnverifiedBalance(Transaction tx) {
+        long outputs = tx.getOutputs().stream()
+                .filter(out -> out.isMine(wallet))
+                .mapToLong(out -> out.getValue().value)
+                .sum();
+        // Account for spending of locked connectedOutputs
+        long lockedInputs = tx.getInputs().stream()
+                .filter(in -> {
+                    TransactionOutput connectedOutput = in.getConnectedOutput();
+                    if (connectedOutput != null) {
+                        Transaction parentTransaction = connectedOutput.getParentTransaction();
+                        // TODO SQ
+                        if (parentTransaction != null/* &&
+                                parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
+                            TxOutputKey key = new TxOutputKey(parentTransaction.getHashAsString(),
+                                    connectedOutput.getIndex());
+
+                            return (connectedOutput.isMine(wallet)
+                                    && (daoStateService.isLockupOutput(key)
+                                    || daoStateService.isUnlockingAndUnspent(key)));
+                        }
+                    }
+                    return false;
+                })
+                .mapToLong(in -> in != null ? in.getValue().value : 0)
+                .sum();
+        return outputs - lockedInputs;
+    }
+
+    // Balances of the locked outputs of a confirmed wallet tx, empty if it has none
+    private Optional<LockedBalances> getLockedBalances(String txId) {
+        return daoStateService.getTx(txId).map(tx -> {
+            long lockedForVoting = 0;
+            long lockupBonds = 0;
+            long unlockingBonds = 0;
+            for (TxOutput txOutput : tx.getTxOutputs()) {
+                if (txOutput.getTxOutputType() == TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT &&
+                        daoStateService.isUnspent(txOutput.getKey()))
+                    lockedForVoting += txOutput.getValue();
+                else if (daoStateService.isLockupOutput(txOutput) && daoStateService.isUnspent(txOutput.getKey()))
+                    lockupBonds += txOutput.getValue();
+                else if (daoStateService.isUnlockingAndUnspent(txOutput))
+                    unlockingBonds += txOutput.getValue();
+            }
+            return new LockedBalances(lockedForVoting, lockupBonds, unlockingBonds);
+        }).filter(LockedBalances::isNotEmpty);
+    }
+
+    // Compares the incremental balances with a full recalculation from the wallet txs and the DAO state
+    private void verifyBalances() {
+        Set<Transaction> transactions = getTransactions(false);
+        long unverified = transactions.stream()
+                .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
+                .mapToLong(this::getUnverifiedBalance)
+                .sum();
+        Set<String> confirmedTxIdSet = transactions.stream()
+                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
+                .map(Transaction::getHashAsString)
+                .collect(Collectors.toSet());
+        long lockedForVoting = daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
+                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
+                .mapToLong(TxOutput::getValue)
+                .sum();
+        long lockupBonds = daoStateService.getLockupTxOutputs().stream()
+                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
+                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
+                .mapToLong(TxOutput::getValue)
+                .sum();
+        long unlockingBonds = daoStateService.getUnspentUnlockingTxOutputsStream()
+                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
+                .mapToLong(TxOutput::getValue)
+                .sum();
+        if (unverified != unverifiedBalance.value ||
+                lockedForVoting != lockedForVotingBalance.value ||
+                lockupBonds != lockupBondsBalance.value ||
+                unlockingBonds != unlockingBondsBalance.value) {
+            log.error("Incremental BSQ balances do not match the full recalculation. " +
+                            "unverified={}/{}, lockedForVoting={}/{}, lockupBonds={}/{}, unlockingBonds={}/{}",
+                    unverifiedBalance.value, unverified, lockedForVotingBalance.value, lockedForVoting,
+                    lockupBondsBalance.value, lockupBonds, unlockingBondsBalance.value, unlockingBonds);
+        }
+    }
+
+    @Value
+    private static class LockedBalances {
+        private final long lockedForVoting;
+        private final long lockupBonds;
+        private final long unlockingBonds;
+
+        boolean isNotEmpty() {
+            return lockedForVoting != 0 || lockupBonds != 0 || unlockingBonds != 0;
+        }
+    }
+
     public void addBsqBalanceListener(BsqBalanceListener listener) {
         bsqBalanceListeners.add(listener);
     }
@@ -305,43 +455,14 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 .filter(transaction -> transaction.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.PENDING);
     }
 
-    private void updateBsqWalletTransactions() {
-        walletTransactions.setAll(getTransactions(false));
-        // walletTransactions.setAll(getBsqWalletTransactions());
-        updateBsqBalance();
-    }
-
-    private Set<Transaction> getBsqWalletTransactions() {
+    // Wallet txs which are neither pending nor BSQ txs
+    public Set<Transaction> getUnverifiedBsqTransactions() {
         return getTransactions(false).stream()
-                .filter(transaction -> transaction.getConfidence().getConfidenceType() == PENDING ||
-                        daoStateService.containsTx(transaction.getHashAsString()))
+                .filter(transaction -> transaction.getConfidence().getConfidenceType() != PENDING &&
+                        !daoStateService.containsTx(transaction.getHashAsString()))
                 .collect(Collectors.toSet());
     }
 
-    public Set<Transaction> getUnverifiedBsqTransactions() {
-        Set<Transaction> bsqWalletTransactions = getBsqWalletTransactions();
-        Set<Transaction> walletTxs = new HashSet<>(getTransactions(false));
-        checkArgument(walletTxs.size() >= bsqWalletTransactions.size(),
-                "We cannot have more txsWithOutputsFoundInBsqTxo than walletTxs");
-        if (walletTxs.size() == bsqWalletTransactions.size()) {
-            // As expected
-            return new HashSet<>();
-        } else {
-            Map<String, Transaction> map = walletTxs.stream()
-                    .collect(Collectors.toMap(Transaction::getHashAsString, Function.identity()));
-
-            Set<String> walletTxIds = walletTxs.stream()
-                    .map(Transaction::getHashAsString).collect(Collectors.toSet());
-            Set<String> bsqTxIds = bsqWalletTransactions.stream()
-                    .map(Transaction::getHashAsString).collect(Collectors.toSet());
-
-            walletTxIds.stream()
-                    .filter(bsqTxIds::contains)
-                    .forEach(map::remove);
-            return new HashSet<>(map.values());
-        }
-    }
-
     @Override
     public Coin getValueSentFromMeForTransaction(Transaction transaction) throws ScriptException {
         Coin result = Coin.ZERO;
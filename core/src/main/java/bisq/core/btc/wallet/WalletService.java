@@ -73,8 +73,12 @@ import javafx.beans.property.SimpleIntegerProperty;
 import org.spongycastle.crypto.params.KeyParameter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
@@ -99,9 +103,11 @@ public abstract class WalletService {
     protected final NetworkParameters params;
     @SuppressWarnings("deprecation")
     protected final WalletEventListener walletEventListener = new BisqWalletListener();
-    protected final CopyOnWriteArraySet<AddressConfidenceListener> addressConfidenceListeners = new CopyOnWriteArraySet<>();
-    protected final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
-    protected final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
+    // Listeners are indexed by their address or txId, so a wallet event only reaches the listeners it concerns
+    protected final Map<Address, Set<AddressConfidenceListener>> addressConfidenceListeners = new ConcurrentHashMap<>();
+    protected final Map<String, Set<TxConfidenceListener>> txConfidenceListeners = new ConcurrentHashMap<>();
+    protected final Map<Address, Set<BalanceListener>> balanceListenersByAddress = new ConcurrentHashMap<>();
+    protected final CopyOnWriteArraySet<BalanceListener> balanceListenersWithoutAddress = new CopyOnWriteArraySet<>();
     protected Wallet wallet;
     protected KeyParameter aesKey;
     @Getter
@@ -167,27 +173,54 @@ public abstract class WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void addAddressConfidenceListener(AddressConfidenceListener listener) {
-        addressConfidenceListeners.add(listener);
+        // A listener without address would never get notified
+        if (listener.getAddress() != null)
+            addListener(addressConfidenceListeners, listener.getAddress(), listener);
     }
 
     public void removeAddressConfidenceListener(AddressConfidenceListener listener) {
-        addressConfidenceListeners.remove(listener);
+        if (listener.getAddress() != null)
+            removeListener(addressConfidenceListeners, listener.getAddress(), listener);
     }
 
     public void addTxConfidenceListener(TxConfidenceListener listener) {
-        txConfidenceListeners.add(listener);
+        if (listener.getTxID() != null)
+            addListener(txConfidenceListeners, listener.getTxID(), listener);
     }
 
     public void removeTxConfidenceListener(TxConfidenceListener listener) {
-        txConfidenceListeners.remove(listener);
+        if (listener.getTxID() != null)
+            removeListener(txConfidenceListeners, listener.getTxID(), listener);
     }
 
     public void addBalanceListener(BalanceListener listener) {
-        balanceListeners.add(listener);
+        if (listener.getAddress() != null)
+            addListener(balanceListenersByAddress, listener.getAddress(), listener);
+        else
+            balanceListenersWithoutAddress.add(listener);
     }
 
     public void removeBalanceListener(BalanceListener listener) {
-        balanceListeners.remove(listener);
+        if (listener.getAddress() != null)
+            removeListener(balanceListenersByAddress, listener.getAddress(), listener);
+        else
+            balanceListenersWithoutAddress.remove(listener);
+    }
+
+    private static <K, L> void addListener(Map<K, Set<L>> listenersByKey, K key, L listener) {
+        listenersByKey.compute(key, (k, listeners) -> {
+            if (listeners == null)
+                listeners = new CopyOnWriteArraySet<>();
+            listeners.add(listener);
+            return listeners;
+        });
+    }
+
+    private static <K, L> void removeListener(Map<K, Set<L>> listenersByKey, K key, L listener) {
+        listenersByKey.computeIfPresent(key, (k, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
     }
 
 
@@ -700,32 +733,70 @@ public abstract class WalletService {
 
         @Override
         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
-            for (AddressConfidenceListener addressConfidenceListener : addressConfidenceListeners) {
-                List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
-                transactionConfidenceList.add(getTransactionConfidence(tx, addressConfidenceListener.getAddress()));
+            if (tx == null)
+                return;
 
-                TransactionConfidence transactionConfidence = getMostRecentConfidence(transactionConfidenceList);
-                addressConfidenceListener.onTransactionConfidenceChanged(transactionConfidence);
+            if (!addressConfidenceListeners.isEmpty()) {
+                TransactionConfidence confidence = tx.getConfidence();
+                getAddresses(tx).forEach(address -> {
+                    Set<AddressConfidenceListener> listeners = addressConfidenceListeners.get(address);
+                    if (listeners != null)
+                        listeners.forEach(listener -> listener.onTransactionConfidenceChanged(confidence));
+                });
             }
-            txConfidenceListeners.stream()
-                    .filter(txConfidenceListener -> tx != null &&
-                            tx.getHashAsString() != null &&
-                            txConfidenceListener != null &&
-                            tx.getHashAsString().equals(txConfidenceListener.getTxID()))
-                    .forEach(txConfidenceListener ->
-                            txConfidenceListener.onTransactionConfidenceChanged(tx.getConfidence()));
+
+            String txId = tx.getHashAsString();
+            Set<TxConfidenceListener> listeners = txId != null ? txConfidenceListeners.get(txId) : null;
+            if (listeners != null)
+                listeners.forEach(listener -> listener.onTransactionConfidenceChanged(tx.getConfidence()));
         }
 
         void notifyBalanceListeners(Transaction tx) {
-            for (BalanceListener balanceListener : balanceListeners) {
-                Coin balance;
-                if (balanceListener.getAddress() != null)
-                    balance = getBalanceForAddress(balanceListener.getAddress());
-                else
-                    balance = getAvailableBalance();
-
-                balanceListener.onBalanceChanged(balance, tx);
+            if (!balanceListenersWithoutAddress.isEmpty()) {
+                Coin availableBalance = getAvailableBalance();
+                balanceListenersWithoutAddress.forEach(listener -> listener.onBalanceChanged(availableBalance, tx));
+            }
+
+            if (!balanceListenersByAddress.isEmpty()) {
+                // Only the balances of the addresses used in the tx can have changed
+                Set<Address> addresses = getAddresses(tx).stream()
+                        .filter(balanceListenersByAddress::containsKey)
+                        .collect(Collectors.toSet());
+                if (!addresses.isEmpty()) {
+                    Map<Address, Coin> balanceByAddress = getBalanceByAddress(addresses);
+                    addresses.forEach(address -> {
+                        Set<BalanceListener> listeners = balanceListenersByAddress.get(address);
+                        if (listeners != null) {
+                            Coin balance = balanceByAddress.getOrDefault(address, Coin.ZERO);
+                            listeners.forEach(listener -> listener.onBalanceChanged(balance, tx));
+                        }
+                    });
+                }
+            }
+        }
+
+        // Addresses of the outputs and the connected outputs of the tx
+        private Set<Address> getAddresses(Transaction tx) {
+            return getOutputsWithConnectedOutputs(tx).stream()
+                    .filter(WalletService::isOutputScriptConvertibleToAddress)
+                    .map(WalletService::getAddressFromOutput)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+        }
+
+        // Balances of the given addresses with one pass over the spend candidates
+        private Map<Address, Coin> getBalanceByAddress(Set<Address> addresses) {
+            Map<Address, Coin> balanceByAddress = new HashMap<>();
+            if (wallet != null) {
+                for (TransactionOutput output : wallet.calculateAllSpendCandidates()) {
+                    if (isOutputScriptConvertibleToAddress(output)) {
+                        Address address = getAddressFromOutput(output);
+                        if (addresses.contains(address))
+                            balanceByAddress.merge(address, output.getValue(), Coin::add);
+                    }
+                }
             }
+            return balanceByAddress;
         }
     }
 }
@@ -19,8 +19,9 @@ package bisq.core.dao.governance.blindvote.storage;
 
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
-import bisq.network.p2p.storage.persistence.MapStoreService;
+import bisq.network.p2p.storage.persistence.AppendOnlyMapStoreService;
 
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
 import com.google.inject.name.Named;
@@ -34,7 +35,7 @@ import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class BlindVoteStorageService extends MapStoreService<BlindVoteStore, PersistableNetworkPayload> {
+public class BlindVoteStorageService extends AppendOnlyMapStoreService<BlindVoteStore> {
     private static final String FILE_NAME = "BlindVoteStore";
 
 
@@ -44,8 +45,9 @@ public class BlindVoteStorageService extends MapStoreService<BlindVoteStore, Per
 
     @Inject
     public BlindVoteStorageService(@Named(Storage.STORAGE_DIR) File storageDir,
-                                   Storage<BlindVoteStore> persistableNetworkPayloadMapStorage) {
-        super(storageDir, persistableNetworkPayloadMapStorage);
+                                   Storage<BlindVoteStore> persistableNetworkPayloadMapStorage,
+                                   PersistenceProtoResolver persistenceProtoResolver) {
+        super(storageDir, persistableNetworkPayloadMapStorage, persistenceProtoResolver);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
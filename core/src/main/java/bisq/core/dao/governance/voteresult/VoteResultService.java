@@ -29,7 +29,6 @@ import bisq.core.dao.governance.period.PeriodService;
 import bisq.core.dao.governance.proposal.IssuanceProposal;
 import bisq.core.dao.governance.proposal.ProposalListPresentation;
 import bisq.core.dao.governance.voteresult.issuance.IssuanceService;
-import bisq.core.dao.governance.votereveal.VoteRevealConsensus;
 import bisq.core.dao.governance.votereveal.VoteRevealService;
 import bisq.core.dao.state.DaoStateListener;
 import bisq.core.dao.state.DaoStateService;
@@ -55,9 +54,14 @@ import bisq.core.locale.CurrencyUtil;
 
 import bisq.network.p2p.storage.P2PDataStorage;
 
+import bisq.common.crypto.Hash;
 import bisq.common.util.MathUtils;
 import bisq.common.util.Utilities;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
 import javax.inject.Inject;
 
 import javafx.collections.FXCollections;
@@ -65,6 +69,8 @@ import javafx.collections.ObservableList;
 
 import javax.crypto.SecretKey;
 
+import java.io.ByteArrayOutputStream;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -75,6 +81,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -104,6 +113,9 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     private final MissingDataRequestService missingDataRequestService;
     @Getter
     private final ObservableList<VoteResultException> voteResultExceptions = FXCollections.observableArrayList();
+    // Bounded pool for the decryption of the blind votes, threads time out between the vote result phases
+    private final ExecutorService decryptionExecutor = Utilities.getFixedThreadPoolExecutor("VoteResultService-decryption",
+            Math.min(4, Runtime.getRuntime().availableProcessors()), 60);
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -240,96 +252,152 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     }
 
     private Set<DecryptedBallotsWithMerits> getDecryptedBallotsWithMeritsSet(int chainHeight) {
+        // The data of the blind votes and ballots does not change while we process the cycle, so we look it up once.
+        Map<String, BlindVote> blindVoteByTxId = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService).stream()
+                .collect(Collectors.toMap(BlindVote::getTxId, blindVote -> blindVote, (a, b) -> a));
+        // A duplicate ballot txId makes toMap throw at each vote, which is recorded as a VoteResultException per vote.
+        // The memoized supplier does not cache the exception, so we keep that behaviour and build the map only once
+        // otherwise.
+        Supplier<Map<String, Ballot>> ballotByTxIdMapSupplier = Suppliers.memoize(() ->
+                ballotListService.getValidatedBallotList().stream()
+                        .collect(Collectors.toMap(Ballot::getTxId, ballot -> ballot)));
+
         // We want all voteRevealTxOutputs which are in current cycle we are processing.
-        return daoStateService.getVoteRevealOpReturnTxOutputs().stream()
+        List<RevealedBlindVote> revealedBlindVotes = daoStateService.getVoteRevealOpReturnTxOutputs().stream()
                 .filter(txOutput -> periodService.isTxInCorrectCycle(txOutput.getTxId(), chainHeight))
-                .map(txOutput -> {
-                    // TODO make method
-                    byte[] opReturnData = txOutput.getOpReturnData();
-                    String voteRevealTxId = txOutput.getTxId();
-                    Optional<Tx> optionalVoteRevealTx = daoStateService.getTx(voteRevealTxId);
-                    if (!optionalVoteRevealTx.isPresent()) {
-                        log.error("optionalVoteRevealTx is not present. voteRevealTxId={}", voteRevealTxId);
-                        //TODO throw exception
-                        return null;
-                    }
+                .map(txOutput -> getRevealedBlindVote(txOutput, blindVoteByTxId, chainHeight))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
 
-                    Tx voteRevealTx = optionalVoteRevealTx.get();
-                    // If we get a voteReveal tx which was published too late we ignore it.
-                    if (!periodService.isTxInPhaseAndCycle(voteRevealTx.getId(), DaoPhase.Phase.VOTE_REVEAL, chainHeight)) {
-                        log.warn("We got a vote reveal tx with was not in the correct phase and/or cycle. voteRevealTxId={}", voteRevealTx.getId());
-                        return null;
-                    }
+        // Decryption is independent for each blind vote, so we do it in parallel. The results keep the order of
+        // the revealed blind votes and we process them on our thread.
+        List<DecryptedBlindVote> decryptedBlindVotes = decryptBlindVotes(revealedBlindVotes, decryptionExecutor);
+
+        Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet = new HashSet<>();
+        for (int i = 0; i < revealedBlindVotes.size(); i++) {
+            RevealedBlindVote revealedBlindVote = revealedBlindVotes.get(i);
+            String blindVoteTxId = revealedBlindVote.getBlindVote().getTxId();
+            String voteRevealTxId = revealedBlindVote.getVoteRevealTxId();
+            try {
+                DecryptedBlindVote decryptedBlindVote = decryptedBlindVotes.get(i);
+                if (decryptedBlindVote.getDecryptionException() != null)
+                    throw decryptedBlindVote.getDecryptionException();
+
+                // We lookup for the proposals we have in our local list which match the txId from the
+                // voteWithProposalTxIdList and create a ballot list with the proposal and the vote from
+                // the voteWithProposalTxIdList
+                BallotList ballotList = createBallotList(decryptedBlindVote.getVoteWithProposalTxIdList(), ballotByTxIdMapSupplier);
+                byte[] hashOfBlindVoteList = VoteResultConsensus.getHashOfBlindVoteList(revealedBlindVote.getOpReturnData());
+                long blindVoteStake = revealedBlindVote.getBlindVoteStake();
+                log.info("Add entry to decryptedBallotsWithMeritsSet: blindVoteTxId={}, voteRevealTxId={}, blindVoteStake={}, ballotList={}",
+                        blindVoteTxId, voteRevealTxId, blindVoteStake, ballotList);
+                decryptedBallotsWithMeritsSet.add(new DecryptedBallotsWithMerits(hashOfBlindVoteList, blindVoteTxId,
+                        voteRevealTxId, blindVoteStake, ballotList, decryptedBlindVote.getMeritList()));
+            } catch (VoteResultException.MissingBallotException missingBallotException) {
+                log.warn("We are missing proposals to create the vote result: " + missingBallotException.toString());
+                missingDataRequestService.addVoteResultException(missingBallotException);
+                voteResultExceptions.add(missingBallotException);
+            } catch (VoteResultException.DecryptionException decryptionException) {
+                log.error("Could not decrypt data: " + decryptionException.toString());
+                voteResultExceptions.add(decryptionException);
+            } catch (Throwable e) {
+                log.error("Could not create DecryptedBallotsWithMerits because of an unknown exception: " + e.toString());
+                voteResultExceptions.add(new VoteResultException(e));
+            }
+        }
+        return decryptedBallotsWithMeritsSet;
+    }
+
+    @Nullable
+    private RevealedBlindVote getRevealedBlindVote(TxOutput txOutput, Map<String, BlindVote> blindVoteByTxId, int chainHeight) {
+        byte[] opReturnData = txOutput.getOpReturnData();
+        String voteRevealTxId = txOutput.getTxId();
+        Optional<Tx> optionalVoteRevealTx = daoStateService.getTx(voteRevealTxId);
+        if (!optionalVoteRevealTx.isPresent()) {
+            log.error("optionalVoteRevealTx is not present. voteRevealTxId={}", voteRevealTxId);
+            //TODO throw exception
+            return null;
+        }
+
+        Tx voteRevealTx = optionalVoteRevealTx.get();
+        // If we get a voteReveal tx which was published too late we ignore it.
+        if (!periodService.isTxInPhaseAndCycle(voteRevealTx.getId(), DaoPhase.Phase.VOTE_REVEAL, chainHeight)) {
+            log.warn("We got a vote reveal tx with was not in the correct phase and/or cycle. voteRevealTxId={}", voteRevealTx.getId());
+            return null;
+        }
+
+        try {
+            // TODO maybe verify version in opReturn
+
+            TxOutput blindVoteStakeOutput = VoteResultConsensus.getConnectedBlindVoteStakeOutput(voteRevealTx, daoStateService);
+            String blindVoteTxId = blindVoteStakeOutput.getTxId();
+            boolean isBlindVoteInCorrectPhaseAndCycle = periodService.isTxInPhaseAndCycle(blindVoteTxId, DaoPhase.Phase.BLIND_VOTE, chainHeight);
+            // If we get a voteReveal tx which was published too late we ignore it.
+            if (!isBlindVoteInCorrectPhaseAndCycle) {
+                log.warn("We got a blind vote tx with was not in the correct phase and/or cycle. blindVoteTxId={}", blindVoteTxId);
+                return null;
+            }
+
+            VoteResultConsensus.validateBlindVoteTx(blindVoteStakeOutput.getTxId(), daoStateService, periodService, chainHeight);
+
+            BlindVote blindVote = blindVoteByTxId.get(blindVoteTxId);
+            if (blindVote != null) {
+                return new RevealedBlindVote(voteRevealTxId, opReturnData, blindVoteStakeOutput.getValue(), blindVote);
+            } else {
+                log.warn("We have a blindVoteTx but we do not have the corresponding blindVote payload in our local database.\n" +
+                        "That can happen if the blindVote item was not properly broadcast. We will go on " +
+                        "and see if that blindVote was part of the majority data view. If so we should " +
+                        "recover the missing blind vote by a request to our peers. blindVoteTxId={}", blindVoteTxId);
+
+                VoteResultException.MissingBlindVoteDataException voteResultException = new VoteResultException.MissingBlindVoteDataException(blindVoteTxId);
+                missingDataRequestService.addVoteResultException(voteResultException);
+                voteResultExceptions.add(voteResultException);
+                return null;
+            }
+        } catch (VoteResultException.ValidationException e) {
+            log.error("Could not create DecryptedBallotsWithMerits because of voteResultValidationException: " + e.toString());
+            voteResultExceptions.add(e);
+            return null;
+        } catch (Throwable e) {
+            log.error("Could not create DecryptedBallotsWithMerits because of an unknown exception: " + e.toString());
+            voteResultExceptions.add(new VoteResultException(e));
+            return null;
+        }
+    }
 
+    // Results are in the order of the revealedBlindVotes independent of the order of the execution
+    @VisibleForTesting
+    static List<DecryptedBlindVote> decryptBlindVotes(List<RevealedBlindVote> revealedBlindVotes, ExecutorService executor) {
+        List<Future<DecryptedBlindVote>> futures = revealedBlindVotes.stream()
+                .map(revealedBlindVote -> executor.submit(() -> decryptBlindVote(revealedBlindVote)))
+                .collect(Collectors.toList());
+        return futures.stream()
+                .map(future -> {
                     try {
-                        // TODO maybe verify version in opReturn
-
-                        TxOutput blindVoteStakeOutput = VoteResultConsensus.getConnectedBlindVoteStakeOutput(voteRevealTx, daoStateService);
-                        String blindVoteTxId = blindVoteStakeOutput.getTxId();
-                        boolean isBlindVoteInCorrectPhaseAndCycle = periodService.isTxInPhaseAndCycle(blindVoteTxId, DaoPhase.Phase.BLIND_VOTE, chainHeight);
-                        // If we get a voteReveal tx which was published too late we ignore it.
-                        if (!isBlindVoteInCorrectPhaseAndCycle) {
-                            log.warn("We got a blind vote tx with was not in the correct phase and/or cycle. blindVoteTxId={}", blindVoteTxId);
-                            return null;
-                        }
-
-                        VoteResultConsensus.validateBlindVoteTx(blindVoteStakeOutput.getTxId(), daoStateService, periodService, chainHeight);
-
-                        List<BlindVote> blindVoteList = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
-                        Optional<BlindVote> optionalBlindVote = blindVoteList.stream()
-                                .filter(blindVote -> blindVote.getTxId().equals(blindVoteTxId))
-                                .findAny();
-                        if (optionalBlindVote.isPresent()) {
-                            BlindVote blindVote = optionalBlindVote.get();
-                            try {
-                                SecretKey secretKey = VoteResultConsensus.getSecretKey(opReturnData);
-                                VoteWithProposalTxIdList voteWithProposalTxIdList = VoteResultConsensus.decryptVotes(blindVote.getEncryptedVotes(), secretKey);
-                                MeritList meritList = MeritConsensus.decryptMeritList(blindVote.getEncryptedMeritList(), secretKey);
-                                // We lookup for the proposals we have in our local list which match the txId from the
-                                // voteWithProposalTxIdList and create a ballot list with the proposal and the vote from
-                                // the voteWithProposalTxIdList
-                                BallotList ballotList = createBallotList(voteWithProposalTxIdList);
-                                byte[] hashOfBlindVoteList = VoteResultConsensus.getHashOfBlindVoteList(opReturnData);
-                                long blindVoteStake = blindVoteStakeOutput.getValue();
-                                log.info("Add entry to decryptedBallotsWithMeritsSet: blindVoteTxId={}, voteRevealTxId={}, blindVoteStake={}, ballotList={}",
-                                        blindVoteTxId, voteRevealTxId, blindVoteStake, ballotList);
-                                return new DecryptedBallotsWithMerits(hashOfBlindVoteList, blindVoteTxId, voteRevealTxId, blindVoteStake, ballotList, meritList);
-                            } catch (VoteResultException.MissingBallotException missingBallotException) {
-                                log.warn("We are missing proposals to create the vote result: " + missingBallotException.toString());
-                                missingDataRequestService.addVoteResultException(missingBallotException);
-                                voteResultExceptions.add(missingBallotException);
-                                return null;
-                            } catch (VoteResultException.DecryptionException decryptionException) {
-                                log.error("Could not decrypt data: " + decryptionException.toString());
-                                voteResultExceptions.add(decryptionException);
-                                return null;
-                            }
-                        } else {
-                            log.warn("We have a blindVoteTx but we do not have the corresponding blindVote payload in our local database.\n" +
-                                    "That can happen if the blindVote item was not properly broadcast. We will go on " +
-                                    "and see if that blindVote was part of the majority data view. If so we should " +
-                                    "recover the missing blind vote by a request to our peers. blindVoteTxId={}", blindVoteTxId);
-
-                            VoteResultException.MissingBlindVoteDataException voteResultException = new VoteResultException.MissingBlindVoteDataException(blindVoteTxId);
-                            missingDataRequestService.addVoteResultException(voteResultException);
-                            voteResultExceptions.add(voteResultException);
-                            return null;
-                        }
-                    } catch (VoteResultException.ValidationException e) {
-                        log.error("Could not create DecryptedBallotsWithMerits because of voteResultValidationException: " + e.toString());
-                        voteResultExceptions.add(e);
-                        return null;
-                    } catch (Throwable e) {
-                        log.error("Could not create DecryptedBallotsWithMerits because of an unknown exception: " + e.toString());
-                        voteResultExceptions.add(new VoteResultException(e));
-                        return null;
+                        return future.get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        return new DecryptedBlindVote(null, null, new VoteResultException.DecryptionException(e));
                     }
                 })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toList());
     }
 
-    private BallotList createBallotList(VoteWithProposalTxIdList voteWithProposalTxIdList)
+    private static DecryptedBlindVote decryptBlindVote(RevealedBlindVote revealedBlindVote) {
+        BlindVote blindVote = revealedBlindVote.getBlindVote();
+        try {
+            SecretKey secretKey = VoteResultConsensus.getSecretKey(revealedBlindVote.getOpReturnData());
+            VoteWithProposalTxIdList voteWithProposalTxIdList = VoteResultConsensus.decryptVotes(blindVote.getEncryptedVotes(), secretKey);
+            MeritList meritList = MeritConsensus.decryptMeritList(blindVote.getEncryptedMeritList(), secretKey);
+            return new DecryptedBlindVote(voteWithProposalTxIdList, meritList, null);
+        } catch (VoteResultException.DecryptionException e) {
+            return new DecryptedBlindVote(null, null, e);
+        } catch (Throwable t) {
+            return new DecryptedBlindVote(null, null, new VoteResultException.DecryptionException(t));
+        }
+    }
+
+    private BallotList createBallotList(VoteWithProposalTxIdList voteWithProposalTxIdList,
+                                       Supplier<Map<String, Ballot>> ballotByTxIdMapSupplier)
             throws VoteResultException.MissingBallotException {
         // We convert the list to a map with proposalTxId as key and the vote as value
         Map<String, Vote> voteByTxIdMap = voteWithProposalTxIdList.stream()
@@ -337,8 +405,7 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
                 .collect(Collectors.toMap(VoteWithProposalTxId::getProposalTxId, VoteWithProposalTxId::getVote));
 
         // We make a map with proposalTxId as key and the ballot as value out of our stored ballot list
-        Map<String, Ballot> ballotByTxIdMap = ballotListService.getValidatedBallotList().stream()
-                .collect(Collectors.toMap(Ballot::getTxId, ballot -> ballot));
+        Map<String, Ballot> ballotByTxIdMap = ballotByTxIdMapSupplier.get();
 
         List<String> missingBallots = new ArrayList<>();
         List<Ballot> ballots = voteByTxIdMap.entrySet().stream()
@@ -436,16 +503,28 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
 
     private List<BlindVote> findPermutatedListMatchingMajority(byte[] majorityVoteListHash) {
         List<BlindVote> list = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
-        while (!list.isEmpty() && !isListMatchingMajority(majorityVoteListHash, list)) {
-            // We remove first item as it will be sorted anyway...
-            list.remove(0);
+        return findPermutatedListMatchingMajority(majorityVoteListHash, list);
+    }
+
+    // We remove the first item until the hash of the remaining list matches (it will be sorted anyway...).
+    // The hash of a list is the hash of the concatenated serialized blind votes, so we serialize each blind vote
+    // only once and hash the tails of the concatenated data.
+    @VisibleForTesting
+    static List<BlindVote> findPermutatedListMatchingMajority(byte[] majorityVoteListHash, List<BlindVote> sortedList) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        int[] offsets = new int[sortedList.size()];
+        for (int i = 0; i < sortedList.size(); i++) {
+            offsets[i] = outputStream.size();
+            byte[] data = sortedList.get(i).toProtoMessage().toByteArray();
+            outputStream.write(data, 0, data.length);
         }
-        return list;
-    }
-
-    private boolean isListMatchingMajority(byte[] majorityVoteListHash, List<BlindVote> list) {
-        byte[] hashOfBlindVoteList = VoteRevealConsensus.getHashOfBlindVoteList(list);
-        return Arrays.equals(majorityVoteListHash, hashOfBlindVoteList);
+        byte[] serializedList = outputStream.toByteArray();
+        for (int i = 0; i < offsets.length; i++) {
+            byte[] hashOfBlindVoteList = Hash.getSha256Ripemd160hash(serializedList, offsets[i], serializedList.length - offsets[i]);
+            if (Arrays.equals(majorityVoteListHash, hashOfBlindVoteList))
+                return new ArrayList<>(sortedList.subList(i, sortedList.size()));
+        }
+        return new ArrayList<>();
     }
 
     private void requestBlindVoteListFromNetwork(byte[] majorityVoteListHash) {
@@ -741,6 +820,25 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         }
     }
 
+    // Vote reveal tx which passed validation and the blind vote it reveals
+    @Value
+    static class RevealedBlindVote {
+        private final String voteRevealTxId;
+        private final byte[] opReturnData;
+        private final long blindVoteStake;
+        private final BlindVote blindVote;
+    }
+
+    @Value
+    static class DecryptedBlindVote {
+        @Nullable
+        private final VoteWithProposalTxIdList voteWithProposalTxIdList;
+        @Nullable
+        private final MeritList meritList;
+        @Nullable
+        private final VoteResultException.DecryptionException decryptionException;
+    }
+
     @Value
     private static class VoteWithStake {
         @Nullable
@@ -20,12 +20,13 @@ package bisq.core.dao.node.explorer;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
 import bisq.common.storage.FileUtil;
 import bisq.common.storage.JsonFileManager;
@@ -49,17 +50,29 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    // Blocks are written in pages of blocks_<page>.json files, page is blockHeight / NUM_BLOCKS_PER_PAGE
+    private static final int NUM_BLOCKS_PER_PAGE = 1000;
+    private static final String BLOCKS_FILE_NAME_PREFIX = "blocks_";
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
@@ -68,6 +81,11 @@ public class ExportJsonFilesService implements DaoSetupService {
             1, 1, 1200);
     private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
 
+    private final Set<String> knownIssuanceTxIds = new HashSet<>();
+    private int lastExportedBlockHeight;
+    @Nullable
+    private String lastExportedBlockHash;
+
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
                                   @Named(Storage.STORAGE_DIR) File storageDir,
@@ -133,43 +151,148 @@ public class ExportJsonFilesService implements DaoSetupService {
         }
     }
 
-    public void exportToJson() {
-        if (dumpBlockchainData) {
-            // We store the data we need once we write the data to disk (in the thread) locally.
-            // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
-
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
-                    .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
-
-            ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
-                return null;
-            });
-
-            Futures.addCallback(future, new FutureCallback<>() {
-                public void onSuccess(Void ignore) {
-                    log.trace("onSuccess");
-                }
-
-                public void onFailure(@NotNull Throwable throwable) {
-                    log.error(throwable.toString());
-                    throwable.printStackTrace();
-                }
-            });
+    /**
+     * Exports the data which has changed with the given block. If the block does not continue the last exported
+     * block (first block after start or reorg) we export all data.
+     */
+    public void exportToJson(Block block) {
+        if (!dumpBlockchainData)
+            return;
+
+        boolean isContinuation = lastExportedBlockHash != null &&
+                block.getHeight() == lastExportedBlockHeight + 1 &&
+                block.getPreviousBlockHash().equals(lastExportedBlockHash);
+        if (isContinuation)
+            exportChangedData(block);
+        else
+            exportAllToJson();
+    }
+
+    /**
+     * Exports all data. Can be called on demand, otherwise it is only called if we cannot export only the changes.
+     */
+    public void exportAllToJson() {
+        if (!dumpBlockchainData)
+            return;
+
+        // We store the data we need once we write the data to disk (in the thread) locally.
+        // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
+        List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
+        List<JsonTx> jsonTxs = daoStateService.getTxStream()
+                .map(tx -> {
+                    JsonTx jsonTx = getJsonTx(tx);
+                    allJsonTxOutputs.addAll(jsonTx.getOutputs());
+                    return jsonTx;
+                }).collect(Collectors.toList());
+
+        Map<Integer, JsonBlocks> jsonBlocksByPage = new TreeMap<>();
+        List<Block> blocks = daoStateService.getBlocks();
+        if (!blocks.isEmpty()) {
+            int firstPage = getPage(blocks.get(0).getHeight());
+            int lastPage = getPage(blocks.get(blocks.size() - 1).getHeight());
+            for (int page = firstPage; page <= lastPage; page++) {
+                jsonBlocksByPage.put(page, getJsonBlocks(page));
+            }
         }
+
+        knownIssuanceTxIds.clear();
+        knownIssuanceTxIds.addAll(getIssuanceTxIds());
+        setLastExportedBlock();
+
+        log.info("Export all data to json files. numTxs={}, numBlockPages={}", jsonTxs.size(), jsonBlocksByPage.size());
+        write(jsonBlocksByPage, jsonTxs, allJsonTxOutputs);
+    }
+
+    private void exportChangedData(Block block) {
+        Set<String> changedTxIds = getChangedTxIds(block);
+        List<JsonTxOutput> changedJsonTxOutputs = new ArrayList<>();
+        List<JsonTx> changedJsonTxs = new ArrayList<>();
+        Set<Integer> changedPages = new TreeSet<>();
+        changedPages.add(getPage(block.getHeight()));
+        changedTxIds.forEach(txId -> daoStateService.getTx(txId).ifPresent(tx -> {
+            JsonTx jsonTx = getJsonTx(tx);
+            changedJsonTxs.add(jsonTx);
+            changedJsonTxOutputs.addAll(jsonTx.getOutputs());
+            changedPages.add(getPage(tx.getBlockHeight()));
+        }));
+
+        Map<Integer, JsonBlocks> jsonBlocksByPage = new TreeMap<>();
+        changedPages.forEach(page -> jsonBlocksByPage.put(page, getJsonBlocks(page)));
+
+        setLastExportedBlock();
+
+        write(jsonBlocksByPage, changedJsonTxs, changedJsonTxOutputs);
+    }
+
+    // Txs which are in the new block, txs with outputs spent in the new block and txs with outputs which became BSQ
+    // by a new issuance (and the txs spending those outputs).
+    private Set<String> getChangedTxIds(Block block) {
+        Set<String> txIds = new HashSet<>();
+        block.getTxs().forEach(tx -> {
+            txIds.add(tx.getId());
+            tx.getTxInputs().forEach(txInput -> txIds.add(txInput.getConnectedTxOutputTxId()));
+        });
+
+        Set<String> issuanceTxIds = getIssuanceTxIds();
+        issuanceTxIds.stream()
+                .filter(txId -> !knownIssuanceTxIds.contains(txId))
+                .forEach(txId -> {
+                    txIds.add(txId);
+                    daoStateService.getTx(txId).ifPresent(tx -> tx.getTxOutputs().forEach(txOutput ->
+                            daoStateService.getSpentInfo(txOutput).ifPresent(spentInfo -> txIds.add(spentInfo.getTxId()))));
+                });
+        knownIssuanceTxIds.clear();
+        knownIssuanceTxIds.addAll(issuanceTxIds);
+        return txIds;
+    }
+
+    private Set<String> getIssuanceTxIds() {
+        return Arrays.stream(IssuanceType.values())
+                .flatMap(issuanceType -> daoStateService.getIssuanceSet(issuanceType).stream())
+                .map(Issuance::getTxId)
+                .collect(Collectors.toSet());
+    }
+
+    private void setLastExportedBlock() {
+        Optional<Block> lastBlock = daoStateService.getLastBlock();
+        lastExportedBlockHeight = lastBlock.map(Block::getHeight).orElse(0);
+        lastExportedBlockHash = lastBlock.map(Block::getHash).orElse(null);
+    }
+
+    private int getPage(int blockHeight) {
+        return blockHeight / NUM_BLOCKS_PER_PAGE;
+    }
+
+    private JsonBlocks getJsonBlocks(int page) {
+        int fromHeight = page * NUM_BLOCKS_PER_PAGE;
+        int toHeight = Math.min(fromHeight + NUM_BLOCKS_PER_PAGE, daoStateService.getChainHeight() + 1);
+        List<JsonBlock> jsonBlockList = new ArrayList<>();
+        for (int height = fromHeight; height < toHeight; height++) {
+            daoStateService.getBlockAtHeight(height).map(this::getJsonBlock).ifPresent(jsonBlockList::add);
+        }
+        return new JsonBlocks(daoStateService.getChainHeight(), jsonBlockList);
+    }
+
+    private void write(Map<Integer, JsonBlocks> jsonBlocksByPage, List<JsonTx> jsonTxs, List<JsonTxOutput> jsonTxOutputs) {
+        // We write at our single threaded executor so the files get written in the order of the exports.
+        ListenableFuture<Void> future = executor.submit(() -> {
+            jsonBlocksByPage.forEach((page, jsonBlocks) ->
+                    bsqStateFileManager.writeToDiscSynchronously(Utilities.objectToJson(jsonBlocks), BLOCKS_FILE_NAME_PREFIX + page));
+            jsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDiscSynchronously(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+            jsonTxs.forEach(jsonTx -> txFileManager.writeToDiscSynchronously(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+            return null;
+        });
+
+        Futures.addCallback(future, new FutureCallback<>() {
+            public void onSuccess(Void ignore) {
+                log.trace("onSuccess");
+            }
+
+            public void onFailure(@NotNull Throwable throwable) {
+                log.error(throwable.toString());
+                throwable.printStackTrace();
+            }
+        });
     }
 
     private JsonBlock getJsonBlock(Block block) {
@@ -0,0 +1,205 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full;
+
+import bisq.core.dao.node.parser.exceptions.RequiredReorgFromSnapshotException;
+
+import bisq.common.UserThread;
+import bisq.common.handlers.ResultHandler;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Requests a window of blocks ahead of the block we are parsing, so the RPC round trips of consecutive blocks
+ * overlap instead of adding up. The requests run concurrently at the BlockRequester, but the blocks are passed to the
+ * handler strictly in height order on the UserThread.
+ * <p>
+ * If the handler requires a reorg we drop the prefetched window as the blocks might not be part of the chain we
+ * continue with. A new run has to be started for the heights after the reorg.
+ */
+@Slf4j
+class BlockPrefetcher {
+
+    interface BlockRequester {
+        // The future completes at any thread
+        ListenableFuture<RawBlock> requestBtcBlock(int blockHeight);
+    }
+
+    interface RawBlockHandler {
+        void onRawBlock(RawBlock rawBlock) throws RequiredReorgFromSnapshotException;
+    }
+
+    private final BlockRequester blockRequester;
+    private final int windowSize;
+
+    // Requested blocks by height, the first entry is the block we wait for to be parsed next
+    private final TreeMap<Integer, ListenableFuture<RawBlock>> window = new TreeMap<>();
+    // Incremented at each new run or reset so that callbacks of a dropped window are ignored
+    private int runId;
+    private int nextBlockHeight;
+    private int nextRequestHeight;
+    private int chainHeight;
+    // Protects against recursive calls if a request completes already inside fillWindow
+    private boolean processing;
+    @Nullable
+    private RawBlockHandler rawBlockHandler;
+    @Nullable
+    private ResultHandler resultHandler;
+    @Nullable
+    private Consumer<Throwable> errorHandler;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BlockPrefetcher(BlockRequester blockRequester, int windowSize) {
+        checkArgument(windowSize > 0, "windowSize must be positive");
+        this.blockRequester = blockRequester;
+        this.windowSize = windowSize;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Must be called on the UserThread. A run which is still in progress gets dropped.
+    void start(int startBlockHeight,
+               int chainHeight,
+               RawBlockHandler rawBlockHandler,
+               ResultHandler resultHandler,
+               Consumer<Throwable> errorHandler) {
+        reset();
+
+        this.nextBlockHeight = startBlockHeight;
+        this.nextRequestHeight = startBlockHeight;
+        this.chainHeight = chainHeight;
+        this.rawBlockHandler = rawBlockHandler;
+        this.resultHandler = resultHandler;
+        this.errorHandler = errorHandler;
+
+        fillWindow();
+    }
+
+    // Drops the prefetched blocks and requests which are still pending
+    void reset() {
+        runId++;
+        window.values().forEach(future -> future.cancel(false));
+        window.clear();
+        rawBlockHandler = null;
+        resultHandler = null;
+        errorHandler = null;
+    }
+
+    boolean isRunning() {
+        return rawBlockHandler != null;
+    }
+
+    int getNumPrefetchedBlocks() {
+        return (int) window.values().stream().filter(ListenableFuture::isDone).count();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void fillWindow() {
+        int currentRunId = runId;
+        while (nextRequestHeight <= chainHeight && nextRequestHeight < nextBlockHeight + windowSize) {
+            ListenableFuture<RawBlock> future = blockRequester.requestBtcBlock(nextRequestHeight);
+            window.put(nextRequestHeight, future);
+            nextRequestHeight++;
+            future.addListener(() -> UserThread.execute(() -> {
+                if (currentRunId == runId)
+                    processCompletedBlocks();
+            }), MoreExecutors.directExecutor());
+        }
+    }
+
+    private void processCompletedBlocks() {
+        if (processing)
+            return;
+
+        processing = true;
+        try {
+            doProcessCompletedBlocks();
+        } finally {
+            processing = false;
+        }
+    }
+
+    private void doProcessCompletedBlocks() {
+        // The handlers might start a new run, so we continue as long as there is any run in progress
+        while (isRunning()) {
+            int currentRunId = runId;
+            ListenableFuture<RawBlock> future = window.get(nextBlockHeight);
+            if (future == null || !future.isDone())
+                return;
+
+            window.remove(nextBlockHeight);
+            RawBlock rawBlock;
+            try {
+                rawBlock = future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                Consumer<Throwable> errorHandler = this.errorHandler;
+                log.error("Error at requesting block: blockHeight={}", nextBlockHeight);
+                reset();
+                errorHandler.accept(e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e);
+                continue;
+            }
+
+            try {
+                rawBlockHandler.onRawBlock(rawBlock);
+            } catch (RequiredReorgFromSnapshotException e) {
+                // The handler might have started a new run already, in that case we must not reset it
+                if (currentRunId == runId) {
+                    log.info("We drop {} requested blocks after block {} as a reorg is required.",
+                            window.size(), rawBlock.getHeight());
+                    reset();
+                }
+                continue;
+            }
+
+            if (currentRunId != runId)
+                continue;
+
+            if (nextBlockHeight >= chainHeight) {
+                ResultHandler resultHandler = this.resultHandler;
+                reset();
+                resultHandler.handleResult();
+                continue;
+            }
+
+            nextBlockHeight++;
+            fillWindow();
+        }
+    }
+}
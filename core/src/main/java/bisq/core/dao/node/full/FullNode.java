@@ -51,10 +51,14 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class FullNode extends BsqNode {
+    // Number of blocks we request ahead of the block we parse. Blocks are held in memory until they get parsed, so
+    // we keep that small.
+    private static final int PREFETCH_WINDOW_SIZE = 4 * RpcService.NUM_BLOCK_REQUEST_THREADS;
 
     private final RpcService rpcService;
     private final FullNodeNetworkService fullNodeNetworkService;
     private final ExportJsonFilesService exportJsonFilesService;
+    private final BlockPrefetcher blockPrefetcher;
     private boolean addBlockHandlerAdded;
     private int blocksToParseInBatch;
     private long parseInBatchStartTime;
@@ -75,6 +79,7 @@ public class FullNode extends BsqNode {
                     FullNodeNetworkService fullNodeNetworkService) {
         super(blockParser, daoStateService, daoStateSnapshotService, p2PService);
         this.rpcService = rpcService;
+        blockPrefetcher = new BlockPrefetcher(rpcService::requestBtcBlock, PREFETCH_WINDOW_SIZE);
 
         this.exportJsonFilesService = exportJsonFilesService;
         this.fullNodeNetworkService = fullNodeNetworkService;
@@ -97,6 +102,7 @@ public class FullNode extends BsqNode {
     }
 
     public void shutDown() {
+        blockPrefetcher.reset();
         exportJsonFilesService.shutDown();
         fullNodeNetworkService.shutDown();
     }
@@ -170,7 +176,7 @@ public class FullNode extends BsqNode {
     }
 
     private void onNewBlock(Block block) {
-        exportJsonFilesService.exportToJson();
+        exportJsonFilesService.exportToJson(block);
 
         if (p2pNetworkReady && parseBlockchainComplete)
             fullNodeNetworkService.publishNewBlock(block);
@@ -227,31 +233,12 @@ public class FullNode extends BsqNode {
                              Consumer<Block> newBlockHandler,
                              ResultHandler resultHandler,
                              Consumer<Throwable> errorHandler) {
-        parseBlockRecursively(startBlockHeight, chainHeight, newBlockHandler, resultHandler, errorHandler);
-    }
-
-    private void parseBlockRecursively(int blockHeight,
-                                       int chainHeight,
-                                       Consumer<Block> newBlockHandler,
-                                       ResultHandler resultHandler,
-                                       Consumer<Throwable> errorHandler) {
-        rpcService.requestBtcBlock(blockHeight,
-                rawBlock -> {
-                    try {
-                        doParseBlock(rawBlock).ifPresent(newBlockHandler);
-
-                        // Increment blockHeight and recursively call parseBlockAsync until we reach chainHeight
-                        if (blockHeight < chainHeight) {
-                            int newBlockHeight = blockHeight + 1;
-                            parseBlockRecursively(newBlockHeight, chainHeight, newBlockHandler, resultHandler, errorHandler);
-                        } else {
-                            // We are done
-                            resultHandler.handleResult();
-                        }
-                    } catch (RequiredReorgFromSnapshotException ignore) {
-                        // If we get a reorg we don't continue to call parseBlockRecursively
-                    }
-                },
+        // If we get a reorg the BlockPrefetcher drops the requested blocks and does not continue. The reorg from the
+        // snapshot starts parsing again.
+        blockPrefetcher.start(startBlockHeight,
+                chainHeight,
+                rawBlock -> doParseBlock(rawBlock).ifPresent(newBlockHandler),
+                resultHandler,
                 errorHandler);
     }
 
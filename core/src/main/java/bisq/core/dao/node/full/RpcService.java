@@ -53,9 +53,12 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -79,9 +82,16 @@ public class RpcService {
     private BtcdClient client;
     private BtcdDaemon daemon;
 
-    // We could use multiple threads but then we need to support ordering of results in a queue
-    // Keep that for optimization after measuring performance differences
+    // Number of blocks we request concurrently. Ordering of the results is done by the BlockPrefetcher.
+    static final int NUM_BLOCK_REQUEST_THREADS = 4;
+
     private final ListeningExecutorService executor = Utilities.getSingleThreadExecutor("RpcService");
+    // Requests for blocks can take long for big blocks, so we do not let them block the other requests
+    private final ListeningExecutorService blockRequestExecutor = MoreExecutors.listeningDecorator(
+            Executors.newFixedThreadPool(NUM_BLOCK_REQUEST_THREADS, new ThreadFactoryBuilder()
+                    .setNameFormat("RpcService-block-%d")
+                    .setDaemon(true)
+                    .build()));
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -122,6 +132,10 @@ public class RpcService {
             try {
                 long startTs = System.currentTimeMillis();
                 PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+                // All requests go to the same route, so we need to raise the default limit of 2 connections per
+                // route to be able to run the block requests concurrently.
+                cm.setMaxTotal(NUM_BLOCK_REQUEST_THREADS + 2);
+                cm.setDefaultMaxPerRoute(NUM_BLOCK_REQUEST_THREADS + 2);
                 CloseableHttpClient httpProvider = HttpClients.custom().setConnectionManager(cm).build();
                 Properties nodeConfig = new Properties();
                 nodeConfig.setProperty("node.bitcoind.rpc.protocol", "http");
@@ -213,10 +227,10 @@ public class RpcService {
         });
     }
 
-    void requestBtcBlock(int blockHeight,
-                         Consumer<RawBlock> resultHandler,
-                         Consumer<Throwable> errorHandler) {
-        ListenableFuture<RawBlock> future = executor.submit(() -> {
+    // The returned future completes at a thread of the blockRequestExecutor. The txs get converted to RawTx
+    // at that thread as well so the UserThread is not blocked by it.
+    ListenableFuture<RawBlock> requestBtcBlock(int blockHeight) {
+        return blockRequestExecutor.submit(() -> {
             long startTs = System.currentTimeMillis();
             String blockHash = client.getBlockHash(blockHeight);
             com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock = client.getBlock(blockHash, 2);
@@ -231,19 +245,6 @@ public class RpcService {
                     rawBtcBlock.getPreviousBlockHash(),
                     ImmutableList.copyOf(txList));
         });
-
-        Futures.addCallback(future, new FutureCallback<>() {
-            @Override
-            public void onSuccess(RawBlock block) {
-                UserThread.execute(() -> resultHandler.accept(block));
-            }
-
-            @Override
-            public void onFailure(@NotNull Throwable throwable) {
-                log.error("Error at requestBtcBlock: blockHeight={}", blockHeight);
-                UserThread.execute(() -> errorHandler.accept(throwable));
-            }
-        });
     }
 
 
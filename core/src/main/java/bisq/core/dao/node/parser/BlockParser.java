@@ -25,12 +25,12 @@ import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.Tx;
 
 import bisq.common.app.DevEnv;
+import bisq.common.util.PersistentList;
 
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
@@ -124,7 +124,7 @@ public class BlockParser {
     }
 
     private void validateIfBlockIsConnecting(RawBlock rawBlock) throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
-        LinkedList<Block> blocks = daoStateService.getBlocks();
+        PersistentList<Block> blocks = daoStateService.getBlocks();
 
         if (blocks.isEmpty())
             return;
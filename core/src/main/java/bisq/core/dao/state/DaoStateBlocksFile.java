@@ -0,0 +1,162 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.storage.FileUtil;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.io.CountingInputStream;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only file with the blocks of the persisted DaoState snapshots.
+ * <p>
+ * Blocks do not change once they are part of the chain, so we only append the blocks which have been added since
+ * the last snapshot instead of writing all blocks again. Only if the snapshot does not continue the blocks in the
+ * file (reorg or reset) the file gets rewritten.
+ * <p>
+ * The DaoStateStore keeps the number of blocks and the hash of the last block which belong to it. A crash between
+ * writing the blocks and the store leaves a longer file which gets truncated at the next read.
+ */
+@Slf4j
+class DaoStateBlocksFile {
+    private final File file;
+    private final File tempFile;
+
+    @Getter
+    private int numBlocks;
+    @Getter
+    private String hashOfLastBlock = "";
+    // We only append if we know the content of the file
+    private boolean initialized;
+
+    DaoStateBlocksFile(File storageDir, String fileName) {
+        file = new File(storageDir, fileName);
+        tempFile = new File(storageDir, fileName + ".tmp");
+    }
+
+    /**
+     * Reads the blocks referenced by a DaoStateStore and drops all blocks after those.
+     *
+     * @return The blocks or an empty Optional if the file does not contain the expected blocks
+     */
+    synchronized Optional<List<Block>> read(int expectedNumBlocks, String expectedHashOfLastBlock) {
+        List<Block> blocks = new ArrayList<>();
+        long validLength = 0;
+        if (file.exists() && expectedNumBlocks > 0) {
+            try (CountingInputStream inputStream = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                while (blocks.size() < expectedNumBlocks) {
+                    PB.BaseBlock proto = PB.BaseBlock.parseDelimitedFrom(inputStream);
+                    if (proto == null)
+                        break;
+
+                    blocks.add(Block.fromProto(proto));
+                    validLength = inputStream.getCount();
+                }
+            } catch (Throwable t) {
+                log.error("Could not read blocks from {}", file.getAbsolutePath(), t);
+            }
+        }
+
+        boolean isValid = blocks.size() == expectedNumBlocks &&
+                (blocks.isEmpty() || blocks.get(blocks.size() - 1).getHash().equals(expectedHashOfLastBlock));
+        if (!isValid) {
+            log.warn("{} does not contain the expected blocks. expectedNumBlocks={}, numBlocks={}",
+                    file.getName(), expectedNumBlocks, blocks.size());
+            blocks.clear();
+            validLength = 0;
+        }
+
+        try {
+            truncate(validLength);
+            numBlocks = blocks.size();
+            hashOfLastBlock = blocks.isEmpty() ? "" : blocks.get(blocks.size() - 1).getHash();
+            initialized = true;
+        } catch (IOException e) {
+            log.error("Could not truncate {}", file.getAbsolutePath(), e);
+        }
+        return isValid ? Optional.of(blocks) : Optional.empty();
+    }
+
+    /**
+     * Writes the blocks of a snapshot. Only blocks which are not in the file yet get written if possible.
+     */
+    synchronized void write(List<Block> blocks) throws IOException {
+        boolean isContinuation = initialized &&
+                numBlocks <= blocks.size() &&
+                (numBlocks == 0 || blocks.get(numBlocks - 1).getHash().equals(hashOfLastBlock));
+        if (isContinuation) {
+            if (numBlocks < blocks.size())
+                writeBlocks(file, blocks, numBlocks, true);
+        } else {
+            log.info("Blocks of snapshot do not continue the blocks in {}. We rewrite the file.", file.getName());
+            writeBlocks(tempFile, blocks, 0, false);
+            FileUtil.renameFile(tempFile, file);
+            initialized = true;
+        }
+
+        numBlocks = blocks.size();
+        hashOfLastBlock = blocks.isEmpty() ? "" : blocks.get(blocks.size() - 1).getHash();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void writeBlocks(File file, List<Block> blocks, int fromIndex, boolean append) throws IOException {
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file, append);
+             BufferedOutputStream outputStream = new BufferedOutputStream(fileOutputStream)) {
+            for (int i = fromIndex; i < blocks.size(); i++) {
+                blocks.get(i).toProtoMessage().writeDelimitedTo(outputStream);
+            }
+            outputStream.flush();
+            // The store refers to the blocks, so they must be on disk before the store gets written
+            fileOutputStream.getFD().sync();
+        }
+    }
+
+    private void truncate(long length) throws IOException {
+        if (!file.exists())
+            return;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            if (channel.size() > length)
+                channel.truncate(length);
+        }
+    }
+}
@@ -37,12 +37,17 @@ import bisq.core.dao.state.model.governance.IssuanceType;
 import bisq.core.dao.state.model.governance.ParamChange;
 import bisq.core.util.BsqFormatter;
 
+import bisq.common.util.PersistentList;
+
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -70,6 +75,16 @@ public class DaoStateService implements DaoSetupService {
     private final List<DaoStateListener> daoStateListeners = new CopyOnWriteArrayList<>();
     private boolean parseBlockChainComplete;
 
+    // Indexes of the blocks of the daoState. A block gets indexed when it is added and its txs when parsing of the
+    // block is complete. All get rebuilt when a snapshot is applied.
+    private final Map<Integer, Block> blockByHeight = new HashMap<>();
+    private final Set<String> blockHashes = new HashSet<>();
+    private final Map<String, Tx> txById = new HashMap<>();
+    private final Map<TxOutputType, List<TxOutput>> txOutputsByType = new EnumMap<>(TxOutputType.class);
+    // Block which is currently parsed. Its txs are not indexed yet as they get added while parsing.
+    @Nullable
+    private Block blockInParsing;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -80,6 +95,8 @@ public class DaoStateService implements DaoSetupService {
         this.daoState = daoState;
         this.genesisTxInfo = genesisTxInfo;
         this.bsqFormatter = bsqFormatter;
+
+        buildIndexes();
     }
 
 
@@ -132,16 +149,14 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getDecryptedBallotsWithMeritsList().clear();
         daoState.getDecryptedBallotsWithMeritsList().addAll(snapshot.getDecryptedBallotsWithMeritsList());
+
+        buildIndexes();
     }
 
     public DaoState getClone() {
         return DaoState.getClone(daoState);
     }
 
-    DaoState getClone(DaoState snapshotCandidate) {
-        return DaoState.getClone(snapshotCandidate);
-    }
-
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // ChainHeight
@@ -200,6 +215,10 @@ public class DaoStateService implements DaoSetupService {
                     "That might happen in edge cases at reorgs.");
         } else {
             daoState.getBlocks().add(block);
+            // In case parsing of the previous block did not complete we index its txs now
+            indexTxsOfBlockInParsing();
+            indexBlock(block);
+            blockInParsing = block;
             daoStateListeners.forEach(l -> l.onEmptyBlockAdded(block));
 
             log.info("New Block added at blockHeight " + block.getHeight());
@@ -208,6 +227,9 @@ public class DaoStateService implements DaoSetupService {
 
     // Third we get the onParseBlockComplete called after all rawTxs of blocks have been parsed
     public void onParseBlockComplete(Block block) {
+        if (block == blockInParsing)
+            indexTxsOfBlockInParsing();
+
         // We don't call it during batch parsing as that decreased performance a lot.
         // With calling at each block we got about 50 seconds for 4000 blocks, without about 4 seconds.
         if (parseBlockChainComplete)
@@ -225,7 +247,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
 
-    public LinkedList<Block> getBlocks() {
+    public PersistentList<Block> getBlocks() {
         return daoState.getBlocks();
     }
 
@@ -237,9 +259,7 @@ public class DaoStateService implements DaoSetupService {
      * {@code false}.
      */
     public boolean isBlockHashKnown(String blockHash) {
-        // TODO(chirhonul): If performance of O(n) time in number of blocks becomes an issue,
-        // we should keep a HashMap of block hash -> Block to make this method O(1).
-        return getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+        return blockHashes.contains(blockHash);
     }
 
     public Optional<Block> getLastBlock() {
@@ -254,17 +274,15 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Block> getBlockAtHeight(int height) {
-        return getBlocks().stream()
-                .filter(block -> block.getHeight() == height)
-                .findAny();
+        return Optional.ofNullable(blockByHeight.get(height));
     }
 
     public boolean containsBlock(Block block) {
-        return getBlocks().contains(block);
+        return getBlockAtHeight(block.getHeight()).filter(block::equals).isPresent();
     }
 
     public boolean containsBlockHash(String blockHash) {
-        return getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+        return blockHashes.contains(blockHash);
     }
 
     public long getBlockTime(int height) {
@@ -317,7 +335,12 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Tx> getTx(String txId) {
-        return getTxStream().filter(tx -> tx.getId().equals(txId)).findAny();
+        Tx tx = txById.get(txId);
+        if (tx == null && blockInParsing != null) {
+            // Txs of the current block can depend on each other
+            return blockInParsing.getTxs().stream().filter(e -> e.getId().equals(txId)).findAny();
+        }
+        return Optional.ofNullable(tx);
     }
 
     public boolean containsTx(String txId) {
@@ -378,13 +401,14 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public boolean existsTxOutput(TxOutputKey key) {
-        return getTxOutputStream().anyMatch(txOutput -> txOutput.getKey().equals(key));
+        return getTxOutput(key).isPresent();
     }
 
     public Optional<TxOutput> getTxOutput(TxOutputKey txOutputKey) {
-        return getTxOutputStream()
-                .filter(txOutput -> txOutput.getKey().equals(txOutputKey))
-                .findAny();
+        return getTx(txOutputKey.getTxId())
+                .flatMap(tx -> tx.getTxOutputs().stream()
+                        .filter(txOutput -> txOutput.getKey().equals(txOutputKey))
+                        .findAny());
     }
 
 
@@ -466,9 +490,14 @@ public class DaoStateService implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public Set<TxOutput> getTxOutputsByTxOutputType(TxOutputType txOutputType) {
-        return getTxOutputStream()
-                .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
-                .collect(Collectors.toSet());
+        Set<TxOutput> txOutputs = new HashSet<>(txOutputsByType.getOrDefault(txOutputType, Collections.emptyList()));
+        if (blockInParsing != null) {
+            blockInParsing.getTxs().stream()
+                    .flatMap(tx -> tx.getTxOutputs().stream())
+                    .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
+                    .forEach(txOutputs::add);
+        }
+        return txOutputs;
     }
 
     public boolean isBsqTxOutputType(TxOutput txOutput) {
@@ -596,9 +625,7 @@ public class DaoStateService implements DaoSetupService {
             return Optional.of(nonBsqTxOutputMap.get(key));
 
         // We might have also outputs of type BTC_OUTPUT
-        return getTxOutputsByTxOutputType(TxOutputType.BTC_OUTPUT).stream()
-                .filter(output -> output.getKey().equals(key))
-                .findAny();
+        return getTxOutput(key).filter(output -> output.getTxOutputType() == TxOutputType.BTC_OUTPUT);
     }
 
 
@@ -939,5 +966,44 @@ public class DaoStateService implements DaoSetupService {
     public void removeBsqStateListener(DaoStateListener listener) {
         daoStateListeners.remove(listener);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void buildIndexes() {
+        blockByHeight.clear();
+        blockHashes.clear();
+        txById.clear();
+        txOutputsByType.clear();
+        blockInParsing = null;
+        daoState.getBlocks().forEach(block -> {
+            indexBlock(block);
+            indexTxs(block);
+        });
+    }
+
+    // In case of duplicates we keep the first entry like the former lookups over the block list did
+    private void indexBlock(Block block) {
+        blockByHeight.putIfAbsent(block.getHeight(), block);
+        blockHashes.add(block.getHash());
+    }
+
+    private void indexTxs(Block block) {
+        block.getTxs().forEach(tx -> {
+            txById.putIfAbsent(tx.getId(), tx);
+            tx.getTxOutputs().forEach(txOutput -> txOutputsByType
+                    .computeIfAbsent(txOutput.getTxOutputType(), type -> new ArrayList<>())
+                    .add(txOutput));
+        });
+    }
+
+    private void indexTxsOfBlockInParsing() {
+        if (blockInParsing != null) {
+            indexTxs(blockInParsing);
+            blockInParsing = null;
+        }
+    }
 }
 
@@ -21,12 +21,12 @@ import bisq.core.dao.governance.period.CycleService;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 
+import bisq.common.util.PersistentList;
+
 import javax.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
 
-import java.util.LinkedList;
-
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -87,15 +87,15 @@ public class DaoStateSnapshotService implements DaoStateListener {
                 noSnapshotCandidateOrDifferentHeight) {
             // At trigger event we store the latest snapshotCandidate to disc
             if (snapshotCandidate != null) {
-                // We clone because storage is in a threaded context and we set the snapshotCandidate to our current
-                // state in the next step
-                DaoState cloned = daoStateService.getClone(snapshotCandidate);
-                daoStateStorageService.persist(cloned);
+                // The snapshotCandidate is a clone which does not get changed anymore, so we can pass it to the
+                // storage which is in a threaded context
+                daoStateStorageService.persist(snapshotCandidate);
                 log.info("Saved snapshotCandidate with height {} to Disc at height {} ",
                         snapshotCandidate.getChainHeight(), chainHeight);
             }
 
-            // Now we clone and keep it in memory for the next trigger event
+            // Now we clone and keep it in memory for the next trigger event. The clone shares its data with the
+            // daoState, so that is cheap.
             snapshotCandidate = daoStateService.getClone();
             log.info("Cloned new snapshotCandidate at height " + chainHeight);
         }
@@ -117,7 +117,7 @@ public class DaoStateSnapshotService implements DaoStateListener {
     public void applySnapshot(boolean fromReorg) {
         DaoState persisted = daoStateStorageService.getPersistedBsqState();
         if (persisted != null) {
-            LinkedList<Block> blocks = persisted.getBlocks();
+            PersistentList<Block> blocks = persisted.getBlocks();
             int chainHeightOfPersisted = persisted.getChainHeight();
             if (!blocks.isEmpty()) {
                 int heightOfLastBlock = blocks.getLast().getHeight();
@@ -18,30 +18,45 @@
 package bisq.core.dao.state;
 
 import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
 
 import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
 import bisq.network.p2p.storage.persistence.StoreService;
 
 import bisq.common.UserThread;
 import bisq.common.storage.Storage;
+import bisq.common.util.Utilities;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import com.google.common.util.concurrent.ListeningExecutorService;
+
 import java.io.File;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
+import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Manages persistence of the daoState.
+ * The blocks are persisted in the DaoStateBlocksFile, so that persisting a snapshot only writes the blocks added since
+ * the last snapshot.
  */
 @Slf4j
 public class DaoStateStorageService extends StoreService<DaoStateStore> {
     private static final String FILE_NAME = "DaoStateStore";
+    private static final String BLOCKS_FILE_NAME = FILE_NAME + "_Blocks";
 
     private DaoState daoState;
+    private final DaoStateBlocksFile blocksFile;
+    // Writes the blocks and queues up the store afterwards so the store never refers to blocks which are not written
+    private final ListeningExecutorService executor = Utilities.getSingleThreadExecutor("DaoStateStorageService");
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -55,6 +70,7 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
                                   Storage<DaoStateStore> daoSnapshotStorage) {
         super(storageDir, daoSnapshotStorage);
         this.daoState = daoState;
+        blocksFile = new DaoStateBlocksFile(storageDir, BLOCKS_FILE_NAME);
 
         resourceDataStoreService.addService(this);
     }
@@ -73,9 +89,9 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         persist(daoState, 200);
     }
 
+    // The daoState must be a clone which does not get changed anymore
     public void persist(DaoState daoState, long delayInMilli) {
-        store.setDaoState(daoState);
-        storage.queueUpForSave(store, delayInMilli);
+        persist(daoState, delayInMilli, null);
     }
 
     public DaoState getPersistedBsqState() {
@@ -83,8 +99,7 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
     }
 
     public void resetDaoState(Runnable resultHandler) {
-        persist(new DaoState(), 1);
-        UserThread.runAfter(resultHandler, 300, TimeUnit.MILLISECONDS);
+        persist(new DaoState(), 1, resultHandler);
     }
 
 
@@ -92,8 +107,52 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
     // Protected
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    @Override
+    protected void readStore() {
+        super.readStore();
+
+        int numBlocksInBlocksFile = store.getNumBlocksInBlocksFile();
+        Optional<List<Block>> blocks = blocksFile.read(numBlocksInBlocksFile, store.getHashOfLastBlockInBlocksFile());
+        if (numBlocksInBlocksFile > 0) {
+            DaoState persisted = checkNotNull(store.getDaoState(), "daoState of store must not be null");
+            if (blocks.isPresent()) {
+                persisted.getBlocks().addAll(blocks.get());
+            } else {
+                // Without the blocks the snapshot is useless, so we start over from the genesis transaction
+                log.warn("We could not read the blocks of the persisted daoState and use an empty daoState.");
+                store.setDaoState(new DaoState());
+            }
+        }
+    }
+
     @Override
     protected DaoStateStore createStore() {
         return new DaoStateStore(DaoState.getClone(daoState));
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The completeHandler is called on the user thread once the blocks are written and the store is queued up for
+    // saving. A queued up save gets flushed at shutdown.
+    private void persist(DaoState daoState, long delayInMilli, @Nullable Runnable completeHandler) {
+        store.setDaoState(daoState);
+        executor.execute(() -> {
+            try {
+                blocksFile.write(daoState.getBlocks());
+                storage.queueUpForSave(new DaoStateStore(daoState,
+                                blocksFile.getNumBlocks(),
+                                blocksFile.getHashOfLastBlock()),
+                        delayInMilli);
+            } catch (Throwable t) {
+                // We keep the previous persisted snapshot
+                log.error("Could not persist blocks of daoState", t);
+            }
+
+            if (completeHandler != null)
+                UserThread.execute(completeHandler);
+        });
+    }
 }
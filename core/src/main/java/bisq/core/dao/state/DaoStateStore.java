@@ -43,8 +43,21 @@ public class DaoStateStore implements PersistableEnvelope {
     @Setter
     DaoState daoState;
 
+    // If > 0 the blocks are not persisted with the daoState but in the DaoStateBlocksFile.
+    // Older stores and the stores in the resource files contain the blocks.
+    @Getter
+    private final int numBlocksInBlocksFile;
+    @Getter
+    private final String hashOfLastBlockInBlocksFile;
+
     DaoStateStore(DaoState daoState) {
+        this(daoState, 0, "");
+    }
+
+    DaoStateStore(DaoState daoState, int numBlocksInBlocksFile, String hashOfLastBlockInBlocksFile) {
         this.daoState = daoState;
+        this.numBlocksInBlocksFile = numBlocksInBlocksFile;
+        this.hashOfLastBlockInBlocksFile = hashOfLastBlockInBlocksFile;
     }
 
 
@@ -54,14 +67,22 @@ public class DaoStateStore implements PersistableEnvelope {
 
     public Message toProtoMessage() {
         checkNotNull(daoState, "daoState must not be null when toProtoMessage is invoked");
-        PB.DaoStateStore.Builder builder = PB.DaoStateStore.newBuilder()
-                .setBsqState(daoState.getBsqStateBuilder());
+        PB.DaoStateStore.Builder builder = PB.DaoStateStore.newBuilder();
+        if (numBlocksInBlocksFile > 0) {
+            builder.setBsqState(daoState.getBsqStateBuilderExcludingBlocks())
+                    .setNumBlocksInBlocksFile(numBlocksInBlocksFile)
+                    .setHashOfLastBlockInBlocksFile(hashOfLastBlockInBlocksFile);
+        } else {
+            builder.setBsqState(daoState.getBsqStateBuilder());
+        }
         return PB.PersistableEnvelope.newBuilder()
                 .setDaoStateStore(builder)
                 .build();
     }
 
     public static PersistableEnvelope fromProto(PB.DaoStateStore proto) {
-        return new DaoStateStore(DaoState.fromProto(proto.getBsqState()));
+        return new DaoStateStore(DaoState.fromProto(proto.getBsqState()),
+                proto.getNumBlocksInBlocksFile(),
+                proto.getHashOfLastBlockInBlocksFile());
     }
 }
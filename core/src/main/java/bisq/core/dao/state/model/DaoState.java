@@ -28,6 +28,8 @@ import bisq.core.dao.state.model.governance.Issuance;
 import bisq.core.dao.state.model.governance.ParamChange;
 
 import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.util.PersistentHashMap;
+import bisq.common.util.PersistentList;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -36,7 +38,6 @@ import com.google.protobuf.Message;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -59,8 +60,21 @@ public class DaoState implements PersistablePayload {
     // Static
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // The blocks and the big maps share their structure with the original, so that runs in O(1) and the clone does
+    // not change if the original gets changed. The other lists are small and get copied.
+    // The model objects are immutable, so we do not need to clone them.
     public static DaoState getClone(DaoState daoState) {
-        return DaoState.fromProto(daoState.getBsqStateBuilder().build());
+        return new DaoState(daoState.chainHeight,
+                daoState.blocks.copy(),
+                new LinkedList<>(daoState.cycles),
+                daoState.unspentTxOutputMap.copy(),
+                daoState.nonBsqTxOutputMap.copy(),
+                daoState.spentInfoMap.copy(),
+                new ArrayList<>(daoState.confiscatedLockupTxList),
+                daoState.issuanceMap.copy(),
+                new ArrayList<>(daoState.paramChangeList),
+                new ArrayList<>(daoState.evaluatedProposalList),
+                new ArrayList<>(daoState.decryptedBallotsWithMeritsList));
     }
 
 
@@ -71,23 +85,23 @@ public class DaoState implements PersistablePayload {
     @Getter
     private int chainHeight; // Is set initially to genesis height
     @Getter
-    private final LinkedList<Block> blocks;
+    private final PersistentList<Block> blocks;
     @Getter
     private final LinkedList<Cycle> cycles;
 
     // These maps represent mutual data which can get changed at parsing a transaction
     @Getter
-    private final Map<TxOutputKey, TxOutput> unspentTxOutputMap;
+    private final PersistentHashMap<TxOutputKey, TxOutput> unspentTxOutputMap;
     @Getter
-    private final Map<TxOutputKey, TxOutput> nonBsqTxOutputMap;
+    private final PersistentHashMap<TxOutputKey, TxOutput> nonBsqTxOutputMap;
     @Getter
-    private final Map<TxOutputKey, SpentInfo> spentInfoMap;
+    private final PersistentHashMap<TxOutputKey, SpentInfo> spentInfoMap;
 
     // These maps are related to state change triggered by voting
     @Getter
     private final List<String> confiscatedLockupTxList;
     @Getter
-    private final Map<String, Issuance> issuanceMap; // key is txId
+    private final PersistentHashMap<String, Issuance> issuanceMap; // key is txId
     @Getter
     private final List<ParamChange> paramChangeList;
 
@@ -107,13 +121,13 @@ public class DaoState implements PersistablePayload {
     @Inject
     public DaoState() {
         this(0,
+                new PersistentList<>(),
                 new LinkedList<>(),
-                new LinkedList<>(),
-                new HashMap<>(),
-                new HashMap<>(),
-                new HashMap<>(),
+                new PersistentHashMap<>(),
+                new PersistentHashMap<>(),
+                new PersistentHashMap<>(),
                 new ArrayList<>(),
-                new HashMap<>(),
+                new PersistentHashMap<>(),
                 new ArrayList<>(),
                 new ArrayList<>(),
                 new ArrayList<>()
@@ -126,13 +140,13 @@ public class DaoState implements PersistablePayload {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private DaoState(int chainHeight,
-                     LinkedList<Block> blocks,
+                     PersistentList<Block> blocks,
                      LinkedList<Cycle> cycles,
-                     Map<TxOutputKey, TxOutput> unspentTxOutputMap,
-                     Map<TxOutputKey, TxOutput> nonBsqTxOutputMap,
-                     Map<TxOutputKey, SpentInfo> spentInfoMap,
+                     PersistentHashMap<TxOutputKey, TxOutput> unspentTxOutputMap,
+                     PersistentHashMap<TxOutputKey, TxOutput> nonBsqTxOutputMap,
+                     PersistentHashMap<TxOutputKey, SpentInfo> spentInfoMap,
                      List<String> confiscatedLockupTxList,
-                     Map<String, Issuance> issuanceMap,
+                     PersistentHashMap<String, Issuance> issuanceMap,
                      List<ParamChange> paramChangeList,
                      List<EvaluatedProposal> evaluatedProposalList,
                      List<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsList) {
@@ -157,9 +171,14 @@ public class DaoState implements PersistablePayload {
     }
 
     public PB.BsqState.Builder getBsqStateBuilder() {
+        return getBsqStateBuilderExcludingBlocks()
+                .addAllBlocks(blocks.stream().map(Block::toProtoMessage).collect(Collectors.toList()));
+    }
+
+    // Used if the blocks are persisted separately
+    public PB.BsqState.Builder getBsqStateBuilderExcludingBlocks() {
         final PB.BsqState.Builder builder = PB.BsqState.newBuilder();
         builder.setChainHeight(chainHeight)
-                .addAllBlocks(blocks.stream().map(Block::toProtoMessage).collect(Collectors.toList()))
                 .addAllCycles(cycles.stream().map(Cycle::toProtoMessage).collect(Collectors.toList()))
                 .putAllUnspentTxOutputMap(unspentTxOutputMap.entrySet().stream()
                         .collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().toProtoMessage())))
@@ -177,20 +196,20 @@ public class DaoState implements PersistablePayload {
     }
 
     public static DaoState fromProto(PB.BsqState proto) {
-        LinkedList<Block> blocks = proto.getBlocksList().stream()
+        PersistentList<Block> blocks = proto.getBlocksList().stream()
                 .map(Block::fromProto)
-                .collect(Collectors.toCollection(LinkedList::new));
+                .collect(Collectors.toCollection(PersistentList::new));
         LinkedList<Cycle> cycles = proto.getCyclesList().stream()
                 .map(Cycle::fromProto).collect(Collectors.toCollection(LinkedList::new));
-        Map<TxOutputKey, TxOutput> unspentTxOutputMap = proto.getUnspentTxOutputMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> TxOutput.fromProto(e.getValue())));
-        Map<TxOutputKey, TxOutput> nonBsqTxOutputMap = proto.getNonBsqTxOutputMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> TxOutput.fromProto(e.getValue())));
-        Map<TxOutputKey, SpentInfo> spentInfoMap = proto.getSpentInfoMapMap().entrySet().stream()
-                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> SpentInfo.fromProto(e.getValue())));
+        PersistentHashMap<TxOutputKey, TxOutput> unspentTxOutputMap = new PersistentHashMap<>(proto.getUnspentTxOutputMapMap().entrySet().stream()
+                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> TxOutput.fromProto(e.getValue()))));
+        PersistentHashMap<TxOutputKey, TxOutput> nonBsqTxOutputMap = new PersistentHashMap<>(proto.getNonBsqTxOutputMapMap().entrySet().stream()
+                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> TxOutput.fromProto(e.getValue()))));
+        PersistentHashMap<TxOutputKey, SpentInfo> spentInfoMap = new PersistentHashMap<>(proto.getSpentInfoMapMap().entrySet().stream()
+                .collect(Collectors.toMap(e -> TxOutputKey.getKeyFromString(e.getKey()), e -> SpentInfo.fromProto(e.getValue()))));
         List<String> confiscatedLockupTxList = new ArrayList<>(proto.getConfiscatedLockupTxListList());
-        Map<String, Issuance> issuanceMap = proto.getIssuanceMapMap().entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> Issuance.fromProto(e.getValue())));
+        PersistentHashMap<String, Issuance> issuanceMap = new PersistentHashMap<>(proto.getIssuanceMapMap().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> Issuance.fromProto(e.getValue()))));
         List<ParamChange> paramChangeList = proto.getParamChangeListList().stream()
                 .map(ParamChange::fromProto).collect(Collectors.toCollection(ArrayList::new));
         List<EvaluatedProposal> evaluatedProposalList = proto.getEvaluatedProposalListList().stream()
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.PaymentAccountPayload;
+
+import java.lang.reflect.Method;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Lookup structures for the lists of a Filter, created once when the filter gets applied. Lookups do not depend on
+ * the size of the lists.
+ */
+@Slf4j
+final class CompiledFilter {
+    static final CompiledFilter EMPTY = new CompiledFilter(null);
+
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedNodeAddresses;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethods;
+    // paymentMethodId -> getMethodName -> value -> filter
+    private final Map<String, Map<String, Map<String, PaymentAccountFilter>>> bannedPaymentAccounts = new HashMap<>();
+
+    CompiledFilter(@Nullable Filter filter) {
+        if (filter != null) {
+            bannedOfferIds = toSet(filter.getBannedOfferIds());
+            bannedNodeAddresses = toSet(filter.getBannedNodeAddress());
+            bannedCurrencies = toSet(filter.getBannedCurrencies());
+            bannedPaymentMethods = toSet(filter.getBannedPaymentMethods());
+            if (filter.getBannedPaymentAccounts() != null) {
+                // We keep the order of the filter so the first matching entry gets reported
+                filter.getBannedPaymentAccounts().forEach(paymentAccountFilter ->
+                        bannedPaymentAccounts.computeIfAbsent(paymentAccountFilter.getPaymentMethodId(), k -> new LinkedHashMap<>())
+                                .computeIfAbsent(paymentAccountFilter.getGetMethodName(), k -> new HashMap<>())
+                                .putIfAbsent(paymentAccountFilter.getValue(), paymentAccountFilter));
+            }
+        } else {
+            bannedOfferIds = Collections.emptySet();
+            bannedNodeAddresses = Collections.emptySet();
+            bannedCurrencies = Collections.emptySet();
+            bannedPaymentMethods = Collections.emptySet();
+        }
+    }
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isNodeAddressBanned(String fullAddress) {
+        return bannedNodeAddresses.contains(fullAddress);
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethods.contains(paymentMethodId);
+    }
+
+    // Each getter of the payload gets called once, independent of the number of banned values
+    Optional<PaymentAccountFilter> getMatchingPaymentAccountFilter(PaymentAccountPayload paymentAccountPayload) {
+        Map<String, Map<String, PaymentAccountFilter>> filtersByMethodName = bannedPaymentAccounts.get(paymentAccountPayload.getPaymentMethodId());
+        if (filtersByMethodName == null)
+            return Optional.empty();
+
+        for (Map.Entry<String, Map<String, PaymentAccountFilter>> entry : filtersByMethodName.entrySet()) {
+            try {
+                Method method = paymentAccountPayload.getClass().getMethod(entry.getKey());
+                String result = (String) method.invoke(paymentAccountPayload);
+                PaymentAccountFilter paymentAccountFilter = entry.getValue().get(result);
+                if (paymentAccountFilter != null)
+                    return Optional.of(paymentAccountFilter);
+            } catch (Throwable e) {
+                log.error(e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Set<String> toSet(@Nullable Collection<String> collection) {
+        return collection != null ? new HashSet<>(collection) : Collections.emptySet();
+    }
+}
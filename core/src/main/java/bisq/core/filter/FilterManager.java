@@ -20,6 +20,8 @@ package bisq.core.filter;
 import bisq.core.app.AppOptionKeys;
 import bisq.core.app.BisqEnvironment;
 import bisq.core.btc.nodes.BtcNodes;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferPayload;
 import bisq.core.payment.payload.PaymentAccountPayload;
 import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.provider.ProvidersRepository;
@@ -42,6 +44,8 @@ import io.bisq.generated.protobuffer.PB;
 import org.bitcoinj.core.ECKey;
 import org.bitcoinj.core.Utils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 
@@ -58,8 +62,6 @@ import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
-import java.lang.reflect.Method;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -79,6 +81,14 @@ public class FilterManager {
     // Listener
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    public enum OfferFilterResult {
+        VALID,
+        OFFER_ID_BANNED,
+        CURRENCY_BANNED,
+        PAYMENT_METHOD_BANNED,
+        NODE_ADDRESS_BANNED
+    }
+
     public interface Listener {
         void onFilterAdded(Filter filter);
     }
@@ -95,6 +105,12 @@ public class FilterManager {
 
     private final String pubKeyAsHex;
     private ECKey filterSigningKey;
+    // Lookups of the current filter
+    private volatile CompiledFilter compiledFilter = CompiledFilter.EMPTY;
+    // Offer payloads are weak keys which are compared by identity
+    private final Cache<OfferPayload, OfferFilterResult> offerFilterResultCache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -120,6 +136,9 @@ public class FilterManager {
         pubKeyAsHex = useDevPrivilegeKeys ?
                 DevEnv.DEV_PRIVILEGE_PUB_KEY :
                 "022ac7b7766b0aedff82962522c2c14fb8d1961dabef6e5cfd10edc679456a32f1";
+
+        // The lookups get updated before the listeners get notified
+        filterProperty.addListener((observable, oldValue, newValue) -> applyCompiledFilter(newValue));
     }
 
     public void onAllServicesInitialized() {
@@ -324,51 +343,58 @@ public class FilterManager {
     }
 
     public boolean isCurrencyBanned(String currencyCode) {
-        return getFilter() != null &&
-                getFilter().getBannedCurrencies() != null &&
-                getFilter().getBannedCurrencies().stream()
-                        .anyMatch(e -> e.equals(currencyCode));
+        return compiledFilter.isCurrencyBanned(currencyCode);
     }
 
     public boolean isPaymentMethodBanned(PaymentMethod paymentMethod) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentMethods() != null &&
-                getFilter().getBannedPaymentMethods().stream()
-                        .anyMatch(e -> e.equals(paymentMethod.getId()));
+        return compiledFilter.isPaymentMethodBanned(paymentMethod.getId());
     }
 
     public boolean isOfferIdBanned(String offerId) {
-        return getFilter() != null &&
-                getFilter().getBannedOfferIds().stream()
-                        .anyMatch(e -> e.equals(offerId));
+        return compiledFilter.isOfferIdBanned(offerId);
     }
 
     public boolean isNodeAddressBanned(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getBannedNodeAddress().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        return compiledFilter.isNodeAddressBanned(nodeAddress.getFullAddress());
+    }
+
+    /**
+     * @return The reason why the offer is filtered. The result is cached until the filter changes. Offers do not
+     * change their payload, an updated offer has a new payload and gets evaluated again.
+     */
+    public OfferFilterResult getOfferFilterResult(Offer offer) {
+        OfferPayload offerPayload = offer.getOfferPayload();
+        OfferFilterResult result = offerFilterResultCache.getIfPresent(offerPayload);
+        if (result == null) {
+            if (isOfferIdBanned(offer.getId()))
+                result = OfferFilterResult.OFFER_ID_BANNED;
+            else if (isCurrencyBanned(offer.getCurrencyCode()))
+                result = OfferFilterResult.CURRENCY_BANNED;
+            else if (isPaymentMethodBanned(offer.getPaymentMethod()))
+                result = OfferFilterResult.PAYMENT_METHOD_BANNED;
+            else if (isNodeAddressBanned(offer.getMakerNodeAddress()))
+                result = OfferFilterResult.NODE_ADDRESS_BANNED;
+            else
+                result = OfferFilterResult.VALID;
+            offerFilterResultCache.put(offerPayload, result);
+        }
+        return result;
     }
 
     public boolean isPeersPaymentAccountDataAreBanned(PaymentAccountPayload paymentAccountPayload,
                                                       PaymentAccountFilter[] appliedPaymentAccountFilter) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentAccounts().stream()
-                        .anyMatch(paymentAccountFilter -> {
-                            final boolean samePaymentMethodId = paymentAccountFilter.getPaymentMethodId().equals(
-                                    paymentAccountPayload.getPaymentMethodId());
-                            if (samePaymentMethodId) {
-                                try {
-                                    Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
-                                    String result = (String) method.invoke(paymentAccountPayload);
-                                    appliedPaymentAccountFilter[0] = paymentAccountFilter;
-                                    return result.equals(paymentAccountFilter.getValue());
-                                } catch (Throwable e) {
-                                    log.error(e.getMessage());
-                                    return false;
-                                }
-                            } else {
-                                return false;
-                            }
-                        });
+        Optional<PaymentAccountFilter> paymentAccountFilter = compiledFilter.getMatchingPaymentAccountFilter(paymentAccountPayload);
+        paymentAccountFilter.ifPresent(e -> appliedPaymentAccountFilter[0] = e);
+        return paymentAccountFilter.isPresent();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void applyCompiledFilter(@Nullable Filter filter) {
+        compiledFilter = new CompiledFilter(filter);
+        offerFilterResultCache.invalidateAll();
     }
 }
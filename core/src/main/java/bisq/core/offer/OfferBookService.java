@@ -25,6 +25,7 @@ import bisq.network.p2p.P2PService;
 import bisq.network.p2p.storage.HashMapChangedListener;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
+import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
@@ -38,8 +39,10 @@ import javax.inject.Inject;
 
 import java.io.File;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -50,6 +53,8 @@ import javax.annotation.Nullable;
 /**
  * Handles storage and retrieval of offers.
  * Uses an invalidation flag to only request the full offer map in case there was a change (anyone has added or removed an offer).
+ * The offers are kept in an OfferIndex which is maintained from the HashMapChangedListener events, so we don't need to
+ * iterate the whole data map of the P2PService for getting the offers.
  */
 public class OfferBookService {
     private static final Logger log = LoggerFactory.getLogger(OfferBookService.class);
@@ -64,6 +69,9 @@ public class OfferBookService {
     private final PriceFeedService priceFeedService;
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
     private final JsonFileManager jsonFileManager;
+    private final OfferIndex offerIndex = new OfferIndex();
+    @Nullable
+    private Timer dumpStatisticsTimer;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -79,29 +87,23 @@ public class OfferBookService {
         this.priceFeedService = priceFeedService;
         jsonFileManager = new JsonFileManager(storageDir);
 
+        p2PService.getDataMap().values().forEach(this::addToOfferIndex);
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onAdded(offer);
-                    }
-                });
+                Offer offer = addToOfferIndex(data);
+                if (offer != null)
+                    offerBookChangedListeners.forEach(listener -> listener.onAdded(offer));
             }
 
             @Override
             public void onRemoved(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onRemoved(offer);
-                    }
-                });
+                if (data.getProtectedStoragePayload() instanceof OfferPayload) {
+                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+                    Offer removedOffer = offerIndex.remove(offerPayload.getId());
+                    Offer offer = removedOffer != null ? removedOffer : createOffer(offerPayload);
+                    offerBookChangedListeners.forEach(listener -> listener.onRemoved(offer));
+                }
             }
         });
 
@@ -112,12 +114,12 @@ public class OfferBookService {
                     addOfferBookChangedListener(new OfferBookChangedListener() {
                         @Override
                         public void onAdded(Offer offer) {
-                            doDumpStatistics();
+                            scheduleDumpStatistics();
                         }
 
                         @Override
                         public void onRemoved(Offer offer) {
-                            doDumpStatistics();
+                            scheduleDumpStatistics();
                         }
                     });
                     UserThread.runAfter(OfferBookService.this::doDumpStatistics, 1);
@@ -171,15 +173,16 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
-                .map(data -> {
-                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayload);
-                    offer.setPriceFeedService(priceFeedService);
-                    return offer;
-                })
-                .collect(Collectors.toList());
+        return new ArrayList<>(offerIndex.getOffers());
+    }
+
+    public List<Offer> getOffers(String currencyCode, OfferPayload.Direction direction) {
+        return new ArrayList<>(offerIndex.getOffers(currencyCode, direction));
+    }
+
+    // Live view which reflects later changes of the offer book
+    public Map<String, Integer> getOfferCountMap(OfferPayload.Direction direction) {
+        return offerIndex.getOfferCountMap(direction);
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -200,6 +203,39 @@ public class OfferBookService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // We get onAdded called for each ProtectedStorageEntry, mostly with the same OfferPayload. In that case we keep
+    // the offer we have already, so listeners get the same instance and do not need to compare with all their offers.
+    @Nullable
+    private Offer addToOfferIndex(ProtectedStorageEntry data) {
+        if (!(data.getProtectedStoragePayload() instanceof OfferPayload))
+            return null;
+
+        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+        Offer offer = offerIndex.get(offerPayload.getId());
+        if (offer == null || !offer.getOfferPayload().equals(offerPayload)) {
+            offer = createOffer(offerPayload);
+            offerIndex.put(offer);
+        }
+        return offer;
+    }
+
+    private Offer createOffer(OfferPayload offerPayload) {
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+
+    // With a high churn of offers we would write the whole offer book for each change, so we write at most once
+    // per second.
+    private void scheduleDumpStatistics() {
+        if (dumpStatisticsTimer == null) {
+            dumpStatisticsTimer = UserThread.runAfter(() -> {
+                dumpStatisticsTimer = null;
+                doDumpStatistics();
+            }, 1);
+        }
+    }
+
     private void doDumpStatistics() {
         // We filter the case that it is a MarketBasedPrice but the price is not available
         // That should only be possible if the price feed provider is not available
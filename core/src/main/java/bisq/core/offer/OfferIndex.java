@@ -0,0 +1,169 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the offers in the offer book keyed by offer ID and bucketed by currency code and direction. Adding,
+ * removing and looking up an offer as well as getting the offers or the number of offers of one market does not
+ * depend on the size of the offer book.
+ * Not thread safe, it is expected to be accessed from the UserThread only.
+ */
+public final class OfferIndex {
+    // We keep the insertion order so the offers are delivered in the order we have received them
+    private final Map<String, Offer> offersById = new LinkedHashMap<>();
+    // currencyCode -> direction -> offerId -> offer
+    private final Map<String, Map<OfferPayload.Direction, Map<String, Offer>>> offersByMarket = new HashMap<>();
+    private final Map<OfferPayload.Direction, OfferCountMap> offerCountMapByDirection = new EnumMap<>(OfferPayload.Direction.class);
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public OfferIndex() {
+        for (OfferPayload.Direction direction : OfferPayload.Direction.values()) {
+            offerCountMapByDirection.put(direction, new OfferCountMap(direction));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return The offer we had with the same ID, or null if there was none
+     */
+    @Nullable
+    public Offer put(Offer offer) {
+        Offer previous = remove(offer.getId());
+        offersById.put(offer.getId(), offer);
+        offersByMarket.computeIfAbsent(offer.getCurrencyCode(), k -> new EnumMap<>(OfferPayload.Direction.class))
+                .computeIfAbsent(offer.getDirection(), k -> new LinkedHashMap<>())
+                .put(offer.getId(), offer);
+        return previous;
+    }
+
+    /**
+     * @return The removed offer, or null if we did not have an offer with that ID
+     */
+    @Nullable
+    public Offer remove(String offerId) {
+        Offer offer = offersById.remove(offerId);
+        if (offer != null) {
+            Map<OfferPayload.Direction, Map<String, Offer>> offersByDirection = offersByMarket.get(offer.getCurrencyCode());
+            Map<String, Offer> bucket = offersByDirection.get(offer.getDirection());
+            bucket.remove(offerId);
+            if (bucket.isEmpty()) {
+                offersByDirection.remove(offer.getDirection());
+                if (offersByDirection.isEmpty())
+                    offersByMarket.remove(offer.getCurrencyCode());
+            }
+        }
+        return offer;
+    }
+
+    @Nullable
+    public Offer get(String offerId) {
+        return offersById.get(offerId);
+    }
+
+    public Collection<Offer> getOffers() {
+        return Collections.unmodifiableCollection(offersById.values());
+    }
+
+    public Collection<Offer> getOffers(String currencyCode, OfferPayload.Direction direction) {
+        Map<String, Offer> bucket = getBucket(currencyCode, direction);
+        return bucket != null ? Collections.unmodifiableCollection(bucket.values()) : Collections.emptyList();
+    }
+
+    public int getNumOffers(String currencyCode, OfferPayload.Direction direction) {
+        Map<String, Offer> bucket = getBucket(currencyCode, direction);
+        return bucket != null ? bucket.size() : 0;
+    }
+
+    /**
+     * @return Live read-only view of the number of offers per currency code for the given direction. Currencies
+     * without offers are not contained. Looking up a currency code does not iterate the markets or the offers.
+     */
+    public Map<String, Integer> getOfferCountMap(OfferPayload.Direction direction) {
+        return offerCountMapByDirection.get(direction);
+    }
+
+    public int size() {
+        return offersById.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    private Map<String, Offer> getBucket(String currencyCode, OfferPayload.Direction direction) {
+        Map<OfferPayload.Direction, Map<String, Offer>> offersByDirection = offersByMarket.get(currencyCode);
+        return offersByDirection != null ? offersByDirection.get(direction) : null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // OfferCountMap
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private final class OfferCountMap extends AbstractMap<String, Integer> {
+        private final OfferPayload.Direction direction;
+
+        private OfferCountMap(OfferPayload.Direction direction) {
+            this.direction = direction;
+        }
+
+        @Override
+        public Integer get(Object currencyCode) {
+            int numOffers = currencyCode instanceof String ? getNumOffers((String) currencyCode, direction) : 0;
+            return numOffers > 0 ? numOffers : null;
+        }
+
+        @Override
+        public boolean containsKey(Object currencyCode) {
+            return get(currencyCode) != null;
+        }
+
+        @Override
+        public Set<Entry<String, Integer>> entrySet() {
+            Set<Entry<String, Integer>> entries = new HashSet<>();
+            offersByMarket.forEach((currencyCode, offersByDirection) -> {
+                Map<String, Offer> bucket = offersByDirection.get(direction);
+                if (bucket != null)
+                    entries.add(new SimpleImmutableEntry<>(currencyCode, bucket.size()));
+            });
+            return entries;
+        }
+    }
+}
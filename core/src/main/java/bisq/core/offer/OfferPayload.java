@@ -19,6 +19,8 @@ package bisq.core.offer;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.storage.payload.ExpirablePayload;
+import bisq.network.p2p.storage.payload.HashCachingPayload;
+import bisq.network.p2p.storage.payload.PayloadHashCache;
 import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 import bisq.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
 
@@ -40,7 +42,6 @@ import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -51,7 +52,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @EqualsAndHashCode
 @Getter
 @Slf4j
-public final class OfferPayload implements ProtectedStoragePayload, ExpirablePayload, RequiresOwnerIsOnlinePayload {
+public final class OfferPayload implements ProtectedStoragePayload, ExpirablePayload, RequiresOwnerIsOnlinePayload,
+        HashCachingPayload {
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Enum
@@ -111,7 +113,6 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
     private final String makerPaymentAccountId;
     // Mutable property. Has to be set before offer is save in P2P network as it changes the objects hash!
     @Nullable
-    @Setter
     private String offerFeePaymentTxId;
     @Nullable
     private final String countryCode;
@@ -156,6 +157,9 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
     private final Map<String, String> extraDataMap;
     private final int protocolVersion;
 
+    // Transient fields are not part of equals, hashCode and the json
+    private final transient PayloadHashCache payloadHashCache = new PayloadHashCache(this);
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -364,6 +368,12 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
         return pubKeyRing.getSignaturePubKey();
     }
 
+    public void setOfferFeePaymentTxId(@Nullable String offerFeePaymentTxId) {
+        this.offerFeePaymentTxId = offerFeePaymentTxId;
+        // The hashes would be outdated otherwise
+        payloadHashCache.reset();
+    }
+
     // In the offer we support base and counter currency
     // Fiat offers have base currency BTC and counterCurrency Fiat
     // Altcoins have base currency Altcoin and counterCurrency BTC
@@ -31,7 +31,8 @@ public class CoreNetworkCapabilities {
                 Capabilities.Capability.TRADE_STATISTICS.ordinal(),
                 Capabilities.Capability.TRADE_STATISTICS_2.ordinal(),
                 Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal(),
-                Capabilities.Capability.ACK_MSG.ordinal()
+                Capabilities.Capability.ACK_MSG.ordinal(),
+                Capabilities.Capability.KEY_SET_SKETCH.ordinal()
         ));
 
         if (BisqEnvironment.isDaoActivated(bisqEnvironment)) {
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Open, high, low, close and volume of the trades of one currency within one period. Prices are the trade prices as
+ * long values, so for altcoins the high price is the highest value in BTC and not in the altcoin.
+ */
+@EqualsAndHashCode
+@ToString
+@Getter
+public final class TradeStatisticsCandle {
+    private final long periodStart;
+    private long open;
+    private long high;
+    private long low;
+    private long close;
+    // Trade dates of the open and the close price
+    private long openDate;
+    private long closeDate;
+    private long accumulatedAmount;
+    private long accumulatedVolume;
+    private long numTrades;
+
+    TradeStatisticsCandle(long periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    TradeStatisticsCandle(TradeStatisticsCandle candle) {
+        this(candle.periodStart);
+        add(candle);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(long date, long price, long amount, long volume) {
+        // Trades in the same millisecond keep the order of arrival
+        if (numTrades == 0 || date < openDate) {
+            open = price;
+            openDate = date;
+        }
+        if (numTrades == 0 || date >= closeDate) {
+            close = price;
+            closeDate = date;
+        }
+        high = numTrades == 0 ? price : Math.max(high, price);
+        low = numTrades == 0 ? price : Math.min(low, price);
+        accumulatedAmount += amount;
+        accumulatedVolume += volume;
+        numTrades++;
+    }
+
+    // Used to combine the candles of several currencies for the same period
+    void add(TradeStatisticsCandle candle) {
+        if (candle.numTrades == 0)
+            return;
+
+        if (numTrades == 0 || candle.openDate < openDate) {
+            open = candle.open;
+            openDate = candle.openDate;
+        }
+        if (numTrades == 0 || candle.closeDate >= closeDate) {
+            close = candle.close;
+            closeDate = candle.closeDate;
+        }
+        high = numTrades == 0 ? candle.high : Math.max(high, candle.high);
+        low = numTrades == 0 ? candle.low : Math.min(low, candle.low);
+        accumulatedAmount += candle.accumulatedAmount;
+        accumulatedVolume += candle.accumulatedVolume;
+        numTrades += candle.numTrades;
+    }
+}
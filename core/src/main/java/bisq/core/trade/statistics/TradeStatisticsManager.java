@@ -42,16 +42,26 @@ import javafx.collections.ObservableSet;
 
 import java.io.File;
 
+import java.time.ZoneId;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
@@ -63,6 +73,12 @@ public class TradeStatisticsManager {
     private final ReferralIdService referralIdService;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
+    private final Set<String> offerIds = new HashSet<>();
+    // Candles in the local time zone for the UI
+    private final TradeStatisticsRollups rollups = new TradeStatisticsRollups(ZoneId.systemDefault());
+    // Candles in UTC for the dump, so they don't depend on the time zone of the node. Only set if we dump.
+    @Nullable
+    private final TradeStatisticsRollups utcRollups;
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -76,6 +92,7 @@ public class TradeStatisticsManager {
         this.priceFeedService = priceFeedService;
         this.referralIdService = referralIdService;
         this.dumpStatistics = dumpStatistics;
+        utcRollups = dumpStatistics ? new TradeStatisticsRollups(ZoneId.of("UTC")) : null;
         jsonFileManager = new JsonFileManager(storageDir);
 
         appendOnlyDataStoreService.addService(tradeStatistics2StorageService);
@@ -106,9 +123,11 @@ public class TradeStatisticsManager {
                 .map(e -> (TradeStatistics2) e)
                 .filter(TradeStatistics2::isValid)
                 .forEach(e -> addToMap(e, map));
+        map.values().forEach(this::addToRollups);
+        offerIds.addAll(map.keySet());
         observableTradeStatisticsSet.addAll(map.values());
 
-        priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
+        priceFeedService.applyLatestBisqMarketPrice(rollups.getLatestTradeStatistics());
 
         dump();
     }
@@ -149,24 +168,37 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
+    public TradeStatisticsRollups getRollups() {
+        return rollups;
+    }
+
     private void addToMap(TradeStatistics2 tradeStatistics, boolean storeLocally) {
         if (!observableTradeStatisticsSet.contains(tradeStatistics)) {
 
-            if (observableTradeStatisticsSet.stream()
-                    .anyMatch(e -> (e.getOfferId().equals(tradeStatistics.getOfferId()))))
+            if (offerIds.contains(tradeStatistics.getOfferId()))
                 return;
 
             if (!tradeStatistics.isValid())
                 return;
 
+            offerIds.add(tradeStatistics.getOfferId());
+            // The rollups get updated before the set so listeners of the set see the new candles
+            addToRollups(tradeStatistics);
             observableTradeStatisticsSet.add(tradeStatistics);
             if (storeLocally) {
-                priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
+                priceFeedService.applyLatestBisqMarketPrice(Collections.singleton(
+                        rollups.getLatestTradeStatistics(tradeStatistics.getCurrencyCode())));
                 dump();
             }
         }
     }
 
+    private void addToRollups(TradeStatistics2 tradeStatistics) {
+        rollups.add(tradeStatistics);
+        if (utcRollups != null)
+            utcRollups.add(tradeStatistics);
+    }
+
     private void addToMap(TradeStatistics2 tradeStatistics, Map<String, TradeStatistics2> map) {
         TradeStatistics2 prevValue = map.putIfAbsent(tradeStatistics.getOfferId(), tradeStatistics);
         if (prevValue != null)
@@ -187,6 +219,23 @@ public class TradeStatisticsManager {
             TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
             list.toArray(array);
             jsonFileManager.writeToDisc(Utilities.objectToJson(array), "trade_statistics");
+
+            // Candles from day resolution on, the finer ones would be too large. The periods start in UTC (e.g. a DAY
+            // candle at 00:00 UTC), the time zone is written as "timeZone" next to the candles.
+            checkNotNull(utcRollups, "utcRollups must not be null if we dump");
+            Map<String, Map<TradeStatisticsRollups.Interval, List<TradeStatisticsCandle>>> candles = new TreeMap<>();
+            utcRollups.getCurrencyCodes().forEach(currencyCode -> {
+                Map<TradeStatisticsRollups.Interval, List<TradeStatisticsCandle>> candlesByInterval = new EnumMap<>(TradeStatisticsRollups.Interval.class);
+                for (TradeStatisticsRollups.Interval interval : TradeStatisticsRollups.Interval.values()) {
+                    if (interval.ordinal() <= TradeStatisticsRollups.Interval.DAY.ordinal())
+                        candlesByInterval.put(interval, utcRollups.getCandles(currencyCode, interval));
+                }
+                candles.put(currencyCode, candlesByInterval);
+            });
+            Map<String, Object> candlesWithTimeZone = new LinkedHashMap<>();
+            candlesWithTimeZone.put("timeZone", utcRollups.getZoneId().getId());
+            candlesWithTimeZone.put("candles", candles);
+            jsonFileManager.writeToDisc(Utilities.objectToJson(candlesWithTimeZone), "trade_statistics_candles");
         }
     }
 }
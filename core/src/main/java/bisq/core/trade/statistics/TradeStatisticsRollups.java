@@ -0,0 +1,222 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.core.monetary.Volume;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Candles and trade statistics per currency at several resolutions, updated with each added trade statistic so
+ * the charts and the latest prices don't need to iterate all trade statistics. Periods are in the time zone passed
+ * at construction, weeks start at Monday.
+ * Only accessed from the UserThread.
+ */
+@NotThreadSafe
+public final class TradeStatisticsRollups {
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Enum
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public enum Interval {
+        YEAR,
+        MONTH,
+        WEEK,
+        DAY,
+        HOUR,
+        MINUTE_10,
+        MINUTE;
+
+        /**
+         * @param time   Time in ms
+         * @param zoneId Time zone in which the periods start, e.g. midnight for DAY
+         * @return Start of the period which contains the time
+         */
+        public long getPeriodStart(long time, ZoneId zoneId) {
+            LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), zoneId);
+            LocalDateTime periodStart;
+            switch (this) {
+                case YEAR:
+                    periodStart = dateTime.withDayOfYear(1).truncatedTo(ChronoUnit.DAYS);
+                    break;
+                case MONTH:
+                    periodStart = dateTime.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+                    break;
+                case WEEK:
+                    periodStart = dateTime.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).truncatedTo(ChronoUnit.DAYS);
+                    break;
+                case DAY:
+                    periodStart = dateTime.truncatedTo(ChronoUnit.DAYS);
+                    break;
+                case HOUR:
+                    periodStart = dateTime.truncatedTo(ChronoUnit.HOURS);
+                    break;
+                case MINUTE_10:
+                    periodStart = dateTime.truncatedTo(ChronoUnit.MINUTES).withMinute(dateTime.getMinute() - dateTime.getMinute() % 10);
+                    break;
+                case MINUTE:
+                default:
+                    periodStart = dateTime.truncatedTo(ChronoUnit.MINUTES);
+                    break;
+            }
+            return periodStart.atZone(zoneId).toInstant().toEpochMilli();
+        }
+    }
+
+    private final ZoneId zoneId;
+    // currencyCode -> interval -> periodStart -> candle
+    private final Map<String, Map<Interval, Map<Long, TradeStatisticsCandle>>> candlesByCurrencyCode = new HashMap<>();
+    private final Map<String, List<TradeStatistics2>> tradeStatisticsByCurrencyCode = new HashMap<>();
+    private final Map<String, TradeStatistics2> latestTradeStatisticsByCurrencyCode = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public TradeStatisticsRollups(ZoneId zoneId) {
+        this.zoneId = zoneId;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds the trade statistic to the candle of each interval. The caller has to make sure that a trade statistic
+     * is only added once.
+     */
+    public void add(TradeStatistics2 tradeStatistics) {
+        String currencyCode = tradeStatistics.getCurrencyCode();
+        long tradeDate = tradeStatistics.getTradeDate().getTime();
+        long price = tradeStatistics.getTradePrice().getValue();
+        long amount = tradeStatistics.getTradeAmount().getValue();
+        Volume volume = tradeStatistics.getTradeVolume();
+        long volumeAsLong = volume != null ? volume.getValue() : 0;
+
+        Map<Interval, Map<Long, TradeStatisticsCandle>> candlesByInterval = candlesByCurrencyCode.computeIfAbsent(currencyCode,
+                k -> new EnumMap<>(Interval.class));
+        for (Interval interval : Interval.values()) {
+            long periodStart = interval.getPeriodStart(tradeDate, zoneId);
+            candlesByInterval.computeIfAbsent(interval, k -> new HashMap<>())
+                    .computeIfAbsent(periodStart, TradeStatisticsCandle::new)
+                    .add(tradeDate, price, amount, volumeAsLong);
+        }
+        tradeStatisticsByCurrencyCode.computeIfAbsent(currencyCode, k -> new ArrayList<>()).add(tradeStatistics);
+
+        TradeStatistics2 latest = latestTradeStatisticsByCurrencyCode.get(currencyCode);
+        if (latest == null || tradeDate >= latest.getTradeDate().getTime())
+            latestTradeStatisticsByCurrencyCode.put(currencyCode, tradeStatistics);
+    }
+
+    public Optional<TradeStatisticsCandle> getCandle(String currencyCode, Interval interval, long periodStart) {
+        return Optional.ofNullable(getCandlesByPeriodStart(currencyCode, interval).get(periodStart));
+    }
+
+    /**
+     * @return The combined candle of all currencies for the period
+     */
+    public Optional<TradeStatisticsCandle> getCandleOfAllCurrencies(Interval interval, long periodStart) {
+        TradeStatisticsCandle result = null;
+        for (String currencyCode : candlesByCurrencyCode.keySet()) {
+            TradeStatisticsCandle candle = getCandlesByPeriodStart(currencyCode, interval).get(periodStart);
+            if (candle != null) {
+                if (result == null)
+                    result = new TradeStatisticsCandle(candle);
+                else
+                    result.add(candle);
+            }
+        }
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * @return The candles of the currency sorted by period
+     */
+    public List<TradeStatisticsCandle> getCandles(String currencyCode, Interval interval) {
+        List<TradeStatisticsCandle> list = new ArrayList<>(getCandlesByPeriodStart(currencyCode, interval).values());
+        list.sort(Comparator.comparingLong(TradeStatisticsCandle::getPeriodStart));
+        return list;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public Collection<String> getCurrencyCodes() {
+        return Collections.unmodifiableSet(candlesByCurrencyCode.keySet());
+    }
+
+    /**
+     * @return The trade statistics of the currency in the order they got added
+     */
+    public List<TradeStatistics2> getTradeStatistics(String currencyCode) {
+        List<TradeStatistics2> list = tradeStatisticsByCurrencyCode.get(currencyCode);
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    public int getNumTradeStatistics(String currencyCode) {
+        List<TradeStatistics2> list = tradeStatisticsByCurrencyCode.get(currencyCode);
+        return list != null ? list.size() : 0;
+    }
+
+    @Nullable
+    public TradeStatistics2 getLatestTradeStatistics(String currencyCode) {
+        return latestTradeStatisticsByCurrencyCode.get(currencyCode);
+    }
+
+    /**
+     * @return The latest trade statistic of each currency
+     */
+    public Collection<TradeStatistics2> getLatestTradeStatistics() {
+        return Collections.unmodifiableCollection(latestTradeStatisticsByCurrencyCode.values());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Map<Long, TradeStatisticsCandle> getCandlesByPeriodStart(String currencyCode, Interval interval) {
+        Map<Interval, Map<Long, TradeStatisticsCandle>> candlesByInterval = candlesByCurrencyCode.get(currencyCode);
+        if (candlesByInterval == null || !candlesByInterval.containsKey(interval))
+            return Collections.emptyMap();
+
+        return candlesByInterval.get(interval);
+    }
+}
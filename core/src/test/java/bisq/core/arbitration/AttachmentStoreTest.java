@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.arbitration;
+
+import bisq.common.storage.FileUtil;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AttachmentStoreTest {
+    private File dir;
+    private AttachmentStore attachmentStore;
+
+    @Before
+    public void setUp() {
+        dir = Files.createTempDir();
+        attachmentStore = new AttachmentStore(dir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testPersistedAttachmentOnlyContainsHash() {
+        byte[] bytes = new byte[100_000];
+        bytes[5] = 5;
+        Attachment attachment = new Attachment("screenshot.png", bytes);
+
+        PB.Attachment proto = attachment.toPersistableProtoMessage(attachmentStore);
+        assertTrue(proto.getBytes().isEmpty());
+        assertArrayEquals(AttachmentStore.getHash(bytes), proto.getHash().toByteArray());
+        // Network proto still carries the content
+        assertArrayEquals(bytes, attachment.toProtoMessage().getBytes().toByteArray());
+
+        // Same content is only stored once
+        new Attachment("copy.png", bytes.clone()).toPersistableProtoMessage(attachmentStore);
+        assertEquals(1, new File(dir, "attachments").listFiles().length);
+
+        Attachment persisted = Attachment.fromPersistableProto(proto);
+        persisted.setAttachmentStore(attachmentStore);
+        assertTrue(persisted.isStored());
+        assertEquals(attachment, persisted);
+        assertArrayEquals(bytes, persisted.getBytes());
+
+        // A peer must not be able to refer to a stored attachment by its hash
+        Attachment received = Attachment.fromProto(proto);
+        received.setAttachmentStore(attachmentStore);
+        assertFalse(received.isStored());
+        assertEquals(0, received.getBytes().length);
+    }
+
+    @Test
+    public void testAttachmentOfOlderVersionGetsMigrated() {
+        byte[] bytes = {1, 2, 3};
+        PB.Attachment legacyProto = new Attachment("log.txt", bytes).toProtoMessage();
+
+        Attachment attachment = Attachment.fromPersistableProto(legacyProto);
+        assertFalse(attachment.isStored());
+        assertArrayEquals(bytes, attachment.getBytes());
+
+        PB.Attachment proto = attachment.toPersistableProtoMessage(attachmentStore);
+        assertTrue(attachment.isStored());
+        assertTrue(proto.getBytes().isEmpty());
+        assertArrayEquals(bytes, attachmentStore.get(proto.getHash().toByteArray()));
+    }
+
+    @Test
+    public void testRemoveAllExcept() throws IOException {
+        byte[] hash1 = AttachmentStore.getHash(new byte[]{1});
+        byte[] hash2 = AttachmentStore.getHash(new byte[]{2});
+        attachmentStore.put(hash1, new byte[]{1});
+        attachmentStore.put(hash2, new byte[]{2});
+
+        attachmentStore.removeAllExcept(Collections.singleton(Utilities.encodeToHex(hash2)));
+        assertFalse(new File(new File(dir, "attachments"), Utilities.encodeToHex(hash1)).exists());
+        assertArrayEquals(new byte[]{2}, attachmentStore.get(hash2));
+    }
+}
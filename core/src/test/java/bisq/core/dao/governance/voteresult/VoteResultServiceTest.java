@@ -0,0 +1,114 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+import bisq.core.dao.governance.blindvote.BlindVoteConsensus;
+import bisq.core.dao.governance.votereveal.VoteRevealConsensus;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.dao.state.model.governance.Merit;
+import bisq.core.dao.state.model.governance.MeritList;
+
+import bisq.common.crypto.Encryption;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import javax.crypto.SecretKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class VoteResultServiceTest {
+    private static final int NUM_PROPOSALS = 20;
+
+    @Test
+    public void testDecryptBlindVotesKeepsOrder() throws Exception {
+        List<VoteResultService.RevealedBlindVote> revealedBlindVotes = createRevealedBlindVotes(50);
+        // Corrupt one blind vote, its failure must not affect the others
+        VoteResultService.RevealedBlindVote corrupted = revealedBlindVotes.get(7);
+        BlindVote blindVote = corrupted.getBlindVote();
+        revealedBlindVotes.set(7, new VoteResultService.RevealedBlindVote(corrupted.getVoteRevealTxId(),
+                corrupted.getOpReturnData(), corrupted.getBlindVoteStake(),
+                new BlindVote(new byte[32], blindVote.getTxId(), blindVote.getStake(), blindVote.getEncryptedMeritList())));
+
+        ExecutorService executor = Utilities.getFixedThreadPoolExecutor("test", 4, 1);
+        List<VoteResultService.DecryptedBlindVote> decryptedBlindVotes = VoteResultService.decryptBlindVotes(revealedBlindVotes, executor);
+        executor.shutdown();
+
+        assertEquals(revealedBlindVotes.size(), decryptedBlindVotes.size());
+        for (int i = 0; i < decryptedBlindVotes.size(); i++) {
+            VoteResultService.DecryptedBlindVote decryptedBlindVote = decryptedBlindVotes.get(i);
+            if (i == 7) {
+                assertNotNull(decryptedBlindVote.getDecryptionException());
+            } else {
+                assertNull(decryptedBlindVote.getDecryptionException());
+                assertEquals(NUM_PROPOSALS, decryptedBlindVote.getVoteWithProposalTxIdList().size());
+                // We use the index as issuance height to check the order
+                assertEquals(i, decryptedBlindVote.getMeritList().getList().get(0).getIssuance().getChainHeight());
+            }
+        }
+    }
+
+    @Test
+    public void testFindPermutatedListMatchingMajority() throws Exception {
+        List<BlindVote> list = createRevealedBlindVotes(30).stream()
+                .map(VoteResultService.RevealedBlindVote::getBlindVote)
+                .collect(Collectors.toList());
+        List<BlindVote> majorityList = list.subList(4, list.size());
+        byte[] majorityHash = VoteRevealConsensus.getHashOfBlindVoteList(majorityList);
+
+        assertEquals(majorityList, VoteResultService.findPermutatedListMatchingMajority(majorityHash, list));
+        assertArrayEquals(majorityHash, VoteRevealConsensus.getHashOfBlindVoteList(
+                VoteResultService.findPermutatedListMatchingMajority(majorityHash, list)));
+        assertTrue(VoteResultService.findPermutatedListMatchingMajority(new byte[20], list).isEmpty());
+    }
+
+    private static List<VoteResultService.RevealedBlindVote> createRevealedBlindVotes(int numVotes) throws Exception {
+        List<VoteResultService.RevealedBlindVote> list = new ArrayList<>();
+        for (int i = 0; i < numVotes; i++) {
+            SecretKey secretKey = BlindVoteConsensus.createSecretKey();
+            PB.VoteWithProposalTxIdList.Builder votes = PB.VoteWithProposalTxIdList.newBuilder();
+            for (int j = 0; j < NUM_PROPOSALS; j++) {
+                votes.addItem(PB.VoteWithProposalTxId.newBuilder()
+                        .setProposalTxId("proposalTxId" + j)
+                        .setVote(PB.Vote.newBuilder().setAccepted(j % 3 != 0)));
+            }
+            MeritList meritList = new MeritList(Collections.singletonList(new Merit(
+                    new Issuance("issuanceTxId" + i, i, 10_000, null, IssuanceType.COMPENSATION), new byte[70])));
+            String blindVoteTxId = String.format("blindVoteTxId%05d", i);
+            BlindVote blindVote = new BlindVote(Encryption.encrypt(votes.build().toByteArray(), secretKey),
+                    blindVoteTxId, 100_000, BlindVoteConsensus.getEncryptedMeritList(meritList, secretKey));
+            byte[] opReturnData = VoteRevealConsensus.getOpReturnData(new byte[20], secretKey);
+            list.add(new VoteResultService.RevealedBlindVote("voteRevealTxId" + i, opReturnData, 100_000, blindVote));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full;
+
+import bisq.core.dao.node.parser.exceptions.RequiredReorgFromSnapshotException;
+
+import bisq.common.UserThread;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class BlockPrefetcherTest {
+    private static final int NUM_THREADS = 4;
+    private static final int WINDOW_SIZE = 8;
+
+    private ExecutorService userThread;
+    private StubBitcoind bitcoind;
+
+    @Before
+    public void setUp() {
+        userThread = Executors.newSingleThreadExecutor();
+        UserThread.setExecutor(userThread);
+        bitcoind = new StubBitcoind(NUM_THREADS, 5);
+    }
+
+    @After
+    public void tearDown() {
+        bitcoind.shutDown();
+        userThread.shutdownNow();
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+    }
+
+    @Test
+    public void testBlocksAreHandledInHeightOrder() throws InterruptedException {
+        BlockPrefetcher prefetcher = new BlockPrefetcher(bitcoind::requestBtcBlock, WINDOW_SIZE);
+        List<RawBlock> handledBlocks = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        UserThread.execute(() -> prefetcher.start(100, 299,
+                handledBlocks::add,
+                latch::countDown,
+                e -> log.error(e.toString())));
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertEquals(200, handledBlocks.size());
+        for (int i = 0; i < handledBlocks.size(); i++) {
+            assertEquals(100 + i, handledBlocks.get(i).getHeight());
+        }
+        assertTrue(bitcoind.maxConcurrentRequests.get() > 1);
+        assertTrue(bitcoind.maxConcurrentRequests.get() <= NUM_THREADS);
+    }
+
+    @Test
+    public void testWindowIsBounded() throws InterruptedException {
+        BlockPrefetcher prefetcher = new BlockPrefetcher(bitcoind::requestBtcBlock, WINDOW_SIZE);
+        CountDownLatch blockedLatch = new CountDownLatch(1);
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(1);
+
+        UserThread.execute(() -> prefetcher.start(0, 99,
+                rawBlock -> {
+                    // We stall parsing at the first block, so only the window gets requested
+                    if (rawBlock.getHeight() == 0) {
+                        blockedLatch.countDown();
+                        try {
+                            releaseLatch.await();
+                        } catch (InterruptedException ignore) {
+                        }
+                    }
+                },
+                doneLatch::countDown,
+                e -> log.error(e.toString())));
+
+        assertTrue(blockedLatch.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(WINDOW_SIZE, bitcoind.numRequests.get());
+
+        releaseLatch.countDown();
+        assertTrue(doneLatch.await(30, TimeUnit.SECONDS));
+        assertEquals(100, bitcoind.numRequests.get());
+    }
+
+    @Test
+    public void testReorgDropsWindow() throws InterruptedException {
+        BlockPrefetcher prefetcher = new BlockPrefetcher(bitcoind::requestBtcBlock, WINDOW_SIZE);
+        List<RawBlock> handledBlocks = new CopyOnWriteArrayList<>();
+        CountDownLatch doneLatch = new CountDownLatch(1);
+
+        UserThread.execute(() -> prefetcher.start(0, 99,
+                rawBlock -> {
+                    if (rawBlock.getHeight() == 20) {
+                        // The handler starts the reorg from the snapshot at height 10
+                        bitcoind.reorg();
+                        UserThread.execute(() -> prefetcher.start(10, 99,
+                                handledBlocks::add,
+                                doneLatch::countDown,
+                                e -> log.error(e.toString())));
+                        throw new RequiredReorgFromSnapshotException(rawBlock);
+                    }
+                    handledBlocks.add(rawBlock);
+                },
+                () -> log.error("Dropped run must not complete"),
+                e -> log.error(e.toString())));
+
+        assertTrue(doneLatch.await(30, TimeUnit.SECONDS));
+        assertEquals(20 + 90, handledBlocks.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, handledBlocks.get(i).getHeight());
+        }
+        // After the reorg we must only get blocks of the new chain
+        for (int i = 20; i < handledBlocks.size(); i++) {
+            RawBlock rawBlock = handledBlocks.get(i);
+            assertEquals(i - 10, rawBlock.getHeight());
+            assertTrue(rawBlock.getHash().startsWith("reorg"));
+        }
+        assertFalse(prefetcher.isRunning());
+    }
+
+    @Test
+    public void testErrorIsReported() throws InterruptedException {
+        bitcoind.failAtHeight = 30;
+        BlockPrefetcher prefetcher = new BlockPrefetcher(bitcoind::requestBtcBlock, WINDOW_SIZE);
+        List<RawBlock> handledBlocks = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        UserThread.execute(() -> prefetcher.start(0, 99,
+                handledBlocks::add,
+                () -> log.error("Run with error must not complete"),
+                e -> {
+                    error.set(e);
+                    latch.countDown();
+                }));
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertNotNull(error.get());
+        assertEquals("Block not found", error.get().getMessage());
+        assertEquals(30, handledBlocks.size());
+        assertFalse(prefetcher.isRunning());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Stub for the block requests at Bitcoin Core with a random latency for each request
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class StubBitcoind {
+        private final ListeningExecutorService executor;
+        private final int maxLatencyMs;
+        private final Random random = new Random();
+        private final AtomicInteger numRequests = new AtomicInteger();
+        private final AtomicInteger numConcurrentRequests = new AtomicInteger();
+        private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+        private volatile String chainId = "main";
+        private volatile int failAtHeight = -1;
+
+        StubBitcoind(int numThreads, int maxLatencyMs) {
+            this.executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(numThreads));
+            this.maxLatencyMs = maxLatencyMs;
+        }
+
+        ListenableFuture<RawBlock> requestBtcBlock(int blockHeight) {
+            numRequests.incrementAndGet();
+            String chainId = this.chainId;
+            return executor.submit(() -> {
+                int concurrent = numConcurrentRequests.incrementAndGet();
+                maxConcurrentRequests.accumulateAndGet(concurrent, Math::max);
+                try {
+                    Thread.sleep(random.nextInt(maxLatencyMs + 1));
+                    if (blockHeight == failAtHeight)
+                        throw new RpcException("Block not found");
+
+                    return new RawBlock(blockHeight,
+                            blockHeight * 600_000L,
+                            chainId + "-" + blockHeight,
+                            chainId + "-" + (blockHeight - 1),
+                            ImmutableList.of());
+                } finally {
+                    numConcurrentRequests.decrementAndGet();
+                }
+            });
+        }
+
+        void reorg() {
+            chainId = "reorg";
+        }
+
+        void shutDown() {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.storage.FileUtil;
+
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DaoStateBlocksFileTest {
+    private static final String FILE_NAME = "DaoStateStore_Blocks";
+
+    private File dir;
+
+    @Before
+    public void setUp() {
+        dir = Files.createTempDir();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testOnlyNewBlocksGetAppended() throws IOException {
+        DaoState daoState = new DaoState();
+        DaoStateBlocksFile blocksFile = new DaoStateBlocksFile(dir, FILE_NAME);
+        blocksFile.read(0, "");
+
+        addBlocks(daoState, 0, 100, "a");
+        DaoState snapshot1 = DaoState.getClone(daoState);
+        blocksFile.write(snapshot1.getBlocks());
+        long length1 = new File(dir, FILE_NAME).length();
+
+        addBlocks(daoState, 100, 110, "a");
+        DaoState snapshot2 = DaoState.getClone(daoState);
+        blocksFile.write(snapshot2.getBlocks());
+        long length2 = new File(dir, FILE_NAME).length();
+
+        // 10 more blocks must not write the 100 blocks again
+        assertTrue(length2 - length1 < length1 / 5);
+        assertEquals(110, blocksFile.getNumBlocks());
+        assertEquals("a109", blocksFile.getHashOfLastBlock());
+
+        // Clone is not affected by later changes
+        assertEquals(100, snapshot1.getBlocks().size());
+
+        assertEquals(snapshot2.getBlocks(), read(110, "a109").get());
+        // If the store refers to an older state the newer blocks get dropped
+        assertEquals(snapshot1.getBlocks(), read(100, "a99").get());
+        assertEquals(length1, new File(dir, FILE_NAME).length());
+    }
+
+    @Test
+    public void testReorgRewritesFile() throws IOException {
+        DaoState daoState = new DaoState();
+        DaoStateBlocksFile blocksFile = new DaoStateBlocksFile(dir, FILE_NAME);
+        blocksFile.read(0, "");
+
+        addBlocks(daoState, 0, 50, "a");
+        blocksFile.write(DaoState.getClone(daoState).getBlocks());
+
+        // Other chain after height 39
+        DaoState reorged = new DaoState();
+        reorged.getBlocks().addAll(daoState.getBlocks().subList(0, 40));
+        addBlocks(reorged, 40, 60, "b");
+        blocksFile.write(DaoState.getClone(reorged).getBlocks());
+
+        assertEquals(reorged.getBlocks(), read(60, "b59").get());
+    }
+
+    @Test
+    public void testMismatchIsDetected() throws IOException {
+        DaoState daoState = new DaoState();
+        DaoStateBlocksFile blocksFile = new DaoStateBlocksFile(dir, FILE_NAME);
+        blocksFile.read(0, "");
+        addBlocks(daoState, 0, 50, "a");
+        blocksFile.write(daoState.getBlocks());
+
+        assertFalse(read(60, "a59").isPresent());
+        assertFalse(read(50, "b49").isPresent());
+    }
+
+    private Optional<List<Block>> read(int numBlocks, String hashOfLastBlock) {
+        return new DaoStateBlocksFile(dir, FILE_NAME).read(numBlocks, hashOfLastBlock);
+    }
+
+    private void addBlocks(DaoState daoState, int from, int to, String chainId) {
+        for (int height = from; height < to; height++) {
+            String previousBlockHash = height > 0 ? daoState.getBlocks().getLast().getHash() : "";
+            daoState.getBlocks().add(new Block(height, height * 600_000L, chainId + height, previousBlockHash));
+        }
+    }
+}
@@ -19,8 +19,21 @@ package bisq.core.dao.state;
 
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
 import bisq.core.util.BsqFormatter;
 
+import io.bisq.generated.protobuffer.PB;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -63,4 +76,81 @@ public class DaoStateServiceTest {
                 stateService.isBlockHashKnown("fakeblockhash4")
         );
     }
+
+    @Test
+    public void testIndexes() {
+        DaoStateService stateService = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("tx_0_0", 0),
+                new BsqFormatter());
+        for (int height = 0; height < 10; height++) {
+            Block block = new Block(height, 1534800000 + height, "fakeblockhash" + height, null);
+            stateService.onNewBlockWithEmptyTxs(block);
+            Assert.assertEquals(Optional.of(block), stateService.getBlockAtHeight(height));
+
+            Tx tx = createTx(height, 0, null);
+            block.getTxs().add(tx);
+            // Txs of the block in parsing must be found before parsing of the block is complete
+            Tx spendingTx = createTx(height, 1, tx.getId());
+            Assert.assertEquals(Optional.of(tx), stateService.getTx(tx.getId()));
+            block.getTxs().add(spendingTx);
+            Assert.assertEquals(Optional.of(spendingTx.getTxOutputs().get(0)),
+                    stateService.getTxOutput(new TxOutputKey(spendingTx.getId(), 0)));
+            stateService.onParseBlockComplete(block);
+        }
+
+        assertIndexesMatchBlocks(stateService);
+        Assert.assertTrue(stateService.isBlockHashKnown("fakeblockhash9"));
+        Assert.assertFalse(stateService.isBlockHashKnown("fakeblockhash10"));
+        Assert.assertFalse(stateService.getTx("tx_10_0").isPresent());
+
+        // Indexes get rebuilt from a snapshot
+        DaoStateService stateServiceFromSnapshot = new DaoStateService(
+                new DaoState(),
+                new GenesisTxInfo("tx_0_0", 0),
+                new BsqFormatter());
+        stateServiceFromSnapshot.applySnapshot(stateService.getClone());
+        assertIndexesMatchBlocks(stateServiceFromSnapshot);
+        Assert.assertEquals(stateService.getTx("tx_5_1"), stateServiceFromSnapshot.getTx("tx_5_1"));
+    }
+
+    private void assertIndexesMatchBlocks(DaoStateService stateService) {
+        stateService.getBlocks().forEach(block -> {
+            Assert.assertEquals(Optional.of(block), stateService.getBlockAtHeight(block.getHeight()));
+            Assert.assertTrue(stateService.containsBlockHash(block.getHash()));
+            Assert.assertTrue(stateService.containsBlock(block));
+        });
+        stateService.getTxStream().forEach(tx -> {
+            Assert.assertEquals(Optional.of(tx), stateService.getTx(tx.getId()));
+            tx.getTxOutputs().forEach(txOutput ->
+                    Assert.assertEquals(Optional.of(txOutput), stateService.getTxOutput(txOutput.getKey())));
+        });
+        Arrays.stream(TxOutputType.values()).forEach(txOutputType -> {
+            Set<TxOutput> expected = stateService.getTxOutputStream()
+                    .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
+                    .collect(Collectors.toSet());
+            Assert.assertEquals(expected, stateService.getTxOutputsByTxOutputType(txOutputType));
+        });
+    }
+
+    private Tx createTx(int height, int index, String connectedTxId) {
+        String txId = "tx_" + height + "_" + index;
+        TxOutput bsqOutput = new TxOutput(0, 1000, txId, null, null, null, height,
+                TxOutputType.BSQ_OUTPUT, -1, 0);
+        TxOutput lockupOutput = new TxOutput(1, 500, txId, null, null, null, height,
+                TxOutputType.LOCKUP_OUTPUT, 10, 0);
+        PB.BaseTx.Builder builder = PB.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash("fakeblockhash" + height)
+                .setTime(1534800000 + height)
+                .setTx(PB.Tx.newBuilder()
+                        .addTxOutputs(bsqOutput.toProtoMessage())
+                        .addTxOutputs(lockupOutput.toProtoMessage())
+                        .setTxType(TxType.TRANSFER_BSQ.toProtoMessage()));
+        if (connectedTxId != null)
+            builder.addTxInputs(new TxInput(connectedTxId, 0, null).toProtoMessage());
+        return Tx.fromProto(builder.build());
+    }
 }
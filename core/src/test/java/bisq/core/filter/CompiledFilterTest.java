@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import bisq.core.payment.payload.AliPayAccountPayload;
+import bisq.core.payment.payload.PaymentMethod;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledFilterTest {
+
+    @Test
+    public void testLookups() {
+        Filter filter = new Filter(Arrays.asList("offer1", "offer2"),
+                Collections.singletonList("abc.onion:9999"),
+                Collections.emptyList(),
+                Collections.singletonList("EUR"),
+                null,
+                null,
+                null,
+                null,
+                false,
+                null);
+        CompiledFilter compiledFilter = new CompiledFilter(filter);
+
+        assertTrue(compiledFilter.isOfferIdBanned("offer2"));
+        assertFalse(compiledFilter.isOfferIdBanned("offer3"));
+        assertTrue(compiledFilter.isNodeAddressBanned("abc.onion:9999"));
+        assertTrue(compiledFilter.isCurrencyBanned("EUR"));
+        assertFalse(compiledFilter.isCurrencyBanned("USD"));
+        assertFalse(compiledFilter.isPaymentMethodBanned(PaymentMethod.ALI_PAY_ID));
+
+        assertFalse(CompiledFilter.EMPTY.isOfferIdBanned("offer2"));
+    }
+
+    @Test
+    public void testMatchingPaymentAccountFilter() {
+        PaymentAccountFilter bannedAccount = new PaymentAccountFilter(PaymentMethod.ALI_PAY_ID, "getAccountNr", "123");
+        Filter filter = new Filter(Collections.emptyList(),
+                Collections.emptyList(),
+                Arrays.asList(new PaymentAccountFilter(PaymentMethod.ALI_PAY_ID, "getAccountNr", "456"),
+                        bannedAccount,
+                        new PaymentAccountFilter(PaymentMethod.SEPA_ID, "getIban", "123")),
+                null,
+                null,
+                null,
+                null,
+                null,
+                false,
+                null);
+        CompiledFilter compiledFilter = new CompiledFilter(filter);
+
+        AliPayAccountPayload payload = new AliPayAccountPayload(PaymentMethod.ALI_PAY_ID, "id");
+        payload.setAccountNr("123");
+        assertEquals(bannedAccount, compiledFilter.getMatchingPaymentAccountFilter(payload).get());
+
+        payload.setAccountNr("789");
+        assertFalse(compiledFilter.getMatchingPaymentAccountFilter(payload).isPresent());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.counterCurrencyCode;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.id;
+import static bisq.core.offer.OfferMaker.price;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OfferIndexTest {
+
+    @Test
+    public void testPutAndRemove() {
+        OfferIndex offerIndex = new OfferIndex();
+        Map<String, Integer> buyOfferCountMap = offerIndex.getOfferCountMap(OfferPayload.Direction.BUY);
+        Offer buyUsd = make(btcUsdOffer.but(with(id, "1")));
+        Offer sellUsd = make(btcUsdOffer.but(with(id, "2"), with(direction, OfferPayload.Direction.SELL)));
+        Offer buyEur = make(btcUsdOffer.but(with(id, "3"), with(counterCurrencyCode, "EUR")));
+        assertNull(offerIndex.put(buyUsd));
+        assertNull(offerIndex.put(sellUsd));
+        assertNull(offerIndex.put(buyEur));
+
+        assertEquals(3, offerIndex.size());
+        assertEquals(Arrays.asList(buyUsd, sellUsd, buyEur), new ArrayList<>(offerIndex.getOffers()));
+        assertEquals(Arrays.asList(buyUsd), new ArrayList<>(offerIndex.getOffers("USD", OfferPayload.Direction.BUY)));
+        assertEquals(1, offerIndex.getNumOffers("EUR", OfferPayload.Direction.BUY));
+        assertEquals(0, offerIndex.getNumOffers("EUR", OfferPayload.Direction.SELL));
+        assertEquals(2, buyOfferCountMap.size());
+        assertEquals(1, (int) offerIndex.getOfferCountMap(OfferPayload.Direction.SELL).get("USD"));
+
+        // An offer with the same ID replaces the old one
+        Offer editedBuyUsd = make(btcUsdOffer.but(with(id, "1"), with(price, 200000L)));
+        assertSame(buyUsd, offerIndex.put(editedBuyUsd));
+        assertSame(editedBuyUsd, offerIndex.get("1"));
+        assertEquals(1, offerIndex.getNumOffers("USD", OfferPayload.Direction.BUY));
+
+        assertSame(buyEur, offerIndex.remove("3"));
+        assertNull(offerIndex.remove("3"));
+        assertTrue(offerIndex.getOffers("EUR", OfferPayload.Direction.BUY).isEmpty());
+        // The count map is a live view
+        assertNull(buyOfferCountMap.get("EUR"));
+        assertEquals(1, (int) buyOfferCountMap.get("USD"));
+        assertEquals(1, buyOfferCountMap.size());
+        assertEquals(2, offerIndex.size());
+    }
+}
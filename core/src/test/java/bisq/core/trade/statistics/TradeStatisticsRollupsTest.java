@@ -0,0 +1,123 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.core.offer.OfferPayload;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsRollupsTest {
+    private final ZoneId zoneId = ZoneId.of("Europe/Berlin");
+
+    @Test
+    public void testPeriodStart() {
+        // Wednesday
+        long time = toMillis(LocalDateTime.of(2018, 3, 14, 15, 27, 45));
+        assertEquals(toMillis(LocalDateTime.of(2018, 1, 1, 0, 0)), TradeStatisticsRollups.Interval.YEAR.getPeriodStart(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 1, 0, 0)), TradeStatisticsRollups.Interval.MONTH.getPeriodStart(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 12, 0, 0)), TradeStatisticsRollups.Interval.WEEK.getPeriodStart(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 14, 0, 0)), TradeStatisticsRollups.Interval.DAY.getPeriodStart(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 14, 15, 0)), TradeStatisticsRollups.Interval.HOUR.getPeriodStart(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 14, 15, 20)), TradeStatisticsRollups.Interval.MINUTE_10.getPeriodStart(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 14, 15, 27)), TradeStatisticsRollups.Interval.MINUTE.getPeriodStart(time, zoneId));
+
+        // 00:30 in Berlin is still the previous day in UTC
+        long afterMidnight = toMillis(LocalDateTime.of(2018, 3, 14, 0, 30));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 14, 0, 0)), TradeStatisticsRollups.Interval.DAY.getPeriodStart(afterMidnight, zoneId));
+        assertEquals(LocalDateTime.of(2018, 3, 13, 0, 0).atZone(ZoneId.of("UTC")).toInstant().toEpochMilli(),
+                TradeStatisticsRollups.Interval.DAY.getPeriodStart(afterMidnight, ZoneId.of("UTC")));
+    }
+
+    @Test
+    public void testCandles() {
+        TradeStatisticsRollups rollups = new TradeStatisticsRollups(zoneId);
+        long time = toMillis(LocalDateTime.of(2018, 3, 14, 15, 27));
+        rollups.add(createTradeStatistics("EUR", 5_000_0000, 1_0000_0000, time + 60_000));
+        rollups.add(createTradeStatistics("EUR", 4_000_0000, 2_0000_0000, time));
+        rollups.add(createTradeStatistics("EUR", 6_000_0000, 1_0000_0000, time + 30_000));
+        rollups.add(createTradeStatistics("USD", 7_000_0000, 1_0000_0000, time + 90_000));
+
+        long day = TradeStatisticsRollups.Interval.DAY.getPeriodStart(time, zoneId);
+        TradeStatisticsCandle candle = rollups.getCandle("EUR", TradeStatisticsRollups.Interval.DAY, day).get();
+        assertEquals(4_000_0000, candle.getOpen());
+        assertEquals(5_000_0000, candle.getClose());
+        assertEquals(6_000_0000, candle.getHigh());
+        assertEquals(4_000_0000, candle.getLow());
+        assertEquals(4_0000_0000, candle.getAccumulatedAmount());
+        // 5000 + 2 * 4000 + 6000 EUR
+        assertEquals(19_000_0000, candle.getAccumulatedVolume());
+        assertEquals(3, candle.getNumTrades());
+
+        // The last trade is in its own minute
+        List<TradeStatisticsCandle> minutes = rollups.getCandles("EUR", TradeStatisticsRollups.Interval.MINUTE);
+        assertEquals(2, minutes.size());
+        assertEquals(2, minutes.get(0).getNumTrades());
+        assertEquals(1, minutes.get(1).getNumTrades());
+        assertFalse(rollups.getCandle("EUR", TradeStatisticsRollups.Interval.DAY, day - 1).isPresent());
+
+        TradeStatisticsCandle allCurrencies = rollups.getCandleOfAllCurrencies(TradeStatisticsRollups.Interval.DAY, day).get();
+        assertEquals(4_000_0000, allCurrencies.getOpen());
+        assertEquals(7_000_0000, allCurrencies.getClose());
+        assertEquals(7_000_0000, allCurrencies.getHigh());
+        assertEquals(4, allCurrencies.getNumTrades());
+        // Merging must not change the candle of the currency
+        assertEquals(3, rollups.getCandle("EUR", TradeStatisticsRollups.Interval.DAY, day).get().getNumTrades());
+
+        assertEquals(5_000_0000, rollups.getLatestTradeStatistics("EUR").getTradePrice().getValue());
+        assertEquals(2, rollups.getLatestTradeStatistics().size());
+
+        assertEquals(3, rollups.getTradeStatistics("EUR").size());
+        assertEquals(3, rollups.getNumTradeStatistics("EUR"));
+        assertEquals(1, rollups.getTradeStatistics("USD").size());
+        assertTrue(rollups.getTradeStatistics("GBP").isEmpty());
+        assertEquals(0, rollups.getNumTradeStatistics("GBP"));
+    }
+
+    private static TradeStatistics2 createTradeStatistics(String currencyCode, long price, long amount, long tradeDate) {
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                currencyCode,
+                "SEPA",
+                tradeDate,
+                false,
+                0,
+                amount,
+                amount,
+                UUID.randomUUID().toString(),
+                price,
+                amount,
+                tradeDate,
+                "depositTxId",
+                new byte[20],
+                null);
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+}
@@ -279,10 +279,8 @@ class OfferBookChartViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        List<Offer> allBuyOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.BUY))
+        String currencyCode = selectedTradeCurrencyProperty.get().getCode();
+        List<Offer> allBuyOffers = offerBook.getOffers(currencyCode, OfferPayload.Direction.BUY).stream()
                 .sorted((o1, o2) -> {
                     long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
                     long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
@@ -319,10 +317,7 @@ class OfferBookChartViewModel extends ActivatableViewModel {
 
         buildChartAndTableEntries(allBuyOffers, OfferPayload.Direction.BUY, buyData, topBuyOfferList);
 
-        List<Offer> allSellOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.SELL))
+        List<Offer> allSellOffers = offerBook.getOffers(currencyCode, OfferPayload.Direction.SELL).stream()
                 .sorted((o1, o2) -> {
                     long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
                     long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
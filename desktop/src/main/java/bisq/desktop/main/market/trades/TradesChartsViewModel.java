@@ -34,7 +34,9 @@ import bisq.core.locale.TradeCurrency;
 import bisq.core.monetary.Altcoin;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.statistics.TradeStatistics2;
+import bisq.core.trade.statistics.TradeStatisticsCandle;
 import bisq.core.trade.statistics.TradeStatisticsManager;
+import bisq.core.trade.statistics.TradeStatisticsRollups;
 import bisq.core.user.Preferences;
 import bisq.core.util.BSFormatter;
 
@@ -57,21 +59,14 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.SetChangeListener;
 
-import javafx.util.Pair;
-
-import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -107,7 +102,8 @@ class TradesChartsViewModel extends ActivatableViewModel {
     final ObservableList<TradeStatistics2> tradeStatisticsByCurrency = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> priceItems = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> volumeItems = FXCollections.observableArrayList();
-    private Map<Long, Pair<Date, Set<TradeStatistics2>>> itemsPerInterval;
+    // Start time of each tick
+    private Map<Long, Date> timePerTick;
 
     TickUnit tickUnit = TickUnit.DAY;
     final int maxTicks = 30;
@@ -146,20 +142,13 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     private void fillTradeCurrencies() {
-        // Don't use a set as we need all entries
-        List<TradeCurrency> tradeCurrencyList = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .map(e -> {
-                    Optional<TradeCurrency> tradeCurrencyOptional = CurrencyUtil.getTradeCurrency(e.getCurrencyCode());
-                    if (tradeCurrencyOptional.isPresent())
-                        return tradeCurrencyOptional.get();
-                    else
-                        return null;
-
-                })
-                .filter(e -> e != null)
-                .collect(Collectors.toList());
-
-        currencyListItems.updateWithCurrencies(tradeCurrencyList, showAllCurrencyListItem);
+        // The rollups know the number of trades per currency, so we don't need to iterate all trade statistics
+        TradeStatisticsRollups rollups = tradeStatisticsManager.getRollups();
+        Map<TradeCurrency, Integer> tradesPerCurrency = new HashMap<>();
+        rollups.getCurrencyCodes().forEach(currencyCode -> CurrencyUtil.getTradeCurrency(currencyCode)
+                .ifPresent(tradeCurrency -> tradesPerCurrency.put(tradeCurrency, rollups.getNumTradeStatistics(currencyCode))));
+
+        currencyListItems.updateWithTradesPerCurrency(tradesPerCurrency, showAllCurrencyListItem);
     }
 
     @Override
@@ -251,38 +240,32 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        tradeStatisticsByCurrency.setAll(tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> showAllTradeCurrenciesProperty.get() || e.getCurrencyCode().equals(getCurrencyCode()))
-                .collect(Collectors.toList()));
+        TradeStatisticsRollups rollups = tradeStatisticsManager.getRollups();
+        if (showAllTradeCurrenciesProperty.get())
+            tradeStatisticsByCurrency.setAll(tradeStatisticsManager.getObservableTradeStatisticsSet());
+        else
+            tradeStatisticsByCurrency.setAll(rollups.getTradeStatistics(getCurrencyCode()));
 
-        // Generate date range and create sets for all ticks
-        itemsPerInterval = new HashMap<>();
+        // Generate date range for all ticks
+        timePerTick = new HashMap<>();
         Date time = new Date();
         for (long i = maxTicks + 1; i >= 0; --i) {
-            Set<TradeStatistics2> set = new HashSet<>();
-            Pair<Date, Set<TradeStatistics2>> pair = new Pair<>((Date) time.clone(), set);
-            itemsPerInterval.put(i, pair);
+            timePerTick.put(i, (Date) time.clone());
             time.setTime(time.getTime() - 1);
             time = roundToTick(time, tickUnit);
         }
 
-        // Get all entries for the defined time interval
-        tradeStatisticsByCurrency.stream().forEach(e -> {
-            for (long i = maxTicks; i > 0; --i) {
-                Pair<Date, Set<TradeStatistics2>> p = itemsPerInterval.get(i);
-                if (e.getTradeDate().after(p.getKey())) {
-                    p.getValue().add(e);
-                    break;
-                }
-            }
-        });
-
-        // create CandleData for defined time interval
-        List<CandleData> candleDataList = itemsPerInterval.entrySet().stream()
-                .filter(entry -> entry.getKey() >= 0 && !entry.getValue().getValue().isEmpty())
-                .map(entry -> getCandleData(entry.getKey(), entry.getValue().getValue()))
-                .collect(Collectors.toList());
-        candleDataList.sort((o1, o2) -> (o1.tick < o2.tick ? -1 : (o1.tick == o2.tick ? 0 : 1)));
+        // Get the candles of the defined time interval from the rollups
+        TradeStatisticsRollups.Interval interval = toInterval(tickUnit);
+        List<CandleData> candleDataList = new ArrayList<>();
+        for (long i = 1; i <= maxTicks; i++) {
+            long periodStart = timePerTick.get(i).getTime();
+            Optional<TradeStatisticsCandle> candle = showAllTradeCurrenciesProperty.get() ?
+                    rollups.getCandleOfAllCurrencies(interval, periodStart) :
+                    rollups.getCandle(getCurrencyCode(), interval, periodStart);
+            if (candle.isPresent())
+                candleDataList.add(getCandleData(i, candle.get()));
+        }
 
         //noinspection Convert2Diamond
         priceItems.setAll(candleDataList.stream()
@@ -296,34 +279,22 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     @VisibleForTesting
-    CandleData getCandleData(long tick, Set<TradeStatistics2> set) {
-        long open = 0;
-        long close = 0;
-        long high = 0;
-        long low = 0;
-        long accumulatedVolume = 0;
-        long accumulatedAmount = 0;
-        long numTrades = set.size();
-
-        for (TradeStatistics2 item : set) {
-            long tradePriceAsLong = item.getTradePrice().getValue();
-            if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
-                low = (low != 0) ? Math.max(low, tradePriceAsLong) : tradePriceAsLong;
-                high = (high != 0) ? Math.min(high, tradePriceAsLong) : tradePriceAsLong;
-            } else {
-                low = (low != 0) ? Math.min(low, tradePriceAsLong) : tradePriceAsLong;
-                high = (high != 0) ? Math.max(high, tradePriceAsLong) : tradePriceAsLong;
-            }
-
-            accumulatedVolume += (item.getTradeVolume() != null) ? item.getTradeVolume().getValue() : 0;
-            accumulatedAmount += item.getTradeAmount().getValue();
-        }
-
-        List<TradeStatistics2> list = new ArrayList<>(set);
-        list.sort((o1, o2) -> (o1.getTradeDate().getTime() < o2.getTradeDate().getTime() ? -1 : (o1.getTradeDate().getTime() == o2.getTradeDate().getTime() ? 0 : 1)));
-        if (list.size() > 0) {
-            open = list.get(0).getTradePrice().getValue();
-            close = list.get(list.size() - 1).getTradePrice().getValue();
+    CandleData getCandleData(long tick, TradeStatisticsCandle candle) {
+        long open = candle.getOpen();
+        long close = candle.getClose();
+        long high;
+        long low;
+        long accumulatedVolume = candle.getAccumulatedVolume();
+        long accumulatedAmount = candle.getAccumulatedAmount();
+        long numTrades = candle.getNumTrades();
+
+        // Altcoin prices are in BTC, so the highest value is the lowest altcoin price
+        if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
+            low = candle.getHigh();
+            high = candle.getLow();
+        } else {
+            low = candle.getLow();
+            high = candle.getHigh();
         }
 
         long averagePrice;
@@ -347,33 +318,18 @@ class TradesChartsViewModel extends ActivatableViewModel {
                 numTrades, isBullish, dateString);
     }
 
+    // The candles of TradeStatisticsManager.getRollups() are in the local time zone as well
     Date roundToTick(Date time, TickUnit tickUnit) {
-        ZonedDateTime zdt = time.toInstant().atZone(ZoneId.systemDefault());
-        LocalDateTime tradeLocal = zdt.toLocalDateTime();
-
-        switch (tickUnit) {
-            case YEAR:
-                return Date.from(tradeLocal.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case MONTH:
-                return Date.from(tradeLocal.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case WEEK:
-                int dayOfWeek = tradeLocal.getDayOfWeek().getValue();
-                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(tradeLocal, 1 - dayOfWeek);
-                return Date.from(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case DAY:
-                return Date.from(tradeLocal.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case HOUR:
-                return Date.from(tradeLocal.withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case MINUTE_10:
-                return Date.from(tradeLocal.withMinute(tradeLocal.getMinute() - tradeLocal.getMinute() % 10).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            default:
-                return Date.from(tradeLocal.atZone(ZoneId.systemDefault()).toInstant());
-        }
+        return new Date(toInterval(tickUnit).getPeriodStart(time.getTime(), ZoneId.systemDefault()));
+    }
+
+    private static TradeStatisticsRollups.Interval toInterval(TickUnit tickUnit) {
+        return TradeStatisticsRollups.Interval.valueOf(tickUnit.name());
     }
 
     private long getTimeFromTick(long tick) {
-        if (itemsPerInterval == null || itemsPerInterval.get(tick) == null) return 0;
-        return itemsPerInterval.get(tick).getKey().getTime();
+        if (timePerTick == null || timePerTick.get(tick) == null) return 0;
+        return timePerTick.get(tick).getTime();
     }
 
     long getTimeFromTickIndex(long index) {
@@ -19,6 +19,7 @@ package bisq.desktop.main.offer.offerbook;
 
 import bisq.core.offer.Offer;
 import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferPayload;
 import bisq.core.trade.TradeManager;
 
 import javax.inject.Inject;
@@ -27,13 +28,14 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import static bisq.core.offer.OfferPayload.Direction.BUY;
+import static bisq.core.offer.OfferPayload.Direction.SELL;
 
 /**
  * Holds and manages the unsorted and unfiltered offerbook list of both buy and sell offers.
@@ -46,8 +48,7 @@ import static bisq.core.offer.OfferPayload.Direction.BUY;
 public class OfferBook {
     private final OfferBookService offerBookService;
     private final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
-    private final Map<String, Integer> buyOfferCountMap = new HashMap<>();
-    private final Map<String, Integer> sellOfferCountMap = new HashMap<>();
+    private final Map<String, OfferBookListItem> offerBookListItemsById = new HashMap<>();
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -63,22 +64,18 @@ public class OfferBook {
                 // We get onAdded called every time a new ProtectedStorageEntry is received.
                 // Mostly it is the same OfferPayload but the ProtectedStorageEntry is different.
                 // We filter here to only add new offers if the same offer (using equals) was not already added.
-                boolean hasSameOffer = offerBookListItems.stream()
-                        .anyMatch(item -> item.getOffer().equals(offer));
-                if (!hasSameOffer) {
+                OfferBookListItem candidateWithSameId = offerBookListItemsById.get(offer.getId());
+                if (candidateWithSameId == null || !candidateWithSameId.getOffer().equals(offer)) {
                     OfferBookListItem offerBookListItem = new OfferBookListItem(offer);
                     // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
                     // If we have an offer with same ID we remove it and add the new offer as it might have a changed state.
-                    Optional<OfferBookListItem> candidateWithSameId = offerBookListItems.stream()
-                            .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                            .findAny();
-                    if (candidateWithSameId.isPresent()) {
+                    if (candidateWithSameId != null) {
                         log.warn("We had an old offer in the list with the same Offer ID. Might be that the state or errorMessage was different. " +
-                                "old offerBookListItem={}, new offerBookListItem={}", candidateWithSameId.get(), offerBookListItem);
-                        offerBookListItems.remove(candidateWithSameId.get());
+                                "old offerBookListItem={}, new offerBookListItem={}", candidateWithSameId, offerBookListItem);
+                        removeOfferBookListItem(candidateWithSameId);
                     }
 
-                    offerBookListItems.add(offerBookListItem);
+                    addOfferBookListItem(offerBookListItem);
                 } else {
                     log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
                 }
@@ -92,10 +89,9 @@ public class OfferBook {
                 // clean up possible references in openOfferManager
                 tradeManager.onOfferRemovedFromRemoteOfferBook(offer);
                 // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
-                Optional<OfferBookListItem> candidateToRemove = offerBookListItems.stream()
-                        .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                        .findAny();
-                candidateToRemove.ifPresent(offerBookListItems::remove);
+                OfferBookListItem candidateToRemove = offerBookListItemsById.get(offer.getId());
+                if (candidateToRemove != null)
+                    removeOfferBookListItem(candidateToRemove);
             }
         });
     }
@@ -106,45 +102,51 @@ public class OfferBook {
 
     public void fillOfferBookListItems() {
         try {
+            List<OfferBookListItem> items = offerBookService.getOffers().stream()
+                    .map(OfferBookListItem::new)
+                    .collect(Collectors.toList());
             // setAll causes sometimes an UnsupportedOperationException
             // Investigate why....
             offerBookListItems.clear();
-            offerBookListItems.addAll(offerBookService.getOffers().stream()
-                    .map(OfferBookListItem::new)
-                    .collect(Collectors.toList()));
+            offerBookListItems.addAll(items);
+            offerBookListItemsById.clear();
+            items.forEach(item -> offerBookListItemsById.put(item.getOffer().getId(), item));
 
             log.debug("offerBookListItems.size " + offerBookListItems.size());
-            fillOfferCountMaps();
         } catch (Throwable t) {
             t.printStackTrace();
             log.error("Error at fillOfferBookListItems: " + t.toString());
         }
     }
 
+    // The list items are created from the offers of the OfferBookService, so we can take the offers of a market and
+    // the counts from its index instead of filtering the list.
+    public List<Offer> getOffers(String currencyCode, OfferPayload.Direction direction) {
+        return offerBookService.getOffers(currencyCode, direction);
+    }
+
     public Map<String, Integer> getBuyOfferCountMap() {
-        return buyOfferCountMap;
+        return offerBookService.getOfferCountMap(BUY);
     }
 
     public Map<String, Integer> getSellOfferCountMap() {
-        return sellOfferCountMap;
+        return offerBookService.getOfferCountMap(SELL);
     }
 
-    private void fillOfferCountMaps() {
-        buyOfferCountMap.clear();
-        sellOfferCountMap.clear();
-        final String[] ccyCode = new String[1];
-        final int[] offerCount = new int[1];
-        offerBookListItems.forEach(o -> {
-            ccyCode[0] = o.getOffer().getCurrencyCode();
-            if (o.getOffer().getDirection() == BUY) {
-                offerCount[0] = buyOfferCountMap.getOrDefault(ccyCode[0], 0) + 1;
-                buyOfferCountMap.put(ccyCode[0], offerCount[0]);
-            } else {
-                offerCount[0] = sellOfferCountMap.getOrDefault(ccyCode[0], 0) + 1;
-                sellOfferCountMap.put(ccyCode[0], offerCount[0]);
-            }
-        });
-        log.debug("buyOfferCountMap.size {}   sellOfferCountMap.size {}",
-                buyOfferCountMap.size(), sellOfferCountMap.size());
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addOfferBookListItem(OfferBookListItem offerBookListItem) {
+        Offer offer = offerBookListItem.getOffer();
+        offerBookListItems.add(offerBookListItem);
+        offerBookListItemsById.put(offer.getId(), offerBookListItem);
+    }
+
+    private void removeOfferBookListItem(OfferBookListItem offerBookListItem) {
+        Offer offer = offerBookListItem.getOffer();
+        offerBookListItems.remove(offerBookListItem);
+        offerBookListItemsById.remove(offer.getId());
     }
 }
@@ -542,19 +542,19 @@ class OfferBookViewModel extends ActivatableViewModel {
     }
 
     boolean isOfferBanned(Offer offer) {
-        return filterManager.isOfferIdBanned(offer.getId());
+        return filterManager.getOfferFilterResult(offer) == FilterManager.OfferFilterResult.OFFER_ID_BANNED;
     }
 
     boolean isCurrencyBanned(Offer offer) {
-        return filterManager.isCurrencyBanned(offer.getCurrencyCode());
+        return filterManager.getOfferFilterResult(offer) == FilterManager.OfferFilterResult.CURRENCY_BANNED;
     }
 
     boolean isPaymentMethodBanned(Offer offer) {
-        return filterManager.isPaymentMethodBanned(offer.getPaymentMethod());
+        return filterManager.getOfferFilterResult(offer) == FilterManager.OfferFilterResult.PAYMENT_METHOD_BANNED;
     }
 
     boolean isNodeAddressBanned(Offer offer) {
-        return filterManager.isNodeAddressBanned(offer.getMakerNodeAddress());
+        return filterManager.getOfferFilterResult(offer) == FilterManager.OfferFilterResult.NODE_ADDRESS_BANNED;
     }
 
     boolean isInsufficientTradeLimit(Offer offer) {
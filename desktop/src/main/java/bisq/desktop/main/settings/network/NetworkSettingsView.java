@@ -39,7 +39,7 @@ import bisq.core.user.Preferences;
 import bisq.core.util.BSFormatter;
 
 import bisq.network.p2p.P2PService;
-import bisq.network.p2p.network.Statistic;
+import bisq.network.p2p.network.NetworkMetricsFxAdapter;
 
 import bisq.common.Clock;
 import bisq.common.UserThread;
@@ -118,6 +118,7 @@ public class NetworkSettingsView extends ActivatableViewAndModel<GridPane, Activ
 
     private final ObservableList<P2pNetworkListItem> networkListItems = FXCollections.observableArrayList();
     private final SortedList<P2pNetworkListItem> sortedList = new SortedList<>(networkListItems);
+    private final NetworkMetricsFxAdapter networkMetricsFxAdapter = new NetworkMetricsFxAdapter();
 
     private Subscription numP2PPeersSubscription;
     private Subscription bitcoinPeersSubscription;
@@ -274,8 +275,9 @@ public class NetworkSettingsView extends ActivatableViewAndModel<GridPane, Activ
                         Res.get("settings.net.notKnownYet") :
                         p2PService.getAddress().getFullAddress()));
         numP2PPeersSubscription = EasyBind.subscribe(p2PService.getNumConnectedPeers(), numPeers -> updateP2PTable());
-        totalTrafficTextField.textProperty().bind(EasyBind.combine(Statistic.totalSentBytesProperty(),
-                Statistic.totalReceivedBytesProperty(),
+        networkMetricsFxAdapter.start();
+        totalTrafficTextField.textProperty().bind(EasyBind.combine(networkMetricsFxAdapter.totalSentBytesProperty(),
+                networkMetricsFxAdapter.totalReceivedBytesProperty(),
                 (sent, received) -> Res.get("settings.net.sentReceived",
                         formatter.formatBytes((long) sent),
                         formatter.formatBytes((long) received))));
@@ -309,6 +311,7 @@ public class NetworkSettingsView extends ActivatableViewAndModel<GridPane, Activ
             numP2PPeersSubscription.unsubscribe();
 
         totalTrafficTextField.textProperty().unbind();
+        networkMetricsFxAdapter.stop();
 
         sortedList.comparatorProperty().unbind();
         tableView.getItems().forEach(P2pNetworkListItem::cleanup);
@@ -42,7 +42,7 @@ public class P2pNetworkListItem {
 
     private final Statistic statistic;
     private final Connection connection;
-    private final Subscription sentBytesSubscription, receivedBytesSubscription, onionAddressSubscription, roundTripTimeSubscription;
+    private final Subscription onionAddressSubscription;
     private final Clock clock;
     private final BSFormatter formatter;
 
@@ -61,19 +61,14 @@ public class P2pNetworkListItem {
         this.formatter = formatter;
         this.statistic = connection.getStatistic();
 
-        sentBytesSubscription = EasyBind.subscribe(statistic.sentBytesProperty(),
-                e -> sentBytes.set(formatter.formatBytes((long) e)));
-        receivedBytesSubscription = EasyBind.subscribe(statistic.receivedBytesProperty(),
-                e -> receivedBytes.set(formatter.formatBytes((long) e)));
         onionAddressSubscription = EasyBind.subscribe(connection.peersNodeAddressProperty(),
                 nodeAddress -> onionAddress.set(nodeAddress != null ? nodeAddress.getFullAddress() : Res.get("settings.net.notKnownYet")));
-        roundTripTimeSubscription = EasyBind.subscribe(statistic.roundTripTimeProperty(),
-                roundTripTime -> this.roundTripTime.set((int) roundTripTime == 0 ? "-" : roundTripTime + " ms"));
 
         listener = new Clock.Listener() {
             @Override
             public void onSecondTick() {
                 onLastActivityChanged(statistic.getLastActivityTimestamp());
+                updateStatistic();
                 updatePeerType();
                 updateConnectionType();
             }
@@ -88,6 +83,7 @@ public class P2pNetworkListItem {
         };
         clock.addListener(listener);
         onLastActivityChanged(statistic.getLastActivityTimestamp());
+        updateStatistic();
         updatePeerType();
         updateConnectionType();
     }
@@ -99,11 +95,16 @@ public class P2pNetworkListItem {
         lastActivity.set(DurationFormatUtils.formatDuration(Math.abs(System.currentTimeMillis() - timeStamp), "mm:ss.SSS"));
     }
 
+    // The statistic is updated at the network threads, we poll it at each second tick
+    private void updateStatistic() {
+        sentBytes.set(formatter.formatBytes(statistic.getSentBytes()));
+        receivedBytes.set(formatter.formatBytes(statistic.getReceivedBytes()));
+        int roundTripTime = statistic.getRoundTripTime();
+        this.roundTripTime.set(roundTripTime == 0 ? "-" : roundTripTime + " ms");
+    }
+
     public void cleanup() {
-        sentBytesSubscription.unsubscribe();
-        receivedBytesSubscription.unsubscribe();
         onionAddressSubscription.unsubscribe();
-        roundTripTimeSubscription.unsubscribe();
         clock.removeListener(listener);
     }
 
@@ -57,15 +57,19 @@ public class CurrencyList {
     }
 
     public void updateWithCurrencies(List<TradeCurrency> currencies, @Nullable CurrencyListItem first) {
+        updateWithTradesPerCurrency(countTrades(currencies), first);
+    }
+
+    // Used if the number of trades per currency is known already
+    public void updateWithTradesPerCurrency(Map<TradeCurrency, Integer> tradesPerCurrency, @Nullable CurrencyListItem first) {
         List<CurrencyListItem> result = Lists.newLinkedList();
         Optional.ofNullable(first).ifPresent(result::add);
-        result.addAll(getPartitionedSortedItems(currencies));
+        result.addAll(getPartitionedSortedItems(addPreferredCurrencies(tradesPerCurrency)));
         delegate.clear();
         delegate.addAll(result);
     }
 
-    private List<CurrencyListItem> getPartitionedSortedItems(List<TradeCurrency> currencies) {
-        Map<TradeCurrency, Integer> tradesPerCurrency = countTrades(currencies);
+    private List<CurrencyListItem> getPartitionedSortedItems(Map<TradeCurrency, Integer> tradesPerCurrency) {
         List<CurrencyListItem> fiatCurrencies = new ArrayList<>();
         List<CurrencyListItem> cryptoCurrencies = new ArrayList<>();
 
@@ -111,7 +115,11 @@ public class CurrencyList {
         BiFunction<TradeCurrency, Integer, Integer> incrementCurrentOrOne =
                 (key, value) -> value == null ? 1 : value + 1;
         currencies.forEach(currency -> result.compute(currency, incrementCurrentOrOne));
+        return result;
+    }
 
+    private Map<TradeCurrency, Integer> addPreferredCurrencies(Map<TradeCurrency, Integer> tradesPerCurrency) {
+        Map<TradeCurrency, Integer> result = new HashMap<>(tradesPerCurrency);
         Set<TradeCurrency> preferred = new HashSet<>();
         preferred.addAll(preferences.getFiatCurrencies());
         preferred.addAll(preferences.getCryptoCurrencies());
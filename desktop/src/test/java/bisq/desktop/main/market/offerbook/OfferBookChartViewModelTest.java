@@ -30,6 +30,8 @@ import javafx.beans.property.SimpleIntegerProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.stream.Collectors;
+
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -45,6 +47,7 @@ import static bisq.desktop.maker.TradeCurrencyMakers.usd;
 import static com.natpryce.makeiteasy.MakeItEasy.make;
 import static com.natpryce.makeiteasy.MakeItEasy.with;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -64,7 +67,7 @@ public class OfferBookChartViewModelTest {
         OfferBook offerBook = mock(OfferBook.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
 
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForBuyPrice.intValue());
@@ -83,7 +86,7 @@ public class OfferBookChartViewModelTest {
 
         when(priceFeedService.getMarketPrice(anyString())).thenReturn(null);
         when(priceFeedService.updateCounterProperty()).thenReturn(new SimpleIntegerProperty());
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, priceFeedService, null, null, new BSFormatter());
         model.activate();
@@ -97,7 +100,7 @@ public class OfferBookChartViewModelTest {
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
         offerBookListItems.addAll(make(OfferBookListItemMaker.btcBuyItem));
 
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
         model.activate();
@@ -113,7 +116,7 @@ public class OfferBookChartViewModelTest {
         OfferBook offerBook = mock(OfferBook.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
 
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForBuyVolume.intValue());
@@ -126,7 +129,7 @@ public class OfferBookChartViewModelTest {
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
         offerBookListItems.addAll(make(OfferBookListItemMaker.btcBuyItem));
 
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
         model.activate();
@@ -142,7 +145,7 @@ public class OfferBookChartViewModelTest {
         OfferBook offerBook = mock(OfferBook.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
 
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForSellPrice.intValue());
@@ -161,7 +164,7 @@ public class OfferBookChartViewModelTest {
 
         when(priceFeedService.getMarketPrice(anyString())).thenReturn(null);
         when(priceFeedService.updateCounterProperty()).thenReturn(new SimpleIntegerProperty());
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, priceFeedService, null, null, new BSFormatter());
         model.activate();
@@ -175,7 +178,7 @@ public class OfferBookChartViewModelTest {
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
         offerBookListItems.addAll(make(OfferBookListItemMaker.btcSellItem));
 
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
         model.activate();
@@ -191,7 +194,7 @@ public class OfferBookChartViewModelTest {
         OfferBook offerBook = mock(OfferBook.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
 
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForSellVolume.intValue());
@@ -204,7 +207,7 @@ public class OfferBookChartViewModelTest {
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
         offerBookListItems.addAll(make(OfferBookListItemMaker.btcSellItem));
 
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        mockOfferBook(offerBook, offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
         model.activate();
@@ -214,4 +217,15 @@ public class OfferBookChartViewModelTest {
         offerBookListItems.addAll(make(btcSellItem.but(with(OfferBookListItemMaker.amount, 22128600000L))));
         assertEquals(7, model.maxPlacesForSellVolume.intValue()); //2212.86
     }
+
+    // The chart takes the offers of the selected market from the index of the OfferBookService, we take them from the
+    // list which is filled by the tests
+    private static void mockOfferBook(OfferBook offerBook, ObservableList<OfferBookListItem> offerBookListItems) {
+        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        when(offerBook.getOffers(anyString(), any())).thenAnswer(invocation -> offerBookListItems.stream()
+                .map(OfferBookListItem::getOffer)
+                .filter(offer -> offer.getCurrencyCode().equals(invocation.getArgument(0)) &&
+                        offer.getDirection().equals(invocation.getArgument(1)))
+                .collect(Collectors.toList()));
+    }
 }
@@ -26,6 +26,7 @@ import bisq.core.offer.OfferPayload;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.statistics.TradeStatistics2;
 import bisq.core.trade.statistics.TradeStatisticsManager;
+import bisq.core.trade.statistics.TradeStatisticsRollups;
 import bisq.core.user.Preferences;
 import bisq.core.util.BSFormatter;
 
@@ -45,6 +46,8 @@ import java.text.SimpleDateFormat;
 import java.io.File;
 import java.io.IOException;
 
+import java.time.ZoneId;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
@@ -135,7 +138,7 @@ public class TradesChartsViewModelTest {
 
     @SuppressWarnings("ConstantConditions")
     @Test
-    public void testGetCandleData() {
+    public void testGetCandleData() throws ParseException {
         model.selectedTradeCurrencyProperty.setValue(new FiatCurrency("EUR"));
 
         long low = Fiat.parseFiat("EUR", "500").value;
@@ -147,15 +150,18 @@ public class TradesChartsViewModelTest {
         long volume = Fiat.parseFiat("EUR", "2200").value;
         boolean isBullish = true;
 
-        Set<TradeStatistics2> set = new HashSet<>();
-        final Date now = new Date();
+        TradeStatisticsRollups rollups = new TradeStatisticsRollups(ZoneId.systemDefault());
+        final Date now = dateFormat.parse("2018-01-01T12:00:00");
 
-        set.add(new TradeStatistics2(offer, Price.parse("EUR", "520"), Coin.parseCoin("1"), new Date(now.getTime()), null, null));
-        set.add(new TradeStatistics2(offer, Price.parse("EUR", "500"), Coin.parseCoin("1"), new Date(now.getTime() + 100), null, null));
-        set.add(new TradeStatistics2(offer, Price.parse("EUR", "600"), Coin.parseCoin("1"), new Date(now.getTime() + 200), null, null));
-        set.add(new TradeStatistics2(offer, Price.parse("EUR", "580"), Coin.parseCoin("1"), new Date(now.getTime() + 300), null, null));
+        // Added out of order, open and close depend on the trade date
+        rollups.add(new TradeStatistics2(offer, Price.parse("EUR", "580"), Coin.parseCoin("1"), new Date(now.getTime() + 300), null, null));
+        rollups.add(new TradeStatistics2(offer, Price.parse("EUR", "520"), Coin.parseCoin("1"), new Date(now.getTime()), null, null));
+        rollups.add(new TradeStatistics2(offer, Price.parse("EUR", "500"), Coin.parseCoin("1"), new Date(now.getTime() + 100), null, null));
+        rollups.add(new TradeStatistics2(offer, Price.parse("EUR", "600"), Coin.parseCoin("1"), new Date(now.getTime() + 200), null, null));
 
-        CandleData candleData = model.getCandleData(model.roundToTick(now, TradesChartsViewModel.TickUnit.DAY).getTime(), set);
+        long periodStart = model.roundToTick(now, TradesChartsViewModel.TickUnit.DAY).getTime();
+        CandleData candleData = model.getCandleData(periodStart,
+                rollups.getCandle("EUR", TradeStatisticsRollups.Interval.DAY, periodStart).get());
         assertEquals(open, candleData.open);
         assertEquals(close, candleData.close);
         assertEquals(high, candleData.high);
@@ -211,17 +217,20 @@ public class TradesChartsViewModelTest {
                 }
         );
         ObservableSet<TradeStatistics2> tradeStats = FXCollections.observableSet(set);
+        TradeStatisticsRollups rollups = new TradeStatisticsRollups(ZoneId.systemDefault());
+        set.forEach(rollups::add);
 
         // Run test for each tick type
         for (TradesChartsViewModel.TickUnit tick : TradesChartsViewModel.TickUnit.values()) {
             new Expectations() {{
-                tsm.getObservableTradeStatisticsSet();
-                result = tradeStats;
+                tsm.getRollups();
+                result = rollups;
             }};
 
             // Trigger chart update
             model.setTickUnit(tick);
             assertEquals(model.selectedTradeCurrencyProperty.get().getCode(), tradeStats.iterator().next().getCurrencyCode());
+            assertEquals(2, model.tradeStatisticsByCurrency.size());
             assertEquals(2, model.priceItems.size());
             assertEquals(2, model.volumeItems.size());
         }
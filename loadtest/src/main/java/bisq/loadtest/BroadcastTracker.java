@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.loadtest;
+
+import bisq.network.p2p.network.LatencyHistogram;
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+
+/**
+ * Measures the time from sending an entry to the seed node until the other peers receive the broadcast of it.
+ */
+class BroadcastTracker {
+    private final Map<P2PDataStorage.ByteArray, Long> sentTimestampByHash = new ConcurrentHashMap<>();
+    @Getter
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private final LongAdder numReceivedUnknown = new LongAdder();
+
+    void onSent(byte[] hashOfDataAndSeqNr) {
+        sentTimestampByHash.put(new P2PDataStorage.ByteArray(hashOfDataAndSeqNr), System.currentTimeMillis());
+    }
+
+    void onReceived(byte[] hashOfDataAndSeqNr) {
+        Long sentTimestamp = sentTimestampByHash.get(new P2PDataStorage.ByteArray(hashOfDataAndSeqNr));
+        if (sentTimestamp != null)
+            latencyHistogram.record(System.currentTimeMillis() - sentTimestamp);
+        else
+            numReceivedUnknown.increment();
+    }
+
+    /**
+     * Broadcasts arriving after that age are counted as unknown.
+     */
+    void removeOlderThan(long maxAgeMs) {
+        long minTimestamp = System.currentTimeMillis() - maxAgeMs;
+        sentTimestampByHash.values().removeIf(timestamp -> timestamp < minTimestamp);
+    }
+
+    long getNumReceivedUnknown() {
+        return numReceivedUnknown.sum();
+    }
+}
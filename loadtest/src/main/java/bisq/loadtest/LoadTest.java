@@ -0,0 +1,243 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.loadtest;
+
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.network.ProcessMetrics;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Version;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Encryption;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.security.KeyPair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the peers against the seed node and reports the metrics of both sides at each report interval.
+ * <p>
+ * The peers and the message mix run at the user thread like in a normal Bisq node. The reports are created at the
+ * calling thread, so a slow seed node metrics server does not delay the measured messages. If the user thread of the
+ * harness gets saturated (see harness.userThread.queueSize) the latencies contain the queuing time of the harness and
+ * the number of peers or rates should be reduced.
+ */
+@Slf4j
+class LoadTest {
+    private static final long MIN_INTERVAL_MS = 10;
+    private static final long MAX_BROADCAST_AGE_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final List<String> SEED_NODE_NETWORK_METRICS = Arrays.asList("numConnections",
+            "sent.bytes", "sent.messages", "received.bytes", "received.messages", "outboundQueue.size",
+            "outboundQueue.maxSize", "outboundQueue.dropped", "outboundQueue.collapsed");
+
+    private final LoadTestConfig config;
+    private final BroadcastTracker broadcastTracker = new BroadcastTracker();
+    private final LoadTestStatistics statistics = new LoadTestStatistics();
+    private final List<LoadTestPeer> peers = new ArrayList<>();
+    private final List<Timer> timers = new ArrayList<>();
+    private final Random random = new Random();
+    private final SeedNodeMetricsClient seedNodeMetricsClient;
+    private long startTime;
+
+    LoadTest(LoadTestConfig config) {
+        this.config = config;
+        seedNodeMetricsClient = config.getSeedNodeMetricsPort() > 0 ?
+                new SeedNodeMetricsClient(config.getSeedNodeMetricsPort()) :
+                null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void run() throws InterruptedException {
+        setup();
+        startTime = System.currentTimeMillis();
+
+        log.info("Start {} peers sending to seed node {}", config.getNumPeers(), config.getSeedNodeAddress());
+        List<CompletableFuture<Void>> startFutures = new ArrayList<>();
+        KeyPair encryptionKeyPair = Encryption.generateKeyPair();
+        CoreNetworkProtoResolver networkProtoResolver = new CoreNetworkProtoResolver();
+        for (int i = 0; i < config.getNumPeers(); i++) {
+            LoadTestPeer peer = new LoadTestPeer(config.getFirstPeerPort() + i,
+                    config.getSeedNodeAddress(),
+                    encryptionKeyPair,
+                    networkProtoResolver,
+                    broadcastTracker,
+                    statistics);
+            peers.add(peer);
+        }
+        // The message mix only uses the peers which are synced, so it can start while we ramp up the peers
+        startMessageMix();
+        for (LoadTestPeer peer : peers) {
+            startFutures.add(CompletableFuture.supplyAsync(peer::start, UserThread.getExecutor())
+                    .thenCompose(future -> future));
+            if (config.getPeerStartIntervalMs() > 0)
+                Thread.sleep(config.getPeerStartIntervalMs());
+        }
+
+        long endTime = startTime + TimeUnit.SECONDS.toMillis(config.getDurationSec());
+        long reportIntervalMs = TimeUnit.SECONDS.toMillis(config.getReportIntervalSec());
+        while (System.currentTimeMillis() < endTime) {
+            Thread.sleep(Math.max(0, Math.min(reportIntervalMs, endTime - System.currentTimeMillis())));
+            broadcastTracker.removeOlderThan(MAX_BROADCAST_AGE_MS);
+            printReport();
+        }
+
+        long numFailedPeers = startFutures.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        if (numFailedPeers > 0)
+            log.warn("{} peers could not be started", numFailedPeers);
+
+        shutDown();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void setup() {
+        Version.setBaseCryptoNetworkId(config.getBaseCurrencyNetwork().ordinal());
+        Capabilities.setSupportedCapabilities(new ArrayList<>(Arrays.asList(
+                Capabilities.Capability.TRADE_STATISTICS.ordinal(),
+                Capabilities.Capability.TRADE_STATISTICS_2.ordinal(),
+                Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal(),
+                Capabilities.Capability.ACK_MSG.ordinal())));
+
+        UserThread.setExecutor(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("LoadTest")
+                        .setDaemon(true)
+                        .build()));
+
+        // We don't want to measure the simulated Tor delays
+        LocalhostNetworkNode.setSimulateTorDelayTorNode(0);
+        LocalhostNetworkNode.setSimulateTorDelayHiddenService(0);
+    }
+
+    private void startMessageMix() {
+        scheduleAtRate(config.getOffersPerSec(), () -> getRandomSyncedPeer().addOffer());
+        scheduleAtRate(config.getRefreshesPerSec(), () -> getRandomSyncedPeer().refreshOffer());
+        scheduleAtRate(config.getMailboxMessagesPerSec(), () -> {
+            LoadTestPeer sender = getRandomSyncedPeer();
+            LoadTestPeer receiver = getRandomSyncedPeer();
+            if (sender != receiver)
+                sender.sendMailboxMessage(receiver);
+        });
+        scheduleAtRate(config.getGetDataRequestsPerSec(), () -> getRandomSyncedPeer().requestData());
+    }
+
+    private void scheduleAtRate(double messagesPerSec, PeerAction action) {
+        if (messagesPerSec <= 0)
+            return;
+
+        long intervalMs = Math.max(MIN_INTERVAL_MS, Math.round(1000 / messagesPerSec));
+        double messagesPerInterval = messagesPerSec * intervalMs / 1000;
+        timers.add(UserThread.runPeriodically(new Runnable() {
+            // Carries the fraction of messages to the next interval so we meet the rate on average
+            private double pendingMessages;
+
+            @Override
+            public void run() {
+                pendingMessages += messagesPerInterval;
+                while (pendingMessages >= 1) {
+                    pendingMessages--;
+                    if (peers.stream().noneMatch(LoadTestPeer::isSynced))
+                        continue;
+
+                    try {
+                        action.run();
+                    } catch (CryptoException e) {
+                        log.error("Could not create message", e);
+                    }
+                }
+            }
+        }, intervalMs, TimeUnit.MILLISECONDS));
+    }
+
+    private LoadTestPeer getRandomSyncedPeer() {
+        List<LoadTestPeer> syncedPeers = peers.stream().filter(LoadTestPeer::isSynced).collect(Collectors.toList());
+        return syncedPeers.get(random.nextInt(syncedPeers.size()));
+    }
+
+    private void printReport() {
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        snapshot.put("elapsedSec", String.valueOf((System.currentTimeMillis() - startTime) / 1000));
+        snapshot.put("peers.synced", String.valueOf(peers.stream().filter(LoadTestPeer::isSynced).count()));
+        statistics.addToSnapshot(snapshot);
+        broadcastTracker.getLatencyHistogram().addToSnapshot(snapshot, "broadcastLatency");
+        snapshot.put("broadcastLatency.unknown", String.valueOf(broadcastTracker.getNumReceivedUnknown()));
+        ProcessMetrics.getSnapshot().forEach((name, value) -> snapshot.put("harness." + name, value));
+
+        if (seedNodeMetricsClient != null) {
+            seedNodeMetricsClient.getSnapshot("/process").forEach((name, value) -> snapshot.put("seed." + name, value));
+            Map<String, String> networkMetrics = seedNodeMetricsClient.getSnapshot("/metrics");
+            SEED_NODE_NETWORK_METRICS.stream()
+                    .filter(networkMetrics::containsKey)
+                    .forEach(name -> snapshot.put("seed." + name, networkMetrics.get(name)));
+        }
+
+        // Same format as the NetworkMetricsServer so the output can be processed by the same scripts
+        StringBuilder sb = new StringBuilder("# report\n");
+        snapshot.forEach((name, value) -> sb.append(name).append(' ').append(value).append('\n'));
+        System.out.print(sb);
+        System.out.flush();
+    }
+
+    private void shutDown() throws InterruptedException {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        UserThread.execute(() -> {
+            timers.forEach(Timer::stop);
+            peers.forEach(LoadTestPeer::shutDown);
+            future.complete(null);
+        });
+        try {
+            future.get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Shut down of peers did not complete: {}", e.toString());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private interface PeerAction {
+        void run() throws CryptoException;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.loadtest;
+
+import bisq.core.btc.BaseCurrencyNetwork;
+
+import bisq.network.p2p.NodeAddress;
+
+import lombok.Value;
+
+/**
+ * Settings of a load test run. The rates are the number of messages per second sent by all peers together.
+ */
+@Value
+class LoadTestConfig {
+    private final NodeAddress seedNodeAddress;
+    // Port of the NetworkMetricsServer of the seed node, 0 if the seed node metrics should not be reported
+    private final int seedNodeMetricsPort;
+    private final BaseCurrencyNetwork baseCurrencyNetwork;
+    private final int numPeers;
+    private final int firstPeerPort;
+    private final long peerStartIntervalMs;
+    private final long durationSec;
+    private final long reportIntervalSec;
+    private final double offersPerSec;
+    private final double refreshesPerSec;
+    private final double mailboxMessagesPerSec;
+    private final double getDataRequestsPerSec;
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.loadtest;
+
+import bisq.core.btc.BaseCurrencyNetwork;
+import bisq.core.util.joptsimple.EnumValueConverter;
+
+import bisq.network.p2p.NodeAddress;
+
+import joptsimple.OptionException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static bisq.core.btc.BaseCurrencyNetwork.BTC_MAINNET;
+import static bisq.core.btc.BaseCurrencyNetwork.BTC_REGTEST;
+import static bisq.core.btc.BaseCurrencyNetwork.BTC_TESTNET;
+import static java.lang.String.format;
+
+/**
+ * Load test of a seed node running in localhost mode. Starts the given number of peers in this JVM which sync with
+ * the seed node and then send a mix of offers, offer refreshes, mailbox messages and data requests to it.
+ * <p>
+ * Start the seed node first, e.g. with:
+ * --baseCurrencyNetwork=BTC_REGTEST --useLocalhostForP2P=true --nodePort=2002 --myAddress=localhost:2002
+ * --appName=bisq-BTC_REGTEST_Seed_2002 --maxConnections=1000 --metricsPort=9092
+ * <p>
+ * maxConnections must be at least the number of peers, otherwise the seed node closes connections (see disconnects
+ * in the report). The reports are printed to stdout in the same format as the NetworkMetricsServer uses.
+ */
+@Slf4j
+public class LoadTestMain {
+    private static final int EXIT_SUCCESS = 0;
+    private static final int EXIT_FAILURE = 1;
+
+    public static void main(String[] args) throws Exception {
+        OptionParser parser = new OptionParser();
+        parser.accepts("help", "This help text").forHelp();
+        OptionSpec<String> seedNodeOption = parser.accepts("seedNode", "Address of the seed node")
+                .withRequiredArg().defaultsTo("localhost:2002").describedAs("host:port");
+        OptionSpec<Integer> seedNodeMetricsPortOption = parser.accepts("seedNodeMetricsPort",
+                "metricsPort of the seed node, 0 if the seed node metrics should not be reported")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(0);
+        OptionSpec<Enum> baseCurrencyNetworkOption = parser.accepts("baseCurrencyNetwork", "Base currency network")
+                .withRequiredArg().withValuesConvertedBy(new EnumValueConverter(BaseCurrencyNetwork.class))
+                .defaultsTo(BTC_REGTEST).describedAs(format("%s|%s|%s", BTC_MAINNET, BTC_TESTNET, BTC_REGTEST));
+        OptionSpec<Integer> numPeersOption = parser.accepts("numPeers", "Number of peers")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(200);
+        OptionSpec<Integer> firstPeerPortOption = parser.accepts("firstPeerPort",
+                "Port of the first peer, the other peers use the following ports")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(10000);
+        OptionSpec<Long> peerStartIntervalOption = parser.accepts("peerStartIntervalMs", "Delay between starting the peers")
+                .withRequiredArg().ofType(Long.class).defaultsTo(20L);
+        OptionSpec<Long> durationOption = parser.accepts("durationSec", "Duration of the test")
+                .withRequiredArg().ofType(Long.class).defaultsTo(300L);
+        OptionSpec<Long> reportIntervalOption = parser.accepts("reportIntervalSec", "Interval of the reports")
+                .withRequiredArg().ofType(Long.class).defaultsTo(10L);
+        OptionSpec<Double> offersOption = parser.accepts("offersPerSec", "New offers per second of all peers")
+                .withRequiredArg().ofType(Double.class).defaultsTo(2d);
+        OptionSpec<Double> refreshesOption = parser.accepts("refreshesPerSec", "Offer refreshes per second of all peers")
+                .withRequiredArg().ofType(Double.class).defaultsTo(10d);
+        OptionSpec<Double> mailboxMessagesOption = parser.accepts("mailboxMessagesPerSec",
+                "Mailbox messages per second of all peers")
+                .withRequiredArg().ofType(Double.class).defaultsTo(1d);
+        OptionSpec<Double> getDataRequestsOption = parser.accepts("getDataRequestsPerSec",
+                "GetUpdatedDataRequests per second of all synced peers (in addition to the initial sync)")
+                .withRequiredArg().ofType(Double.class).defaultsTo(0.5d);
+
+        OptionSet options;
+        try {
+            options = parser.parse(args);
+            if (options.has("help")) {
+                parser.printHelpOn(System.out);
+                System.exit(EXIT_SUCCESS);
+                return;
+            }
+        } catch (OptionException ex) {
+            System.err.println("error: " + ex.getMessage());
+            System.exit(EXIT_FAILURE);
+            return;
+        }
+
+        LoadTestConfig config = new LoadTestConfig(new NodeAddress(options.valueOf(seedNodeOption)),
+                options.valueOf(seedNodeMetricsPortOption),
+                (BaseCurrencyNetwork) options.valueOf(baseCurrencyNetworkOption),
+                options.valueOf(numPeersOption),
+                options.valueOf(firstPeerPortOption),
+                options.valueOf(peerStartIntervalOption),
+                options.valueOf(durationOption),
+                options.valueOf(reportIntervalOption),
+                options.valueOf(offersOption),
+                options.valueOf(refreshesOption),
+                options.valueOf(mailboxMessagesOption),
+                options.valueOf(getDataRequestsOption));
+        log.info("Start load test with {}", config);
+        new LoadTest(config).run();
+        System.exit(EXIT_SUCCESS);
+    }
+}
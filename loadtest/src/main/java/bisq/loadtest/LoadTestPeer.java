@@ -0,0 +1,305 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.loadtest;
+
+import bisq.core.offer.OfferPayload;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.CloseConnectionReason;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.ConnectionListener;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.network.MessageListener;
+import bisq.network.p2p.network.SetupListener;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+import bisq.network.p2p.peers.peerexchange.messages.GetPeersRequest;
+import bisq.network.p2p.peers.peerexchange.messages.GetPeersResponse;
+import bisq.network.p2p.storage.messages.AddDataMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.UserThread;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+import bisq.common.proto.network.NetworkEnvelope;
+import bisq.common.proto.network.NetworkProtoResolver;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+
+/**
+ * A peer connected to the seed node over a LocalhostNetworkNode. It answers the Ping and GetPeersRequest messages of
+ * the seed node so it does not get disconnected and records the broadcasts it receives.
+ * All methods are called at the user thread.
+ */
+@Slf4j
+class LoadTestPeer implements MessageListener, ConnectionListener {
+    private static final Random RANDOM = new Random();
+
+    private final NodeAddress seedNodeAddress;
+    private final LocalhostNetworkNode networkNode;
+    private final KeyPair signatureKeyPair;
+    private final PubKeyRing pubKeyRing;
+    private final BroadcastTracker broadcastTracker;
+    private final LoadTestStatistics statistics;
+
+    private final List<OfferEntry> offerEntries = new ArrayList<>();
+    private final Map<Integer, Long> requestTimestampByNonce = new HashMap<>();
+    private boolean initialSyncDone;
+    private boolean stopped;
+    @Getter
+    private volatile boolean synced;
+
+    LoadTestPeer(int port,
+                 NodeAddress seedNodeAddress,
+                 KeyPair encryptionKeyPair,
+                 NetworkProtoResolver networkProtoResolver,
+                 BroadcastTracker broadcastTracker,
+                 LoadTestStatistics statistics) {
+        this.seedNodeAddress = seedNodeAddress;
+        this.broadcastTracker = broadcastTracker;
+        this.statistics = statistics;
+
+        networkNode = new LocalhostNetworkNode(port, networkProtoResolver);
+        signatureKeyPair = Sig.generateKeyPair();
+        // The seed node never decrypts anything so all peers can share the expensive RSA key pair
+        pubKeyRing = new PubKeyRing(signatureKeyPair.getPublic(), encryptionKeyPair.getPublic(), null);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    CompletableFuture<Void> start() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        networkNode.addMessageListener(this);
+        networkNode.addConnectionListener(this);
+        networkNode.start(new SetupListener() {
+            @Override
+            public void onTorNodeReady() {
+            }
+
+            @Override
+            public void onHiddenServicePublished() {
+                statistics.numPeersStarted.increment();
+                requestData();
+                future.complete(null);
+            }
+
+            @Override
+            public void onSetupFailed(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onRequestCustomBridges() {
+            }
+        });
+        return future;
+    }
+
+    void shutDown() {
+        stopped = true;
+        networkNode.shutDown(null);
+    }
+
+    // As the request contains our address the seed node uses our connection for its broadcasts afterwards
+    void requestData() {
+        int nonce = RANDOM.nextInt();
+        requestTimestampByNonce.put(nonce, System.currentTimeMillis());
+        send(new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, new HashSet<>(), null, true));
+        if (initialSyncDone)
+            statistics.numGetDataRequestsSent.increment();
+    }
+
+    void addOffer() throws CryptoException {
+        OfferPayload offerPayload = PayloadFactory.createOfferPayload(networkNode.getNodeAddress(), pubKeyRing);
+        OfferEntry offerEntry = new OfferEntry(offerPayload);
+        offerEntries.add(offerEntry);
+        ProtectedStorageEntry entry = PayloadFactory.createProtectedStorageEntry(offerPayload, signatureKeyPair,
+                offerEntry.sequenceNumber);
+        broadcastTracker.onSent(PayloadFactory.getHashOfDataAndSeqNr(offerPayload, offerEntry.sequenceNumber));
+        send(new AddDataMessage(entry));
+        statistics.numOffersSent.increment();
+    }
+
+    void refreshOffer() throws CryptoException {
+        if (offerEntries.isEmpty()) {
+            addOffer();
+            return;
+        }
+
+        OfferEntry offerEntry = offerEntries.get(RANDOM.nextInt(offerEntries.size()));
+        offerEntry.sequenceNumber++;
+        RefreshOfferMessage refreshOfferMessage = PayloadFactory.createRefreshOfferMessage(offerEntry.offerPayload,
+                signatureKeyPair, offerEntry.sequenceNumber);
+        broadcastTracker.onSent(refreshOfferMessage.getHashOfDataAndSeqNr());
+        send(refreshOfferMessage);
+        statistics.numRefreshesSent.increment();
+    }
+
+    void sendMailboxMessage(LoadTestPeer receiver) throws CryptoException {
+        MailboxStoragePayload payload = PayloadFactory.createMailboxStoragePayload(networkNode.getNodeAddress(),
+                signatureKeyPair.getPublic(),
+                receiver.getNodeAddress(),
+                receiver.getSignaturePubKey());
+        broadcastTracker.onSent(PayloadFactory.getHashOfDataAndSeqNr(payload, 1));
+        send(new AddDataMessage(PayloadFactory.createProtectedMailboxStorageEntry(payload, signatureKeyPair)));
+        statistics.numMailboxMessagesSent.increment();
+    }
+
+    @Nullable
+    NodeAddress getNodeAddress() {
+        return networkNode.getNodeAddress();
+    }
+
+    PublicKey getSignaturePubKey() {
+        return signatureKeyPair.getPublic();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MessageListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        if (networkEnvelope instanceof AddDataMessage) {
+            ProtectedStorageEntry entry = ((AddDataMessage) networkEnvelope).getProtectedStorageEntry();
+            broadcastTracker.onReceived(PayloadFactory.getHashOfDataAndSeqNr(entry.getProtectedStoragePayload(),
+                    entry.getSequenceNumber()));
+            statistics.numBroadcastsReceived.increment();
+        } else if (networkEnvelope instanceof RefreshOfferMessage) {
+            broadcastTracker.onReceived(((RefreshOfferMessage) networkEnvelope).getHashOfDataAndSeqNr());
+            statistics.numBroadcastsReceived.increment();
+        } else if (networkEnvelope instanceof GetDataResponse) {
+            onGetDataResponse((GetDataResponse) networkEnvelope);
+        } else if (networkEnvelope instanceof Ping) {
+            networkNode.sendMessage(connection, new Pong(((Ping) networkEnvelope).getNonce()));
+        } else if (networkEnvelope instanceof GetPeersRequest) {
+            networkNode.sendMessage(connection, new GetPeersResponse(((GetPeersRequest) networkEnvelope).getNonce(),
+                    new HashSet<>()));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ConnectionListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onConnection(Connection connection) {
+    }
+
+    @Override
+    public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
+        if (stopped || !connection.getPeersNodeAddressOptional().filter(seedNodeAddress::equals).isPresent())
+            return;
+
+        log.info("Seed node closed connection to {}. closeConnectionReason={}", networkNode.getNodeAddress(),
+                closeConnectionReason);
+        statistics.numDisconnects.increment();
+        synced = false;
+        // The new connection is unknown to the seed node until we send our address again
+        UserThread.runAfter(() -> {
+            if (!stopped)
+                requestData();
+        }, 1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onGetDataResponse(GetDataResponse getDataResponse) {
+        Long requestTimestamp = requestTimestampByNonce.remove(getDataResponse.getRequestNonce());
+        if (requestTimestamp == null)
+            return;
+
+        long duration = System.currentTimeMillis() - requestTimestamp;
+        if (initialSyncDone) {
+            statistics.getDataTime.record(duration);
+        } else {
+            statistics.syncTime.record(duration);
+            initialSyncDone = true;
+        }
+        int numEntries = getDataResponse.getDataSet().size();
+        if (getDataResponse.getPersistableNetworkPayloadSet() != null)
+            numEntries += getDataResponse.getPersistableNetworkPayloadSet().size();
+        statistics.numEntriesReceived.add(numEntries);
+        synced = true;
+    }
+
+    private void send(NetworkEnvelope networkEnvelope) {
+        Futures.addCallback(networkNode.sendMessage(seedNodeAddress, networkEnvelope), new FutureCallback<Connection>() {
+            @Override
+            public void onSuccess(@Nullable Connection connection) {
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                log.warn("Sending {} to seed node failed: {}", networkEnvelope.getClass().getSimpleName(),
+                        throwable.toString());
+                statistics.numSendFailures.increment();
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class OfferEntry {
+        private final OfferPayload offerPayload;
+        private int sequenceNumber = 1;
+
+        private OfferEntry(OfferPayload offerPayload) {
+            this.offerPayload = offerPayload;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.loadtest;
+
+import bisq.network.p2p.network.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms of all peers. Updated at the user thread and read by the reporting thread.
+ */
+class LoadTestStatistics {
+    final LongAdder numPeersStarted = new LongAdder();
+    final LongAdder numOffersSent = new LongAdder();
+    final LongAdder numRefreshesSent = new LongAdder();
+    final LongAdder numMailboxMessagesSent = new LongAdder();
+    final LongAdder numGetDataRequestsSent = new LongAdder();
+    final LongAdder numSendFailures = new LongAdder();
+    final LongAdder numBroadcastsReceived = new LongAdder();
+    final LongAdder numEntriesReceived = new LongAdder();
+    final LongAdder numDisconnects = new LongAdder();
+    // Time from the first GetUpdatedDataRequest of a peer until it got the GetDataResponse
+    final LatencyHistogram syncTime = new LatencyHistogram();
+    // Same for the requests of the message mix, i.e. of peers which are synced already
+    final LatencyHistogram getDataTime = new LatencyHistogram();
+
+    void addToSnapshot(Map<String, String> snapshot) {
+        snapshot.put("peers.started", String.valueOf(numPeersStarted.sum()));
+        snapshot.put("sent.offers", String.valueOf(numOffersSent.sum()));
+        snapshot.put("sent.refreshes", String.valueOf(numRefreshesSent.sum()));
+        snapshot.put("sent.mailboxMessages", String.valueOf(numMailboxMessagesSent.sum()));
+        snapshot.put("sent.getDataRequests", String.valueOf(numGetDataRequestsSent.sum()));
+        snapshot.put("sent.failures", String.valueOf(numSendFailures.sum()));
+        snapshot.put("received.broadcasts", String.valueOf(numBroadcastsReceived.sum()));
+        snapshot.put("received.entries", String.valueOf(numEntriesReceived.sum()));
+        snapshot.put("disconnects", String.valueOf(numDisconnects.sum()));
+        syncTime.addToSnapshot(snapshot, "syncTime");
+        getDataTime.addToSnapshot(snapshot, "getDataTime");
+    }
+}
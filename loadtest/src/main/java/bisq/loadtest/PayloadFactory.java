@@ -0,0 +1,150 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.loadtest;
+
+import bisq.core.offer.OfferPayload;
+import bisq.core.payment.payload.PaymentMethod;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import bisq.common.app.Version;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+import bisq.common.util.Utilities;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates signed storage entries and messages like a normal Bisq node would send them. The payloads are not valid
+ * for trading but the seed node only verifies the signatures, public keys and sequence numbers.
+ */
+class PayloadFactory {
+    private static final Random RANDOM = new Random();
+
+    static OfferPayload createOfferPayload(NodeAddress ownerNodeAddress, PubKeyRing pubKeyRing) {
+        boolean isBuyOffer = RANDOM.nextBoolean();
+        return new OfferPayload(UUID.randomUUID().toString(),
+                System.currentTimeMillis(),
+                ownerNodeAddress,
+                pubKeyRing,
+                isBuyOffer ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL,
+                50_000_0000L + RANDOM.nextInt(1_000_0000),
+                0,
+                false,
+                1_000_000,
+                500_000,
+                "BTC",
+                "EUR",
+                Collections.singletonList(new NodeAddress("localhost:4444")),
+                Collections.emptyList(),
+                PaymentMethod.SEPA_ID,
+                UUID.randomUUID().toString(),
+                Utilities.encodeToHex(getRandomBytes(32)),
+                "DE",
+                Arrays.asList("DE", "FR", "AT"),
+                null,
+                null,
+                Version.VERSION,
+                1000,
+                10_000,
+                5_000,
+                true,
+                300_000,
+                300_000,
+                25_000_000,
+                TimeUnit.DAYS.toMillis(6),
+                false,
+                false,
+                0,
+                0,
+                false,
+                null,
+                null,
+                Version.TRADE_PROTOCOL_VERSION);
+    }
+
+    /**
+     * The content is random data of a typical size as the seed node cannot decrypt it anyway.
+     */
+    static MailboxStoragePayload createMailboxStoragePayload(NodeAddress senderNodeAddress,
+                                                             PublicKey senderSignaturePubKey,
+                                                             NodeAddress receiverNodeAddress,
+                                                             PublicKey receiverSignaturePubKey) {
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(getRandomBytes(256),
+                getRandomBytes(1000 + RANDOM.nextInt(2000)),
+                getRandomBytes(46),
+                senderSignaturePubKey);
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = new PrefixedSealedAndSignedMessage(senderNodeAddress,
+                sealedAndSigned,
+                receiverNodeAddress.getAddressPrefixHash(),
+                UUID.randomUUID().toString());
+        return new MailboxStoragePayload(prefixedSealedAndSignedMessage, senderSignaturePubKey, receiverSignaturePubKey);
+    }
+
+    static ProtectedStorageEntry createProtectedStorageEntry(ProtectedStoragePayload payload,
+                                                             KeyPair signatureKeyPair,
+                                                             int sequenceNumber) throws CryptoException {
+        byte[] signature = Sig.sign(signatureKeyPair.getPrivate(), getHashOfDataAndSeqNr(payload, sequenceNumber));
+        return new ProtectedStorageEntry(payload, signatureKeyPair.getPublic(), sequenceNumber, signature);
+    }
+
+    static ProtectedMailboxStorageEntry createProtectedMailboxStorageEntry(MailboxStoragePayload payload,
+                                                                           KeyPair senderSignatureKeyPair) throws CryptoException {
+        byte[] signature = Sig.sign(senderSignatureKeyPair.getPrivate(), getHashOfDataAndSeqNr(payload, 1));
+        return new ProtectedMailboxStorageEntry(payload, senderSignatureKeyPair.getPublic(), 1, signature,
+                payload.getOwnerPubKey());
+    }
+
+    static RefreshOfferMessage createRefreshOfferMessage(ProtectedStoragePayload payload,
+                                                         KeyPair signatureKeyPair,
+                                                         int sequenceNumber) throws CryptoException {
+        byte[] hashOfDataAndSeqNr = getHashOfDataAndSeqNr(payload, sequenceNumber);
+        byte[] signature = Sig.sign(signatureKeyPair.getPrivate(), hashOfDataAndSeqNr);
+        return new RefreshOfferMessage(hashOfDataAndSeqNr, signature, P2PDataStorage.get32ByteHash(payload), sequenceNumber);
+    }
+
+    /**
+     * The hash identifies a version of an entry in AddDataMessages as well as in RefreshOfferMessages, so we use it
+     * to track the broadcasts.
+     */
+    static byte[] getHashOfDataAndSeqNr(ProtectedStoragePayload payload, int sequenceNumber) {
+        return P2PDataStorage.get32ByteHash(new P2PDataStorage.DataAndSeqNrPair(payload, sequenceNumber));
+    }
+
+    private static byte[] getRandomBytes(int size) {
+        byte[] bytes = new byte[size];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.loadtest;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the metrics of the seed node from its NetworkMetricsServer (seed node option --metricsPort).
+ */
+@Slf4j
+class SeedNodeMetricsClient {
+    private static final int TIMEOUT_MS = 5000;
+
+    private final int port;
+
+    SeedNodeMetricsClient(int port) {
+        this.port = port;
+    }
+
+    /**
+     * @param path The path of the metrics, e.g. /process
+     * @return The metrics by name or an empty map if the seed node could not be reached
+     */
+    Map<String, String> getSnapshot(String path) {
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int index = line.indexOf(' ');
+                    if (index > 0)
+                        snapshot.put(line.substring(0, index), line.substring(index + 1));
+                }
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            log.warn("Could not read seed node metrics from port {}: {}", port, e.toString());
+        }
+        return snapshot;
+    }
+}
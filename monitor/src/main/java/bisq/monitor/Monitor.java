@@ -17,6 +17,7 @@
 
 package bisq.monitor;
 
+import bisq.monitor.metric.P2PNetworkMetrics;
 import bisq.monitor.metric.TorHiddenServiceStartupTime;
 import bisq.monitor.metric.TorRoundTripTime;
 import bisq.monitor.metric.TorStartupTime;
@@ -78,6 +79,7 @@ public class Monitor {
         metrics.add(new TorStartupTime(graphiteReporter));
         metrics.add(new TorRoundTripTime(graphiteReporter));
         metrics.add(new TorHiddenServiceStartupTime(graphiteReporter));
+        metrics.add(new P2PNetworkMetrics(graphiteReporter));
 
         // prepare configuration reload
         // Note that this is most likely only work on Linux
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.monitor.metric;
+
+import bisq.monitor.Metric;
+import bisq.monitor.Reporter;
+
+import java.net.URL;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A Metric to report the network metrics of Bisq nodes running on the same host. The nodes serve their metrics if
+ * they are started with the --metricsPort option. Each line of the response contains a metric name and its value.
+ */
+@Slf4j
+public class P2PNetworkMetrics extends Metric {
+
+    private static final String URLS = "run.urls";
+
+    public P2PNetworkMetrics(Reporter reporter) {
+        super(reporter);
+    }
+
+    @Override
+    protected void execute() {
+        // for each configured node
+        for (String current : configuration.getProperty(URLS, "").split(",")) {
+            if (current.isEmpty())
+                continue;
+
+            try {
+                URL url = new URL(current);
+                Map<String, String> results = new HashMap<>();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String[] tokens = line.split(" ");
+                        if (tokens.length == 2)
+                            results.put(tokens[0], tokens[1]);
+                    }
+                }
+
+                // report, the port distinguishes the nodes on that host
+                reporter.report(results, "bisq." + getName() + "." + url.getPort());
+            } catch (IOException e) {
+                log.error("Could not read metrics from {}", current, e);
+            }
+        }
+    }
+}
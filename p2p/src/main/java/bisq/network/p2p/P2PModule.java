@@ -19,6 +19,7 @@ package bisq.network.p2p;
 
 import bisq.network.NetworkOptionKeys;
 import bisq.network.Socks5ProxyProvider;
+import bisq.network.p2p.network.NetworkMetricsServer;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.BanList;
 import bisq.network.p2p.peers.Broadcaster;
@@ -64,6 +65,7 @@ public class P2PModule extends AppModule {
         bind(KeepAliveManager.class).in(Singleton.class);
         bind(Broadcaster.class).in(Singleton.class);
         bind(BanList.class).in(Singleton.class);
+        bind(NetworkMetricsServer.class).in(Singleton.class);
         bind(NetworkNode.class).toProvider(NetworkNodeProvider.class).in(Singleton.class);
 
         bind(Socks5ProxyProvider.class).in(Singleton.class);
@@ -81,6 +83,9 @@ public class P2PModule extends AppModule {
         Integer maxConnections = environment.getProperty(NetworkOptionKeys.MAX_CONNECTIONS, int.class, P2PService.MAX_CONNECTIONS_DEFAULT);
         bind(int.class).annotatedWith(Names.named(NetworkOptionKeys.MAX_CONNECTIONS)).toInstance(maxConnections);
 
+        Integer metricsPort = environment.getProperty(NetworkOptionKeys.METRICS_PORT, int.class, 0);
+        bind(int.class).annotatedWith(Names.named(NetworkOptionKeys.METRICS_PORT)).toInstance(metricsPort);
+
         Integer networkId = environment.getProperty(NetworkOptionKeys.NETWORK_ID, int.class, 1);
         bind(int.class).annotatedWith(Names.named(NetworkOptionKeys.NETWORK_ID)).toInstance(networkId);
         bindConstant().annotatedWith(named(NetworkOptionKeys.SEED_NODES_KEY)).to(environment.getRequiredProperty(NetworkOptionKeys.SEED_NODES_KEY));
@@ -24,6 +24,7 @@ import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
 import bisq.network.p2p.network.MessageListener;
+import bisq.network.p2p.network.NetworkMetricsServer;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.network.SetupListener;
 import bisq.network.p2p.peers.BroadcastHandler;
@@ -76,18 +77,26 @@ import javafx.beans.property.SimpleIntegerProperty;
 import java.security.PublicKey;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import lombok.Getter;
+import lombok.Value;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -118,6 +127,10 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
     private final Set<P2PServiceListener> p2pServiceListeners = new CopyOnWriteArraySet<>();
     private final Map<String, ProtectedMailboxStorageEntry> mailboxMap = new HashMap<>();
+    // Hashes of the mailbox entries which we failed to decrypt. We never retry them as the result would not change.
+    private final Set<P2PDataStorage.ByteArray> failedMailboxEntryHashes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService mailboxDecryptionExecutor = Utilities.getFixedThreadPoolExecutor("MailboxDecryption-%d",
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())), 60);
     private final Set<Runnable> shutDownResultHandlers = new CopyOnWriteArraySet<>();
     private final BooleanProperty hiddenServicePublished = new SimpleBooleanProperty();
     private final BooleanProperty preliminaryDataReceived = new SimpleBooleanProperty();
@@ -129,6 +142,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private boolean isBootstrapped;
     private final KeepAliveManager keepAliveManager;
     private final Socks5ProxyProvider socks5ProxyProvider;
+    private final NetworkMetricsServer networkMetricsServer;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -147,7 +161,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
                       SeedNodeRepository seedNodeRepository,
                       Socks5ProxyProvider socks5ProxyProvider,
                       EncryptionService encryptionService,
-                      KeyRing keyRing) {
+                      KeyRing keyRing,
+                      NetworkMetricsServer networkMetricsServer) {
         this.networkNode = networkNode;
         this.peerManager = peerManager;
         this.p2PDataStorage = p2PDataStorage;
@@ -159,6 +174,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         this.socks5ProxyProvider = socks5ProxyProvider;
         this.encryptionService = encryptionService;
         this.keyRing = keyRing;
+        this.networkMetricsServer = networkMetricsServer;
 
         this.networkNode.addConnectionListener(this);
         this.networkNode.addMessageListener(this);
@@ -192,6 +208,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             addP2PServiceListener(listener);
 
         networkNode.start(this);
+        networkMetricsServer.start();
     }
 
     public void onAllServicesInitialized() {
@@ -217,6 +234,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             if (p2PDataStorage != null)
                 p2PDataStorage.shutDown();
 
+            mailboxDecryptionExecutor.shutdownNow();
+
             if (peerManager != null)
                 peerManager.shutDown();
 
@@ -235,6 +254,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             if (networkReadySubscription != null)
                 networkReadySubscription.unsubscribe();
 
+            networkMetricsServer.shutDown();
+
             if (networkNode != null) {
                 networkNode.shutDown(() -> {
                     shutDownResultHandlers.stream().forEach(Runnable::run);
@@ -449,6 +470,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
 
     @Override
     public void onRemoved(ProtectedStorageEntry data) {
+        if (data instanceof ProtectedMailboxStorageEntry)
+            failedMailboxEntryHashes.remove(getHashOfPayload((ProtectedMailboxStorageEntry) data));
     }
 
 
@@ -526,35 +549,121 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             MailboxStoragePayload mailboxStoragePayload = protectedMailboxStorageEntry.getMailboxStoragePayload();
             PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = mailboxStoragePayload.getPrefixedSealedAndSignedMessage();
             if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
-                try {
-                    DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
-                            prefixedSealedAndSignedMessage.getSealedAndSigned());
-                    if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
-                        MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
-                        NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
-                        checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
-
-                        mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
-                        log.info("Received a {} mailbox message with messageUid {} and senderAddress {}", mailboxMessage.getClass().getSimpleName(), mailboxMessage.getUid(), senderNodeAddress);
-                        decryptedMailboxListeners.forEach(
-                                e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
-                    } else {
-                        log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
-                                "decryptedMsgWithPubKey.message=", decryptedMessageWithPubKey.getNetworkEnvelope());
-                    }
-                } catch (CryptoException e) {
-                    log.debug(e.toString());
-                    log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
-                            "That is expected if the message is not intended for us.");
-                } catch (ProtobufferException e) {
-                    log.error("Protobuffer data could not be processed: {}", e.toString());
-                }
+                P2PDataStorage.ByteArray hashOfPayload = getHashOfPayload(protectedMailboxStorageEntry);
+                if (failedMailboxEntryHashes.contains(hashOfPayload))
+                    return;
+
+                DecryptedMessageWithPubKey decryptedMessageWithPubKey = decryptMailboxEntry(protectedMailboxStorageEntry, encryptionService);
+                if (decryptedMessageWithPubKey != null)
+                    onMailboxMessageDecrypted(protectedMailboxStorageEntry, decryptedMessageWithPubKey);
+                else
+                    failedMailboxEntryHashes.add(hashOfPayload);
             } else {
                 log.debug("Wrong blurredAddressHash. The message is not intended for us.");
             }
         }
     }
 
+    private void maybeProcessAllMailboxEntries() {
+        NodeAddress nodeAddress = networkNode.getNodeAddress();
+        // Seed nodes don't receive mailbox network_messages
+        if (!isBootstrapped || nodeAddress == null || seedNodeRepository.isSeedNode(nodeAddress))
+            return;
+
+        // We only need to look at the entries filed under our address prefix hash. Those are decrypted on the
+        // mailboxDecryptionExecutor as the RSA decryption is expensive and most of them are not intended for us.
+        List<ProtectedMailboxStorageEntry> candidates = p2PDataStorage.getMailboxEntries(nodeAddress.getAddressPrefixHash()).stream()
+                .filter(entry -> !failedMailboxEntryHashes.contains(getHashOfPayload(entry)))
+                .sorted(Comparator.comparingLong(ProtectedMailboxStorageEntry::getCreationTimeStamp))
+                .collect(Collectors.toList());
+        if (candidates.isEmpty())
+            return;
+
+        log.info("Try to decrypt {} mailbox entries", candidates.size());
+        long ts = System.currentTimeMillis();
+        decryptMailboxEntries(candidates, encryptionService, mailboxDecryptionExecutor)
+                .whenComplete((decryptedMailboxEntries, throwable) -> UserThread.execute(() -> {
+                    if (throwable != null) {
+                        log.error("Decryption of mailbox entries failed: {}", throwable.toString());
+                        return;
+                    }
+
+                    log.info("Decryption of {} mailbox entries took {} ms", candidates.size(), System.currentTimeMillis() - ts);
+                    // We deliver the results in the order of the candidates
+                    decryptedMailboxEntries.forEach(decryptedMailboxEntry -> {
+                        ProtectedMailboxStorageEntry entry = decryptedMailboxEntry.getProtectedMailboxStorageEntry();
+                        if (decryptedMailboxEntry.getDecryptedMessageWithPubKey() == null)
+                            failedMailboxEntryHashes.add(decryptedMailboxEntry.getHashOfPayload());
+                        else if (p2PDataStorage.getMap().containsKey(decryptedMailboxEntry.getHashOfPayload()))
+                            onMailboxMessageDecrypted(entry, decryptedMailboxEntry.getDecryptedMessageWithPubKey());
+                        else
+                            log.debug("Mailbox entry got removed while we decrypted it.");
+                    });
+                }));
+    }
+
+    private void onMailboxMessageDecrypted(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                                           DecryptedMessageWithPubKey decryptedMessageWithPubKey) {
+        MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
+        NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
+        checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
+
+        mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
+        log.info("Received a {} mailbox message with messageUid {} and senderAddress {}", mailboxMessage.getClass().getSimpleName(), mailboxMessage.getUid(), senderNodeAddress);
+        decryptedMailboxListeners.forEach(
+                e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
+    }
+
+    /**
+     * Decrypts the entries on the executor.
+     *
+     * @return Future of the results in the order of the entries
+     */
+    @VisibleForTesting
+    static CompletableFuture<List<DecryptedMailboxEntry>> decryptMailboxEntries(List<ProtectedMailboxStorageEntry> entries,
+                                                                                 EncryptionService encryptionService,
+                                                                                 Executor executor) {
+        List<CompletableFuture<DecryptedMailboxEntry>> futures = entries.stream()
+                .map(entry -> CompletableFuture.supplyAsync(() -> new DecryptedMailboxEntry(entry,
+                        getHashOfPayload(entry),
+                        decryptMailboxEntry(entry, encryptionService)), executor))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(e -> futures.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * @return The decrypted mailbox message or null if the entry is not intended for us or invalid.
+     */
+    @Nullable
+    private static DecryptedMessageWithPubKey decryptMailboxEntry(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                                                                  EncryptionService encryptionService) {
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = protectedMailboxStorageEntry.getMailboxStoragePayload().getPrefixedSealedAndSignedMessage();
+        try {
+            DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
+                    prefixedSealedAndSignedMessage.getSealedAndSigned());
+            if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
+                return decryptedMessageWithPubKey;
+            } else {
+                log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
+                        "decryptedMsgWithPubKey.message=", decryptedMessageWithPubKey.getNetworkEnvelope());
+            }
+        } catch (CryptoException e) {
+            log.debug(e.toString());
+            log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
+                    "That is expected if the message is not intended for us.");
+        } catch (ProtobufferException e) {
+            log.error("Protobuffer data could not be processed: {}", e.toString());
+        }
+        return null;
+    }
+
+    private static P2PDataStorage.ByteArray getHashOfPayload(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        return new P2PDataStorage.ByteArray(P2PDataStorage.get32ByteHash(protectedMailboxStorageEntry.getProtectedStoragePayload()));
+    }
+
     public void sendEncryptedMailboxMessage(NodeAddress peersNodeAddress, PubKeyRing peersPubKeyRing,
                                             NetworkEnvelope message,
                                             SendMailboxMessageListener sendMailboxMessageListener) {
@@ -653,15 +762,6 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
 
     }
 
-    private void maybeProcessAllMailboxEntries() {
-        if (isBootstrapped) {
-            p2PDataStorage.getMap().values().forEach(protectedStorageEntry -> {
-                if (protectedStorageEntry instanceof ProtectedMailboxStorageEntry)
-                    processMailboxEntry((ProtectedMailboxStorageEntry) protectedStorageEntry);
-            });
-        }
-    }
-
     private void addMailboxData(MailboxStoragePayload expirableMailboxStoragePayload,
                                 PublicKey receiversPublicKey,
                                 SendMailboxMessageListener sendMailboxMessageListener) {
@@ -932,4 +1032,18 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             return false;
         }
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    @VisibleForTesting
+    static class DecryptedMailboxEntry {
+        private final ProtectedMailboxStorageEntry protectedMailboxStorageEntry;
+        private final P2PDataStorage.ByteArray hashOfPayload;
+        @Nullable
+        private final DecryptedMessageWithPubKey decryptedMessageWithPubKey;
+    }
 }
@@ -48,6 +48,9 @@ import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
 
@@ -120,11 +123,20 @@ public class Connection implements MessageListener {
     static final int MSG_THROTTLE_PER_SEC = 200;              // With MAX_MSG_SIZE of 200kb results in bandwidth of 40MB/sec or 5 mbit/sec
     static final int MSG_THROTTLE_PER_10_SEC = 1000;          // With MAX_MSG_SIZE of 200kb results in bandwidth of 20MB/sec or 2.5 mbit/sec
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
+    private static final long SEND_CLOSE_CONNECTION_MSG_TIMEOUT = TimeUnit.SECONDS.toMillis(2);
 
     public static int getPermittedMessageSize() {
         return PERMITTED_MESSAGE_SIZE;
     }
 
+    // Same limits for the messages we send and the messages we receive
+    static boolean exceedsPermittedMessageSize(NetworkEnvelope networkEnvelope, int size) {
+        if (networkEnvelope instanceof ExtendedDataSizePermission)
+            return size > MAX_PERMITTED_MESSAGE_SIZE;
+        else
+            return size > PERMITTED_MESSAGE_SIZE;
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Class fields
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -141,7 +153,8 @@ public class Connection implements MessageListener {
 
     // set in init
     private InputHandler inputHandler;
-    private SynchronizedProtoOutputStream protoOutputStream;
+    private ProtoOutputStream protoOutputStream;
+    private OutboundQueue outboundQueue;
 
     // mutable data, set from other threads but not changed internally.
     private Optional<NodeAddress> peersNodeAddressOptional = Optional.<NodeAddress>empty();
@@ -150,7 +163,6 @@ public class Connection implements MessageListener {
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
     private final List<Tuple2<Long, NetworkEnvelope>> messageTimeStamps = new ArrayList<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
-    private volatile long lastSendTimeStamp = 0;
     private final CopyOnWriteArraySet<WeakReference<SupportedCapabilitiesListener>> capabilitiesListeners = new CopyOnWriteArraySet<>();
 
 
@@ -164,6 +176,7 @@ public class Connection implements MessageListener {
         this.connectionListener = connectionListener;
         uid = UUID.randomUUID().toString();
         statistic = new Statistic();
+        NetworkMetrics.getInstance().addConnection(uid, statistic);
 
         addMessageListener(messageListener);
 
@@ -185,7 +198,8 @@ public class Connection implements MessageListener {
             // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
             // the associated ObjectOutputStream on the other end of the connection has written.
             // It will not return until that header has been read.
-            protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
+            protoOutputStream = new ProtoOutputStream(socket.getOutputStream(), statistic);
+            outboundQueue = new OutboundQueue(protoOutputStream, statistic, this::handleException);
             InputStream protoInputStream = socket.getInputStream();
             // We create a thread for handling inputStream data
             inputHandler = new InputHandler(sharedModel, protoInputStream, portInfo, this, networkProtoResolver);
@@ -217,29 +231,34 @@ public class Connection implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     // Called from various threads
-    public void sendMessage(NetworkEnvelope networkEnvelope) {
+    public ListenableFuture<Connection> sendMessage(NetworkEnvelope networkEnvelope) {
+        return sendFrame(new EncodedFrame(networkEnvelope));
+    }
+
+    // Called from various threads. The same encodedFrame can be sent to multiple connections, it gets serialized only
+    // once. The message gets added to the outbound queue, the returned future completes when it has been written.
+    public ListenableFuture<Connection> sendFrame(EncodedFrame encodedFrame) {
+        NetworkEnvelope networkEnvelope = encodedFrame.getNetworkEnvelope();
         log.debug(">> Send networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
 
         if (!stopped) {
             if (noCapabilityRequiredOrCapabilityIsSupported(networkEnvelope)) {
+                // The peer would reject it as a rule violation. We throw outside of the try block as it is not a
+                // problem of the connection, the caller's future fails but the connection stays open.
+                int size = encodedFrame.getSerializedSize();
+                if (exceedsPermittedMessageSize(networkEnvelope, size)) {
+                    log.warn("We did not send the message because it exceeds the permitted size. size={}; message={}",
+                            size, Utilities.toTruncatedString(networkEnvelope, 200));
+                    throw new BisqRuntimeException("Message exceeds permitted size");
+                }
+
                 try {
                     Log.traceCall();
 
-                    // Throttle outbound network_messages
-                    long now = System.currentTimeMillis();
-                    long elapsed = now - lastSendTimeStamp;
-                    if (elapsed < 20) {
-                        log.debug("We got 2 sendMessage requests in less than 20 ms. We set the thread to sleep " +
-                                        "for 50 ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}",
-                                lastSendTimeStamp, now, elapsed);
-                        Thread.sleep(50);
-                    }
-
-                    lastSendTimeStamp = now;
                     String peersNodeAddress = peersNodeAddressOptional.isPresent() ? peersNodeAddressOptional.get().toString() : "null";
 
-                    PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
-                    log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
+                    if (log.isDebugEnabled())
+                        log.debug("Sending message: {}", Utilities.toTruncatedString(networkEnvelope.toProtoNetworkEnvelope().toString(), 10000));
 
                     if (networkEnvelope instanceof Ping | networkEnvelope instanceof RefreshOfferMessage) {
                         // pings and offer refresh msg we dont want to log in production
@@ -247,7 +266,7 @@ public class Connection implements MessageListener {
                                         "Sending direct message to peer" +
                                         "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
                                         "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, proto.toString(), proto.getSerializedSize());
+                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), size);
                     } else if (networkEnvelope instanceof PrefixedSealedAndSignedMessage && peersNodeAddressOptional.isPresent()) {
                         setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
 
@@ -262,14 +281,17 @@ public class Connection implements MessageListener {
                         log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
                                         "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
                                         "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
+                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), size);
                     }
 
                     if (!stopped) {
-                        protoOutputStream.writeEnvelope(networkEnvelope);
+                        // Throttling is done by the outbound queue
+                        return Futures.transform(outboundQueue.enqueue(encodedFrame), (Function<Void, Connection>) e -> this,
+                                MoreExecutors.directExecutor());
                     }
                 } catch (Throwable t) {
                     handleException(t);
+                    return Futures.immediateFailedFuture(t);
                 }
             } else {
                 log.info("We did not send the message because the peer does not support our required capabilities. message={}, peers supportedCapabilities={}", networkEnvelope, sharedModel.getSupportedCapabilities());
@@ -277,6 +299,7 @@ public class Connection implements MessageListener {
         } else {
             log.debug("called sendMessage but was already stopped");
         }
+        return Futures.immediateFuture(this);
     }
 
     public boolean noCapabilityRequiredOrCapabilityIsSupported(Proto msg) {
@@ -492,11 +515,14 @@ public class Connection implements MessageListener {
                     try {
                         String reason = closeConnectionReason == CloseConnectionReason.RULE_VIOLATION ?
                                 sharedModel.getRuleViolation().name() : closeConnectionReason.name();
-                        sendMessage(new CloseConnectionMessage(reason));
+                        // We wait until the message is written as we close the socket afterwards
+                        sendMessage(new CloseConnectionMessage(reason)).get(SEND_CLOSE_CONNECTION_MSG_TIMEOUT, TimeUnit.MILLISECONDS);
 
                         setStopFlags();
 
                         Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        log.debug("CloseConnectionMessage was not sent within {} ms", SEND_CLOSE_CONNECTION_MSG_TIMEOUT);
                     } catch (Throwable t) {
                         log.error(t.getMessage());
                         t.printStackTrace();
@@ -534,8 +560,10 @@ public class Connection implements MessageListener {
             log.error("Exception at shutdown. " + e.getMessage());
             e.printStackTrace();
         } finally {
+            outboundQueue.stop();
             protoOutputStream.onConnectionShutdown();
             MoreExecutors.shutdownAndAwaitTermination(singleThreadExecutor, 500, TimeUnit.MILLISECONDS);
+            NetworkMetrics.getInstance().removeConnection(uid);
 
             log.debug("Connection shutdown complete " + this.toString());
             // Use UserThread.execute as its not clear if that is called from a non-UserThread
@@ -839,20 +867,14 @@ public class Connection implements MessageListener {
                                     size);
                         }*/
 
-                        // We want to track the size of each object even if it is invalid data
-                        connection.statistic.addReceivedBytes(size);
-
-                        // We want to track the network_messages also before the checks, so do it early...
-                        connection.statistic.addReceivedMessage(networkEnvelope);
+                        // We want to track the size of each object even if it is invalid data and the
+                        // network_messages also before the checks, so do it early...
+                        connection.statistic.addReceivedMessage(networkEnvelope, size);
 
                         // First we check the size
-                        boolean exceeds;
-                        if (networkEnvelope instanceof ExtendedDataSizePermission) {
-                            exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
+                        boolean exceeds = exceedsPermittedMessageSize(networkEnvelope, size);
+                        if (networkEnvelope instanceof ExtendedDataSizePermission)
                             log.debug("size={}; object={}", size, Utilities.toTruncatedString(proto, 100));
-                        } else {
-                            exceeds = size > PERMITTED_MESSAGE_SIZE;
-                        }
 
                         if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
                                 !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
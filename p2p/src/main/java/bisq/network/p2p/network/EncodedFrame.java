@@ -0,0 +1,104 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import lombok.Getter;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A NetworkEnvelope together with its length delimited protobuf encoding, as it is written to the socket. The
+ * envelope gets serialized once at the first write and the same bytes are written to all connections, so a message
+ * which we send to many peers (e.g. a broadcast) is not serialized again for each of them.
+ */
+@ThreadSafe
+public final class EncodedFrame {
+    @Getter
+    private final NetworkEnvelope networkEnvelope;
+    private volatile byte[] bytes;
+    private volatile int serializedSize;
+
+    public EncodedFrame(NetworkEnvelope networkEnvelope) {
+        this.networkEnvelope = networkEnvelope;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return Size of the serialized envelope without the length prefix, same as PB.NetworkEnvelope.getSerializedSize()
+     */
+    public int getSerializedSize() {
+        encode();
+        return serializedSize;
+    }
+
+    /**
+     * @return Size of the frame including the length prefix
+     */
+    public int getFrameSize() {
+        return encode().length;
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(encode());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Produces the same bytes as PB.NetworkEnvelope.writeDelimitedTo
+    private byte[] encode() {
+        byte[] result = bytes;
+        if (result == null) {
+            synchronized (this) {
+                result = bytes;
+                if (result == null) {
+                    PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
+                    int size = proto.getSerializedSize();
+                    result = new byte[CodedOutputStream.computeUInt32SizeNoTag(size) + size];
+                    CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(result);
+                    try {
+                        codedOutputStream.writeUInt32NoTag(size);
+                        proto.writeTo(codedOutputStream);
+                    } catch (IOException e) {
+                        // Can only happen if the array is too small which would be a bug
+                        throw new BisqRuntimeException("Failed to encode envelope", e);
+                    }
+                    codedOutputStream.checkNoSpaceLeft();
+                    serializedSize = size;
+                    bytes = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of durations in milliseconds with fixed bucket bounds.
+ */
+public class LatencyHistogram {
+    private static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000};
+
+    // The last bucket counts the values above the highest bound
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long durationInMillis) {
+        int index = 0;
+        while (index < BUCKET_BOUNDS.length && durationInMillis > BUCKET_BOUNDS[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        sum.add(durationInMillis);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @param percentile Value between 0 and 100
+     * @return The upper bound of the bucket which contains the percentile. If it is in the last bucket we return the
+     * highest bound.
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0)
+            return 0;
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long cumulated = 0;
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            cumulated += counts[i];
+            if (cumulated >= rank)
+                return BUCKET_BOUNDS[i];
+        }
+        return BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1];
+    }
+
+    public void addToSnapshot(Map<String, String> snapshot, String prefix) {
+        snapshot.put(prefix + ".count", String.valueOf(getCount()));
+        snapshot.put(prefix + ".sum", String.valueOf(getSum()));
+        snapshot.put(prefix + ".p50", String.valueOf(getPercentile(50)));
+        snapshot.put(prefix + ".p90", String.valueOf(getPercentile(90)));
+        snapshot.put(prefix + ".p99", String.valueOf(getPercentile(99)));
+        // Cumulative counts of the values less or equal the bound
+        long[] counts = getBucketCounts();
+        long cumulated = 0;
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            cumulated += counts[i];
+            snapshot.put(prefix + ".le" + BUCKET_BOUNDS[i], String.valueOf(cumulated));
+        }
+        snapshot.put(prefix + ".leInf", String.valueOf(cumulated + counts[BUCKET_BOUNDS.length]));
+    }
+
+    private long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+}
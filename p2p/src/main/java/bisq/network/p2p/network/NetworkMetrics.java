@@ -0,0 +1,191 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the network metrics of all connections. Counters are LongAdders, so they can be updated from the
+ * network threads without locking or posting to the UserThread.
+ * <p>
+ * The metrics are exported as a flat map of metric name to value (see getSnapshot) which is served by the
+ * NetworkMetricsServer. JavaFX properties are provided by the optional NetworkMetricsFxAdapter.
+ */
+public class NetworkMetrics {
+    private static final NetworkMetrics INSTANCE = new NetworkMetrics();
+
+    public static NetworkMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    private static class MessageTypeMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        // Only recorded for sent messages
+        private final LatencyHistogram sendDuration = new LatencyHistogram();
+        // Only recorded for requests for which we measure the time until the response arrives
+        private final LatencyHistogram roundTripTime = new LatencyHistogram();
+    }
+
+    private final LongAdder totalSentBytes = new LongAdder();
+    private final LongAdder totalReceivedBytes = new LongAdder();
+    private final LongAdder totalSentMessages = new LongAdder();
+    private final LongAdder totalReceivedMessages = new LongAdder();
+    private final Map<String, MessageTypeMetrics> sentMessages = new ConcurrentHashMap<>();
+    private final Map<String, MessageTypeMetrics> receivedMessages = new ConcurrentHashMap<>();
+    // Totals over all message types, the histograms of each message type are in MessageTypeMetrics
+    private final LatencyHistogram roundTripTime = new LatencyHistogram();
+    private final LatencyHistogram sendDuration = new LatencyHistogram();
+    // Key is the uid of the connection
+    private final Map<String, Statistic> statisticByConnectionUid = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    NetworkMetrics() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void onMessageSent(String messageType, int numBytes, long durationInMillis) {
+        totalSentBytes.add(numBytes);
+        totalSentMessages.increment();
+        MessageTypeMetrics metrics = sentMessages.computeIfAbsent(messageType, key -> new MessageTypeMetrics());
+        metrics.count.increment();
+        metrics.bytes.add(numBytes);
+        metrics.sendDuration.record(durationInMillis);
+        sendDuration.record(durationInMillis);
+    }
+
+    public void onRoundTrip(String requestType, long durationInMillis) {
+        sentMessages.computeIfAbsent(requestType, key -> new MessageTypeMetrics()).roundTripTime.record(durationInMillis);
+        roundTripTime.record(durationInMillis);
+    }
+
+    public void onMessageReceived(String messageType, int numBytes) {
+        totalReceivedBytes.add(numBytes);
+        totalReceivedMessages.increment();
+        MessageTypeMetrics metrics = receivedMessages.computeIfAbsent(messageType, key -> new MessageTypeMetrics());
+        metrics.count.increment();
+        metrics.bytes.add(numBytes);
+    }
+
+    public void addConnection(String uid, Statistic statistic) {
+        statisticByConnectionUid.put(uid, statistic);
+    }
+
+    public void removeConnection(String uid) {
+        statisticByConnectionUid.remove(uid);
+    }
+
+    public long getTotalSentBytes() {
+        return totalSentBytes.sum();
+    }
+
+    public long getTotalReceivedBytes() {
+        return totalReceivedBytes.sum();
+    }
+
+    /**
+     * @return Metric name and value of the totals, the message types and the histograms, sorted by name
+     */
+    public Map<String, String> getSnapshot() {
+        Map<String, String> snapshot = new TreeMap<>();
+        snapshot.put("numConnections", String.valueOf(statisticByConnectionUid.size()));
+        snapshot.put("sent.bytes", String.valueOf(totalSentBytes.sum()));
+        snapshot.put("sent.messages", String.valueOf(totalSentMessages.sum()));
+        snapshot.put("received.bytes", String.valueOf(totalReceivedBytes.sum()));
+        snapshot.put("received.messages", String.valueOf(totalReceivedMessages.sum()));
+        addToSnapshot(snapshot, "sent.", sentMessages);
+        addToSnapshot(snapshot, "received.", receivedMessages);
+        roundTripTime.addToSnapshot(snapshot, "roundTripTime");
+        sendDuration.addToSnapshot(snapshot, "sendDuration");
+        addOutboundQueueToSnapshot(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * @return Metric name and value of each connection, sorted by name. The roundTripTime without suffix is the
+     * last measured value. The uid of the connection is part of the
+     * name, so it is not suited for services which keep a time series per name.
+     */
+    public Map<String, String> getConnectionsSnapshot() {
+        Map<String, String> snapshot = new TreeMap<>();
+        long now = System.currentTimeMillis();
+        statisticByConnectionUid.forEach((uid, statistic) -> {
+            String prefix = "connection." + uid + ".";
+            snapshot.put(prefix + "sent.bytes", String.valueOf(statistic.getSentBytes()));
+            snapshot.put(prefix + "received.bytes", String.valueOf(statistic.getReceivedBytes()));
+            snapshot.put(prefix + "roundTripTime", String.valueOf(statistic.getRoundTripTime()));
+            snapshot.put(prefix + "lastActivityAge", String.valueOf(now - statistic.getLastActivityTimestamp()));
+            snapshot.put(prefix + "outboundQueue.size", String.valueOf(statistic.getOutboundQueueSize()));
+            snapshot.put(prefix + "outboundQueue.dropped", String.valueOf(statistic.getDroppedOutboundMessages()));
+            snapshot.put(prefix + "outboundQueue.collapsed", String.valueOf(statistic.getCollapsedOutboundMessages()));
+            statistic.getRoundTripTimeHistogram().addToSnapshot(snapshot, prefix + "roundTripTime");
+            statistic.getSendDurationHistogram().addToSnapshot(snapshot, prefix + "sendDuration");
+            statistic.getSentMessages().forEach((messageType, count) ->
+                    snapshot.put(prefix + "sent." + messageType + ".count", String.valueOf(count)));
+            statistic.getReceivedMessages().forEach((messageType, count) ->
+                    snapshot.put(prefix + "received." + messageType + ".count", String.valueOf(count)));
+        });
+        return snapshot;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Totals over all connections, the values of each connection are in getConnectionsSnapshot
+    private void addOutboundQueueToSnapshot(Map<String, String> snapshot) {
+        long size = 0;
+        int maxSize = 0;
+        long dropped = 0;
+        long collapsed = 0;
+        for (Statistic statistic : statisticByConnectionUid.values()) {
+            int outboundQueueSize = statistic.getOutboundQueueSize();
+            size += outboundQueueSize;
+            maxSize = Math.max(maxSize, outboundQueueSize);
+            dropped += statistic.getDroppedOutboundMessages();
+            collapsed += statistic.getCollapsedOutboundMessages();
+        }
+        snapshot.put("outboundQueue.size", String.valueOf(size));
+        snapshot.put("outboundQueue.maxSize", String.valueOf(maxSize));
+        snapshot.put("outboundQueue.dropped", String.valueOf(dropped));
+        snapshot.put("outboundQueue.collapsed", String.valueOf(collapsed));
+    }
+
+    private void addToSnapshot(Map<String, String> snapshot, String prefix, Map<String, MessageTypeMetrics> metricsByMessageType) {
+        metricsByMessageType.forEach((messageType, metrics) -> {
+            snapshot.put(prefix + messageType + ".count", String.valueOf(metrics.count.sum()));
+            snapshot.put(prefix + messageType + ".bytes", String.valueOf(metrics.bytes.sum()));
+            if (metrics.sendDuration.getCount() > 0)
+                metrics.sendDuration.addToSnapshot(snapshot, prefix + messageType + ".sendDuration");
+            if (metrics.roundTripTime.getCount() > 0)
+                metrics.roundTripTime.addToSnapshot(snapshot, prefix + messageType + ".roundTripTime");
+        });
+    }
+}
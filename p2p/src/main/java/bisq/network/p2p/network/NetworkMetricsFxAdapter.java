@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleLongProperty;
+
+/**
+ * Optional JavaFX adapter for the NetworkMetrics. Polls the counters once per second at the UserThread while it is
+ * started, so nodes without UI do not pay for property updates.
+ */
+public class NetworkMetricsFxAdapter {
+    private final NetworkMetrics networkMetrics;
+    private final LongProperty totalSentBytes = new SimpleLongProperty();
+    private final LongProperty totalReceivedBytes = new SimpleLongProperty();
+    private Timer timer;
+
+    public NetworkMetricsFxAdapter() {
+        networkMetrics = NetworkMetrics.getInstance();
+    }
+
+    public void start() {
+        update();
+        if (timer == null)
+            timer = UserThread.runPeriodically(this::update, 1);
+    }
+
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+    }
+
+    public ReadOnlyLongProperty totalSentBytesProperty() {
+        return totalSentBytes;
+    }
+
+    public ReadOnlyLongProperty totalReceivedBytesProperty() {
+        return totalReceivedBytes;
+    }
+
+    private void update() {
+        totalSentBytes.set(networkMetrics.getTotalSentBytes());
+        totalReceivedBytes.set(networkMetrics.getTotalReceivedBytes());
+    }
+}
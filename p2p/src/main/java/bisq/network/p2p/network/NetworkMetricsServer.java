@@ -0,0 +1,103 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.NetworkOptionKeys;
+
+import com.google.inject.Inject;
+
+import javax.inject.Named;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Serves the NetworkMetrics at localhost for scraping by the monitor or other tools. Each line contains the metric
+ * name and the value separated by a space.
+ * <p>
+ * /metrics serves the totals, message types and histograms, /connections the metrics per connection and /process the
+ * resource usage of the process (see ProcessMetrics).
+ * The server is only started if the metricsPort option is set.
+ */
+@Slf4j
+public class NetworkMetricsServer {
+    private final int port;
+    @Nullable
+    private HttpServer httpServer;
+
+    @Inject
+    public NetworkMetricsServer(@Named(NetworkOptionKeys.METRICS_PORT) int port) {
+        this.port = port;
+    }
+
+    public void start() {
+        if (port <= 0 || httpServer != null)
+            return;
+
+        try {
+            NetworkMetrics networkMetrics = NetworkMetrics.getInstance();
+            httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            httpServer.createContext("/metrics", exchange -> respond(exchange, networkMetrics::getSnapshot));
+            httpServer.createContext("/connections", exchange -> respond(exchange, networkMetrics::getConnectionsSnapshot));
+            httpServer.createContext("/process", exchange -> respond(exchange, ProcessMetrics::getSnapshot));
+            httpServer.start();
+            log.info("NetworkMetricsServer started at port {}", port);
+        } catch (IOException e) {
+            log.error("Could not start NetworkMetricsServer at port {}", port, e);
+            httpServer = null;
+        }
+    }
+
+    public void shutDown() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void respond(HttpExchange exchange, Supplier<Map<String, String>> snapshotSupplier) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        snapshotSupplier.get().forEach((name, value) -> sb.append(name).append(' ').append(value).append('\n'));
+        byte[] response = sb.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+}
@@ -112,7 +112,7 @@ public abstract class NetworkNode implements MessageListener {
                     "We will create a new outbound connection.", peersNodeAddress);
 
             final SettableFuture<Connection> resultFuture = SettableFuture.create();
-            ListenableFuture<Connection> future = executorService.submit(() -> {
+            ListenableFuture<Connection> future = Futures.dereference(executorService.submit(() -> {
                 Thread.currentThread().setName("NetworkNode:SendMessage-to-" + peersNodeAddress);
                 OutboundConnection outboundConnection = null;
                 try {
@@ -144,8 +144,7 @@ public abstract class NetworkNode implements MessageListener {
                         } catch (Throwable throwable) {
                             log.error("Error at closing socket " + throwable);
                         }
-                        existingConnection.sendMessage(networkEnvelope);
-                        return existingConnection;
+                        return existingConnection.sendMessage(networkEnvelope);
                     } else {
                         final ConnectionListener connectionListener = new ConnectionListener() {
                             @Override
@@ -187,8 +186,7 @@ public abstract class NetworkNode implements MessageListener {
                                 + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
 
                         // can take a while when using tor
-                        outboundConnection.sendMessage(networkEnvelope);
-                        return outboundConnection;
+                        return outboundConnection.sendMessage(networkEnvelope);
                     }
                 } catch (Throwable throwable) {
                     if (!(throwable instanceof ConnectException ||
@@ -198,7 +196,7 @@ public abstract class NetworkNode implements MessageListener {
                     }
                     throw throwable;
                 }
-            });
+            }));
 
             Futures.addCallback(future, new FutureCallback<>() {
                 public void onSuccess(Connection connection) {
@@ -258,13 +256,18 @@ public abstract class NetworkNode implements MessageListener {
 
 
     public SettableFuture<Connection> sendMessage(Connection connection, NetworkEnvelope networkEnvelope) {
-        Log.traceCall("\n\tmessage=" + Utilities.toTruncatedString(networkEnvelope) + "\n\tconnection=" + connection);
-        // connection.sendMessage might take a bit (compression, write to stream), so we use a thread to not block
-        ListenableFuture<Connection> future = executorService.submit(() -> {
+        return sendFrame(connection, new EncodedFrame(networkEnvelope));
+    }
+
+    // Used if we send the same message to multiple connections, the encodedFrame gets serialized only once
+    public SettableFuture<Connection> sendFrame(Connection connection, EncodedFrame encodedFrame) {
+        Log.traceCall("\n\tmessage=" + Utilities.toTruncatedString(encodedFrame.getNetworkEnvelope()) + "\n\tconnection=" + connection);
+        // The serialisation of the message might take a bit, so we use a thread to not block. The returned future of
+        // the connection completes when the message has been written.
+        ListenableFuture<Connection> future = Futures.dereference(executorService.submit(() -> {
             Thread.currentThread().setName("NetworkNode:SendMessage-to-" + connection.getUid());
-            connection.sendMessage(networkEnvelope);
-            return connection;
-        });
+            return connection.sendFrame(encodedFrame);
+        }));
         final SettableFuture<Connection> resultFuture = SettableFuture.create();
         Futures.addCallback(future, new FutureCallback<Connection>() {
             public void onSuccess(Connection connection) {
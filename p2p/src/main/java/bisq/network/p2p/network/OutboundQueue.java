@@ -0,0 +1,300 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Bounded queue of the messages we send to one peer. It is drained by a single writer thread, so the callers get a
+ * future at once and are neither blocked by the throttling nor by a slow peer. The future completes when the message
+ * has been written to the socket.
+ * <p>
+ * Direct messages (e.g. trade messages or data responses) are sent before keep alive messages and those before the
+ * gossip of broadcast messages. The rate is limited by a token bucket. A queued RefreshOfferMessage gets replaced by
+ * a newer RefreshOfferMessage for the same offer. If the queue is full we drop the oldest gossip message to make room
+ * for a message with higher priority, otherwise the new message gets rejected.
+ */
+@ThreadSafe
+@Slf4j
+class OutboundQueue {
+    static final int MAX_SIZE = 1000;
+    // We allow bursts of BURST_SIZE messages and in average one message each MILLIS_PER_TOKEN
+    static final int BURST_SIZE = 10;
+    static final long MILLIS_PER_TOKEN = 20;
+
+    enum Priority {
+        DIRECT,
+        KEEP_ALIVE,
+        GOSSIP
+    }
+
+    static Priority getPriority(NetworkEnvelope networkEnvelope) {
+        if (networkEnvelope instanceof KeepAliveMessage)
+            return Priority.KEEP_ALIVE;
+        else if (networkEnvelope instanceof BroadcastMessage)
+            return Priority.GOSSIP;
+        else
+            return Priority.DIRECT;
+    }
+
+    private static class Entry {
+        private EncodedFrame encodedFrame;
+        // Contains more than one future if messages got collapsed
+        private final List<SettableFuture<Void>> futures = new ArrayList<>(1);
+
+        private Entry(EncodedFrame encodedFrame, SettableFuture<Void> future) {
+            this.encodedFrame = encodedFrame;
+            futures.add(future);
+        }
+    }
+
+    private final ProtoOutputStream protoOutputStream;
+    private final Statistic statistic;
+    private final Consumer<Throwable> writeErrorHandler;
+    private final int maxSize;
+    private final int burstSize;
+    private final long millisPerToken;
+    private final ScheduledExecutorService writerExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final Map<Priority, Deque<Entry>> queueByPriority = new EnumMap<>(Priority.class);
+    // Key is the hashOfPayload of the refreshed offer
+    private final Map<P2PDataStorage.ByteArray, Entry> queuedRefreshOfferEntries = new HashMap<>();
+    private int size;
+    private double tokens;
+    private long lastRefillTs = System.currentTimeMillis();
+    private boolean writerScheduled;
+    private boolean stopped;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    OutboundQueue(ProtoOutputStream protoOutputStream, Statistic statistic, Consumer<Throwable> writeErrorHandler) {
+        this(protoOutputStream, statistic, writeErrorHandler, MAX_SIZE, BURST_SIZE, MILLIS_PER_TOKEN);
+    }
+
+    OutboundQueue(ProtoOutputStream protoOutputStream, Statistic statistic, Consumer<Throwable> writeErrorHandler,
+                  int maxSize, int burstSize, long millisPerToken) {
+        this.protoOutputStream = protoOutputStream;
+        this.statistic = statistic;
+        this.writeErrorHandler = writeErrorHandler;
+        this.maxSize = maxSize;
+        this.burstSize = burstSize;
+        this.millisPerToken = millisPerToken;
+        tokens = burstSize;
+        for (Priority priority : Priority.values()) {
+            queueByPriority.put(priority, new ArrayDeque<>());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    ListenableFuture<Void> enqueue(EncodedFrame encodedFrame) {
+        SettableFuture<Void> future = SettableFuture.create();
+        NetworkEnvelope networkEnvelope = encodedFrame.getNetworkEnvelope();
+        Entry droppedEntry = null;
+        String errorMessage = null;
+        synchronized (this) {
+            if (stopped) {
+                errorMessage = "Outbound queue is stopped";
+            } else if (!(networkEnvelope instanceof RefreshOfferMessage) ||
+                    !collapseRefreshOfferMessage((RefreshOfferMessage) networkEnvelope, encodedFrame, future)) {
+                Priority priority = getPriority(networkEnvelope);
+                if (size >= maxSize) {
+                    droppedEntry = priority != Priority.GOSSIP ? pollOldestGossip() : null;
+                    if (droppedEntry == null)
+                        errorMessage = "Outbound queue is full";
+                    statistic.onOutboundMessageDropped();
+                }
+
+                if (errorMessage == null) {
+                    Entry entry = new Entry(encodedFrame, future);
+                    queueByPriority.get(priority).add(entry);
+                    if (networkEnvelope instanceof RefreshOfferMessage)
+                        queuedRefreshOfferEntries.put(getKey((RefreshOfferMessage) networkEnvelope), entry);
+                    size++;
+                    statistic.setOutboundQueueSize(size);
+                    scheduleWriter(0);
+                }
+            }
+        }
+
+        // We complete the futures outside of the lock as they call their listeners
+        if (droppedEntry != null) {
+            log.warn("Outbound queue is full. We drop the oldest gossip message {}",
+                    droppedEntry.encodedFrame.getNetworkEnvelope().getClass().getSimpleName());
+            BisqRuntimeException exception = new BisqRuntimeException("Message got dropped because outbound queue was full");
+            droppedEntry.futures.forEach(e -> e.setException(exception));
+        }
+        if (errorMessage != null)
+            future.setException(new BisqRuntimeException(errorMessage));
+        return future;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Fails the futures of the queued messages and stops the writer.
+     */
+    void stop() {
+        List<Entry> entries = new ArrayList<>();
+        synchronized (this) {
+            stopped = true;
+            queueByPriority.values().forEach(queue -> {
+                entries.addAll(queue);
+                queue.clear();
+            });
+            queuedRefreshOfferEntries.clear();
+            size = 0;
+            statistic.setOutboundQueueSize(0);
+        }
+        writerExecutor.shutdownNow();
+        BisqRuntimeException exception = new BisqRuntimeException("Connection got closed before message was sent");
+        entries.forEach(entry -> entry.futures.forEach(e -> e.setException(exception)));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Runs on the writer thread
+    private void write() {
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                if (stopped || size == 0) {
+                    writerScheduled = false;
+                    return;
+                }
+
+                long delay = acquireToken();
+                if (delay > 0) {
+                    writerScheduled = false;
+                    scheduleWriter(delay);
+                    return;
+                }
+
+                entry = poll();
+                statistic.setOutboundQueueSize(size);
+            }
+
+            try {
+                protoOutputStream.writeFrame(entry.encodedFrame);
+                entry.futures.forEach(e -> e.set(null));
+            } catch (Throwable t) {
+                entry.futures.forEach(e -> e.setException(t));
+                writeErrorHandler.accept(t);
+            }
+        }
+    }
+
+    private void scheduleWriter(long delay) {
+        if (!writerScheduled && !stopped) {
+            writerScheduled = true;
+            writerExecutor.schedule(this::write, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Returns 0 if we got a token, otherwise the time in ms until the next token is available
+    private long acquireToken() {
+        long now = System.currentTimeMillis();
+        tokens = Math.min(burstSize, tokens + (double) (now - lastRefillTs) / millisPerToken);
+        lastRefillTs = now;
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        } else {
+            return (long) Math.ceil((1 - tokens) * millisPerToken);
+        }
+    }
+
+    private Entry poll() {
+        for (Priority priority : Priority.values()) {
+            Entry entry = queueByPriority.get(priority).poll();
+            if (entry != null) {
+                onRemoved(entry);
+                return entry;
+            }
+        }
+        throw new IllegalStateException("poll must not be called if queue is empty");
+    }
+
+    private Entry pollOldestGossip() {
+        Entry entry = queueByPriority.get(Priority.GOSSIP).poll();
+        if (entry != null)
+            onRemoved(entry);
+        return entry;
+    }
+
+    private void onRemoved(Entry entry) {
+        size--;
+        NetworkEnvelope networkEnvelope = entry.encodedFrame.getNetworkEnvelope();
+        if (networkEnvelope instanceof RefreshOfferMessage)
+            queuedRefreshOfferEntries.remove(getKey((RefreshOfferMessage) networkEnvelope));
+    }
+
+    // If we have a queued RefreshOfferMessage for the same offer we only send the one with the higher sequence number.
+    // The future of the superseded message completes when the remaining one has been sent.
+    private boolean collapseRefreshOfferMessage(RefreshOfferMessage message, EncodedFrame encodedFrame,
+                                                SettableFuture<Void> future) {
+        Entry entry = queuedRefreshOfferEntries.get(getKey(message));
+        if (entry == null)
+            return false;
+
+        RefreshOfferMessage queuedMessage = (RefreshOfferMessage) entry.encodedFrame.getNetworkEnvelope();
+        if (message.getSequenceNumber() > queuedMessage.getSequenceNumber())
+            entry.encodedFrame = encodedFrame;
+        entry.futures.add(future);
+        statistic.onOutboundMessageCollapsed();
+        return true;
+    }
+
+    private static P2PDataStorage.ByteArray getKey(RefreshOfferMessage message) {
+        return new P2PDataStorage.ByteArray(message.getHashOfPayload());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.UserThread;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resource usage of the process, served by the NetworkMetricsServer at /process.
+ */
+public class ProcessMetrics {
+    public static Map<String, String> getSnapshot() {
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+        if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            com.sun.management.OperatingSystemMXBean osMXBean = (com.sun.management.OperatingSystemMXBean) operatingSystemMXBean;
+            // Load in percent of all available processors, negative if not available
+            snapshot.put("cpu.load", String.valueOf(Math.round(osMXBean.getProcessCpuLoad() * 100)));
+            snapshot.put("cpu.time", String.valueOf(osMXBean.getProcessCpuTime() / 1_000_000));
+        }
+        snapshot.put("cpu.availableProcessors", String.valueOf(operatingSystemMXBean.getAvailableProcessors()));
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        snapshot.put("heap.used", String.valueOf(heap.getUsed()));
+        snapshot.put("heap.committed", String.valueOf(heap.getCommitted()));
+        snapshot.put("heap.max", String.valueOf(heap.getMax()));
+
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gcMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gcMXBean.getCollectionCount());
+            gcTime += Math.max(0, gcMXBean.getCollectionTime());
+        }
+        snapshot.put("gc.count", String.valueOf(gcCount));
+        snapshot.put("gc.time", String.valueOf(gcTime));
+
+        snapshot.put("threads", String.valueOf(ManagementFactory.getThreadMXBean().getThreadCount()));
+        snapshot.put("userThread.queueSize", String.valueOf(UserThread.getQueueSize()));
+        return snapshot;
+    }
+}
@@ -21,8 +21,6 @@ import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
 
 import bisq.common.proto.network.NetworkEnvelope;
 
-import io.bisq.generated.protobuffer.PB;
-
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -44,8 +42,12 @@ class ProtoOutputStream {
     }
 
     void writeEnvelope(NetworkEnvelope envelope) {
+        writeFrame(new EncodedFrame(envelope));
+    }
+
+    void writeFrame(EncodedFrame encodedFrame) {
         try {
-            writeEnvelopeOrThrow(envelope);
+            writeFrameOrThrow(encodedFrame);
         } catch (IOException e) {
             log.error("Failed to write envelope", e);
             throw new BisqRuntimeException("Failed to write envelope", e);
@@ -60,13 +62,13 @@ class ProtoOutputStream {
         }
     }
 
-    private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
-        PB.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
-        proto.writeDelimitedTo(delegate);
+    private void writeFrameOrThrow(EncodedFrame encodedFrame) throws IOException {
+        NetworkEnvelope envelope = encodedFrame.getNetworkEnvelope();
+        long ts = System.currentTimeMillis();
+        encodedFrame.writeTo(delegate);
         delegate.flush();
 
-        statistic.addSentBytes(proto.getSerializedSize());
-        statistic.addSentMessage(envelope);
+        statistic.addSentMessage(envelope, encodedFrame.getSerializedSize(), System.currentTimeMillis() - ts);
 
         if (!(envelope instanceof KeepAliveMessage)) {
             statistic.updateLastActivityTimestamp();
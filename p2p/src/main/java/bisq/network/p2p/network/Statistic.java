@@ -17,41 +17,30 @@
 
 package bisq.network.p2p.network;
 
-import bisq.common.UserThread;
 import bisq.common.proto.network.NetworkEnvelope;
 
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.LongProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleLongProperty;
-
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Metrics of a connection. Updated from the network threads without locking, the totals of all connections are
+ * kept in NetworkMetrics.
+ */
 public class Statistic {
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Static
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private final static LongProperty totalSentBytes = new SimpleLongProperty(0);
-    private final static LongProperty totalReceivedBytes = new SimpleLongProperty(0);
-
     public static long getTotalSentBytes() {
-        return totalSentBytes.get();
-    }
-
-    public static LongProperty totalSentBytesProperty() {
-        return totalSentBytes;
+        return NetworkMetrics.getInstance().getTotalSentBytes();
     }
 
     public static long getTotalReceivedBytes() {
-        return totalReceivedBytes.get();
-    }
-
-    public static LongProperty totalReceivedBytesProperty() {
-        return totalReceivedBytes;
+        return NetworkMetrics.getInstance().getTotalReceivedBytes();
     }
 
 
@@ -60,12 +49,18 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final Date creationDate;
-    private long lastActivityTimestamp = System.currentTimeMillis();
-    private final LongProperty sentBytes = new SimpleLongProperty(0);
-    private final LongProperty receivedBytes = new SimpleLongProperty(0);
-    private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
-    private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
-    private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    private volatile long lastActivityTimestamp = System.currentTimeMillis();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final Map<String, LongAdder> receivedMessages = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> sentMessages = new ConcurrentHashMap<>();
+    // Last measured round trip time of a Ping, also sent to the peer with the next Ping
+    private volatile int roundTripTime;
+    private final LatencyHistogram roundTripTimeHistogram = new LatencyHistogram();
+    private final LatencyHistogram sendDurationHistogram = new LatencyHistogram();
+    private volatile int outboundQueueSize;
+    private final LongAdder droppedOutboundMessages = new LongAdder();
+    private final LongAdder collapsedOutboundMessages = new LongAdder();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -81,44 +76,45 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void updateLastActivityTimestamp() {
-        UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
+        lastActivityTimestamp = System.currentTimeMillis();
     }
 
-    public void addSentBytes(int value) {
-        UserThread.execute(() -> {
-            sentBytes.set(sentBytes.get() + value);
-            totalSentBytes.set(totalSentBytes.get() + value);
-        });
+    // TODO would need msg inspection to get useful information...
+    public void addReceivedMessage(NetworkEnvelope networkEnvelope, int numBytes) {
+        String messageClassName = networkEnvelope.getClass().getSimpleName();
+        receivedBytes.add(numBytes);
+        receivedMessages.computeIfAbsent(messageClassName, key -> new LongAdder()).increment();
+        NetworkMetrics.getInstance().onMessageReceived(messageClassName, numBytes);
     }
 
-    public void addReceivedBytes(int value) {
-        UserThread.execute(() -> {
-            receivedBytes.set(receivedBytes.get() + value);
-            totalReceivedBytes.set(totalReceivedBytes.get() + value);
-        });
+    public void addSentMessage(NetworkEnvelope networkEnvelope, int numBytes, long durationInMillis) {
+        String messageClassName = networkEnvelope.getClass().getSimpleName();
+        sentBytes.add(numBytes);
+        sentMessages.computeIfAbsent(messageClassName, key -> new LongAdder()).increment();
+        sendDurationHistogram.record(durationInMillis);
+        NetworkMetrics.getInstance().onMessageSent(messageClassName, numBytes, durationInMillis);
     }
 
-    // TODO would need msg inspection to get useful information...
-    public void addReceivedMessage(NetworkEnvelope networkEnvelope) {
-        String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (receivedMessages.containsKey(messageClassName))
-            counter = receivedMessages.get(messageClassName) + 1;
+    // Time from sending the request until its response arrived
+    public void addRoundTripTime(Class<? extends NetworkEnvelope> requestClass, long durationInMillis) {
+        roundTripTimeHistogram.record(durationInMillis);
+        NetworkMetrics.getInstance().onRoundTrip(requestClass.getSimpleName(), durationInMillis);
+    }
 
-        receivedMessages.put(messageClassName, counter);
+    public void setRoundTripTime(int roundTripTime) {
+        this.roundTripTime = roundTripTime;
     }
 
-    public void addSentMessage(NetworkEnvelope networkEnvelope) {
-        String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (sentMessages.containsKey(messageClassName))
-            counter = sentMessages.get(messageClassName) + 1;
+    public void setOutboundQueueSize(int outboundQueueSize) {
+        this.outboundQueueSize = outboundQueueSize;
+    }
 
-        sentMessages.put(messageClassName, counter);
+    public void onOutboundMessageDropped() {
+        droppedOutboundMessages.increment();
     }
 
-    public void setRoundTripTime(int roundTripTime) {
-        this.roundTripTime.set(roundTripTime);
+    public void onOutboundMessageCollapsed() {
+        collapsedOutboundMessages.increment();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -134,29 +130,55 @@ public class Statistic {
     }
 
     public long getSentBytes() {
-        return sentBytes.get();
+        return sentBytes.sum();
     }
 
-    public LongProperty sentBytesProperty() {
-        return sentBytes;
+    public long getReceivedBytes() {
+        return receivedBytes.sum();
     }
 
-    public long getReceivedBytes() {
-        return receivedBytes.get();
+    // Number of sent messages with the message class name as key
+    public Map<String, Long> getSentMessages() {
+        Map<String, Long> result = new HashMap<>();
+        sentMessages.forEach((messageClassName, count) -> result.put(messageClassName, count.sum()));
+        return result;
     }
 
-    public LongProperty receivedBytesProperty() {
-        return receivedBytes;
+    // Number of received messages with the message class name as key
+    public Map<String, Long> getReceivedMessages() {
+        Map<String, Long> result = new HashMap<>();
+        receivedMessages.forEach((messageClassName, count) -> result.put(messageClassName, count.sum()));
+        return result;
     }
 
     public Date getCreationDate() {
         return creationDate;
     }
 
-    public IntegerProperty roundTripTimeProperty() {
+    public int getRoundTripTime() {
         return roundTripTime;
     }
 
+    public LatencyHistogram getRoundTripTimeHistogram() {
+        return roundTripTimeHistogram;
+    }
+
+    public LatencyHistogram getSendDurationHistogram() {
+        return sendDurationHistogram;
+    }
+
+    public int getOutboundQueueSize() {
+        return outboundQueueSize;
+    }
+
+    public long getDroppedOutboundMessages() {
+        return droppedOutboundMessages.sum();
+    }
+
+    public long getCollapsedOutboundMessages() {
+        return collapsedOutboundMessages.sum();
+    }
+
     @Override
     public String toString() {
         return "Statistic{" +
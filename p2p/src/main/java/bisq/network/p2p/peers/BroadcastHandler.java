@@ -19,6 +19,7 @@ package bisq.network.p2p.peers;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.EncodedFrame;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
 
@@ -148,6 +149,8 @@ public class BroadcastHandler implements PeerManager.Listener {
             }, timeoutDelay);
 
             log.debug("Broadcast message to {} peers out of {} total connected peers.", numPeers, connectedPeersSet.size());
+            // We serialize the message only once for all peers
+            EncodedFrame encodedFrame = new EncodedFrame(message);
             for (int i = 0; i < numPeers; i++) {
                 if (stopped)
                     break;  // do not continue sending after a timeout or a cancellation
@@ -155,7 +158,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                 final long minDelay = (i + 1) * delay;
                 final long maxDelay = (i + 2) * delay;
                 final Connection connection = connectedPeersList.get(i);
-                UserThread.runAfterRandomDelay(() -> sendToPeer(connection, message), minDelay, maxDelay, TimeUnit.MILLISECONDS);
+                UserThread.runAfterRandomDelay(() -> sendToPeer(connection, encodedFrame), minDelay, maxDelay, TimeUnit.MILLISECONDS);
             }
         } else {
             onFault("Message not broadcasted because we have no available peers yet.\n\t" +
@@ -163,7 +166,7 @@ public class BroadcastHandler implements PeerManager.Listener {
         }
     }
 
-    private void sendToPeer(Connection connection, BroadcastMessage message) {
+    private void sendToPeer(Connection connection, EncodedFrame encodedFrame) {
         String errorMessage = "Message not broadcasted because we have stopped the handler already.\n\t" +
                 "message = " + Utilities.toTruncatedString(message);
         if (!stopped) {
@@ -171,7 +174,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                 if (connection.noCapabilityRequiredOrCapabilityIsSupported(message)) {
                     NodeAddress nodeAddress = connection.getPeersNodeAddressOptional().get();
                     log.trace("Broadcast message to " + nodeAddress + ".");
-                    SettableFuture<Connection> future = networkNode.sendMessage(connection, message);
+                    SettableFuture<Connection> future = networkNode.sendFrame(connection, encodedFrame);
                     Futures.addCallback(future, new FutureCallback<Connection>() {
                         @Override
                         public void onSuccess(Connection connection) {
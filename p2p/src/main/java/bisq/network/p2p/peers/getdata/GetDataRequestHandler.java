@@ -41,6 +41,8 @@ import com.google.common.util.concurrent.SettableFuture;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -71,6 +73,7 @@ public class GetDataRequestHandler {
 
     private final NetworkNode networkNode;
     private final P2PDataStorage dataStorage;
+    private final KeySetSketchCache keySetSketchCache;
     private final Listener listener;
     private Timer timeoutTimer;
     private boolean stopped;
@@ -80,9 +83,13 @@ public class GetDataRequestHandler {
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public GetDataRequestHandler(NetworkNode networkNode, P2PDataStorage dataStorage, Listener listener) {
+    GetDataRequestHandler(NetworkNode networkNode,
+                          P2PDataStorage dataStorage,
+                          KeySetSketchCache keySetSketchCache,
+                          Listener listener) {
         this.networkNode = networkNode;
         this.dataStorage = dataStorage;
+        this.keySetSketchCache = keySetSketchCache;
         this.listener = listener;
     }
 
@@ -94,10 +101,37 @@ public class GetDataRequestHandler {
     public void handle(GetDataRequest getDataRequest, final Connection connection) {
         Log.traceCall(getDataRequest + "\n\tconnection=" + connection);
 
-        GetDataResponse getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
-                getFilteredPersistableNetworkPayload(getDataRequest, connection),
-                getDataRequest.getNonce(),
-                getDataRequest instanceof GetUpdatedDataRequest);
+        boolean isGetUpdatedDataRequest = getDataRequest instanceof GetUpdatedDataRequest;
+        GetDataResponse getDataResponse;
+        KeySetSketch keySetSketch = getDataRequest.getKeySetSketch();
+        if (keySetSketch != null) {
+            Optional<KeySetSketch.Difference> difference = getDifference(keySetSketch);
+            if (difference.isPresent()) {
+                Set<P2PDataStorage.ByteArray> missingKeys = difference.get().getOnlyInThis();
+                log.info("Decoded keySetSketch. Peer is missing {} of our items and has {} items we don't have.",
+                        missingKeys.size(), difference.get().getOnlyInOther().size());
+                getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
+                        getPersistableNetworkPayloadFromKeySetSketch(getDataRequest, missingKeys, connection),
+                        getDataRequest.getNonce(),
+                        isGetUpdatedDataRequest);
+            } else if (getDataRequest.isExcludedKeysComplete()) {
+                log.info("We could not decode the keySetSketch {}. We use the excludedKeys instead.", keySetSketch);
+                getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
+                        getFilteredPersistableNetworkPayload(getDataRequest, connection),
+                        getDataRequest.getNonce(),
+                        isGetUpdatedDataRequest);
+            } else {
+                log.info("We could not decode the keySetSketch {}. We ask the peer to send a new request.", keySetSketch);
+                getDataResponse = GetDataResponse.getKeySetSketchDecodingFailedResponse(getDataRequest.getNonce(),
+                        isGetUpdatedDataRequest,
+                        keySetSketchCache.getSketch(keySetSketch.getNumCells()).getNumKeys());
+            }
+        } else {
+            getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
+                    getFilteredPersistableNetworkPayload(getDataRequest, connection),
+                    getDataRequest.getNonce(),
+                    isGetUpdatedDataRequest);
+        }
 
         if (timeoutTimer == null) {
             timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -148,6 +182,34 @@ public class GetDataRequestHandler {
                 .collect(Collectors.toSet());
     }
 
+    private Optional<KeySetSketch.Difference> getDifference(KeySetSketch peersKeySetSketch) {
+        return keySetSketchCache.getSketch(peersKeySetSketch.getNumCells())
+                .subtract(peersKeySetSketch)
+                .decode();
+    }
+
+    // The peer's keys of the append-only data store are represented by the sketch, so we look up the missing ones
+    // directly. Keys which do not fit into the sketch are still delivered in the excludedKeys.
+    private Set<PersistableNetworkPayload> getPersistableNetworkPayloadFromKeySetSketch(GetDataRequest getDataRequest,
+                                                                                       Set<P2PDataStorage.ByteArray> missingKeys,
+                                                                                       Connection connection) {
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> appendOnlyDataStoreMap = dataStorage.getAppendOnlyDataStoreMap();
+        Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+        Set<PersistableNetworkPayload> result = missingKeys.stream()
+                .map(appendOnlyDataStoreMap::get)
+                .filter(Objects::nonNull)
+                .filter(connection::noCapabilityRequiredOrCapabilityIsSupported)
+                .collect(Collectors.toSet());
+
+        keySetSketchCache.getKeysNotInSketch().stream()
+                .filter(key -> !excludedKeysAsByteArray.contains(key))
+                .map(appendOnlyDataStoreMap::get)
+                .filter(Objects::nonNull)
+                .filter(connection::noCapabilityRequiredOrCapabilityIsSupported)
+                .forEach(result::add);
+        return result;
+    }
+
     private Set<ProtectedStorageEntry> getFilteredProtectedStorageEntries(GetDataRequest getDataRequest, Connection connection) {
         final Set<ProtectedStorageEntry> filteredDataSet = new HashSet<>();
         final Set<Integer> lookupSet = new HashSet<>();
@@ -0,0 +1,324 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.proto.network.NetworkPayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Invertible Bloom lookup table (IBLT) over the 20 byte hashes used as keys in the append-only data store.
+ * <p>
+ * Instead of sending all keys we have in a GetDataRequest we send a sketch of them. The receiver subtracts the
+ * sketch from a sketch of its own keys with the same number of cells and decodes the result to the keys which are
+ * only in one of both sets. The size of the sketch only depends on the expected size of the difference, not on the
+ * number of keys. If the difference is too large decoding fails and the requester has to retry with a larger sketch
+ * or with the full list of keys.
+ * <p>
+ * See: Eppstein et al., What's the Difference? Efficient Set Reconciliation without Prior Context.
+ */
+@EqualsAndHashCode
+public final class KeySetSketch implements NetworkPayload {
+    public static final int KEY_SIZE = 20;
+
+    private static final int NUM_HASH_FUNCTIONS = 3;
+    // count (int), keySum (KEY_SIZE bytes), hashSum (int)
+    private static final int CELL_SIZE = 4 + KEY_SIZE + 4;
+
+    // We only permit sizes of NUM_HASH_FUNCTIONS * 2^n cells so that sketches can be cached and updated
+    // incrementally. The max. size results in a sketch of about 2.75 MB.
+    private static final int MIN_NUM_CELLS = NUM_HASH_FUNCTIONS * 256;
+    private static final int MAX_NUM_CELLS = NUM_HASH_FUNCTIONS * 32768;
+
+    // With 3 hash functions decoding succeeds with high probability if there are at least 1.23 cells per key in
+    // the difference. We use a more conservative factor.
+    private static final double CELLS_PER_DIFFERENCE = 1.5;
+
+    // Same seed must be used at all nodes. Never change it.
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128(0x6b657973);
+
+    private final int[] counts;
+    private final byte[] keySums;
+    private final int[] hashSums;
+    @Getter
+    private int numKeys;
+
+    public KeySetSketch(int numCells) {
+        this(0, new int[numCells], new byte[numCells * KEY_SIZE], new int[numCells]);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private KeySetSketch(int numKeys, int[] counts, byte[] keySums, int[] hashSums) {
+        checkArgument(isValidNumCells(counts.length), "Invalid number of cells: " + counts.length);
+        this.numKeys = numKeys;
+        this.counts = counts;
+        this.keySums = keySums;
+        this.hashSums = hashSums;
+    }
+
+    @Override
+    public PB.KeySetSketch toProtoMessage() {
+        ByteBuffer buffer = ByteBuffer.allocate(getNumCells() * CELL_SIZE);
+        for (int i = 0; i < getNumCells(); i++) {
+            buffer.putInt(counts[i]);
+            buffer.put(keySums, i * KEY_SIZE, KEY_SIZE);
+            buffer.putInt(hashSums[i]);
+        }
+        return PB.KeySetSketch.newBuilder()
+                .setNumKeys(numKeys)
+                .setCells(ByteString.copyFrom(buffer.array()))
+                .build();
+    }
+
+    public static KeySetSketch fromProto(PB.KeySetSketch proto) {
+        ByteBuffer buffer = proto.getCells().asReadOnlyByteBuffer();
+        checkArgument(buffer.remaining() % CELL_SIZE == 0, "Invalid size of cells: " + buffer.remaining());
+        int numCells = buffer.remaining() / CELL_SIZE;
+        checkArgument(isValidNumCells(numCells), "Invalid number of cells: " + numCells);
+        int[] counts = new int[numCells];
+        byte[] keySums = new byte[numCells * KEY_SIZE];
+        int[] hashSums = new int[numCells];
+        for (int i = 0; i < numCells; i++) {
+            counts[i] = buffer.getInt();
+            buffer.get(keySums, i * KEY_SIZE, KEY_SIZE);
+            hashSums[i] = buffer.getInt();
+        }
+        return new KeySetSketch(proto.getNumKeys(), counts, keySums, hashSums);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static boolean isValidNumCells(int numCells) {
+        if (numCells < MIN_NUM_CELLS || numCells > MAX_NUM_CELLS || numCells % NUM_HASH_FUNCTIONS != 0)
+            return false;
+
+        int cellsPerHashFunction = numCells / NUM_HASH_FUNCTIONS;
+        return (cellsPerHashFunction & (cellsPerHashFunction - 1)) == 0;
+    }
+
+    public static int getNumCellsForDifference(int expectedDifference) {
+        int numCells = MIN_NUM_CELLS;
+        while (numCells < MAX_NUM_CELLS && numCells < expectedDifference * CELLS_PER_DIFFERENCE)
+            numCells *= 2;
+        return numCells;
+    }
+
+    // If we expect a larger difference it is cheaper to send the full list of keys
+    public static int getMaxDifference() {
+        return (int) (MAX_NUM_CELLS / CELLS_PER_DIFFERENCE);
+    }
+
+    public int getNumCells() {
+        return counts.length;
+    }
+
+    public int getSerializedSize() {
+        return getNumCells() * CELL_SIZE;
+    }
+
+    public void add(byte[] key) {
+        checkArgument(key.length == KEY_SIZE, "Invalid key size: " + key.length);
+        numKeys++;
+        update(key, hash(key), 1);
+    }
+
+    public KeySetSketch copy() {
+        return new KeySetSketch(numKeys, counts.clone(), keySums.clone(), hashSums.clone());
+    }
+
+    /**
+     * @param other Sketch with the same number of cells
+     * @return New sketch representing the keys of this sketch minus the keys of the other sketch
+     */
+    public KeySetSketch subtract(KeySetSketch other) {
+        checkArgument(other.getNumCells() == getNumCells(), "Number of cells must match");
+        KeySetSketch result = copy();
+        for (int i = 0; i < getNumCells(); i++) {
+            result.counts[i] -= other.counts[i];
+            result.hashSums[i] ^= other.hashSums[i];
+        }
+        for (int i = 0; i < keySums.length; i++) {
+            result.keySums[i] ^= other.keySums[i];
+        }
+        result.numKeys -= other.numKeys;
+        return result;
+    }
+
+    /**
+     * Decodes a sketch created by {@link #subtract}.
+     *
+     * @return The difference or an empty Optional if the difference was too large to be decoded
+     */
+    public Optional<Difference> decode() {
+        KeySetSketch sketch = copy();
+        Set<P2PDataStorage.ByteArray> onlyInThis = new HashSet<>();
+        Set<P2PDataStorage.ByteArray> onlyInOther = new HashSet<>();
+        Deque<Integer> pureCells = new ArrayDeque<>();
+        for (int i = 0; i < getNumCells(); i++) {
+            if (sketch.isPure(i))
+                pureCells.add(i);
+        }
+
+        int numDecodedKeys = 0;
+        while (!pureCells.isEmpty()) {
+            int index = pureCells.poll();
+            if (!sketch.isPure(index))
+                continue;
+
+            // A valid difference cannot have more keys than cells. Protects against manipulated sketches.
+            if (++numDecodedKeys > getNumCells())
+                return Optional.empty();
+
+            byte[] key = sketch.getKeySum(index);
+            int count = sketch.counts[index];
+            Set<P2PDataStorage.ByteArray> keys = count == 1 ? onlyInThis : onlyInOther;
+            if (!keys.add(new P2PDataStorage.ByteArray(key)))
+                return Optional.empty();
+
+            int[] hash = hash(key);
+            sketch.update(key, hash, -count);
+            for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+                int cellIndex = getCellIndex(hash, i);
+                if (sketch.isPure(cellIndex))
+                    pureCells.add(cellIndex);
+            }
+        }
+
+        if (!sketch.isEmpty())
+            return Optional.empty();
+
+        return Optional.of(new Difference(onlyInThis, onlyInOther));
+    }
+
+    @Override
+    public String toString() {
+        return "KeySetSketch{" +
+                "numCells=" + getNumCells() +
+                ", numKeys=" + numKeys +
+                '}';
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns NUM_HASH_FUNCTIONS values used for the cell indices and a checksum as last value
+    private int[] hash(byte[] key) {
+        ByteBuffer buffer = ByteBuffer.wrap(HASH_FUNCTION.hashBytes(key).asBytes());
+        int[] result = new int[NUM_HASH_FUNCTIONS + 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = buffer.getInt();
+        }
+        return result;
+    }
+
+    // Each hash function maps to its own partition of the cells so a key never hits the same cell twice
+    private int getCellIndex(int[] hash, int hashFunction) {
+        int partitionSize = getNumCells() / NUM_HASH_FUNCTIONS;
+        return hashFunction * partitionSize + Math.floorMod(hash[hashFunction], partitionSize);
+    }
+
+    private void update(byte[] key, int[] hash, int count) {
+        for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+            int cellIndex = getCellIndex(hash, i);
+            counts[cellIndex] += count;
+            hashSums[cellIndex] ^= hash[NUM_HASH_FUNCTIONS];
+            int offset = cellIndex * KEY_SIZE;
+            for (int j = 0; j < KEY_SIZE; j++) {
+                keySums[offset + j] ^= key[j];
+            }
+        }
+    }
+
+    private byte[] getKeySum(int cellIndex) {
+        return Arrays.copyOfRange(keySums, cellIndex * KEY_SIZE, (cellIndex + 1) * KEY_SIZE);
+    }
+
+    // A cell is pure if it contains exactly one key (added or subtracted).
+    private boolean isPure(int cellIndex) {
+        int count = counts[cellIndex];
+        if (count != 1 && count != -1)
+            return false;
+
+        int[] hash = hash(getKeySum(cellIndex));
+        if (hash[NUM_HASH_FUNCTIONS] != hashSums[cellIndex])
+            return false;
+
+        // The key must map to that cell, otherwise the checksum matched by chance
+        for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+            if (getCellIndex(hash, i) == cellIndex)
+                return true;
+        }
+        return false;
+    }
+
+    private boolean isEmpty() {
+        for (int i = 0; i < getNumCells(); i++) {
+            if (counts[i] != 0 || hashSums[i] != 0)
+                return false;
+        }
+        for (byte keySum : keySums) {
+            if (keySum != 0)
+                return false;
+        }
+        return true;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    public static class Difference {
+        // Keys of the sketch we called decode on which are not in the subtracted sketch
+        Set<P2PDataStorage.ByteArray> onlyInThis;
+        // Keys of the subtracted sketch which are not in the sketch we called decode on
+        Set<P2PDataStorage.ByteArray> onlyInOther;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds the sketches of the keys of our append-only data store for the most recently requested sizes.
+ * Sketches are built once and then updated with each added payload, so a GetDataRequest only costs a copy of the
+ * sketch instead of hashing all keys again. Must be used from the user thread only.
+ */
+@Slf4j
+class KeySetSketchCache implements AppendOnlyDataStoreListener {
+    // Requests use the default size first and retry with up to two larger sizes. The largest sketch has about 2.7 MB,
+    // so we only keep the least recently used ones.
+    private static final int MAX_CACHED_SKETCHES = 3;
+
+    private final P2PDataStorage dataStorage;
+    private final Map<Integer, KeySetSketch> sketchByNumCells = new LinkedHashMap<Integer, KeySetSketch>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, KeySetSketch> eldest) {
+            return size() > MAX_CACHED_SKETCHES;
+        }
+    };
+    // Keys which do not match KeySetSketch.KEY_SIZE. Usually empty as PersistableNetworkPayloads verify the hash size.
+    @Nullable
+    private Set<P2PDataStorage.ByteArray> keysNotInSketch;
+
+    KeySetSketchCache(P2PDataStorage dataStorage) {
+        this.dataStorage = dataStorage;
+
+        dataStorage.addAppendOnlyDataStoreListener(this);
+    }
+
+    void shutDown() {
+        dataStorage.removeAppendOnlyDataStoreListener(this);
+    }
+
+    /**
+     * @param numCells Number of cells. Must be a valid size, see {@link KeySetSketch#isValidNumCells(int)}
+     * @return A copy of the sketch of all keys of the append-only data store with the given size
+     */
+    KeySetSketch getSketch(int numCells) {
+        return sketchByNumCells.computeIfAbsent(numCells, this::createSketch).copy();
+    }
+
+    Set<P2PDataStorage.ByteArray> getKeysNotInSketch() {
+        if (keysNotInSketch == null) {
+            keysNotInSketch = dataStorage.getAppendOnlyDataStoreMap().keySet().stream()
+                    .filter(key -> key.bytes.length != KeySetSketch.KEY_SIZE)
+                    .collect(Collectors.toSet());
+        }
+        return keysNotInSketch;
+    }
+
+    @Override
+    public void onAdded(PersistableNetworkPayload payload) {
+        byte[] hash = payload.getHash();
+        if (hash.length == KeySetSketch.KEY_SIZE)
+            sketchByNumCells.values().forEach(sketch -> sketch.add(hash));
+        else if (keysNotInSketch != null)
+            keysNotInSketch.add(new P2PDataStorage.ByteArray(hash));
+    }
+
+    private KeySetSketch createSketch(int numCells) {
+        long ts = System.currentTimeMillis();
+        KeySetSketch sketch = new KeySetSketch(numCells);
+        dataStorage.getAppendOnlyDataStoreMap().keySet().stream()
+                .filter(key -> key.bytes.length == KeySetSketch.KEY_SIZE)
+                .forEach(key -> sketch.add(key.bytes));
+        log.info("Creating {} took {} ms", sketch, System.currentTimeMillis() - ts);
+        return sketch;
+    }
+}
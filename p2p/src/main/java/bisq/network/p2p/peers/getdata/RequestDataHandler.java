@@ -27,6 +27,7 @@ import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import bisq.network.p2p.peers.peerexchange.Peer;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.LazyProcessedPayload;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
@@ -35,6 +36,7 @@ import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
 import bisq.common.app.Log;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
@@ -44,13 +46,17 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -62,7 +68,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 @Slf4j
 class RequestDataHandler implements MessageListener {
     private static final long TIMEOUT = 60;
+    // Initial guess of the number of items we are missing when using a KeySetSketch. If the peer cannot decode it we
+    // retry with a sketch sized by the difference of the number of keys, and after that with the full list of keys.
+    private static final int DEFAULT_EXPECTED_DIFFERENCE = 1000;
+    private static final int MAX_KEY_SET_SKETCH_ATTEMPTS = 2;
+
     private NodeAddress peersNodeAddress;
+    private boolean isPreliminaryDataRequest;
+    private int expectedDifference = DEFAULT_EXPECTED_DIFFERENCE;
+    private int numKeySetSketchAttempts;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -84,10 +98,12 @@ class RequestDataHandler implements MessageListener {
     private final NetworkNode networkNode;
     private final P2PDataStorage dataStorage;
     private final PeerManager peerManager;
+    private final KeySetSketchCache keySetSketchCache;
     private final Listener listener;
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
     private boolean stopped;
+    private long sendTs;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -97,10 +113,12 @@ class RequestDataHandler implements MessageListener {
     public RequestDataHandler(NetworkNode networkNode,
                               P2PDataStorage dataStorage,
                               PeerManager peerManager,
+                              KeySetSketchCache keySetSketchCache,
                               Listener listener) {
         this.networkNode = networkNode;
         this.dataStorage = dataStorage;
         this.peerManager = peerManager;
+        this.keySetSketchCache = keySetSketchCache;
         this.listener = listener;
     }
 
@@ -116,6 +134,11 @@ class RequestDataHandler implements MessageListener {
     public void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest) {
         Log.traceCall("nodeAddress=" + nodeAddress);
         peersNodeAddress = nodeAddress;
+        this.isPreliminaryDataRequest = isPreliminaryDataRequest;
+        sendGetDataRequest(nodeAddress);
+    }
+
+    private void sendGetDataRequest(NodeAddress nodeAddress) {
         if (!stopped) {
             GetDataRequest getDataRequest;
 
@@ -123,9 +146,30 @@ class RequestDataHandler implements MessageListener {
             // PersistedStoragePayload items don't get removed, so we don't have an issue with the case that
             // an object gets removed in between PreliminaryGetDataRequest and the GetUpdatedDataRequest and we would
             // miss that event if we do not load the full set or use some delta handling.
-            Set<byte[]> excludedKeys = dataStorage.getAppendOnlyDataStoreMap().keySet().stream()
-                    .map(e -> e.bytes)
-                    .collect(Collectors.toSet());
+            // If the peer supports it we send a sketch of the keys of the PersistableNetworkPayload items instead,
+            // which has a size depending only on the expected number of items we are missing. At the first request
+            // to a seed node we usually don't know its capabilities yet. In that case we send the sketch alongside
+            // the full list, so a peer supporting it can use the sketch and older peers use the list.
+            KeySetSketch keySetSketch = null;
+            Set<byte[]> excludedKeys;
+            boolean excludedKeysComplete;
+            Optional<Boolean> keySetSketchSupported = isKeySetSketchSupported(nodeAddress);
+            if (keySetSketchSupported.orElse(false)) {
+                numKeySetSketchAttempts++;
+                keySetSketch = keySetSketchCache.getSketch(KeySetSketch.getNumCellsForDifference(expectedDifference));
+                excludedKeys = keySetSketchCache.getKeysNotInSketch().stream()
+                        .map(e -> e.bytes)
+                        .collect(Collectors.toSet());
+                excludedKeysComplete = false;
+            } else {
+                if (!keySetSketchSupported.isPresent())
+                    keySetSketch = keySetSketchCache.getSketch(KeySetSketch.getNumCellsForDifference(expectedDifference));
+
+                excludedKeys = dataStorage.getAppendOnlyDataStoreMap().keySet().stream()
+                        .map(e -> e.bytes)
+                        .collect(Collectors.toSet());
+                excludedKeysComplete = true;
+            }
 
             Set<byte[]> excludedKeysFromPersistedEntryMap = dataStorage.getProtectedDataStoreMap().keySet()
                     .stream()
@@ -135,9 +179,13 @@ class RequestDataHandler implements MessageListener {
             excludedKeys.addAll(excludedKeysFromPersistedEntryMap);
 
             if (isPreliminaryDataRequest)
-                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys);
+                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys, keySetSketch, excludedKeysComplete);
             else
-                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys);
+                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(),
+                        nonce,
+                        excludedKeys,
+                        keySetSketch,
+                        excludedKeysComplete);
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -154,8 +202,10 @@ class RequestDataHandler implements MessageListener {
                         TIMEOUT);
             }
 
-            log.info("We send a {} to peer {}. ", getDataRequest.getClass().getSimpleName(), nodeAddress);
+            log.info("We send a {} to peer {}. numExcludedKeys={}, keySetSketch={}",
+                    getDataRequest.getClass().getSimpleName(), nodeAddress, excludedKeys.size(), keySetSketch);
             networkNode.addMessageListener(this);
+            sendTs = System.currentTimeMillis();
             SettableFuture<Connection> future = networkNode.sendMessage(nodeAddress, getDataRequest);
             Futures.addCallback(future, new FutureCallback<Connection>() {
                 @Override
@@ -199,6 +249,12 @@ class RequestDataHandler implements MessageListener {
                 Log.traceCall(networkEnvelope.toString() + "\n\tconnection=" + connection);
                 if (!stopped) {
                     GetDataResponse getDataResponse = (GetDataResponse) networkEnvelope;
+                    if (getDataResponse.isKeySetSketchDecodingFailed()) {
+                        if (getDataResponse.getRequestNonce() == nonce)
+                            onKeySetSketchDecodingFailed(getDataResponse.getNumSketchKeys());
+                        return;
+                    }
+
                     Map<String, Set<NetworkPayload>> payloadByClassName = new HashMap<>();
                     final Set<ProtectedStorageEntry> dataSet = getDataResponse.getDataSet();
                     dataSet.stream().forEach(e -> {
@@ -245,6 +301,9 @@ class RequestDataHandler implements MessageListener {
 
                     if (getDataResponse.getRequestNonce() == nonce) {
                         stopTimeoutTimer();
+                        connection.getStatistic().addRoundTripTime(isPreliminaryDataRequest ?
+                                        PreliminaryGetDataRequest.class : GetUpdatedDataRequest.class,
+                                System.currentTimeMillis() - sendTs);
                         checkArgument(connection.getPeersNodeAddressOptional().isPresent(),
                                 "RequestDataHandler.onMessage: connection.getPeersNodeAddressOptional() must be present " +
                                         "at that moment");
@@ -317,6 +376,45 @@ class RequestDataHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
 
+    // Returns an empty Optional if we don't know the capabilities of the peer. At the first request to a seed node
+    // we usually only know them from the peer lists of a previous session.
+    private Optional<Boolean> isKeySetSketchSupported(NodeAddress nodeAddress) {
+        if (numKeySetSketchAttempts >= MAX_KEY_SET_SKETCH_ATTEMPTS || expectedDifference > KeySetSketch.getMaxDifference())
+            return Optional.of(false);
+
+        List<Integer> requiredCapabilities = Collections.singletonList(Capabilities.Capability.KEY_SET_SKETCH.ordinal());
+        if (!Capabilities.isCapabilitySupported(requiredCapabilities, Capabilities.getSupportedCapabilities()))
+            return Optional.of(false);
+
+        Optional<List<Integer>> peersCapabilities = networkNode.getAllConnections().stream()
+                .filter(connection -> connection.getPeersNodeAddressOptional().filter(nodeAddress::equals).isPresent())
+                .map(Connection::getSupportedCapabilities)
+                .filter(Objects::nonNull)
+                .findAny();
+        if (!peersCapabilities.isPresent()) {
+            peersCapabilities = Stream.concat(peerManager.getReportedPeers().stream(), peerManager.getPersistedPeers().stream())
+                    .filter(peer -> peer.getNodeAddress().equals(nodeAddress))
+                    .map(Peer::getSupportedCapabilities)
+                    .filter(supportedCapabilities -> !supportedCapabilities.isEmpty())
+                    .findAny();
+        }
+        return peersCapabilities
+                .map(supportedCapabilities -> Capabilities.isCapabilitySupported(requiredCapabilities, supportedCapabilities));
+    }
+
+    private void onKeySetSketchDecodingFailed(int peersNumSketchKeys) {
+        int numSketchKeys = keySetSketchCache.getSketch(KeySetSketch.getNumCellsForDifference(expectedDifference)).getNumKeys();
+        // The difference is at least the difference of the number of keys. We add the initial guess as the peer
+        // might also miss some of our items.
+        int newExpectedDifference = Math.abs(peersNumSketchKeys - numSketchKeys) + DEFAULT_EXPECTED_DIFFERENCE;
+        expectedDifference = Math.max(newExpectedDifference, expectedDifference * 2);
+        log.info("Peer {} could not decode our keySetSketch. We send a new request with expectedDifference={}. " +
+                        "numKeySetSketchAttempts={}, peersNumSketchKeys={}, numSketchKeys={}",
+                peersNodeAddress, expectedDifference, numKeySetSketchAttempts, peersNumSketchKeys, numSketchKeys);
+        stopTimeoutTimer();
+        sendGetDataRequest(peersNodeAddress);
+    }
+
     @SuppressWarnings("UnusedParameters")
     private void handleFault(String errorMessage, NodeAddress nodeAddress, CloseConnectionReason closeConnectionReason) {
         cleanup();
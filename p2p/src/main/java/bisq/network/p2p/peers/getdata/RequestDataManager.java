@@ -91,6 +91,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     private final NetworkNode networkNode;
     private final P2PDataStorage dataStorage;
     private final PeerManager peerManager;
+    private final KeySetSketchCache keySetSketchCache;
     private final Set<NodeAddress> seedNodeAddresses;
     private Listener listener;
 
@@ -115,6 +116,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
         this.networkNode = networkNode;
         this.dataStorage = dataStorage;
         this.peerManager = peerManager;
+        this.keySetSketchCache = new KeySetSketchCache(dataStorage);
 
         this.networkNode.addMessageListener(this);
         this.networkNode.addConnectionListener(this);
@@ -139,6 +141,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
         networkNode.removeMessageListener(this);
         networkNode.removeConnectionListener(this);
         peerManager.removeListener(this);
+        keySetSketchCache.shutDown();
         closeAllHandlers();
     }
 
@@ -279,7 +282,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
 
                 final String uid = connection.getUid();
                 if (!getDataRequestHandlers.containsKey(uid)) {
-                    GetDataRequestHandler getDataRequestHandler = new GetDataRequestHandler(networkNode, dataStorage,
+                    GetDataRequestHandler getDataRequestHandler = new GetDataRequestHandler(networkNode, dataStorage, keySetSketchCache,
                             new GetDataRequestHandler.Listener() {
                                 @Override
                                 public void onComplete() {
@@ -327,7 +330,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
         Log.traceCall("nodeAddress=" + nodeAddress + " /  remainingNodeAddresses=" + remainingNodeAddresses);
         if (!stopped) {
             if (!handlerMap.containsKey(nodeAddress)) {
-                RequestDataHandler requestDataHandler = new RequestDataHandler(networkNode, dataStorage, peerManager,
+                RequestDataHandler requestDataHandler = new RequestDataHandler(networkNode, dataStorage, peerManager, keySetSketchCache,
                         new RequestDataHandler.Listener() {
                             @Override
                             public void onComplete() {
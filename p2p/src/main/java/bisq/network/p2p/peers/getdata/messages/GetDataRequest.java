@@ -18,6 +18,7 @@
 package bisq.network.p2p.peers.getdata.messages;
 
 import bisq.network.p2p.ExtendedDataSizePermission;
+import bisq.network.p2p.peers.getdata.KeySetSketch;
 
 import bisq.common.proto.network.NetworkEnvelope;
 
@@ -27,6 +28,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import javax.annotation.Nullable;
+
 @EqualsAndHashCode(callSuper = true)
 @Getter
 @ToString
@@ -34,12 +37,23 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     protected final int nonce;
     // Keys for ProtectedStorageEntry items to be excluded from the request because the peer has them already
     protected final Set<byte[]> excludedKeys;
+    // Sketch of the keys of the append-only data store. Only sent to peers supporting Capability.KEY_SET_SKETCH or
+    // to peers whose capabilities we don't know yet.
+    @Nullable
+    protected final KeySetSketch keySetSketch;
+    // If set excludedKeys contains the keys of the append-only data store as well, so they can be used if the
+    // keySetSketch cannot be decoded. Otherwise those keys are only represented by the keySetSketch.
+    protected final boolean excludedKeysComplete;
 
     public GetDataRequest(int messageVersion,
                           int nonce,
-                          Set<byte[]> excludedKeys) {
+                          Set<byte[]> excludedKeys,
+                          @Nullable KeySetSketch keySetSketch,
+                          boolean excludedKeysComplete) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
+        this.keySetSketch = keySetSketch;
+        this.excludedKeysComplete = excludedKeysComplete;
     }
 }
@@ -59,6 +59,12 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     @Nullable
     private final List<Integer> supportedCapabilities;
 
+    // Set if the request contained a KeySetSketch which we could not decode. In that case the data sets are empty and
+    // the requester has to send a new request. numSketchKeys is the number of keys of our sketch and helps the
+    // requester to estimate the size of the difference.
+    private final boolean keySetSketchDecodingFailed;
+    private final int numSketchKeys;
+
     public GetDataResponse(Set<ProtectedStorageEntry> dataSet,
                            @Nullable Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                            int requestNonce,
@@ -68,6 +74,21 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 requestNonce,
                 isGetUpdatedDataResponse,
                 Capabilities.getSupportedCapabilities(),
+                false,
+                0,
+                Version.getP2PMessageVersion());
+    }
+
+    public static GetDataResponse getKeySetSketchDecodingFailedResponse(int requestNonce,
+                                                                         boolean isGetUpdatedDataResponse,
+                                                                         int numSketchKeys) {
+        return new GetDataResponse(new HashSet<>(),
+                null,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                Capabilities.getSupportedCapabilities(),
+                true,
+                numSketchKeys,
                 Version.getP2PMessageVersion());
     }
 
@@ -80,6 +101,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
                             @Nullable List<Integer> supportedCapabilities,
+                            boolean keySetSketchDecodingFailed,
+                            int numSketchKeys,
                             int messageVersion) {
         super(messageVersion);
 
@@ -88,6 +111,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.supportedCapabilities = supportedCapabilities;
+        this.keySetSketchDecodingFailed = keySetSketchDecodingFailed;
+        this.numSketchKeys = numSketchKeys;
     }
 
     @Override
@@ -104,7 +129,9 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                                         .build())
                         .collect(Collectors.toList()))
                 .setRequestNonce(requestNonce)
-                .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse);
+                .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
+                .setKeySetSketchDecodingFailed(keySetSketchDecodingFailed)
+                .setNumSketchKeys(numSketchKeys);
 
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(supportedCapabilities));
         Optional.ofNullable(persistableNetworkPayloadSet).ifPresent(set -> builder.addAllPersistableNetworkPayloadItems(set.stream()
@@ -135,6 +162,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 proto.getSupportedCapabilitiesList().isEmpty() ? null : proto.getSupportedCapabilitiesList(),
+                proto.getKeySetSketchDecodingFailed(),
+                proto.getNumSketchKeys(),
                 messageVersion);
     }
 }
@@ -19,6 +19,7 @@ package bisq.network.p2p.peers.getdata.messages;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.SendersNodeAddressMessage;
+import bisq.network.p2p.peers.getdata.KeySetSketch;
 
 import bisq.common.app.Version;
 import bisq.common.proto.ProtoUtil;
@@ -27,12 +28,15 @@ import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.ByteString;
 
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @EqualsAndHashCode(callSuper = true)
@@ -42,10 +46,14 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
 
     public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                  int nonce,
-                                 Set<byte[]> excludedKeys) {
+                                 Set<byte[]> excludedKeys,
+                                 @Nullable KeySetSketch keySetSketch,
+                                 boolean excludedKeysComplete) {
         this(senderNodeAddress,
                 nonce,
                 excludedKeys,
+                keySetSketch,
+                excludedKeysComplete,
                 Version.getP2PMessageVersion());
     }
 
@@ -57,10 +65,14 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     private GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                   int nonce,
                                   Set<byte[]> excludedKeys,
+                                  @Nullable KeySetSketch keySetSketch,
+                                  boolean excludedKeysComplete,
                                   int messageVersion) {
         super(messageVersion,
                 nonce,
-                excludedKeys);
+                excludedKeys,
+                keySetSketch,
+                excludedKeysComplete);
         checkNotNull(senderNodeAddress, "senderNodeAddress must not be null at GetUpdatedDataRequest");
         this.senderNodeAddress = senderNodeAddress;
     }
@@ -72,7 +84,10 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                 .setNonce(nonce)
                 .addAllExcludedKeys(excludedKeys.stream()
                         .map(ByteString::copyFrom)
-                        .collect(Collectors.toList()));
+                        .collect(Collectors.toList()))
+                .setExcludedKeysComplete(excludedKeysComplete);
+
+        Optional.ofNullable(keySetSketch).ifPresent(e -> builder.setKeySetSketch(keySetSketch.toProtoMessage()));
 
         return getNetworkEnvelopeBuilder()
                 .setGetUpdatedDataRequest(builder)
@@ -83,6 +98,8 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
         return new GetUpdatedDataRequest(NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                proto.hasKeySetSketch() ? KeySetSketch.fromProto(proto.getKeySetSketch()) : null,
+                proto.getExcludedKeysComplete(),
                 messageVersion);
     }
 }
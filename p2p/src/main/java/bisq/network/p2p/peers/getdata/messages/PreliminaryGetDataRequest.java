@@ -19,6 +19,7 @@ package bisq.network.p2p.peers.getdata.messages;
 
 import bisq.network.p2p.AnonymousMessage;
 import bisq.network.p2p.SupportedCapabilitiesMessage;
+import bisq.network.p2p.peers.getdata.KeySetSketch;
 
 import bisq.common.app.Capabilities;
 import bisq.common.app.Version;
@@ -48,8 +49,15 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     private final List<Integer> supportedCapabilities;
 
     public PreliminaryGetDataRequest(int nonce,
-                                     Set<byte[]> excludedKeys) {
-        this(nonce, excludedKeys, Capabilities.getSupportedCapabilities(), Version.getP2PMessageVersion());
+                                     Set<byte[]> excludedKeys,
+                                     @Nullable KeySetSketch keySetSketch,
+                                     boolean excludedKeysComplete) {
+        this(nonce,
+                excludedKeys,
+                keySetSketch,
+                excludedKeysComplete,
+                Capabilities.getSupportedCapabilities(),
+                Version.getP2PMessageVersion());
     }
 
 
@@ -59,9 +67,11 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
+                                      @Nullable KeySetSketch keySetSketch,
+                                      boolean excludedKeysComplete,
                                       @Nullable List<Integer> supportedCapabilities,
                                       int messageVersion) {
-        super(messageVersion, nonce, excludedKeys);
+        super(messageVersion, nonce, excludedKeys, keySetSketch, excludedKeysComplete);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -72,9 +82,11 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                 .setNonce(nonce)
                 .addAllExcludedKeys(excludedKeys.stream()
                         .map(ByteString::copyFrom)
-                        .collect(Collectors.toList()));
+                        .collect(Collectors.toList()))
+                .setExcludedKeysComplete(excludedKeysComplete);
 
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(supportedCapabilities));
+        Optional.ofNullable(keySetSketch).ifPresent(e -> builder.setKeySetSketch(keySetSketch.toProtoMessage()));
 
         return getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
@@ -84,6 +96,8 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     public static PreliminaryGetDataRequest fromProto(PB.PreliminaryGetDataRequest proto, int messageVersion) {
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                proto.hasKeySetSketch() ? KeySetSketch.fromProto(proto.getKeySetSketch()) : null,
+                proto.getExcludedKeysComplete(),
                 proto.getSupportedCapabilitiesList().isEmpty() ? null : proto.getSupportedCapabilitiesList(),
                 messageVersion);
     }
@@ -0,0 +1,67 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary index of the mailbox entries of the P2PDataStorage map by the address prefix hash of the receiver.
+ * A node only needs to try to decrypt the entries filed under its own address prefix hash instead of iterating
+ * over all entries.
+ */
+final class MailboxEntryIndex {
+    private final Map<P2PDataStorage.ByteArray, Map<P2PDataStorage.ByteArray, ProtectedMailboxStorageEntry>> entriesByAddressPrefixHash = new ConcurrentHashMap<>();
+
+    void put(P2PDataStorage.ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        if (protectedStorageEntry instanceof ProtectedMailboxStorageEntry) {
+            ProtectedMailboxStorageEntry entry = (ProtectedMailboxStorageEntry) protectedStorageEntry;
+            entriesByAddressPrefixHash.computeIfAbsent(getAddressPrefixHash(entry), k -> new ConcurrentHashMap<>())
+                    .put(hashOfPayload, entry);
+        }
+    }
+
+    void remove(P2PDataStorage.ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        if (protectedStorageEntry instanceof ProtectedMailboxStorageEntry) {
+            entriesByAddressPrefixHash.computeIfPresent(getAddressPrefixHash((ProtectedMailboxStorageEntry) protectedStorageEntry),
+                    (addressPrefixHash, entries) -> {
+                        entries.remove(hashOfPayload);
+                        return entries.isEmpty() ? null : entries;
+                    });
+        }
+    }
+
+    List<ProtectedMailboxStorageEntry> get(byte[] addressPrefixHash) {
+        Map<P2PDataStorage.ByteArray, ProtectedMailboxStorageEntry> entries = entriesByAddressPrefixHash.get(new P2PDataStorage.ByteArray(addressPrefixHash));
+        return entries != null ? new ArrayList<>(entries.values()) : Collections.emptyList();
+    }
+
+    int size() {
+        return entriesByAddressPrefixHash.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static P2PDataStorage.ByteArray getAddressPrefixHash(ProtectedMailboxStorageEntry entry) {
+        return new P2PDataStorage.ByteArray(entry.getMailboxStoragePayload().getPrefixedSealedAndSignedMessage().getAddressPrefixHash());
+    }
+}
@@ -33,6 +33,7 @@ import bisq.network.p2p.storage.messages.RemoveDataMessage;
 import bisq.network.p2p.storage.messages.RemoveMailboxDataMessage;
 import bisq.network.p2p.storage.payload.DateTolerantPayload;
 import bisq.network.p2p.storage.payload.ExpirablePayload;
+import bisq.network.p2p.storage.payload.HashCachingPayload;
 import bisq.network.p2p.storage.payload.MailboxStoragePayload;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
@@ -112,6 +113,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     @Getter
     private final Map<ByteArray, ProtectedStorageEntry> map = new ConcurrentHashMap<>();
+    private final MailboxEntryIndex mailboxEntryIndex = new MailboxEntryIndex();
+    private final SignatureVerifier signatureVerifier = new SignatureVerifier();
     private final Set<HashMapChangedListener> hashMapChangedListeners = new CopyOnWriteArraySet<>();
     private Timer removeExpiredEntriesTimer;
 
@@ -148,8 +151,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Override
     public void readPersisted() {
         SequenceNumberMap persistedSequenceNumberMap = sequenceNumberMapStorage.initAndGetPersisted(sequenceNumberMap, 300);
-        if (persistedSequenceNumberMap != null)
-            sequenceNumberMap.setMap(getPurgedSequenceNumberMap(persistedSequenceNumberMap.getMap()));
+        if (persistedSequenceNumberMap != null) {
+            sequenceNumberMap.putAll(persistedSequenceNumberMap);
+            purgeSequenceNumberMap();
+        }
     }
 
     // This method is called at startup in a non-user thread.
@@ -161,6 +166,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         resourceDataStoreService.readFromResources(postFix);
 
         map.putAll(protectedDataStoreService.getMap());
+        protectedDataStoreService.getMap().forEach(mailboxEntryIndex::put);
     }
 
 
@@ -171,6 +177,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void shutDown() {
         if (removeExpiredEntriesTimer != null)
             removeExpiredEntriesTimer.stop();
+
+        signatureVerifier.shutDown();
     }
 
     public void onBootstrapComplete() {
@@ -192,6 +200,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                             toRemoveSet.add(protectedStorageEntry);
                             log.debug("We found an expired data entry. We remove the protectedData:\n\t" + Utilities.toTruncatedString(protectedStorageEntry));
                             map.remove(hashOfPayload);
+                            mailboxEntryIndex.remove(hashOfPayload, protectedStorageEntry);
                         }
                     });
 
@@ -200,7 +209,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                             listener -> listener.onRemoved(protectedDataToRemove)));
 
             if (sequenceNumberMap.size() > 1000)
-                sequenceNumberMap.setMap(getPurgedSequenceNumberMap(sequenceNumberMap.getMap()));
+                purgeSequenceNumberMap();
         }, CHECK_TTL_INTERVAL_SEC);
     }
 
@@ -212,6 +221,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return protectedDataStoreService.getMap();
     }
 
+    /**
+     * @param addressPrefixHash The address prefix hash of the receiver
+     * @return The mailbox entries which might be addressed to the receiver
+     */
+    public List<ProtectedMailboxStorageEntry> getMailboxEntries(byte[] addressPrefixHash) {
+        return mailboxEntryIndex.get(addressPrefixHash);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // MessageListener implementation
@@ -222,14 +239,24 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (networkEnvelope instanceof BroadcastMessage) {
             Log.traceCall(Utilities.toTruncatedString(networkEnvelope) + "\n\tconnection=" + connection);
             connection.getPeersNodeAddressOptional().ifPresent(peersNodeAddress -> {
+                // The signatures get verified at the signatureVerifier's worker threads, the storage gets updated
+                // afterwards at the user thread in the order the messages have arrived.
                 if (networkEnvelope instanceof AddDataMessage) {
-                    addProtectedStorageEntry(((AddDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress, null, false);
+                    ProtectedStorageEntry protectedStorageEntry = ((AddDataMessage) networkEnvelope).getProtectedStorageEntry();
+                    signatureVerifier.verifyAndCommit(() -> verifyProtectedStorageEntry(protectedStorageEntry, true),
+                            () -> addProtectedStorageEntry(protectedStorageEntry, peersNodeAddress, null, false));
                 } else if (networkEnvelope instanceof RemoveDataMessage) {
-                    remove(((RemoveDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress, false);
+                    ProtectedStorageEntry protectedStorageEntry = ((RemoveDataMessage) networkEnvelope).getProtectedStorageEntry();
+                    signatureVerifier.verifyAndCommit(() -> verifyProtectedStorageEntry(protectedStorageEntry, false),
+                            () -> remove(protectedStorageEntry, peersNodeAddress, false));
                 } else if (networkEnvelope instanceof RemoveMailboxDataMessage) {
-                    removeMailboxData(((RemoveMailboxDataMessage) networkEnvelope).getProtectedMailboxStorageEntry(), peersNodeAddress, false);
+                    ProtectedMailboxStorageEntry protectedMailboxStorageEntry = ((RemoveMailboxDataMessage) networkEnvelope).getProtectedMailboxStorageEntry();
+                    signatureVerifier.verifyAndCommit(() -> verifyProtectedStorageEntry(protectedMailboxStorageEntry, false),
+                            () -> removeMailboxData(protectedMailboxStorageEntry, peersNodeAddress, false));
                 } else if (networkEnvelope instanceof RefreshOfferMessage) {
-                    refreshTTL((RefreshOfferMessage) networkEnvelope, peersNodeAddress, false);
+                    RefreshOfferMessage refreshOfferMessage = (RefreshOfferMessage) networkEnvelope;
+                    signatureVerifier.verifyAndCommit(() -> verifyRefreshOfferMessage(refreshOfferMessage),
+                            () -> refreshTTL(refreshOfferMessage, peersNodeAddress, false));
                 } else if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage) {
                     addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload(),
                             peersNodeAddress, false, true, false, true);
@@ -349,7 +376,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
         boolean sequenceNrValid = isSequenceNrValid(protectedStorageEntry.getSequenceNumber(), hashOfPayload);
         boolean result = checkPublicKeys(protectedStorageEntry, true)
-                && checkSignature(protectedStorageEntry)
+                && checkSignature(protectedStorageEntry, hashOfPayload)
                 && sequenceNrValid;
 
         boolean containsKey = map.containsKey(hashOfPayload);
@@ -363,6 +390,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             if (!containsKey || hasSequenceNrIncreased) {
                 // At startup we don't have the item so we store it. At updates of the seq nr we store as well.
                 map.put(hashOfPayload, protectedStorageEntry);
+                mailboxEntryIndex.put(hashOfPayload, protectedStorageEntry);
                 hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntry));
                 // printData("after add");
             } else {
@@ -372,7 +400,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             if (hasSequenceNrIncreased) {
                 sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
                 // We set the delay higher as we might receive a batch of items
-                sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 2000);
+                sequenceNumberMapStorage.queueUpForSave(sequenceNumberMap, 2000);
 
                 if (allowBroadcast)
                     broadcastProtectedStorageEntry(protectedStorageEntry, sender, listener, isDataOwner);
@@ -415,7 +443,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 return true;
             } else {
                 PublicKey ownerPubKey = storedData.getProtectedStoragePayload().getOwnerPubKey();
-                final boolean checkSignature = checkSignature(ownerPubKey, hashOfDataAndSeqNr, signature);
+                final boolean checkSignature = checkSignature(ownerPubKey, hashOfDataAndSeqNr, sequenceNumber, signature);
                 final boolean hasSequenceNrIncreased = hasSequenceNrIncreased(sequenceNumber, hashOfPayload);
                 final boolean checkIfStoredDataPubKeyMatchesNewDataPubKey = checkIfStoredDataPubKeyMatchesNewDataPubKey(ownerPubKey,
                         hashOfPayload);
@@ -431,7 +459,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     storedData.updateSignature(signature);
                     printData("after refreshTTL");
                     sequenceNumberMap.put(hashOfPayload, new MapValue(sequenceNumber, System.currentTimeMillis()));
-                    sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 1000);
+                    sequenceNumberMapStorage.queueUpForSave(sequenceNumberMap, 1000);
 
                     broadcast(refreshTTLMessage, sender, null, isDataOwner);
                 }
@@ -453,7 +481,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         boolean result = containsKey
                 && checkPublicKeys(protectedStorageEntry, false)
                 && isSequenceNrValid(protectedStorageEntry.getSequenceNumber(), hashOfPayload)
-                && checkSignature(protectedStorageEntry)
+                && checkSignature(protectedStorageEntry, hashOfPayload)
                 && checkIfStoredDataPubKeyMatchesNewDataPubKey(protectedStorageEntry.getOwnerPubKey(), hashOfPayload);
 
         // printData("before remove");
@@ -461,7 +489,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             doRemoveProtectedExpirableData(protectedStorageEntry, hashOfPayload);
             printData("after remove");
             sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
-            sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 300);
+            sequenceNumberMapStorage.queueUpForSave(sequenceNumberMap, 300);
 
             broadcast(new RemoveDataMessage(protectedStorageEntry), sender, null, isDataOwner);
 
@@ -491,7 +519,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 && checkPublicKeys(protectedMailboxStorageEntry, false)
                 && isSequenceNrValid(protectedMailboxStorageEntry.getSequenceNumber(), hashOfData)
                 && protectedMailboxStorageEntry.getMailboxStoragePayload().getOwnerPubKey().equals(protectedMailboxStorageEntry.getReceiversPubKey()) // at remove both keys are the same (only receiver is able to remove data)
-                && checkSignature(protectedMailboxStorageEntry)
+                && checkSignature(protectedMailboxStorageEntry, hashOfData)
                 && checkIfStoredMailboxDataMatchesNewMailboxData(protectedMailboxStorageEntry.getReceiversPubKey(), hashOfData);
 
         // printData("before removeMailboxData");
@@ -499,7 +527,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             doRemoveProtectedExpirableData(protectedMailboxStorageEntry, hashOfData);
             printData("after removeMailboxData");
             sequenceNumberMap.put(hashOfData, new MapValue(protectedMailboxStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
-            sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 300);
+            sequenceNumberMapStorage.queueUpForSave(sequenceNumberMap, 300);
 
             broadcast(new RemoveMailboxDataMessage(protectedMailboxStorageEntry), sender, null, isDataOwner);
         } else {
@@ -583,6 +611,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     private void doRemoveProtectedExpirableData(ProtectedStorageEntry protectedStorageEntry, ByteArray hashOfPayload) {
         map.remove(hashOfPayload);
+        mailboxEntryIndex.remove(hashOfPayload, protectedStorageEntry);
         log.trace("Data removed from our map. We broadcast the message to our peers.");
         hashMapChangedListeners.stream().forEach(e -> e.onRemoved(protectedStorageEntry));
     }
@@ -650,9 +679,45 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
     }
 
-    private boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStorageEntry.getProtectedStoragePayload(), protectedStorageEntry.getSequenceNumber()));
-        return checkSignature(protectedStorageEntry.getOwnerPubKey(), hashOfDataAndSeqNr, protectedStorageEntry.getSignature());
+    // The hash of the payload and the sequence number identify the signed data, so we don't need to hash the
+    // DataAndSeqNrPair if we have verified the signature already.
+    private boolean checkSignature(ProtectedStorageEntry protectedStorageEntry, ByteArray hashOfPayload) {
+        return signatureVerifier.isSignatureValid(SignatureVerifier.SignedData.ENTRY,
+                protectedStorageEntry.getOwnerPubKey(),
+                hashOfPayload,
+                protectedStorageEntry.getSequenceNumber(),
+                protectedStorageEntry.getSignature(),
+                () -> {
+                    byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStorageEntry.getProtectedStoragePayload(), protectedStorageEntry.getSequenceNumber()));
+                    return checkSignature(protectedStorageEntry.getOwnerPubKey(), hashOfDataAndSeqNr, protectedStorageEntry.getSignature());
+                });
+    }
+
+    private boolean checkSignature(PublicKey ownerPubKey, byte[] hashOfDataAndSeqNr, int sequenceNumber, byte[] signature) {
+        return signatureVerifier.isSignatureValid(SignatureVerifier.SignedData.REFRESH,
+                ownerPubKey,
+                new ByteArray(hashOfDataAndSeqNr),
+                sequenceNumber,
+                signature,
+                () -> checkSignature(ownerPubKey, hashOfDataAndSeqNr, signature));
+    }
+
+    // Stateless checks of a received entry, called at the signatureVerifier's worker threads. The result is not used,
+    // the checks get repeated at the commit but the payload hash and the signature are cached then.
+    private void verifyProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry, boolean isAddOperation) {
+        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+        if (checkPublicKeys(protectedStorageEntry, isAddOperation))
+            checkSignature(protectedStorageEntry, hashOfPayload);
+    }
+
+    private void verifyRefreshOfferMessage(RefreshOfferMessage refreshOfferMessage) {
+        ProtectedStorageEntry storedData = map.get(new ByteArray(refreshOfferMessage.getHashOfPayload()));
+        if (storedData != null) {
+            checkSignature(storedData.getProtectedStoragePayload().getOwnerPubKey(),
+                    refreshOfferMessage.getHashOfDataAndSeqNr(),
+                    refreshOfferMessage.getSequenceNumber(),
+                    refreshOfferMessage.getSignature());
+        }
     }
 
     // Check that the pubkey of the storage entry matches the allowed pubkey for the addition or removal operation
@@ -730,18 +795,15 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     public static byte[] getCompactHash(ProtectedStoragePayload protectedStoragePayload) {
+        if (protectedStoragePayload instanceof HashCachingPayload)
+            return ((HashCachingPayload) protectedStoragePayload).getPayloadHashCache().getCompactHash();
+
         return Hash.getSha256Ripemd160hash(protectedStoragePayload.toProtoMessage().toByteArray());
     }
 
-    // Get a new map with entries older than PURGE_AGE_DAYS purged from the given map.
-    private Map<ByteArray, MapValue> getPurgedSequenceNumberMap(Map<ByteArray, MapValue> persisted) {
-        Map<ByteArray, MapValue> purged = new HashMap<>();
-        long maxAgeTs = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(PURGE_AGE_DAYS);
-        persisted.entrySet().stream().forEach(entry -> {
-            if (entry.getValue().timeStamp > maxAgeTs)
-                purged.put(entry.getKey(), entry.getValue());
-        });
-        return purged;
+    // Removes entries older than PURGE_AGE_DAYS.
+    private void purgeSequenceNumberMap() {
+        sequenceNumberMap.removeEntriesOlderThan(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(PURGE_AGE_DAYS));
     }
 
     private void printData(String info) {
@@ -784,6 +846,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * @return Hash of data
      */
     public static byte[] get32ByteHash(NetworkPayload data) {
+        if (data instanceof HashCachingPayload)
+            return ((HashCachingPayload) data).getPayloadHashCache().get32ByteHash();
+
         return Hash.getSha256Hash(data.toProtoMessage().toByteArray());
     }
 
@@ -0,0 +1,198 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.common.UserThread;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.security.PublicKey;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the signature checks of incoming storage messages off the user thread.
+ * The stateless part of a message (hashing, public key and signature checks) gets verified at a bounded worker pool,
+ * the stateful part (sequence numbers and the map) is applied afterwards at the user thread in the order the messages
+ * have arrived. The commit runs the usual checks again, but the signature checks are answered from the cache of
+ * verified signatures, which also lets us skip the verification of the same message relayed by several peers.
+ * If the workers cannot keep up, the verification runs at the calling thread.
+ */
+@Slf4j
+class SignatureVerifier {
+    private static final int MAX_VERIFIED_SIGNATURES = 10_000;
+    private static final int MAX_QUEUED_VERIFICATIONS = 1000;
+
+    // What the signature covers. Entries and refreshes are cached with the same key shape, but an entry's signature
+    // covers the hash of its DataAndSeqNrPair and a refresh's signature the hashOfDataAndSeqNr the peer has sent, so a
+    // verified signature of one kind must never validate the other.
+    enum SignedData {
+        ENTRY,
+        REFRESH
+    }
+
+    private final Executor verificationExecutor;
+    private final Executor commitExecutor;
+    private final Cache<VerifiedSignature, Boolean> verifiedSignatures = CacheBuilder.newBuilder()
+            .maximumSize(MAX_VERIFIED_SIGNATURES)
+            .build();
+    // Only accessed at the commitExecutor
+    private final Queue<PendingCommit> pendingCommits = new ArrayDeque<>();
+
+    SignatureVerifier() {
+        this(createVerificationExecutor(), UserThread::execute);
+    }
+
+    SignatureVerifier(Executor verificationExecutor, Executor commitExecutor) {
+        this.verificationExecutor = verificationExecutor;
+        this.commitExecutor = commitExecutor;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Runs the verification at the worker pool and then the commit at the commit executor. Commits are executed in
+     * the order of the calls, so must be called from the commit executor.
+     */
+    void verifyAndCommit(Runnable verification, Runnable commit) {
+        PendingCommit pendingCommit = new PendingCommit(commit);
+        pendingCommits.add(pendingCommit);
+        verificationExecutor.execute(() -> {
+            try {
+                verification.run();
+            } catch (Throwable t) {
+                // The commit will repeat the checks and handle the error
+                log.error("Verification failed", t);
+            } finally {
+                commitExecutor.execute(() -> {
+                    pendingCommit.verified = true;
+                    commitVerified();
+                });
+            }
+        });
+    }
+
+    /**
+     * @param signedData        Kind of the signed data
+     * @param ownerPubKey       Key of the signer
+     * @param hashOfData        Hash which identifies the signed data together with the sequence number
+     * @param sequenceNumber    Sequence number of the signed data
+     * @param signature         Signature to check
+     * @param signatureCheck    Verification of the signature, only called if the signature is not verified already
+     * @return True if the signature is valid
+     */
+    boolean isSignatureValid(SignedData signedData,
+                             PublicKey ownerPubKey,
+                             P2PDataStorage.ByteArray hashOfData,
+                             int sequenceNumber,
+                             byte[] signature,
+                             BooleanSupplier signatureCheck) {
+        VerifiedSignature verifiedSignature = new VerifiedSignature(signedData, ownerPubKey, hashOfData, sequenceNumber,
+                new P2PDataStorage.ByteArray(signature));
+        if (verifiedSignatures.getIfPresent(verifiedSignature) != null)
+            return true;
+
+        // Invalid signatures are not cached so a peer cannot fill the cache with garbage
+        boolean result = signatureCheck.getAsBoolean();
+        if (result)
+            verifiedSignatures.put(verifiedSignature, Boolean.TRUE);
+        return result;
+    }
+
+    void shutDown() {
+        if (verificationExecutor instanceof ThreadPoolExecutor)
+            ((ThreadPoolExecutor) verificationExecutor).shutdownNow();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void commitVerified() {
+        while (!pendingCommits.isEmpty() && pendingCommits.peek().verified) {
+            try {
+                pendingCommits.poll().commit.run();
+            } catch (Throwable t) {
+                log.error("Commit failed", t);
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor createVerificationExecutor() {
+        int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_VERIFICATIONS),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("SignatureVerifier-%d")
+                        .setDaemon(true)
+                        .build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class PendingCommit {
+        private final Runnable commit;
+        private boolean verified;
+
+        private PendingCommit(Runnable commit) {
+            this.commit = commit;
+        }
+    }
+
+    @EqualsAndHashCode
+    private static final class VerifiedSignature {
+        private final SignedData signedData;
+        private final PublicKey ownerPubKey;
+        private final P2PDataStorage.ByteArray hashOfData;
+        private final int sequenceNumber;
+        private final P2PDataStorage.ByteArray signature;
+
+        private VerifiedSignature(SignedData signedData,
+                                  PublicKey ownerPubKey,
+                                  P2PDataStorage.ByteArray hashOfData,
+                                  int sequenceNumber,
+                                  P2PDataStorage.ByteArray signature) {
+            this.signedData = signedData;
+            this.ownerPubKey = ownerPubKey;
+            this.hashOfData = hashOfData;
+            this.sequenceNumber = sequenceNumber;
+            this.signature = signature;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.payload;
+
+import bisq.common.proto.network.NetworkPayload;
+
+/**
+ * Payload which does not change after it got added to the P2P network storage, so the hashes of its serialized form
+ * can be kept at the instance instead of being computed at each storage operation.
+ * Used for OfferPayload and MailboxStoragePayload.
+ */
+public interface HashCachingPayload extends NetworkPayload {
+    PayloadHashCache getPayloadHashCache();
+}
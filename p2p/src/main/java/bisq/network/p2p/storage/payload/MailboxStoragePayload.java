@@ -50,7 +50,7 @@ import javax.annotation.Nullable;
 @Getter
 @EqualsAndHashCode
 @Slf4j
-public final class MailboxStoragePayload implements ProtectedStoragePayload, ExpirablePayload {
+public final class MailboxStoragePayload implements ProtectedStoragePayload, ExpirablePayload, HashCachingPayload {
     private final PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage;
     private PublicKey senderPubKeyForAddOperation;
     private final byte[] senderPubKeyForAddOperationBytes;
@@ -62,6 +62,9 @@ public final class MailboxStoragePayload implements ProtectedStoragePayload, Exp
     @Nullable
     private Map<String, String> extraDataMap;
 
+    // Transient fields are not part of equals and hashCode
+    private final transient PayloadHashCache payloadHashCache = new PayloadHashCache(this);
+
     public MailboxStoragePayload(PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage,
                                  PublicKey senderPubKeyForAddOperation,
                                  PublicKey ownerPubKey) {
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.payload;
+
+import bisq.common.crypto.Hash;
+import bisq.common.proto.network.NetworkPayload;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Holds the hashes of a HashCachingPayload. The payload gets serialized once at the first request and both hashes
+ * are derived from the same bytes. The bytes themselves are not kept to not double the
+ * memory used by the data in the storage maps.
+ * If a field of the payload gets changed after the hashes have been requested, reset() has to be called.
+ */
+@ThreadSafe
+public final class PayloadHashCache {
+    private final NetworkPayload payload;
+    @Nullable
+    private volatile Hashes hashes;
+
+    public PayloadHashCache(NetworkPayload payload) {
+        this.payload = payload;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return Sha256 hash of the serialized payload, same as P2PDataStorage.get32ByteHash without caching
+     */
+    public byte[] get32ByteHash() {
+        // We return a copy as callers use the array as map key
+        return getHashes().hash.clone();
+    }
+
+    /**
+     * @return Sha256Ripemd160 hash of the serialized payload, same as P2PDataStorage.getCompactHash without caching
+     */
+    public byte[] getCompactHash() {
+        return getHashes().compactHash.clone();
+    }
+
+    public synchronized void reset() {
+        hashes = null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Hashes getHashes() {
+        Hashes result = hashes;
+        if (result == null) {
+            synchronized (this) {
+                result = hashes;
+                if (result == null) {
+                    byte[] bytes = payload.toProtoMessage().toByteArray();
+                    result = new Hashes(Hash.getSha256Hash(bytes), Hash.getSha256Ripemd160hash(bytes));
+                    hashes = result;
+                }
+            }
+        }
+        return result;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class Hashes {
+        private final byte[] hash;
+        private final byte[] compactHash;
+
+        private Hashes(byte[] hash, byte[] compactHash) {
+            this.hash = hash;
+            this.compactHash = compactHash;
+        }
+    }
+}
@@ -25,9 +25,10 @@ import bisq.common.proto.persistable.PersistableEnvelope;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,12 +37,18 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class AppendOnlyDataStoreService {
-    private List<MapStoreService<? extends PersistableEnvelope, PersistableNetworkPayload>> services = new ArrayList<>();
+    private List<AppendOnlyMapStoreService<? extends PersistableEnvelope>> services = new ArrayList<>();
 
     // We do not add PersistableNetworkPayloadListService to the services list as it it deprecated and used only to
     // transfer old persisted data to the new data structure.
     private PersistableNetworkPayloadListService persistableNetworkPayloadListService;
 
+    // Merged view of the maps of all services. It is filled after reading the stores and updated at each put, so
+    // lookups do not require to merge all service maps again. We use a ConcurrentHashMap as the stores are read
+    // from a non-user thread at startup.
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> unmodifiableMap = Collections.unmodifiableMap(map);
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -52,12 +59,15 @@ public class AppendOnlyDataStoreService {
         this.persistableNetworkPayloadListService = persistableNetworkPayloadListService;
     }
 
-    public void addService(MapStoreService<? extends PersistableEnvelope, PersistableNetworkPayload> service) {
+    public void addService(AppendOnlyMapStoreService<? extends PersistableEnvelope> service) {
         services.add(service);
     }
 
     public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
+        services.forEach(service -> {
+            service.readFromResources(postFix);
+            map.putAll(service.getMap());
+        });
 
         // transferDeprecatedDataStructure();
     }
@@ -73,10 +83,11 @@ public class AppendOnlyDataStoreService {
         persistableNetworkPayloadListService.removeFile();
     }
 
+    /**
+     * @return Unmodifiable live view of the data of all services. Changes are applied only via {@link #put}.
+     */
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
-        return services.stream()
-                .flatMap(service -> service.getMap().entrySet().stream())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        return unmodifiableMap;
     }
 
     public void put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
@@ -84,6 +95,7 @@ public class AppendOnlyDataStoreService {
                 .filter(service -> service.canHandle(payload))
                 .forEach(service -> {
                     service.putIfAbsent(hashAsByteArray, payload);
+                    map.putIfAbsent(hashAsByteArray, payload);
                 });
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.storage.Storage;
+
+import java.nio.file.Paths;
+
+import java.io.File;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * MapStoreService for the stores of the AppendOnlyDataStoreService.
+ * <p>
+ * The store file (copied from the resource files or written by older versions) is only read as base and never
+ * written again. Added payloads are appended to a SegmentedPayloadLog in a directory next to it, so the cost of
+ * adding a payload does not grow with the size of the store.
+ */
+@Slf4j
+public abstract class AppendOnlyMapStoreService<T extends PersistableEnvelope> extends MapStoreService<T, PersistableNetworkPayload> {
+    private static final String LOG_DIR_POSTFIX = "_log";
+
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private SegmentedPayloadLog payloadLog;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public AppendOnlyMapStoreService(File storageDir,
+                                     Storage<T> storage,
+                                     PersistenceProtoResolver persistenceProtoResolver) {
+        super(storageDir, storage);
+        this.persistenceProtoResolver = persistenceProtoResolver;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    PersistableNetworkPayload putIfAbsent(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        PersistableNetworkPayload previous = getMap().putIfAbsent(hash, payload);
+        if (previous == null)
+            payloadLog.append(payload);
+        return previous;
+    }
+
+    @Override
+    PersistableNetworkPayload remove(P2PDataStorage.ByteArray hash) {
+        log.warn("remove must not be called on an append-only store. hash={}", hash);
+        return null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Protected
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected void readStore() {
+        super.readStore();
+
+        if (payloadLog == null) {
+            File dir = Paths.get(absolutePathOfStorageDir, getFileName() + LOG_DIR_POSTFIX).toFile();
+            payloadLog = new SegmentedPayloadLog(dir, persistenceProtoResolver);
+        }
+        payloadLog.read(payload -> getMap().putIfAbsent(new P2PDataStorage.ByteArray(payload.getHash()), payload));
+    }
+}
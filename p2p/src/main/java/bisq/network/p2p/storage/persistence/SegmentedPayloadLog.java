@@ -0,0 +1,406 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.proto.ProtoResolver;
+import bisq.common.storage.FileUtil;
+import bisq.common.storage.PersistenceScheduler;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Append-only log of PersistableNetworkPayloads split into segment files, so that adding a payload costs a small
+ * append instead of rewriting the whole store.
+ * <p>
+ * A segment starts with a magic number followed by length-delimited PB.PersistableNetworkPayload records. Once a
+ * segment reaches MAX_SEGMENT_SIZE it gets sealed with a trailer containing a zero length, the number of records and
+ * a CRC32 checksum of the records. A sealed segment with an invalid checksum is moved aside and ignored. An unsealed
+ * segment is only left over if the app was not shut down properly; its records are read up to the first incomplete
+ * one and it gets sealed at the next startup. If there are more than MAX_NUM_SEALED_SEGMENTS sealed segments, they get
+ * compacted into a single one without duplicates.
+ * <p>
+ * Writes are done at a single background thread. Reads are only done at startup.
+ */
+@Slf4j
+public class SegmentedPayloadLog {
+    private static final int MAGIC = 0x42534c47;
+    private static final String SEGMENT_PREFIX = "segment_";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String CORRUPTED_SUFFIX = ".corrupted";
+    private static final int MAX_SEGMENT_SIZE = 1024 * 1024;
+    private static final int MAX_NUM_SEALED_SEGMENTS = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File dir;
+    private final ProtoResolver protoResolver;
+    private final ListeningExecutorService executor;
+    // Used to flush only once a burst of appends has been written
+    private final AtomicInteger numPendingAppends = new AtomicInteger();
+
+    // Accessed only from the executor after read was called
+    private final List<File> sealedSegments = new ArrayList<>();
+    private int nextSegmentIndex;
+    @Nullable
+    private SegmentWriter activeSegment;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public SegmentedPayloadLog(File dir, ProtoResolver protoResolver) {
+        this.dir = dir;
+        this.protoResolver = protoResolver;
+
+        executor = Utilities.getSingleThreadExecutor("SegmentedPayloadLog-" + dir.getName());
+        PersistenceScheduler.getInstance().addShutDownHandler(this::shutDown);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reads all segments and passes the payloads to the consumer on the calling thread. Must be called once before
+     * any append.
+     */
+    public void read(Consumer<PersistableNetworkPayload> consumer) {
+        long ts = System.currentTimeMillis();
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed.\ndir=" + dir.getAbsolutePath());
+
+        File[] files = Objects.requireNonNull(dir.listFiles());
+        // Left over from an interrupted compaction
+        Arrays.stream(files)
+                .filter(file -> file.getName().endsWith(TEMP_SUFFIX))
+                .forEach(this::deleteFile);
+
+        List<File> segments = Arrays.stream(files)
+                .filter(file -> getSegmentIndex(file) >= 0)
+                .sorted(Comparator.comparingInt(SegmentedPayloadLog::getSegmentIndex))
+                .collect(Collectors.toList());
+        sealedSegments.clear();
+        nextSegmentIndex = segments.isEmpty() ? 0 : getSegmentIndex(segments.get(segments.size() - 1)) + 1;
+
+        List<File> unsealedSegments = new ArrayList<>();
+        List<byte[]> unsealedRecords = new ArrayList<>();
+        int numRecords = 0;
+        for (File segment : segments) {
+            SegmentContent content = readSegment(segment);
+            if (content == null)
+                continue;
+
+            if (content.sealed) {
+                sealedSegments.add(segment);
+            } else {
+                unsealedSegments.add(segment);
+                unsealedRecords.addAll(content.records);
+            }
+            content.records.forEach(record -> toPayload(record).ifPresent(consumer));
+            numRecords += content.records.size();
+        }
+
+        if (!unsealedSegments.isEmpty()) {
+            log.info("Sealing {} segment(s) which have not been closed properly", unsealedSegments.size());
+            try {
+                File segment = getNextSegmentFile();
+                writeSealedSegment(segment, unsealedRecords);
+                sealedSegments.add(segment);
+                unsealedSegments.forEach(this::deleteFile);
+            } catch (IOException e) {
+                log.error("Could not seal segments at " + dir, e);
+            }
+        }
+
+        log.info("Reading {} records from {} segments of {} took {} ms",
+                numRecords, segments.size(), dir.getName(), System.currentTimeMillis() - ts);
+
+        executor.execute(this::maybeCompact);
+    }
+
+    /**
+     * Appends the payload at the background thread. The data is handed to the OS after each burst of appends and
+     * synced to disk when a segment gets sealed and at shutdown. A payload lost at a crash will be received again from
+     * the network.
+     */
+    public void append(PersistableNetworkPayload payload) {
+        byte[] record = payload.toProtoMessage().toByteArray();
+        numPendingAppends.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                if (activeSegment == null)
+                    activeSegment = new SegmentWriter(getNextSegmentFile());
+
+                activeSegment.write(record);
+                if (numPendingAppends.decrementAndGet() == 0)
+                    activeSegment.flush();
+
+                if (activeSegment.getSize() >= MAX_SEGMENT_SIZE) {
+                    sealActiveSegment();
+                    maybeCompact();
+                }
+            } catch (Throwable t) {
+                log.error("Could not append payload to " + dir, t);
+            }
+        });
+    }
+
+    public void shutDown() {
+        if (executor.isShutdown())
+            return;
+
+        executor.execute(() -> {
+            try {
+                sealActiveSegment();
+            } catch (Throwable t) {
+                log.error("Could not seal active segment at " + dir, t);
+            }
+        });
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void sealActiveSegment() throws IOException {
+        if (activeSegment != null) {
+            activeSegment.seal();
+            sealedSegments.add(activeSegment.file);
+            activeSegment = null;
+        }
+    }
+
+    private void maybeCompact() {
+        if (sealedSegments.size() <= MAX_NUM_SEALED_SEGMENTS)
+            return;
+
+        long ts = System.currentTimeMillis();
+        List<byte[]> records = new ArrayList<>();
+        Set<P2PDataStorage.ByteArray> uniqueRecords = new HashSet<>();
+        for (File segment : sealedSegments) {
+            SegmentContent content = readSegment(segment);
+            if (content != null) {
+                content.records.stream()
+                        .filter(record -> uniqueRecords.add(new P2PDataStorage.ByteArray(record)))
+                        .forEach(records::add);
+            }
+        }
+
+        try {
+            File compactedSegment = getNextSegmentFile();
+            writeSealedSegment(compactedSegment, records);
+            sealedSegments.forEach(this::deleteFile);
+            sealedSegments.clear();
+            sealedSegments.add(compactedSegment);
+            log.info("Compacting segments of {} to {} records took {} ms",
+                    dir.getName(), records.size(), System.currentTimeMillis() - ts);
+        } catch (IOException e) {
+            log.error("Could not compact segments at " + dir, e);
+        }
+    }
+
+    // We write to a temp file first so that a crash never leaves a partial segment which would be taken as unsealed.
+    private void writeSealedSegment(File segment, List<byte[]> records) throws IOException {
+        File tempFile = new File(dir, segment.getName() + TEMP_SUFFIX);
+        SegmentWriter writer = new SegmentWriter(tempFile);
+        for (byte[] record : records) {
+            writer.write(record);
+        }
+        writer.seal();
+        FileUtil.renameFile(tempFile, segment);
+    }
+
+    // Returns null if the segment is corrupted
+    @Nullable
+    private SegmentContent readSegment(File segment) {
+        List<byte[]> records = new ArrayList<>();
+        CRC32 checksum = new CRC32();
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(segment), BUFFER_SIZE)) {
+            CodedInputStream codedInputStream = CodedInputStream.newInstance(inputStream);
+            codedInputStream.setSizeLimit(Integer.MAX_VALUE);
+            if (codedInputStream.isAtEnd() || codedInputStream.readFixed32() != MAGIC) {
+                moveCorruptedSegment(segment, "invalid header");
+                return null;
+            }
+
+            while (!codedInputStream.isAtEnd()) {
+                int length = codedInputStream.readRawVarint32();
+                if (length == 0) {
+                    int numRecords = codedInputStream.readFixed32();
+                    long expectedChecksum = codedInputStream.readFixed64();
+                    if (numRecords != records.size() || expectedChecksum != checksum.getValue() ||
+                            !codedInputStream.isAtEnd()) {
+                        moveCorruptedSegment(segment, "invalid checksum");
+                        return null;
+                    }
+                    return new SegmentContent(records, true);
+                }
+
+                byte[] record = codedInputStream.readRawBytes(length);
+                checksum.update(record);
+                records.add(record);
+            }
+        } catch (IOException e) {
+            // Expected if the app got terminated while writing. We keep all records before the incomplete one.
+            log.warn("Segment {} ends with an incomplete record. {}", segment, e.toString());
+        }
+        return new SegmentContent(records, false);
+    }
+
+    private Optional<PersistableNetworkPayload> toPayload(byte[] record) {
+        try {
+            PB.PersistableNetworkPayload proto = PB.PersistableNetworkPayload.parseFrom(record);
+            return Optional.of(PersistableNetworkPayload.fromProto(proto, protoResolver));
+        } catch (Throwable t) {
+            log.warn("Could not parse record of {}. {}", dir.getName(), t.toString());
+            return Optional.empty();
+        }
+    }
+
+    private void moveCorruptedSegment(File segment, String reason) {
+        log.error("Segment {} is corrupted ({}). We move it aside and will receive the data from the network again.",
+                segment, reason);
+        try {
+            FileUtil.renameFile(segment, new File(dir, segment.getName() + CORRUPTED_SUFFIX));
+        } catch (IOException e) {
+            log.error("Could not move corrupted segment " + segment, e);
+        }
+    }
+
+    private File getNextSegmentFile() {
+        return new File(dir, String.format("%s%08d%s", SEGMENT_PREFIX, nextSegmentIndex++, SEGMENT_SUFFIX));
+    }
+
+    private void deleteFile(File file) {
+        if (!file.delete())
+            log.warn("Could not delete file: " + file);
+    }
+
+    // Returns -1 if the file is not a segment
+    private static int getSegmentIndex(File file) {
+        String name = file.getName();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX))
+            return -1;
+
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static classes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class SegmentContent {
+        private final List<byte[]> records;
+        private final boolean sealed;
+
+        SegmentContent(List<byte[]> records, boolean sealed) {
+            this.records = records;
+            this.sealed = sealed;
+        }
+    }
+
+    private static class SegmentWriter {
+        private final File file;
+        private final FileOutputStream fileOutputStream;
+        private final CodedOutputStream codedOutputStream;
+        private final CRC32 checksum = new CRC32();
+        private int numRecords;
+
+        SegmentWriter(File file) throws IOException {
+            this.file = file;
+            fileOutputStream = new FileOutputStream(file);
+            codedOutputStream = CodedOutputStream.newInstance(fileOutputStream, BUFFER_SIZE);
+            codedOutputStream.writeFixed32NoTag(MAGIC);
+        }
+
+        void write(byte[] record) throws IOException {
+            codedOutputStream.writeUInt32NoTag(record.length);
+            codedOutputStream.writeRawBytes(record);
+            checksum.update(record);
+            numRecords++;
+        }
+
+        int getSize() {
+            return codedOutputStream.getTotalBytesWritten();
+        }
+
+        void flush() throws IOException {
+            codedOutputStream.flush();
+        }
+
+        void seal() throws IOException {
+            try {
+                codedOutputStream.writeUInt32NoTag(0);
+                codedOutputStream.writeFixed32NoTag(numRecords);
+                codedOutputStream.writeFixed64NoTag(checksum.getValue());
+                codedOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            } finally {
+                fileOutputStream.close();
+            }
+        }
+    }
+}
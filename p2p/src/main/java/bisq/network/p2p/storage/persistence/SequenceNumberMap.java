@@ -29,25 +29,23 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
-import lombok.Setter;
 
 /**
  * This class was not generalized to HashMapPersistable (like we did with #ListPersistable) because
  * in protobuffer the map construct can't be anything, so the straightforward mapping was not possible.
  * Hence this Persistable class.
+ * <p>
+ * The map is a ConcurrentHashMap with immutable values, so it can be serialized at the persistence thread while it
+ * gets changed. We do not copy the map at each change but persist the map itself, the entries get read only once the
+ * write actually runs. As any change queues up another save the persisted state will contain it.
  */
 public class SequenceNumberMap implements PersistableEnvelope {
     @Getter
-    @Setter
-    private Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map = new ConcurrentHashMap<>();
+    private final Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map = new ConcurrentHashMap<>();
 
     public SequenceNumberMap() {
     }
 
-    public static SequenceNumberMap clone(SequenceNumberMap map) {
-        return new SequenceNumberMap(map.getMap());
-    }
-
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -98,4 +96,13 @@ public class SequenceNumberMap implements PersistableEnvelope {
     public void put(P2PDataStorage.ByteArray key, P2PDataStorage.MapValue value) {
         map.put(key, value);
     }
+
+    public void putAll(SequenceNumberMap sequenceNumberMap) {
+        map.putAll(sequenceNumberMap.getMap());
+    }
+
+    // Removes the entries with a time stamp older than maxAgeTs in place.
+    public void removeEntriesOlderThan(long maxAgeTs) {
+        map.values().removeIf(mapValue -> mapValue.timeStamp <= maxAgeTs);
+    }
 }
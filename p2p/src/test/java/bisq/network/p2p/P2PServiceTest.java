@@ -0,0 +1,146 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p;
+
+import bisq.network.crypto.EncryptionService;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+
+import bisq.common.Payload;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.KeyStorage;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.proto.network.NetworkEnvelope;
+import bisq.common.proto.network.NetworkPayload;
+import bisq.common.proto.network.NetworkProtoResolver;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.storage.FileUtil;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class P2PServiceTest {
+    private static final NodeAddress SENDER = new NodeAddress("sender.onion:9999");
+    private static final NodeAddress RECEIVER = new NodeAddress("receiver.onion:9999");
+
+    private File dir;
+    private KeyRing keyRing;
+    private KeyRing otherKeyRing;
+    private EncryptionService encryptionService;
+
+    @Before
+    public void setUp() {
+        dir = Files.createTempDir();
+        keyRing = new KeyRing(new KeyStorage(new File(dir, "keys")));
+        otherKeyRing = new KeyRing(new KeyStorage(new File(dir, "otherKeys")));
+        encryptionService = new EncryptionService(keyRing, new PrefixedSealedAndSignedMessageResolver());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testDecryptMailboxEntriesKeepsOrder() throws Exception {
+        List<ProtectedMailboxStorageEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // Every third entry is for another receiver with the same address prefix
+            entries.add(createEntry(i % 3 == 0 ? otherKeyRing : keyRing, RECEIVER.getAddressPrefixHash()));
+        }
+
+        ExecutorService executor = Utilities.getFixedThreadPoolExecutor("test", 4, 1);
+        List<P2PService.DecryptedMailboxEntry> decryptedMailboxEntries = P2PService.decryptMailboxEntries(entries,
+                encryptionService, executor).get();
+        executor.shutdown();
+
+        assertEquals(entries.size(), decryptedMailboxEntries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            P2PService.DecryptedMailboxEntry decryptedMailboxEntry = decryptedMailboxEntries.get(i);
+            assertEquals(entries.get(i), decryptedMailboxEntry.getProtectedMailboxStorageEntry());
+            if (i % 3 == 0) {
+                assertNull(decryptedMailboxEntry.getDecryptedMessageWithPubKey());
+            } else {
+                assertNotNull(decryptedMailboxEntry.getDecryptedMessageWithPubKey());
+                assertEquals(SENDER, ((MailboxMessage) decryptedMailboxEntry.getDecryptedMessageWithPubKey()
+                        .getNetworkEnvelope()).getSenderNodeAddress());
+            }
+        }
+    }
+
+    private ProtectedMailboxStorageEntry createEntry(KeyRing receiversKeyRing, byte[] addressPrefixHash) throws CryptoException {
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(SENDER,
+                new SealedAndSigned(new byte[0], new byte[0], new byte[0], keyRing.getSignatureKeyPair().getPublic()),
+                addressPrefixHash,
+                UUID.randomUUID().toString());
+        SealedAndSigned sealedAndSigned = EncryptionService.encryptHybridWithSignature(message,
+                keyRing.getSignatureKeyPair(), receiversKeyRing.getEncryptionKeyPair().getPublic());
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = new PrefixedSealedAndSignedMessage(SENDER,
+                sealedAndSigned, addressPrefixHash, UUID.randomUUID().toString());
+        MailboxStoragePayload payload = new MailboxStoragePayload(prefixedSealedAndSignedMessage,
+                keyRing.getSignatureKeyPair().getPublic(), receiversKeyRing.getSignatureKeyPair().getPublic());
+        return new ProtectedMailboxStorageEntry(payload, keyRing.getSignatureKeyPair().getPublic(), 1, new byte[0],
+                receiversKeyRing.getSignatureKeyPair().getPublic());
+    }
+
+    private static class PrefixedSealedAndSignedMessageResolver implements NetworkProtoResolver {
+        @Override
+        public NetworkEnvelope fromProto(PB.NetworkEnvelope proto) {
+            return PrefixedSealedAndSignedMessage.fromProto(proto.getPrefixedSealedAndSignedMessage(), proto.getMessageVersion());
+        }
+
+        @Override
+        public NetworkPayload fromProto(PB.StoragePayload proto) {
+            return null;
+        }
+
+        @Override
+        public NetworkPayload fromProto(PB.StorageEntryWrapper proto) {
+            return null;
+        }
+
+        @Override
+        public Payload fromProto(PB.PaymentAccountPayload proto) {
+            return null;
+        }
+
+        @Override
+        public PersistableEnvelope fromProto(PB.PersistableNetworkPayload proto) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.storage.messages.AddDataMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.security.PublicKey;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EncodedFrameTest {
+
+    @Test
+    public void testFrameIsSameAsDelimitedProto() throws Exception {
+        AddDataMessage message = createAddDataMessage(10_000);
+        PB.NetworkEnvelope proto = message.toProtoNetworkEnvelope();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        proto.writeDelimitedTo(expected);
+
+        EncodedFrame encodedFrame = new EncodedFrame(message);
+        ByteArrayOutputStream frameOutputStream = new ByteArrayOutputStream();
+        ProtoOutputStream protoOutputStream = new ProtoOutputStream(frameOutputStream, new Statistic());
+        protoOutputStream.writeFrame(encodedFrame);
+        protoOutputStream.writeFrame(encodedFrame);
+
+        assertEquals(proto.getSerializedSize(), encodedFrame.getSerializedSize());
+        assertEquals(expected.size(), encodedFrame.getFrameSize());
+        byte[] written = frameOutputStream.toByteArray();
+        assertEquals(2 * expected.size(), written.length);
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(written);
+        assertEquals(proto, PB.NetworkEnvelope.parseDelimitedFrom(inputStream));
+        assertEquals(proto, PB.NetworkEnvelope.parseDelimitedFrom(inputStream));
+
+        ByteArrayOutputStream envelopeOutputStream = new ByteArrayOutputStream();
+        new ProtoOutputStream(envelopeOutputStream, new Statistic()).writeEnvelope(message);
+        assertArrayEquals(expected.toByteArray(), envelopeOutputStream.toByteArray());
+    }
+
+    @Test
+    public void testExceedsPermittedMessageSize() {
+        AddDataMessage message = createAddDataMessage(10);
+        assertFalse(Connection.exceedsPermittedMessageSize(message, Connection.PERMITTED_MESSAGE_SIZE));
+        assertTrue(Connection.exceedsPermittedMessageSize(message, Connection.PERMITTED_MESSAGE_SIZE + 1));
+    }
+
+    private static AddDataMessage createAddDataMessage(int contentSize) {
+        PublicKey publicKey = Sig.generateKeyPair().getPublic();
+        byte[] content = new byte[contentSize];
+        new Random().nextBytes(content);
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = new PrefixedSealedAndSignedMessage(
+                new NodeAddress("sender.onion:9999"),
+                new SealedAndSigned(new byte[256], content, new byte[64], publicKey),
+                new byte[2],
+                "uid");
+        MailboxStoragePayload payload = new MailboxStoragePayload(prefixedSealedAndSignedMessage, publicKey, publicKey);
+        return new AddDataMessage(new ProtectedMailboxStorageEntry(payload, publicKey, 1, new byte[64], publicKey));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NetworkMetricsTest {
+
+    @Test
+    public void testSnapshot() {
+        NetworkMetrics networkMetrics = new NetworkMetrics();
+        networkMetrics.onMessageSent("Ping", 10, 0);
+        networkMetrics.onMessageSent("Ping", 10, 3);
+        networkMetrics.onMessageSent("GetDataRequest", 100, 40);
+        networkMetrics.onMessageReceived("Pong", 12);
+        networkMetrics.onRoundTrip("Ping", 150);
+
+        Map<String, String> snapshot = networkMetrics.getSnapshot();
+        assertEquals("120", snapshot.get("sent.bytes"));
+        assertEquals("3", snapshot.get("sent.messages"));
+        assertEquals("2", snapshot.get("sent.Ping.count"));
+        assertEquals("20", snapshot.get("sent.Ping.bytes"));
+        assertEquals("100", snapshot.get("sent.GetDataRequest.bytes"));
+        assertEquals("12", snapshot.get("received.bytes"));
+        assertEquals("1", snapshot.get("received.Pong.count"));
+        assertEquals("3", snapshot.get("sendDuration.count"));
+        assertEquals("1", snapshot.get("sendDuration.le1"));
+        assertEquals("2", snapshot.get("sendDuration.le5"));
+        assertEquals("3", snapshot.get("sendDuration.le50"));
+        assertEquals("3", snapshot.get("sendDuration.leInf"));
+        assertEquals("2", snapshot.get("sent.Ping.sendDuration.count"));
+        assertEquals("1", snapshot.get("sent.GetDataRequest.sendDuration.count"));
+        assertEquals("1", snapshot.get("sent.Ping.roundTripTime.count"));
+        assertEquals("200", snapshot.get("sent.Ping.roundTripTime.p50"));
+        assertEquals(null, snapshot.get("sent.GetDataRequest.roundTripTime.count"));
+        assertEquals("1", snapshot.get("roundTripTime.count"));
+    }
+
+    @Test
+    public void testConnectionsSnapshot() {
+        NetworkMetrics networkMetrics = new NetworkMetrics();
+        Statistic statistic = new Statistic();
+        networkMetrics.addConnection("uid", statistic);
+        statistic.setRoundTripTime(30);
+        statistic.addRoundTripTime(Ping.class, 30);
+        statistic.addRoundTripTime(Ping.class, 700);
+
+        Map<String, String> snapshot = networkMetrics.getConnectionsSnapshot();
+        assertEquals("30", snapshot.get("connection.uid.roundTripTime"));
+        assertEquals("2", snapshot.get("connection.uid.roundTripTime.count"));
+        assertEquals("50", snapshot.get("connection.uid.roundTripTime.p50"));
+        assertEquals("1000", snapshot.get("connection.uid.roundTripTime.p90"));
+        assertEquals("0", snapshot.get("connection.uid.sendDuration.count"));
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50500, histogram.getSum());
+        assertEquals(500, histogram.getPercentile(50));
+        assertEquals(1000, histogram.getPercentile(90));
+        assertEquals(1000, histogram.getPercentile(100));
+
+        histogram.record(100_000);
+        assertEquals(30000, histogram.getPercentile(100));
+    }
+}
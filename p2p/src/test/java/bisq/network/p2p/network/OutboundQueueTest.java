@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.CloseConnectionMessage;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OutboundQueueTest {
+    // After the first message each further message has to wait for a new token
+    private static final long MILLIS_PER_TOKEN = 300;
+
+    private ByteArrayOutputStream outputStream;
+    private Statistic statistic;
+    private OutboundQueue outboundQueue;
+
+    @Before
+    public void setUp() throws Exception {
+        outputStream = new ByteArrayOutputStream();
+        statistic = new Statistic();
+        outboundQueue = new OutboundQueue(new ProtoOutputStream(outputStream, statistic), statistic, t -> {
+        }, 2, 1, MILLIS_PER_TOKEN);
+        // We use up the token, so all messages we add within MILLIS_PER_TOKEN are queued
+        outboundQueue.enqueue(new EncodedFrame(new CloseConnectionMessage("first"))).get(1, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        outboundQueue.stop();
+    }
+
+    @Test
+    public void testPriority() throws Exception {
+        ListenableFuture<Void> gossip = outboundQueue.enqueue(new EncodedFrame(createRefreshOfferMessage(1, 1)));
+        ListenableFuture<Void> keepAlive = outboundQueue.enqueue(new EncodedFrame(new Ping(1, 0)));
+        assertEquals(2, statistic.getOutboundQueueSize());
+
+        // Queue is full, the gossip message gets dropped for the direct message
+        ListenableFuture<Void> direct = outboundQueue.enqueue(new EncodedFrame(new CloseConnectionMessage("direct")));
+        assertFailed(gossip);
+        assertEquals(1, statistic.getDroppedOutboundMessages());
+
+        // Queue is full and there is no gossip to drop
+        assertFailed(outboundQueue.enqueue(new EncodedFrame(createRefreshOfferMessage(2, 1))));
+        assertEquals(2, statistic.getDroppedOutboundMessages());
+
+        direct.get(2, TimeUnit.SECONDS);
+        keepAlive.get(2, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList(PB.NetworkEnvelope.MessageCase.CLOSE_CONNECTION_MESSAGE,
+                PB.NetworkEnvelope.MessageCase.CLOSE_CONNECTION_MESSAGE,
+                PB.NetworkEnvelope.MessageCase.PING),
+                getMessageCases(readWrittenEnvelopes()));
+        assertEquals(0, statistic.getOutboundQueueSize());
+    }
+
+    @Test
+    public void testRefreshOfferMessagesGetCollapsed() throws Exception {
+        ListenableFuture<Void> first = outboundQueue.enqueue(new EncodedFrame(createRefreshOfferMessage(1, 1)));
+        ListenableFuture<Void> newer = outboundQueue.enqueue(new EncodedFrame(createRefreshOfferMessage(1, 3)));
+        ListenableFuture<Void> older = outboundQueue.enqueue(new EncodedFrame(createRefreshOfferMessage(1, 2)));
+        ListenableFuture<Void> otherOffer = outboundQueue.enqueue(new EncodedFrame(createRefreshOfferMessage(2, 1)));
+        assertEquals(2, statistic.getCollapsedOutboundMessages());
+        assertEquals(2, outboundQueue.size());
+
+        first.get(2, TimeUnit.SECONDS);
+        newer.get(2, TimeUnit.SECONDS);
+        older.get(2, TimeUnit.SECONDS);
+        otherOffer.get(2, TimeUnit.SECONDS);
+        List<PB.NetworkEnvelope> envelopes = readWrittenEnvelopes();
+        assertEquals(3, envelopes.size());
+        assertEquals(3, envelopes.get(1).getRefreshOfferMessage().getSequenceNumber());
+        assertEquals(2, envelopes.get(2).getRefreshOfferMessage().getHashOfPayload().byteAt(0));
+    }
+
+    @Test
+    public void testStopFailsQueuedMessages() {
+        ListenableFuture<Void> future = outboundQueue.enqueue(new EncodedFrame(new Ping(1, 0)));
+        outboundQueue.stop();
+        assertFailed(future);
+        assertFailed(outboundQueue.enqueue(new EncodedFrame(new Ping(2, 0))));
+    }
+
+    private static RefreshOfferMessage createRefreshOfferMessage(int offer, int sequenceNumber) {
+        byte[] hashOfPayload = new byte[32];
+        hashOfPayload[0] = (byte) offer;
+        return new RefreshOfferMessage(new byte[32], new byte[46], hashOfPayload, sequenceNumber);
+    }
+
+    private List<PB.NetworkEnvelope> readWrittenEnvelopes() throws Exception {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        List<PB.NetworkEnvelope> envelopes = new ArrayList<>();
+        PB.NetworkEnvelope envelope;
+        while ((envelope = PB.NetworkEnvelope.parseDelimitedFrom(inputStream)) != null) {
+            envelopes.add(envelope);
+        }
+        return envelopes;
+    }
+
+    private static List<PB.NetworkEnvelope.MessageCase> getMessageCases(List<PB.NetworkEnvelope> envelopes) {
+        List<PB.NetworkEnvelope.MessageCase> messageCases = new ArrayList<>();
+        envelopes.forEach(envelope -> messageCases.add(envelope.getMessageCase()));
+        return messageCases;
+    }
+
+    private static void assertFailed(ListenableFuture<Void> future) {
+        assertTrue(future.isDone());
+        try {
+            future.get();
+            fail("Future should have failed");
+        } catch (InterruptedException e) {
+            fail(e.toString());
+        } catch (ExecutionException ignore) {
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import org.apache.commons.lang3.RandomUtils;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class KeySetSketchTest {
+
+    @Test
+    public void testDecodeDifference() {
+        int numCells = KeySetSketch.getNumCellsForDifference(100);
+        KeySetSketch seedNodeSketch = new KeySetSketch(numCells);
+        KeySetSketch requesterSketch = new KeySetSketch(numCells);
+
+        for (int i = 0; i < 1000; i++) {
+            byte[] key = RandomUtils.nextBytes(KeySetSketch.KEY_SIZE);
+            seedNodeSketch.add(key);
+            requesterSketch.add(key);
+        }
+        Set<P2PDataStorage.ByteArray> missingAtRequester = addRandomKeys(seedNodeSketch, 80);
+        Set<P2PDataStorage.ByteArray> missingAtSeedNode = addRandomKeys(requesterSketch, 20);
+
+        KeySetSketch peersSketch = KeySetSketch.fromProto(requesterSketch.toProtoMessage());
+        assertEquals(requesterSketch, peersSketch);
+
+        Optional<KeySetSketch.Difference> difference = seedNodeSketch.subtract(peersSketch).decode();
+        assertTrue(difference.isPresent());
+        assertEquals(missingAtRequester, difference.get().getOnlyInThis());
+        assertEquals(missingAtSeedNode, difference.get().getOnlyInOther());
+    }
+
+    @Test
+    public void testDecodeFailsIfDifferenceTooLarge() {
+        int numCells = KeySetSketch.getNumCellsForDifference(100);
+        KeySetSketch seedNodeSketch = new KeySetSketch(numCells);
+        addRandomKeys(seedNodeSketch, numCells * 2);
+
+        assertFalse(seedNodeSketch.subtract(new KeySetSketch(numCells)).decode().isPresent());
+    }
+
+    // Simulates the initial data sync with growing store sizes where the requester misses the latest 1% of the data.
+    // Compares the request size with the list of excluded keys and logs the time the seed node needs for decoding.
+    @Test
+    public void testSimulateSync() {
+        for (int storeSize = 10_000; storeSize <= 200_000; storeSize *= 2) {
+            int numMissing = storeSize / 100;
+            int numCells = KeySetSketch.getNumCellsForDifference(numMissing);
+            KeySetSketch seedNodeSketch = new KeySetSketch(numCells);
+            KeySetSketch requesterSketch = new KeySetSketch(numCells);
+            for (int i = 0; i < storeSize - numMissing; i++) {
+                byte[] key = RandomUtils.nextBytes(KeySetSketch.KEY_SIZE);
+                seedNodeSketch.add(key);
+                requesterSketch.add(key);
+            }
+            Set<P2PDataStorage.ByteArray> missing = addRandomKeys(seedNodeSketch, numMissing);
+
+            int sketchBytes = requesterSketch.toProtoMessage().getSerializedSize();
+            // Each excluded key is encoded with a 1 byte tag and a 1 byte length prefix
+            int excludedKeysBytes = (storeSize - numMissing) * (KeySetSketch.KEY_SIZE + 2);
+
+            long ts = System.nanoTime();
+            Optional<KeySetSketch.Difference> difference = seedNodeSketch.subtract(requesterSketch).decode();
+            long decodeMicros = (System.nanoTime() - ts) / 1000;
+
+            assertTrue(difference.isPresent());
+            assertEquals(missing, difference.get().getOnlyInThis());
+            assertTrue(sketchBytes < excludedKeysBytes);
+            log.info("storeSize={}, missing={}, sketchBytes={}, excludedKeysBytes={}, decode took {} micros",
+                    storeSize, numMissing, sketchBytes, excludedKeysBytes, decodeMicros);
+        }
+    }
+
+    private Set<P2PDataStorage.ByteArray> addRandomKeys(KeySetSketch sketch, int numKeys) {
+        Set<P2PDataStorage.ByteArray> keys = new HashSet<>();
+        for (int i = 0; i < numKeys; i++) {
+            byte[] key = RandomUtils.nextBytes(KeySetSketch.KEY_SIZE);
+            sketch.add(key);
+            keys.add(new P2PDataStorage.ByteArray(key));
+        }
+        return keys;
+    }
+}
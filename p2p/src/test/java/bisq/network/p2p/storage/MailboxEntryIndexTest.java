@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+
+import java.security.KeyPair;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MailboxEntryIndexTest {
+    private final KeyPair keyPair = Sig.generateKeyPair();
+
+    @Test
+    public void testPutAndRemove() {
+        byte[] prefix1 = Hash.getSha256Hash("ab");
+        byte[] prefix2 = Hash.getSha256Hash("cd");
+        ProtectedMailboxStorageEntry entry1 = createEntry(prefix1);
+        ProtectedMailboxStorageEntry entry2 = createEntry(prefix1);
+        ProtectedMailboxStorageEntry entry3 = createEntry(prefix2);
+        P2PDataStorage.ByteArray hash1 = new P2PDataStorage.ByteArray(P2PDataStorage.get32ByteHash(entry1.getProtectedStoragePayload()));
+        P2PDataStorage.ByteArray hash2 = new P2PDataStorage.ByteArray(P2PDataStorage.get32ByteHash(entry2.getProtectedStoragePayload()));
+        P2PDataStorage.ByteArray hash3 = new P2PDataStorage.ByteArray(P2PDataStorage.get32ByteHash(entry3.getProtectedStoragePayload()));
+
+        MailboxEntryIndex index = new MailboxEntryIndex();
+        index.put(hash1, entry1);
+        index.put(hash2, entry2);
+        index.put(hash3, entry3);
+        // Update of the same payload replaces the entry
+        index.put(hash1, entry1);
+        assertEquals(3, index.size());
+        assertEquals(2, index.get(prefix1).size());
+        assertEquals(Collections.singletonList(entry3), index.get(prefix2));
+
+        index.remove(hash1, entry1);
+        assertEquals(Collections.singletonList(entry2), index.get(prefix1));
+        index.remove(hash3, entry3);
+        assertTrue(index.get(prefix2).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    private ProtectedMailboxStorageEntry createEntry(byte[] addressPrefixHash) {
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(new NodeAddress("sender.onion:9999"),
+                new SealedAndSigned(new byte[0], new byte[0], new byte[0], keyPair.getPublic()),
+                addressPrefixHash,
+                UUID.randomUUID().toString());
+        MailboxStoragePayload payload = new MailboxStoragePayload(message, keyPair.getPublic(), keyPair.getPublic());
+        return new ProtectedMailboxStorageEntry(payload, keyPair.getPublic(), 1, new byte[0], keyPair.getPublic());
+    }
+}
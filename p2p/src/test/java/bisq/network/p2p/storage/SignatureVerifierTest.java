@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.Sig;
+
+import java.security.KeyPair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SignatureVerifierTest {
+
+    @Test
+    public void testCommitsInArrivalOrder() throws Exception {
+        ExecutorService verificationExecutor = Executors.newFixedThreadPool(4);
+        ExecutorService commitExecutor = Executors.newSingleThreadExecutor();
+        SignatureVerifier signatureVerifier = new SignatureVerifier(verificationExecutor, commitExecutor);
+
+        int numMessages = 200;
+        Random random = new Random(1);
+        List<Integer> commits = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(numMessages);
+        commitExecutor.submit(() -> {
+            for (int i = 0; i < numMessages; i++) {
+                int index = i;
+                int delay = random.nextInt(3);
+                signatureVerifier.verifyAndCommit(() -> {
+                            // Later messages often get verified earlier
+                            try {
+                                Thread.sleep(delay);
+                            } catch (InterruptedException ignore) {
+                            }
+                            if (index == 10)
+                                throw new RuntimeException("Failing verification must not block the commits");
+                        },
+                        () -> {
+                            commits.add(index);
+                            latch.countDown();
+                        });
+            }
+        }).get();
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < numMessages; i++)
+            assertEquals(i, (int) commits.get(i));
+
+        verificationExecutor.shutdown();
+        commitExecutor.shutdown();
+    }
+
+    @Test
+    public void testSignatureGetsVerifiedOnce() throws Exception {
+        SignatureVerifier signatureVerifier = new SignatureVerifier(Runnable::run, Runnable::run);
+        KeyPair keyPair = Sig.generateKeyPair();
+        byte[] hash = Hash.getSha256Hash("data");
+        byte[] signature = Sig.sign(keyPair.getPrivate(), hash);
+        P2PDataStorage.ByteArray hashOfData = new P2PDataStorage.ByteArray(hash);
+        boolean isValid = Sig.verify(keyPair.getPublic(), hash, signature);
+        AtomicInteger numChecks = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(signatureVerifier.isSignatureValid(SignatureVerifier.SignedData.ENTRY, keyPair.getPublic(), hashOfData, 1, signature.clone(), () -> {
+                numChecks.incrementAndGet();
+                return isValid;
+            }));
+        }
+        assertEquals(1, numChecks.get());
+
+        // Another sequence number is other data, invalid signatures are not cached
+        for (int i = 0; i < 2; i++)
+            assertFalse(signatureVerifier.isSignatureValid(SignatureVerifier.SignedData.ENTRY, keyPair.getPublic(), hashOfData, 2, signature, () -> {
+                numChecks.incrementAndGet();
+                return false;
+            }));
+        assertEquals(3, numChecks.get());
+    }
+
+    @Test
+    public void testEntrySignatureDoesNotValidateRefresh() throws Exception {
+        SignatureVerifier signatureVerifier = new SignatureVerifier(Runnable::run, Runnable::run);
+        KeyPair keyPair = Sig.generateKeyPair();
+        // The entry's signature covers the hash of its DataAndSeqNrPair, not the hash of the payload
+        byte[] hashOfPayload = Hash.getSha256Hash("payload");
+        byte[] signature = Sig.sign(keyPair.getPrivate(), Hash.getSha256Hash("payload and sequence number"));
+        P2PDataStorage.ByteArray hashOfData = new P2PDataStorage.ByteArray(hashOfPayload);
+
+        assertTrue(signatureVerifier.isSignatureValid(SignatureVerifier.SignedData.ENTRY, keyPair.getPublic(),
+                hashOfData, 1, signature, () -> true));
+
+        // A refresh which claims the payload hash as its hashOfDataAndSeqNr and reuses the entry's signature must
+        // get its signature verified over the claimed hash
+        boolean isValidOverPayloadHash = Sig.verify(keyPair.getPublic(), hashOfPayload, signature);
+        AtomicInteger numChecks = new AtomicInteger();
+        assertFalse(signatureVerifier.isSignatureValid(SignatureVerifier.SignedData.REFRESH, keyPair.getPublic(),
+                hashOfData, 1, signature, () -> {
+                    numChecks.incrementAndGet();
+                    return isValidOverPayloadHash;
+                }));
+        assertEquals(1, numChecks.get());
+    }
+}
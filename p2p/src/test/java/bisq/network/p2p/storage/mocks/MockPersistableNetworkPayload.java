@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.mocks;
+
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.proto.persistable.PersistableEnvelope;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+// We use the AccountAgeWitness proto message as the p2p module has no PersistableNetworkPayload of its own
+@EqualsAndHashCode
+public class MockPersistableNetworkPayload implements PersistableNetworkPayload, PersistableEnvelope {
+    @Getter
+    private final byte[] hash;
+
+    public MockPersistableNetworkPayload(byte[] hash) {
+        this.hash = hash;
+    }
+
+    @Override
+    public PB.PersistableNetworkPayload toProtoMessage() {
+        return PB.PersistableNetworkPayload.newBuilder()
+                .setAccountAgeWitness(PB.AccountAgeWitness.newBuilder().setHash(ByteString.copyFrom(hash)))
+                .build();
+    }
+
+    public static MockPersistableNetworkPayload fromProto(PB.PersistableNetworkPayload proto) {
+        return new MockPersistableNetworkPayload(proto.getAccountAgeWitness().getHash().toByteArray());
+    }
+
+    @Override
+    public boolean verifyHashSize() {
+        return hash.length == 20;
+    }
+}
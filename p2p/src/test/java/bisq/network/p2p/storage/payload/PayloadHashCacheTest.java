@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.payload;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+import bisq.common.proto.network.NetworkPayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.security.KeyPair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class PayloadHashCacheTest {
+    private final KeyPair keyPair = Sig.generateKeyPair();
+
+    @Test
+    public void testHashesMatchUncachedHashes() {
+        MailboxStoragePayload payload = createMailboxStoragePayload(new byte[100]);
+        byte[] bytes = payload.toProtoMessage().toByteArray();
+
+        assertArrayEquals(Hash.getSha256Hash(bytes), P2PDataStorage.get32ByteHash(payload));
+        assertArrayEquals(Hash.getSha256Ripemd160hash(bytes), P2PDataStorage.getCompactHash(payload));
+
+        // Callers must not be able to change the cached hash
+        assertNotSame(P2PDataStorage.get32ByteHash(payload), P2PDataStorage.get32ByteHash(payload));
+    }
+
+    @Test
+    public void testPayloadGetsSerializedOnce() throws Exception {
+        CountingPayload payload = new CountingPayload("value");
+        PayloadHashCache payloadHashCache = new PayloadHashCache(payload);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                payloadHashCache.getCompactHash();
+                return payloadHashCache.get32ByteHash();
+            }));
+        }
+        start.countDown();
+        List<byte[]> hashes = new ArrayList<>();
+        for (Future<byte[]> future : futures)
+            hashes.add(future.get());
+        executor.shutdown();
+        assertEquals(1, payload.numSerializations.get());
+
+        byte[] expected = Hash.getSha256Hash(payload.toProtoMessage().toByteArray());
+        hashes.forEach(hash -> assertArrayEquals(expected, hash));
+
+        payload.value = "changed";
+        payloadHashCache.reset();
+        assertArrayEquals(Hash.getSha256Hash(payload.toProtoMessage().toByteArray()), payloadHashCache.get32ByteHash());
+    }
+
+    private MailboxStoragePayload createMailboxStoragePayload(byte[] encryptedMessage) {
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(new NodeAddress("sender.onion:9999"),
+                new SealedAndSigned(new byte[0], encryptedMessage, new byte[0], keyPair.getPublic()),
+                Hash.getSha256Hash("ab"),
+                UUID.randomUUID().toString());
+        return new MailboxStoragePayload(message, keyPair.getPublic(), keyPair.getPublic());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class CountingPayload implements NetworkPayload {
+        private final AtomicInteger numSerializations = new AtomicInteger();
+        private volatile String value;
+
+        private CountingPayload(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public PB.NodeAddress toProtoMessage() {
+            numSerializations.incrementAndGet();
+            return PB.NodeAddress.newBuilder().setHostName(value).build();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.mocks.MockPersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.Payload;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.storage.FileUtil;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.io.Files;
+
+import org.apache.commons.lang3.RandomUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class SegmentedPayloadLogTest {
+    private File dir;
+
+    @Before
+    public void setUp() {
+        dir = Files.createTempDir();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testAppendAndRead() {
+        List<PersistableNetworkPayload> payloads = appendRandomPayloads(1000);
+
+        assertEquals(payloads, read(createLog()));
+    }
+
+    @Test
+    public void testSealAndCompactSegments() {
+        // Each payload needs about 25 bytes, so we get more segments than permitted and trigger a compaction
+        List<PersistableNetworkPayload> payloads = appendRandomPayloads(500_000);
+        SegmentedPayloadLog log = createLog();
+        List<PersistableNetworkPayload> result = read(log);
+        log.shutDown();
+
+        assertEquals(payloads.size(), result.size());
+        assertEquals(new HashSet<>(payloads), new HashSet<>(result));
+        // 11 segments got sealed while appending, the first 9 got compacted into one and the last one got sealed
+        // at shutdown
+        assertEquals(4, getSegments().length);
+    }
+
+    @Test
+    public void testReadIncompleteSegment() throws IOException {
+        List<PersistableNetworkPayload> payloads = appendRandomPayloads(100);
+        // Simulate an unsealed segment whose last record got only partially written
+        File segment = getSegments()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            // trailer (13 bytes) and the last 3 bytes of the last record
+            file.setLength(file.length() - 16);
+        }
+
+        assertEquals(payloads.subList(0, 99), read(createLog()));
+        // The segment got sealed again so the next read is not affected
+        assertEquals(payloads.subList(0, 99), read(createLog()));
+    }
+
+    @Test
+    public void testIgnoreCorruptedSegment() throws IOException {
+        appendRandomPayloads(100);
+        File segment = getSegments()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(10);
+            file.write(file.read() ^ 0xff);
+        }
+
+        assertTrue(read(createLog()).isEmpty());
+        assertEquals(0, getSegments().length);
+    }
+
+    private List<PersistableNetworkPayload> appendRandomPayloads(int numPayloads) {
+        SegmentedPayloadLog log = createLog();
+        read(log);
+        List<PersistableNetworkPayload> payloads = new ArrayList<>();
+        for (int i = 0; i < numPayloads; i++) {
+            PersistableNetworkPayload payload = new MockPersistableNetworkPayload(RandomUtils.nextBytes(20));
+            log.append(payload);
+            payloads.add(payload);
+        }
+        log.shutDown();
+        return payloads;
+    }
+
+    private List<PersistableNetworkPayload> read(SegmentedPayloadLog log) {
+        List<PersistableNetworkPayload> result = new ArrayList<>();
+        log.read(result::add);
+        return result;
+    }
+
+    private File[] getSegments() {
+        return Arrays.stream(Objects.requireNonNull(dir.listFiles()))
+                .filter(file -> file.getName().endsWith(".log"))
+                .toArray(File[]::new);
+    }
+
+    private SegmentedPayloadLog createLog() {
+        return new SegmentedPayloadLog(dir, new PersistenceProtoResolver() {
+            @Override
+            public PersistableEnvelope fromProto(PB.PersistableEnvelope persistable) {
+                return null;
+            }
+
+            @Override
+            public Payload fromProto(PB.PaymentAccountPayload proto) {
+                return null;
+            }
+
+            @Override
+            public PersistableEnvelope fromProto(PB.PersistableNetworkPayload proto) {
+                return MockPersistableNetworkPayload.fromProto(proto);
+            }
+        });
+    }
+}